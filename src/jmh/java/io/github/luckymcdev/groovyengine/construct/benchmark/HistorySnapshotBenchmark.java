@@ -0,0 +1,111 @@
+/*
+ * Copyright 2025 LuckyMcDev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.luckymcdev.groovyengine.construct.benchmark;
+
+import io.github.luckymcdev.groovyengine.construct.core.history.HistoryJournal;
+import io.github.luckymcdev.groovyengine.construct.core.history.HistorySnapshot;
+import io.github.luckymcdev.groovyengine.construct.core.region.CuboidRegion;
+import io.github.luckymcdev.groovyengine.construct.core.region.RegionCursor;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.block.state.BlockState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Captures the blocks of a cube into a {@link HistoryJournal} step, as an edit does before placing, and
+ * reads a stored step back, as an undo does. The journal lives in a temporary directory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2G")
+public class HistorySnapshotBenchmark {
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int blocks;
+
+    private final BlockState[] states = new BlockState[4];
+    private Path directory;
+    private HistoryJournal journal;
+    private CuboidRegion region;
+    private HistorySnapshot stored;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        int edge = (int) Math.round(Math.cbrt(blocks));
+        region = CuboidRegion.of(BlockPos.ZERO, new BlockPos(edge - 1, edge - 1, edge - 1));
+        for (int i = 0; i < states.length; i++) {
+            states[i] = MockStates.get(i);
+        }
+
+        directory = Files.createTempDirectory("construct-history");
+        journal = HistoryJournal.open(directory.resolve("history.journal"));
+        stored = capture();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        journal.close();
+        Files.deleteIfExists(directory.resolve("history.journal"));
+        Files.deleteIfExists(directory);
+    }
+
+    /**
+     * Appends a step holding the blocks of the cube, changing state every 8 blocks so runs stay short.
+     */
+    private HistorySnapshot capture() throws IOException {
+        HistorySnapshot.Builder builder = journal.append();
+        RegionCursor cursor = region.cursor();
+        for (int i = 0; cursor.advance(); i++) {
+            builder.add(cursor.asLong(), states[(i >> 3) & 3]);
+        }
+        return builder.build();
+    }
+
+    @Benchmark
+    public long captureStep() throws IOException {
+        long size = capture().size();
+        journal.pop();
+        return size;
+    }
+
+    @Benchmark
+    public void restoreStep(Blackhole blackhole) throws IOException {
+        stored.forEach((pos, state) -> {
+            blackhole.consume(pos);
+            blackhole.consume(state);
+        });
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2025 LuckyMcDev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.luckymcdev.groovyengine.construct.benchmark;
+
+import net.minecraft.core.Registry;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockBehaviour;
+import net.minecraft.world.level.block.state.BlockState;
+
+/**
+ * Block states for benchmarks that run without a game.
+ * <p>
+ * The game is never bootstrapped; instead a few plain blocks are created and registered under the
+ * {@code benchmark} namespace, and their states are given ids, so patterns can hand them out, the
+ * placement queue can encode them and history steps can write and parse them back like real states.
+ * Nothing else about them is set up, so they only suit code that compares, stores and serializes states.
+ */
+final class MockStates {
+    private static final BlockState[] STATES = create(8);
+
+    private MockStates() {}
+
+    /**
+     * Gets one of the mock states.
+     *
+     * @param index The index of the state, below 8
+     */
+    static BlockState get(int index) {
+        return STATES[index];
+    }
+
+    private static BlockState[] create(int count) {
+        BlockState[] states = new BlockState[count];
+        for (int i = 0; i < count; i++) {
+            Block block = new Block(BlockBehaviour.Properties.of());
+            Registry.register(BuiltInRegistries.BLOCK, ResourceLocation.fromNamespaceAndPath("benchmark", "block_" + i), block);
+            states[i] = block.defaultBlockState();
+            Block.BLOCK_STATE_REGISTRY.add(states[i]);
+        }
+        return states;
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2025 LuckyMcDev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.luckymcdev.groovyengine.construct.benchmark;
+
+import io.github.luckymcdev.groovyengine.construct.core.pattern.BlockPattern;
+import io.github.luckymcdev.groovyengine.construct.core.region.CuboidRegion;
+import io.github.luckymcdev.groovyengine.construct.core.region.RegionCursor;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.block.state.BlockState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the two ways of evaluating a {@link BlockPattern.NoisePattern}: one noise sample per block
+ * through {@link BlockPattern#getBlockState}, and the batched {@link BlockPattern#fillBlockStates}, which
+ * interpolates between lattice samples when the scale is below one block. Below one block, a single
+ * sample interpolates eight lattice hashes, so {@link #baseline} measures the evaluation the pattern
+ * had before it was interpolated: one hash per block.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2G")
+public class NoisePatternBenchmark {
+    private static final int BATCH_SIZE = 4096;
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int blocks;
+
+    @Param({"0.05", "1.0"})
+    public double scale;
+
+    private final long[] positions = new long[BATCH_SIZE];
+    private final BlockState[] states = new BlockState[BATCH_SIZE];
+    private CuboidRegion region;
+    private BlockPattern pattern;
+
+    @Setup
+    public void setup() {
+        int edge = (int) Math.round(Math.cbrt(blocks));
+        region = CuboidRegion.of(BlockPos.ZERO, new BlockPos(edge - 1, edge - 1, edge - 1));
+        pattern = new BlockPattern.NoisePattern(MockStates.get(0), MockStates.get(1), scale, 0.5);
+    }
+
+    @Benchmark
+    public void perBlock(Blackhole blackhole) {
+        Random random = new Random(0);
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        RegionCursor cursor = region.cursor();
+        while (cursor.advance()) {
+            blackhole.consume(pattern.getBlockState(pos.set(cursor.x(), cursor.y(), cursor.z()), BlockPos.ZERO, random));
+        }
+    }
+
+    @Benchmark
+    public void baseline(Blackhole blackhole) {
+        BlockState primary = MockStates.get(0), secondary = MockStates.get(1);
+        RegionCursor cursor = region.cursor();
+        while (cursor.advance()) {
+            double noise = hash(cursor.x() * scale, cursor.y() * scale, cursor.z() * scale);
+            blackhole.consume(noise > 0.5 ? primary : secondary);
+        }
+    }
+
+    @Benchmark
+    public void batched(Blackhole blackhole) {
+        Random random = new Random(0);
+        RegionCursor cursor = region.cursor();
+        int count = 0;
+        while (cursor.advance()) {
+            positions[count++] = cursor.asLong();
+            if (count == BATCH_SIZE) {
+                pattern.fillBlockStates(positions, count, BlockPos.ZERO, random, states);
+                blackhole.consume(states);
+                count = 0;
+            }
+        }
+        if (count > 0) {
+            pattern.fillBlockStates(positions, count, BlockPos.ZERO, random, states);
+            blackhole.consume(states);
+        }
+    }
+
+    /**
+     * The noise hash of {@link BlockPattern.NoisePattern}, which is private to it.
+     */
+    private static double hash(double x, double y, double z) {
+        double n = Math.sin(x * 12.9898 + y * 78.233 + z * 37.719) * 43758.5453;
+        return (n - Math.floor(n)) * 2.0 - 1.0;
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2025 LuckyMcDev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.luckymcdev.groovyengine.construct.benchmark;
+
+import io.github.luckymcdev.groovyengine.construct.core.pattern.BlockPattern;
+import io.github.luckymcdev.groovyengine.construct.core.region.CuboidRegion;
+import io.github.luckymcdev.groovyengine.construct.core.region.RegionCursor;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.block.state.BlockState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluates each pattern over a cube the way the block placer does: the region's cursor is drained a
+ * section at a time and every batch goes through {@link BlockPattern#fillBlockStates}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2G")
+public class PatternBenchmark {
+    private static final int BATCH_SIZE = 4096;
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int blocks;
+
+    @Param({"SINGLE", "RANDOM", "CHECKERBOARD", "LAYERED", "GRADIENT", "WEIGHTED", "NOISE", "STRIPE"})
+    public String pattern;
+
+    private final long[] positions = new long[BATCH_SIZE];
+    private final BlockState[] states = new BlockState[BATCH_SIZE];
+    private CuboidRegion region;
+    private BlockPattern blockPattern;
+
+    @Setup
+    public void setup() {
+        int edge = (int) Math.round(Math.cbrt(blocks));
+        region = CuboidRegion.of(BlockPos.ZERO, new BlockPos(edge - 1, edge - 1, edge - 1));
+
+        BlockState a = MockStates.get(0), b = MockStates.get(1), c = MockStates.get(2);
+        blockPattern = switch (pattern) {
+            case "SINGLE" -> new BlockPattern.SingleBlockPattern(a);
+            case "RANDOM" -> new BlockPattern.RandomPattern(a, b, c);
+            case "CHECKERBOARD" -> new BlockPattern.CheckerboardPattern(a, b, 2);
+            case "LAYERED" -> new BlockPattern.LayeredPattern(a, b, 3);
+            case "GRADIENT" -> {
+                BlockPattern.GradientPattern gradient = new BlockPattern.GradientPattern(a, b);
+                gradient.setBounds(region.getMinPos(), region.getMaxPos());
+                yield gradient;
+            }
+            case "WEIGHTED" -> new BlockPattern.WeightedPattern(Map.of(a, 0.6f, b, 0.3f, c, 0.1f));
+            case "NOISE" -> new BlockPattern.NoisePattern(a, b, 0.1, 0.5);
+            case "STRIPE" -> new BlockPattern.StripePattern(a, b, 2, BlockPattern.StripePattern.Axis.X);
+            default -> throw new IllegalArgumentException("Unknown pattern " + pattern);
+        };
+    }
+
+    @Benchmark
+    public void fill(Blackhole blackhole) {
+        Random random = new Random(0);
+        RegionCursor cursor = region.cursor();
+        int count = 0;
+        while (cursor.advance()) {
+            positions[count++] = cursor.asLong();
+            if (count == BATCH_SIZE) {
+                blockPattern.fillBlockStates(positions, count, BlockPos.ZERO, random, states);
+                blackhole.consume(states);
+                count = 0;
+            }
+        }
+        if (count > 0) {
+            blockPattern.fillBlockStates(positions, count, BlockPos.ZERO, random, states);
+            blackhole.consume(states);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2025 LuckyMcDev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.luckymcdev.groovyengine.construct.benchmark;
+
+import io.github.luckymcdev.groovyengine.construct.core.placement.PlacementQueue;
+import io.github.luckymcdev.groovyengine.construct.core.region.CuboidRegion;
+import io.github.luckymcdev.groovyengine.construct.core.region.RegionCursor;
+import net.minecraft.core.BlockPos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fills a {@link PlacementQueue} with the blocks of a cube, one entry at a time or a section batch at a
+ * time, and drains it in the batches the placer polls per tick. Entries are raw words, so no block state
+ * registry is involved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2G")
+public class PlacementQueueBenchmark {
+    private static final int OFFER_BATCH = 4096;
+    private static final int POLL_BATCH = 64;
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int blocks;
+
+    private long[] positions;
+    private int[] words;
+    private final long[] polledPositions = new long[POLL_BATCH];
+    private final int[] polledWords = new int[POLL_BATCH];
+
+    @Setup
+    public void setup() {
+        int edge = (int) Math.round(Math.cbrt(blocks));
+        CuboidRegion region = CuboidRegion.of(BlockPos.ZERO, new BlockPos(edge - 1, edge - 1, edge - 1));
+        positions = new long[Math.toIntExact(region.size())];
+        words = new int[positions.length];
+
+        RegionCursor cursor = region.cursor();
+        for (int i = 0; cursor.advance(); i++) {
+            positions[i] = cursor.asLong();
+            // A few distinct states, some with updates, like a patterned fill
+            words[i] = (i & 7) % 3 == 0 ? (i & 3) | PlacementQueue.UPDATE_FLAG : i & 3;
+        }
+    }
+
+    @Benchmark
+    public long offerAndDrain() {
+        PlacementQueue queue = new PlacementQueue();
+        for (int i = 0; i < positions.length; i++) {
+            queue.offer(positions[i], words[i]);
+        }
+        return drain(queue);
+    }
+
+    @Benchmark
+    public long offerAllAndDrain() {
+        PlacementQueue queue = new PlacementQueue();
+        long[] batchPositions = new long[OFFER_BATCH];
+        int[] batchWords = new int[OFFER_BATCH];
+        for (int i = 0; i < positions.length; i += OFFER_BATCH) {
+            int count = Math.min(OFFER_BATCH, positions.length - i);
+            System.arraycopy(positions, i, batchPositions, 0, count);
+            System.arraycopy(words, i, batchWords, 0, count);
+            queue.offerAll(batchPositions, batchWords, count);
+        }
+        return drain(queue);
+    }
+
+    private long drain(PlacementQueue queue) {
+        long sum = 0;
+        while (!queue.isEmpty()) {
+            int count = queue.poll(polledPositions, polledWords, POLL_BATCH);
+            for (int i = 0; i < count; i++) {
+                sum += polledPositions[i] ^ polledWords[i];
+            }
+        }
+        return sum;
+    }
+}
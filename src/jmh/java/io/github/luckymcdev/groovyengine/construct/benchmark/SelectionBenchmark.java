@@ -0,0 +1,95 @@
+/*
+ * Copyright 2025 LuckyMcDev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.luckymcdev.groovyengine.construct.benchmark;
+
+import io.github.luckymcdev.groovyengine.construct.core.region.Region;
+import io.github.luckymcdev.groovyengine.construct.core.region.RegionCursor;
+import io.github.luckymcdev.groovyengine.construct.core.selection.Selection;
+import net.minecraft.core.BlockPos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Iterates the views of a cubic {@link Selection} through a cursor, as packed positions and as
+ * {@link BlockPos} objects. The size is the number of blocks of the whole selection.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2G")
+public class SelectionBenchmark {
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int blocks;
+
+    @Param({"FULL", "SURFACE", "HOLLOW", "WALLS", "EDGES"})
+    public String view;
+
+    private Region region;
+
+    @Setup
+    public void setup() {
+        int edge = (int) Math.round(Math.cbrt(blocks));
+        Selection selection = new Selection();
+        selection.setPos1(new BlockPos(-edge / 2, 0, -edge / 2));
+        selection.setPos2(new BlockPos(-edge / 2 + edge - 1, edge - 1, -edge / 2 + edge - 1));
+
+        region = switch (view) {
+            case "FULL" -> selection.getSelectedBlocks();
+            case "SURFACE" -> selection.getSurfaceBlocks();
+            case "HOLLOW" -> selection.getHollowBlocks(2);
+            case "WALLS" -> selection.getWallBlocks();
+            case "EDGES" -> selection.getEdgeBlocks();
+            default -> throw new IllegalArgumentException("Unknown view " + view);
+        };
+    }
+
+    @Benchmark
+    public long cursor() {
+        RegionCursor cursor = region.cursor();
+        long sum = 0;
+        while (cursor.advance()) {
+            sum += cursor.x() ^ cursor.y() ^ cursor.z();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public void packed(Blackhole blackhole) {
+        region.forEachPacked(blackhole::consume);
+    }
+
+    @Benchmark
+    public void iterator(Blackhole blackhole) {
+        for (BlockPos pos : region) {
+            blackhole.consume(pos.getX());
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2025 LuckyMcDev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.luckymcdev.groovyengine.construct.benchmark;
+
+import io.github.luckymcdev.groovyengine.construct.core.region.Region;
+import io.github.luckymcdev.groovyengine.construct.core.region.RegionCursor;
+import io.github.luckymcdev.groovyengine.construct.core.shape.Shape;
+import net.minecraft.core.BlockPos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates each shape and walks or counts its blocks. The size is the volume of the shape's bounding box,
+ * so solid and hollow variants of one size cover the same space.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2G")
+public class ShapeBenchmark {
+    private static final BlockPos CENTER = new BlockPos(0, 64, 0);
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int blocks;
+
+    @Param({"SPHERE", "HOLLOW_SPHERE", "CYLINDER", "HOLLOW_CYLINDER", "PYRAMID"})
+    public String shape;
+
+    private int radius;
+
+    @Setup
+    public void setup() {
+        radius = Math.max(1, (int) Math.round(Math.cbrt(blocks) / 2));
+    }
+
+    private Region create() {
+        BlockPos top = CENTER.above(2 * radius - 1);
+        return switch (shape) {
+            case "SPHERE" -> Shape.sphere(CENTER, radius);
+            case "HOLLOW_SPHERE" -> Shape.hollowSphere(CENTER, radius, 1);
+            case "CYLINDER" -> Shape.cylinder(CENTER, top, radius);
+            case "HOLLOW_CYLINDER" -> Shape.hollowCylinder(CENTER, top, radius, 1);
+            case "PYRAMID" -> Shape.pyramid(CENTER, radius, 2 * radius);
+            default -> throw new IllegalArgumentException("Unknown shape " + shape);
+        };
+    }
+
+    @Benchmark
+    public long iterate() {
+        RegionCursor cursor = create().cursor();
+        long sum = 0;
+        while (cursor.advance()) {
+            sum += cursor.asLong();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long size() {
+        return create().size();
+    }
+}
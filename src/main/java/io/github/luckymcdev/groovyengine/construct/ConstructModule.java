@@ -19,6 +19,7 @@ package io.github.luckymcdev.groovyengine.construct;
 import io.github.luckymcdev.groovyengine.GE;
 import io.github.luckymcdev.groovyengine.construct.client.editor.ConstructChanges;
 import io.github.luckymcdev.groovyengine.construct.client.editor.ConstructEditorWindow;
+import io.github.luckymcdev.groovyengine.construct.network.ConstructNetwork;
 import io.github.luckymcdev.groovyengine.construct.registry.ConstructRegistry;
 import io.github.luckymcdev.groovyengine.core.client.editor.core.window.WindowManager;
 import io.github.luckymcdev.groovyengine.core.client.imgui.icon.ImIcons;
@@ -41,6 +42,7 @@ public class ConstructModule implements Module {
         GE.CONSTRUCT_LOG.info("Construct Initialization");
 
         ConstructRegistry.register(modEventBus);
+        modEventBus.addListener(ConstructNetwork::register);
     }
 
     /**
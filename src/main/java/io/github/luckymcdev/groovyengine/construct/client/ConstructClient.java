@@ -0,0 +1,200 @@
+/*
+ * Copyright 2025 LuckyMcDev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.luckymcdev.groovyengine.construct.client;
+
+import io.github.luckymcdev.groovyengine.GE;
+import io.github.luckymcdev.groovyengine.construct.core.operation.ConstructOperation;
+import io.github.luckymcdev.groovyengine.construct.core.placement.PlacementJob;
+import io.github.luckymcdev.groovyengine.construct.network.ClipboardPayload;
+import io.github.luckymcdev.groovyengine.construct.network.HistoryRequestPayload;
+import io.github.luckymcdev.groovyengine.construct.network.ImportPayload;
+import io.github.luckymcdev.groovyengine.construct.network.JobControlPayload;
+import io.github.luckymcdev.groovyengine.construct.network.OperationPayload;
+import io.github.luckymcdev.groovyengine.construct.network.StagingPayload;
+import io.github.luckymcdev.groovyengine.construct.network.StatusPayload;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.multiplayer.ClientPacketListener;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.world.level.block.Mirror;
+import net.minecraft.world.level.block.Rotation;
+import net.neoforged.api.distmarker.Dist;
+import net.neoforged.api.distmarker.OnlyIn;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.client.event.ClientPlayerNetworkEvent;
+import net.neoforged.neoforge.network.PacketDistributor;
+
+/**
+ * The client side of Construct: sends operations, job controls, history requests, clipboard actions,
+ * schematic imports and staging requests to the server and keeps the last status the server reported.
+ * <p>
+ * Operations run on the server, whether it is the integrated one or a dedicated one, so this only ever
+ * sends what to do. Requests are dropped when the server does not run Construct.
+ */
+@EventBusSubscriber(value = Dist.CLIENT)
+@OnlyIn(Dist.CLIENT)
+public class ConstructClient {
+    private static volatile StatusPayload status = StatusPayload.EMPTY;
+
+    private ConstructClient() {}
+
+    /**
+     * Called when the server reports a new status.
+     */
+    public static void onStatus(StatusPayload payload) {
+        status = payload;
+    }
+
+    @SubscribeEvent
+    public static void onLoggingOut(ClientPlayerNetworkEvent.LoggingOut event) {
+        status = StatusPayload.EMPTY;
+    }
+
+    /**
+     * Gets the last status the server reported, or an empty status if there was none on this server.
+     */
+    public static StatusPayload getStatus() {
+        return status;
+    }
+
+    /**
+     * Checks if the server the client is connected to runs Construct.
+     */
+    public static boolean isAvailable() {
+        ClientPacketListener connection = Minecraft.getInstance().getConnection();
+        return connection != null && connection.hasChannel(OperationPayload.TYPE);
+    }
+
+    /**
+     * Sends an operation to run on the server.
+     *
+     * @return Whether the operation was sent
+     */
+    public static boolean send(ConstructOperation operation) {
+        return send(new OperationPayload(operation));
+    }
+
+    public static void pause(int jobId) {
+        send(JobControlPayload.of(JobControlPayload.Action.PAUSE, jobId));
+    }
+
+    public static void resume(int jobId) {
+        send(JobControlPayload.of(JobControlPayload.Action.RESUME, jobId));
+    }
+
+    public static void cancel(int jobId) {
+        send(JobControlPayload.of(JobControlPayload.Action.CANCEL, jobId));
+    }
+
+    /**
+     * Cancels every job of this player.
+     */
+    public static void cancelAll() {
+        send(JobControlPayload.of(JobControlPayload.Action.CANCEL_ALL, 0));
+    }
+
+    public static void setPriority(int jobId, PlacementJob.Priority priority) {
+        send(new JobControlPayload(JobControlPayload.Action.SET_PRIORITY, jobId, priority));
+    }
+
+    public static void undo() {
+        send(new HistoryRequestPayload(HistoryRequestPayload.Action.UNDO));
+    }
+
+    public static void redo() {
+        send(new HistoryRequestPayload(HistoryRequestPayload.Action.REDO));
+    }
+
+    public static void clearHistory() {
+        send(new HistoryRequestPayload(HistoryRequestPayload.Action.CLEAR));
+    }
+
+    /**
+     * Copies the blocks between two corners into the clipboard, to be pasted relative to the first one.
+     */
+    public static void copy(BlockPos pos1, BlockPos pos2) {
+        send(ClipboardPayload.copy(pos1, pos2));
+    }
+
+    /**
+     * Pastes the clipboard with its origin at a position.
+     */
+    public static void paste(BlockPos at, boolean skipAir) {
+        send(ClipboardPayload.paste(at, skipAir));
+    }
+
+    public static void rotateClipboard(Rotation rotation) {
+        send(ClipboardPayload.rotate(rotation));
+    }
+
+    public static void flipClipboard(Mirror mirror) {
+        send(ClipboardPayload.flip(mirror));
+    }
+
+    public static void saveClipboard(String name) {
+        send(ClipboardPayload.of(ClipboardPayload.Action.SAVE, name));
+    }
+
+    public static void loadClipboard(String name) {
+        send(ClipboardPayload.of(ClipboardPayload.Action.LOAD, name));
+    }
+
+    public static void clearClipboard() {
+        send(ClipboardPayload.of(ClipboardPayload.Action.CLEAR, ""));
+    }
+
+    /**
+     * Imports a schematic from the server's schematics folder with its minimum corner at a position.
+     *
+     * @param name The file name of the schematic, a vanilla structure ({@code .nbt}) or Sponge schematic ({@code .schem})
+     */
+    public static void importSchematic(String name, BlockPos at, boolean skipAir) {
+        send(new ImportPayload(name, at, skipAir));
+    }
+
+    /**
+     * Starts staging: operations sent from now on are applied to an edit on the server instead of the world,
+     * until it is committed or discarded.
+     */
+    public static void beginStaging() {
+        send(new StagingPayload(StagingPayload.Action.BEGIN));
+    }
+
+    /**
+     * Writes the staged edit to the world as one undo step.
+     */
+    public static void commitStaging() {
+        send(new StagingPayload(StagingPayload.Action.COMMIT));
+    }
+
+    /**
+     * Discards the staged edit, leaving the world as it was.
+     */
+    public static void rollbackStaging() {
+        send(new StagingPayload(StagingPayload.Action.ROLLBACK));
+    }
+
+    private static boolean send(CustomPacketPayload payload) {
+        if (!isAvailable()) {
+            GE.CONSTRUCT_LOG.warn("The server does not run Construct, dropped {}", payload.type().id());
+            return false;
+        }
+        PacketDistributor.sendToServer(payload);
+        return true;
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright 2025 LuckyMcDev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.luckymcdev.groovyengine.construct.client;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.status.ChunkStatus;
+import net.minecraft.world.phys.Vec3;
+import net.neoforged.api.distmarker.Dist;
+import net.neoforged.api.distmarker.OnlyIn;
+import org.joml.Vector3f;
+
+/**
+ * Picks the first solid block along a ray through the loaded chunks of the client level, far beyond the
+ * reach distance of the vanilla hit result.
+ * <p>
+ * The ray visits every block it passes through in order (Amanatides and Woo's voxel traversal). Sections
+ * that are empty or not loaded are crossed in a single jump to the face the ray leaves them through, so a
+ * ray over open terrain costs a few steps per section rather than per block. Air and fluids are passed
+ * through. A raycast keeps its state in fields and allocates nothing while casting, so one instance can be
+ * cast every frame; it must only be used on the render thread.
+ */
+@OnlyIn(Dist.CLIENT)
+public final class VoxelRaycast {
+    private final BlockPos.MutableBlockPos hitPos = new BlockPos.MutableBlockPos();
+    private Direction hitFace = Direction.UP;
+    private boolean hit;
+
+    // Traversal state of the current cast
+    private int x, y, z;
+    private int stepX, stepY, stepZ;
+    private double tMaxX, tMaxY, tMaxZ;
+    private double tDeltaX, tDeltaY, tDeltaZ;
+    private double t;
+    private Direction face;
+
+    /**
+     * Casts a ray from the camera along its look direction, up to the render distance.
+     *
+     * @return Whether a block was hit
+     */
+    public boolean castFromCamera(Minecraft minecraft) {
+        ClientLevel level = minecraft.level;
+        if (level == null) return hit = false;
+
+        Vec3 origin = minecraft.gameRenderer.getMainCamera().getPosition();
+        Vector3f look = minecraft.gameRenderer.getMainCamera().getLookVector();
+        double maxDistance = SectionPos.sectionToBlockCoord(minecraft.options.getEffectiveRenderDistance());
+        return cast(level, origin.x, origin.y, origin.z, look.x(), look.y(), look.z(), maxDistance);
+    }
+
+    /**
+     * Casts a ray and remembers the first block it hits.
+     *
+     * @param level       The level to cast through
+     * @param originX     The X coordinate the ray starts at
+     * @param originY     The Y coordinate the ray starts at
+     * @param originZ     The Z coordinate the ray starts at
+     * @param dirX        The X component of the ray direction
+     * @param dirY        The Y component of the ray direction
+     * @param dirZ        The Z component of the ray direction
+     * @param maxDistance How far the ray reaches, in blocks
+     * @return Whether a block was hit
+     */
+    public boolean cast(ClientLevel level, double originX, double originY, double originZ,
+                        double dirX, double dirY, double dirZ, double maxDistance) {
+        hit = false;
+        double length = Math.sqrt(dirX * dirX + dirY * dirY + dirZ * dirZ);
+        if (length == 0) return false;
+        dirX /= length;
+        dirY /= length;
+        dirZ /= length;
+
+        x = (int) Math.floor(originX);
+        y = (int) Math.floor(originY);
+        z = (int) Math.floor(originZ);
+        stepX = (int) Math.signum(dirX);
+        stepY = (int) Math.signum(dirY);
+        stepZ = (int) Math.signum(dirZ);
+        tDeltaX = stepX != 0 ? Math.abs(1 / dirX) : Double.POSITIVE_INFINITY;
+        tDeltaY = stepY != 0 ? Math.abs(1 / dirY) : Double.POSITIVE_INFINITY;
+        tDeltaZ = stepZ != 0 ? Math.abs(1 / dirZ) : Double.POSITIVE_INFINITY;
+        tMaxX = stepX != 0 ? (stepX > 0 ? x + 1 - originX : originX - x) * tDeltaX : Double.POSITIVE_INFINITY;
+        tMaxY = stepY != 0 ? (stepY > 0 ? y + 1 - originY : originY - y) * tDeltaY : Double.POSITIVE_INFINITY;
+        tMaxZ = stepZ != 0 ? (stepZ > 0 ? z + 1 - originZ : originZ - z) * tDeltaZ : Double.POSITIVE_INFINITY;
+        t = 0;
+        face = Direction.UP;
+
+        int minY = level.getMinBuildHeight(), maxY = level.getMaxBuildHeight();
+        long sectionKey = Long.MIN_VALUE;
+        LevelChunkSection section = null;
+        while (t <= maxDistance) {
+            // Outside the build height and moving away from it, nothing can be hit anymore
+            if ((y < minY && stepY <= 0) || (y >= maxY && stepY >= 0)) return false;
+
+            long key = SectionPos.asLong(x >> 4, y >> 4, z >> 4);
+            if (key != sectionKey) {
+                sectionKey = key;
+                section = getSection(level, x >> 4, y, z >> 4);
+            }
+
+            if (section == null || section.hasOnlyAir()) {
+                skipSection();
+                continue;
+            }
+
+            BlockState state = section.getBlockState(x & 15, y & 15, z & 15);
+            if (!state.isAir() && !state.liquid()) {
+                hitPos.set(x, y, z);
+                hitFace = face;
+                return hit = true;
+            }
+            step();
+        }
+        return false;
+    }
+
+    /**
+     * Checks if the last cast hit a block.
+     */
+    public boolean hasHit() {
+        return hit;
+    }
+
+    /**
+     * Gets the block the last cast hit. Only valid if it hit one; the position is reused by the next cast.
+     */
+    public BlockPos getHitPos() {
+        return hitPos;
+    }
+
+    /**
+     * Gets the face of the hit block the ray entered through.
+     */
+    public Direction getHitFace() {
+        return hitFace;
+    }
+
+    private static LevelChunkSection getSection(ClientLevel level, int chunkX, int y, int chunkZ) {
+        ChunkAccess chunk = level.getChunkSource().getChunk(chunkX, chunkZ, ChunkStatus.FULL, false);
+        if (chunk == null) return null;
+
+        int index = chunk.getSectionIndex(y);
+        return index >= 0 && index < chunk.getSectionsCount() ? chunk.getSection(index) : null;
+    }
+
+    /**
+     * Moves to the next block along the ray.
+     */
+    private void step() {
+        if (tMaxX < tMaxY && tMaxX < tMaxZ) {
+            t = tMaxX;
+            x += stepX;
+            tMaxX += tDeltaX;
+            face = stepX > 0 ? Direction.WEST : Direction.EAST;
+        } else if (tMaxY < tMaxZ) {
+            t = tMaxY;
+            y += stepY;
+            tMaxY += tDeltaY;
+            face = stepY > 0 ? Direction.DOWN : Direction.UP;
+        } else {
+            t = tMaxZ;
+            z += stepZ;
+            tMaxZ += tDeltaZ;
+            face = stepZ > 0 ? Direction.NORTH : Direction.SOUTH;
+        }
+    }
+
+    /**
+     * Moves to the first block past the current section, in one jump. Each axis is advanced by the number
+     * of block boundaries the ray crosses on it before it leaves the section.
+     */
+    private void skipSection() {
+        // The number of blocks each axis can still step within the section
+        int leftX = stepX > 0 ? 15 - (x & 15) : x & 15;
+        int leftY = stepY > 0 ? 15 - (y & 15) : y & 15;
+        int leftZ = stepZ > 0 ? 15 - (z & 15) : z & 15;
+        double exitX = tMaxX + leftX * tDeltaX;
+        double exitY = tMaxY + leftY * tDeltaY;
+        double exitZ = tMaxZ + leftZ * tDeltaZ;
+        double exit = Math.min(exitX, Math.min(exitY, exitZ));
+
+        int movesX = crossings(tMaxX, tDeltaX, exit, leftX);
+        int movesY = crossings(tMaxY, tDeltaY, exit, leftY);
+        int movesZ = crossings(tMaxZ, tDeltaZ, exit, leftZ);
+        x += movesX * stepX;
+        y += movesY * stepY;
+        z += movesZ * stepZ;
+        tMaxX += movesX * tDeltaX;
+        tMaxY += movesY * tDeltaY;
+        tMaxZ += movesZ * tDeltaZ;
+        t = exit;
+        // The boundaries the ray crossed are behind it now; the next one leaves the section
+        step();
+    }
+
+    /**
+     * Counts the block boundaries of one axis the ray crosses before a distance, at most {@code limit}.
+     */
+    private static int crossings(double tMax, double tDelta, double before, int limit) {
+        if (tMax >= before) return 0;
+        return (int) Math.min(limit, Math.ceil((before - tMax) / tDelta));
+    }
+}
@@ -17,14 +17,23 @@
 package io.github.luckymcdev.groovyengine.construct.client.editor;
 
 import imgui.ImGuiIO;
+import imgui.type.ImBoolean;
 import imgui.type.ImInt;
 import imgui.type.ImString;
 import io.github.luckymcdev.groovyengine.GE;
+import io.github.luckymcdev.groovyengine.construct.client.ConstructClient;
+import io.github.luckymcdev.groovyengine.construct.client.VoxelRaycast;
 import io.github.luckymcdev.groovyengine.construct.client.rendering.SelectionRenderer;
-import io.github.luckymcdev.groovyengine.construct.core.history.HistoryManager;
+import io.github.luckymcdev.groovyengine.construct.core.mask.MaskDescriptor;
+import io.github.luckymcdev.groovyengine.construct.core.operation.ConstructOperation;
 import io.github.luckymcdev.groovyengine.construct.core.pattern.BlockPattern;
-import io.github.luckymcdev.groovyengine.construct.core.placement.AsyncBlockPlacer;
+import io.github.luckymcdev.groovyengine.construct.core.pattern.PatternDescriptor;
+import io.github.luckymcdev.groovyengine.construct.core.placement.PlacementJob;
+import io.github.luckymcdev.groovyengine.construct.core.region.FloodFill;
 import io.github.luckymcdev.groovyengine.construct.core.selection.Selection;
+import io.github.luckymcdev.groovyengine.construct.network.ClipboardPayload;
+import io.github.luckymcdev.groovyengine.construct.network.ImportPayload;
+import io.github.luckymcdev.groovyengine.construct.network.StatusPayload;
 import io.github.luckymcdev.groovyengine.core.client.editor.core.window.EditorWindow;
 import io.github.luckymcdev.groovyengine.core.client.imgui.ImGe;
 import io.github.luckymcdev.groovyengine.core.client.imgui.icon.ImIcons;
@@ -34,10 +43,14 @@ import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.Mirror;
+import net.minecraft.world.level.block.Rotation;
 import net.neoforged.api.distmarker.Dist;
 import net.neoforged.api.distmarker.OnlyIn;
 import net.neoforged.neoforge.common.NeoForge;
 
+import java.util.List;
+
 @OnlyIn(Dist.CLIENT)
 public class ConstructEditorWindow extends EditorWindow {
 
@@ -48,9 +61,12 @@ public class ConstructEditorWindow extends EditorWindow {
     private static final String[] SHAPE_TYPES = {
             "Fill", "Hollow", "Walls", "Outline", "Sphere", "Cylinder"
     };
+    private static final String[] CONNECTIVITY_TYPES = {
+            "6 (Faces)", "18 (Edges)", "26 (Corners)"
+    };
     private final Selection selectionManager = new Selection();
-    private final AsyncBlockPlacer blockPlacer = AsyncBlockPlacer.getInstance();
-    private final HistoryManager historyManager = new HistoryManager();
+    private final SelectionRenderer selectionRenderer = new SelectionRenderer(selectionManager);
+    private final VoxelRaycast raycast = new VoxelRaycast();
     // UI State
     private final ImString blockIdInput = new ImString("minecraft:stone", 256);
     private final ImString pos1Display = new ImString("Not set", 50);
@@ -65,17 +81,34 @@ public class ConstructEditorWindow extends EditorWindow {
     private final ImInt shapeType = new ImInt(0);
     private final ImInt hollowThickness = new ImInt(1);
     private final ImInt sphereRadius = new ImInt(5);
+    // Flood fill controls
+    private final ImString floodThrough = new ImString("minecraft:water", 256);
+    private final ImInt floodConnectivity = new ImInt(0);
+    // Clipboard controls
+    private final ImBoolean pasteSkipAir = new ImBoolean(false);
+    private final ImString clipboardName = new ImString("build", ClipboardPayload.MAX_NAME_LENGTH);
+    private final ImString importName = new ImString("structure.nbt", ImportPayload.MAX_NAME_LENGTH);
 
     public ConstructEditorWindow() {
         super(ImIcons.WRENCH.get() + " Construct Editor");
-        NeoForge.EVENT_BUS.register(new SelectionRenderer(selectionManager));
+        NeoForge.EVENT_BUS.register(selectionRenderer);
+    }
+
+    @Override
+    public void onOpen() {
+        selectionRenderer.setHoverPreview(true);
+    }
+
+    @Override
+    public void onClose() {
+        selectionRenderer.setHoverPreview(false);
     }
 
     /**
      * Renders the Construct Editor window.
      * This method is called every frame to update the UI and handle user interactions.
      * It renders a window with multiple sections including selection information, pattern configuration,
-     * shape options, operation controls, history management, and statistics.
+     * shape options, operation controls, the clipboard, history management, and statistics.
      *
      * @param io the ImGui IO context for handling input/output operations
      * @see ImGuiIO
@@ -83,15 +116,28 @@ public class ConstructEditorWindow extends EditorWindow {
     @Override
     public void render(ImGuiIO io) {
         ImGe.window(title, () -> {
+            renderError();
             renderSelectionSection();
             renderPatternSection();
             renderShapeSection();
             renderOperationsSection();
+            renderClipboardSection();
             renderHistorySection();
+            renderJobsSection();
             renderStatsSection();
         });
     }
 
+    /**
+     * Shows why the player's last action was rejected or failed on the server, until their next action.
+     */
+    private void renderError() {
+        String error = ConstructClient.getStatus().error();
+        if (error.isEmpty()) return;
+        ImGe.textColored(0xFF5555FF, ImIcons.ERROR.get() + " " + error);
+        ImGe.separator();
+    }
+
     /**
      * Renders the selection section in the Construct Editor window.
      * This section displays information about the current selection and provides buttons to set the position 1 and 2, clear the selection, and expand the selection.
@@ -204,6 +250,8 @@ public class ConstructEditorWindow extends EditorWindow {
     /**
      * Renders the Operations section of the Construct Editor window.
      * This section includes buttons to execute a queued operation, clear the current selection, and replace blocks in the selection.
+     * Flood fills spread from Pos1 through connected blocks, and while staging, operations are collected
+     * on the server and written together on commit, or discarded.
      */
     private void renderOperationsSection() {
         if (ImGe.collapsingHeader("Operations", true)) {
@@ -214,7 +262,83 @@ public class ConstructEditorWindow extends EditorWindow {
             ImGe.separator();
 
             if (ImGe.button("Replace Blocks")) replaceBlocks();
-            ImGe.helpMarker("Replace primary block with secondary block in selection");
+            ImGe.helpMarker("Replace primary blocks with secondary block in selection. Primary may list blocks and #tags, separated by commas");
+
+            ImGe.separator();
+
+            ImGe.inputText("Flood Through", floodThrough);
+            ImGe.combo("Connectivity", floodConnectivity, CONNECTIVITY_TYPES);
+            if (ImGe.button("Flood Fill from Pos1")) floodFill();
+            ImGe.helpMarker("Fills the blocks connected to Pos1 that match the listed blocks and #tags, such as a lake or a cave, with the pattern");
+
+            ImGe.separator();
+
+            StatusPayload.StagingStatus staging = ConstructClient.getStatus().staging();
+            if (!staging.active()) {
+                if (ImGe.button("Begin Staging")) ConstructClient.beginStaging();
+                ImGe.helpMarker("Operations are collected without touching the world until they are committed as one undo step");
+            } else {
+                if (ImGe.button("Commit (" + staging.blocks() + " blocks)")) ConstructClient.commitStaging();
+                ImGe.sameLine();
+                if (ImGe.button("Discard")) ConstructClient.rollbackStaging();
+                ImGe.text(staging.busy() ? "Staging operations..." : "Staging");
+            }
+        }
+    }
+
+    /**
+     * Renders the Clipboard section of the Construct Editor window.
+     * This section copies the selection relative to Pos1, pastes at Pos1, rotates and flips the clipboard
+     * and saves it to or loads it from a named file on the server. Schematics of other tools are imported
+     * from the same folder.
+     */
+    private void renderClipboardSection() {
+        if (ImGe.collapsingHeader("Clipboard", true)) {
+            StatusPayload.ClipboardStatus clipboard = ConstructClient.getStatus().clipboard();
+            if (clipboard.busy()) ImGe.beginDisabled();
+
+            if (ImGe.button("Copy Selection") && selectionManager.hasValidSelection()) {
+                ConstructClient.copy(selectionManager.getPos1(), selectionManager.getPos2());
+            }
+            ImGe.helpMarker("Copies the selection; it is pasted relative to Pos1");
+
+            if (!clipboard.present()) ImGe.beginDisabled();
+            if (ImGe.button("Paste at Pos1") && selectionManager.getPos1() != null) {
+                ConstructClient.paste(selectionManager.getPos1(), pasteSkipAir.get());
+            }
+            ImGe.sameLine();
+            ImGe.checkbox("Skip Air", pasteSkipAir);
+
+            if (ImGe.button("Rotate 90")) ConstructClient.rotateClipboard(Rotation.CLOCKWISE_90);
+            ImGe.sameLine();
+            if (ImGe.button("Flip X")) ConstructClient.flipClipboard(Mirror.FRONT_BACK);
+            ImGe.sameLine();
+            if (ImGe.button("Flip Z")) ConstructClient.flipClipboard(Mirror.LEFT_RIGHT);
+            ImGe.sameLine();
+            if (ImGe.button("Clear Clipboard")) ConstructClient.clearClipboard();
+            if (!clipboard.present()) ImGe.endDisabled();
+
+            ImGe.inputText("Name", clipboardName);
+            if (!clipboard.present()) ImGe.beginDisabled();
+            if (ImGe.button("Save")) ConstructClient.saveClipboard(clipboardName.get());
+            if (!clipboard.present()) ImGe.endDisabled();
+            ImGe.sameLine();
+            if (ImGe.button("Load")) ConstructClient.loadClipboard(clipboardName.get());
+            ImGe.helpMarker("Clipboards are saved in the server's GroovyEngine/construct/schematics folder");
+
+            if (clipboard.busy()) ImGe.endDisabled();
+
+            ImGe.separator();
+            ImGe.inputText("Schematic", importName);
+            if (ImGe.button("Import at Pos1") && selectionManager.getPos1() != null) {
+                ConstructClient.importSchematic(importName.get(), selectionManager.getPos1(), pasteSkipAir.get());
+            }
+            ImGe.helpMarker("Imports a vanilla structure (.nbt) or Sponge schematic (.schem) from the schematics folder, with its corner at Pos1");
+
+            if (clipboard.busy()) ImGe.text("Working...");
+            ImGe.text(clipboard.present()
+                    ? "Clipboard: " + clipboard.sizeX() + " x " + clipboard.sizeY() + " x " + clipboard.sizeZ()
+                    : "Clipboard: Empty");
         }
     }
 
@@ -225,8 +349,9 @@ public class ConstructEditorWindow extends EditorWindow {
      */
     private void renderHistorySection() {
         if (ImGe.collapsingHeader("History", true)) {
-            boolean canUndo = historyManager.canUndo();
-            boolean canRedo = historyManager.canRedo();
+            StatusPayload.HistoryStatus history = ConstructClient.getStatus().history();
+            boolean canUndo = history.canUndo();
+            boolean canRedo = history.canRedo();
 
             if (!canUndo) ImGe.beginDisabled();
             if (ImGe.button("Undo")) undo();
@@ -239,44 +364,87 @@ public class ConstructEditorWindow extends EditorWindow {
             if (!canRedo) ImGe.endDisabled();
 
             ImGe.sameLine();
-            if (ImGe.button("Clear History")) historyManager.clearHistory();
+            if (ImGe.button("Clear History")) ConstructClient.clearHistory();
 
-            ImGe.text("History Size: " + historyManager.getHistorySize());
+            ImGe.text("History Size: " + history.size());
+            ImGe.text("History on Disk: " + GE.DECIMAL_2.format(history.bytes() / (1024.0 * 1024.0)) + " MB");
+            if (history.busy()) ImGe.text("Recording pending changes...");
             ImGe.text("Can Undo: " + (canUndo ? "Yes" : "No"));
             ImGe.text("Can Redo: " + (canRedo ? "Yes" : "No"));
         }
     }
 
+    /**
+     * Renders the Jobs section of the Construct Editor window.
+     * Lists every unfinished placement job of this player with its progress and ETA, as last reported by
+     * the server, and buttons to pause, resume, cancel and change the priority of each job.
+     */
+    private void renderJobsSection() {
+        if (ImGe.collapsingHeader("Jobs", true)) {
+            List<StatusPayload.JobStatus> jobs = ConstructClient.getStatus().jobs();
+            if (jobs.isEmpty()) ImGe.text("No running jobs");
+
+            for (StatusPayload.JobStatus job : jobs) {
+                ImGe.pushID(job.id());
+                ImGe.text("#" + job.id() + " " + job.name() + " (" + job.dimension() + ") - " + job.state());
+
+                long eta = job.etaMillis();
+                String progress = job.placed() + " / " + job.total()
+                        + (eta >= 0 ? ", ETA " + GE.DECIMAL_2.format(eta / 1000.0) + " s" : "");
+                ImGe.progressBar(job.getProgress(), 300, 20, progress);
+
+                if (job.isPaused()) {
+                    if (ImGe.button("Resume")) ConstructClient.resume(job.id());
+                } else {
+                    if (ImGe.button("Pause")) ConstructClient.pause(job.id());
+                }
+                ImGe.sameLine();
+                if (ImGe.button("Cancel")) ConstructClient.cancel(job.id());
+                ImGe.sameLine();
+                if (ImGe.button("Priority: " + job.priority())) {
+                    PlacementJob.Priority[] priorities = PlacementJob.Priority.values();
+                    ConstructClient.setPriority(job.id(), priorities[(job.priority().ordinal() + 1) % priorities.length]);
+                }
+                ImGe.popID();
+            }
+        }
+    }
+
     /**
      * Renders the Statistics section of the Construct Editor window.
-     * Displays the current queue sizes, blocks per tick, updates per tick, and current FPS.
-     * Also includes a button to clear the queues.
+     * Displays the server's current queue sizes, blocks per tick and tick budget usage, and the current FPS.
+     * Also includes a button to cancel this player's jobs.
      */
     private void renderStatsSection() {
         if (ImGe.collapsingHeader("Statistics", true)) {
-            ImGe.text("Queued Placements: " + blockPlacer.getQueuedPlacements());
-            ImGe.text("Queued Updates: " + blockPlacer.getQueuedUpdates());
+            StatusPayload.EngineStats engine = ConstructClient.getStatus().engine();
+            if (!ConstructClient.isAvailable()) ImGe.text("The server does not run Construct");
+            ImGe.text("Preparing Operations: " + engine.preparingOperations());
+            ImGe.text("Queued Placements: " + engine.queuedPlacements());
+            ImGe.text("Queued Updates: " + engine.queuedUpdates());
             ImGe.separator();
-            ImGe.text("Blocks/Tick: " + blockPlacer.getBlocksPerTick());
-            ImGe.text("Updates/Tick: " + blockPlacer.getUpdatesPerTick());
+            ImGe.text("Blocks/Tick: " + engine.blocksPerTick());
+            ImGe.text("Pending Light Checks: " + engine.pendingLightChecks());
+            ImGe.text("Tick Budget: " + GE.DECIMAL_2.format(engine.budgetNanos() / 1_000_000.0) + " ms");
+            ImGe.text("Tick Spent: " + GE.DECIMAL_2.format(engine.spentNanos() / 1_000_000.0) + " ms");
             ImGe.text("FPS: " + Minecraft.getInstance().getFps());
 
-            ImGe.button("Clear Queue", blockPlacer::clearQueues);
+            ImGe.button("Cancel All Jobs", ConstructClient::cancelAll);
         }
     }
 
     /**
      * Sets the current position of the player to either Pos1 or Pos2, depending on the value of pos1.
-     * The position is determined by the block that the player is currently looking at.
-     * If the player is not looking at a block, or if the level is null, does nothing.
+     * The position is determined by the block that the camera is currently looking at, up to the render distance.
+     * If the camera is not looking at a block, or if the level is null, does nothing.
      * Updates the position displays after setting the position.
      *
      * @param pos1 If true, sets the position to Pos1. If false, sets the position to Pos2.
      */
     private void setPositionFromLookingAt(boolean pos1) {
-        if (mc.hitResult == null || mc.level == null) return;
+        if (!raycast.castFromCamera(mc)) return;
 
-        BlockPos pos = BlockPos.containing(mc.hitResult.getLocation());
+        BlockPos pos = raycast.getHitPos().immutable();
         if (pos1) selectionManager.setPos1(pos);
         else selectionManager.setPos2(pos);
 
@@ -299,8 +467,8 @@ public class ConstructEditorWindow extends EditorWindow {
      * Executes the current shape operation on the selection area.
      * If the selection area is not valid, prints an error message and returns.
      * If the pattern cannot be created, returns without performing the operation.
-     * Saves the current state of blocks before performing the operation.
-     * Applies the shape transformation to the selection area.
+     * Applies the shape transformation to the selection area on the server, which records the blocks
+     * the operation changes for undo.
      */
     private void executeOperation() {
         if (!selectionManager.hasValidSelection()) {
@@ -308,16 +476,27 @@ public class ConstructEditorWindow extends EditorWindow {
             return;
         }
 
-        BlockPattern pattern = createPattern();
+        PatternDescriptor pattern = describePattern();
         if (pattern == null) return;
 
-        // Save current state for undo
-        historyManager.saveState(selectionManager);
-
         // Apply shape transformation
         applyShapeOperation(pattern);
     }
 
+    /**
+     * Creates the pattern configured in the editor and describes it for the server.
+     *
+     * @return The descriptor of the pattern, or null if the pattern cannot be created or sent.
+     */
+    private PatternDescriptor describePattern() {
+        BlockPattern pattern = createPattern();
+        if (pattern == null) return null;
+
+        PatternDescriptor descriptor = pattern.describe();
+        if (descriptor == null) GE.CONSTRUCT_LOG.warn("Pattern {} cannot be sent to the server", pattern.getClass().getSimpleName());
+        return descriptor;
+    }
+
     /**
      * Creates a BlockPattern based on the current values of the blockIdInput, patternType, and other relevant inputs.
      * The created pattern is then used to perform the shape operation.
@@ -415,70 +594,75 @@ public class ConstructEditorWindow extends EditorWindow {
     /**
      * Applies a shape operation on the current selection using the given pattern.
      * The type of operation is determined by the current value of shapeType.
-     * Saves the current state before performing the operation.
      *
-     * @param pattern The BlockPattern to use when performing the operation
+     * @param pattern The pattern to use when performing the operation
      */
-    private void applyShapeOperation(BlockPattern pattern) {
-        int currentShape = shapeType.get();
-
-        switch (currentShape) {
-            case 0: // Fill
-                blockPlacer.fillSelection(selectionManager, pattern);
-                break;
-
-            case 1: // Hollow
-                blockPlacer.fillHollow(selectionManager, pattern, hollowThickness.get());
-                break;
-
-            case 2: // Walls
-                blockPlacer.fillWalls(selectionManager, pattern);
-                break;
-
-            case 3: // Outline
-                blockPlacer.fillOutline(selectionManager, pattern);
-                break;
-
-            default:
-                blockPlacer.fillSelection(selectionManager, pattern);
-                break;
+    private void applyShapeOperation(PatternDescriptor pattern) {
+        ConstructOperation.Type type = switch (shapeType.get()) {
+            case 1 -> ConstructOperation.Type.HOLLOW;
+            case 2 -> ConstructOperation.Type.WALLS;
+            case 3 -> ConstructOperation.Type.OUTLINE;
+            default -> ConstructOperation.Type.FILL;
+        };
+
+        if (ConstructClient.send(ConstructOperation.cuboid(type, selectionManager.getPos1(), selectionManager.getPos2(),
+                hollowThickness.get(), pattern))) {
+            System.out.println("Started operation on " + selectionManager.getSelectionSize() + " blocks");
         }
-
-        System.out.println("Started operation on " + selectionManager.getSelectionSize() + " blocks");
     }
 
     /**
      * Clears the current selection by replacing all blocks with air.
-     * Saves the current state before performing the operation.
      */
     private void clearSelection() {
         if (!selectionManager.hasValidSelection()) return;
 
-        historyManager.saveState(selectionManager);
-
-        BlockPattern pattern = new BlockPattern.SingleBlockPattern(Blocks.AIR);
-        blockPlacer.fillSelection(selectionManager, pattern);
-
-        System.out.println("Started clearing " + selectionManager.getSelectionSize() + " blocks");
+        PatternDescriptor pattern = new BlockPattern.SingleBlockPattern(Blocks.AIR).describe();
+        if (ConstructClient.send(ConstructOperation.cuboid(ConstructOperation.Type.FILL, selectionManager.getPos1(),
+                selectionManager.getPos2(), 0, pattern))) {
+            System.out.println("Started clearing " + selectionManager.getSelectionSize() + " blocks");
+        }
     }
 
     /**
-     * Replaces all blocks of one type with another in a selection.
-     * Saves the current state before performing the operation.
+     * Replaces all blocks matching the primary input with the secondary block in a selection.
+     * The primary input may list several blocks and {@code #tags}, separated by commas.
      */
     private void replaceBlocks() {
         if (!selectionManager.hasValidSelection()) return;
 
-        Block targetBlock = parseBlock(blockIdInput.get());
+        MaskDescriptor targetMask = MaskDescriptor.parse(blockIdInput.get());
+        if (targetMask == null) System.out.println("Invalid blocks to replace: " + blockIdInput.get());
         Block replacementBlock = parseBlock(secondaryBlockInput.get());
 
-        if (targetBlock == null || replacementBlock == null) return;
+        if (targetMask == null || replacementBlock == null) return;
 
-        historyManager.saveState(selectionManager);
+        if (ConstructClient.send(ConstructOperation.replace(selectionManager.getPos1(), selectionManager.getPos2(),
+                targetMask, replacementBlock.defaultBlockState()))) {
+            System.out.println("Replacing " + blockIdInput.get() + " with " + secondaryBlockInput.get());
+        }
+    }
+
+    /**
+     * Sends a flood fill from Pos1 through the blocks listed in the flood input, filled with the configured pattern.
+     */
+    private void floodFill() {
+        BlockPos seed = selectionManager.getPos1();
+        if (seed == null) {
+            System.out.println("Set Pos1 first!");
+            return;
+        }
 
-        blockPlacer.replaceBlocks(selectionManager, targetBlock, replacementBlock);
+        MaskDescriptor through = MaskDescriptor.parse(floodThrough.get());
+        if (through == null) {
+            System.out.println("Invalid blocks to flood through: " + floodThrough.get());
+            return;
+        }
+        PatternDescriptor pattern = describePattern();
+        if (pattern == null) return;
 
-        System.out.println("Replacing " + blockIdInput.get() + " with " + secondaryBlockInput.get());
+        FloodFill.Connectivity connectivity = FloodFill.Connectivity.values()[floodConnectivity.get()];
+        ConstructClient.send(ConstructOperation.floodFill(seed, through, connectivity, pattern));
     }
 
     /**
@@ -507,14 +691,12 @@ public class ConstructEditorWindow extends EditorWindow {
             return;
         }
 
-        BlockPattern pattern = createPattern();
+        PatternDescriptor pattern = describePattern();
         if (pattern == null) return;
 
-        historyManager.saveState(selectionManager);
-
-        blockPlacer.createSphere(center, sphereRadius.get(), pattern);
-
-        System.out.println("Creating sphere with radius " + sphereRadius.get());
+        if (ConstructClient.send(ConstructOperation.sphere(center, sphereRadius.get(), 0, pattern))) {
+            System.out.println("Creating sphere with radius " + sphereRadius.get());
+        }
     }
 
     /**
@@ -528,15 +710,13 @@ public class ConstructEditorWindow extends EditorWindow {
             return;
         }
 
-        BlockPattern pattern = createPattern();
+        PatternDescriptor pattern = describePattern();
         if (pattern == null) return;
 
-        historyManager.saveState(selectionManager);
-
-        blockPlacer.createCylinder(selectionManager.getPos1(), selectionManager.getPos2(),
-                sphereRadius.get(), pattern);
-
-        System.out.println("Creating cylinder with radius " + sphereRadius.get());
+        if (ConstructClient.send(ConstructOperation.cylinder(selectionManager.getPos1(), selectionManager.getPos2(),
+                sphereRadius.get(), 0, pattern))) {
+            System.out.println("Creating cylinder with radius " + sphereRadius.get());
+        }
     }
 
     /**
@@ -546,10 +726,10 @@ public class ConstructEditorWindow extends EditorWindow {
      * If there are no operations to undo, this will do nothing.
      */
     private void undo() {
-        if (!historyManager.canUndo()) return;
+        if (!ConstructClient.getStatus().history().canUndo()) return;
 
-        historyManager.undo(blockPlacer);
-        System.out.println("Undo completed");
+        ConstructClient.undo();
+        System.out.println("Undo requested");
     }
 
     /**
@@ -558,10 +738,10 @@ public class ConstructEditorWindow extends EditorWindow {
      * @see #undo()
      */
     private void redo() {
-        if (!historyManager.canRedo()) return;
+        if (!ConstructClient.getStatus().history().canRedo()) return;
 
-        historyManager.redo(blockPlacer);
-        System.out.println("Redo completed");
+        ConstructClient.redo();
+        System.out.println("Redo requested");
     }
 
     /**
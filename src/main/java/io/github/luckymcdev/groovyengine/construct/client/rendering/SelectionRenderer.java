@@ -18,6 +18,7 @@ package io.github.luckymcdev.groovyengine.construct.client.rendering;
 
 import com.mojang.blaze3d.vertex.PoseStack;
 import com.mojang.blaze3d.vertex.VertexConsumer;
+import io.github.luckymcdev.groovyengine.construct.client.VoxelRaycast;
 import io.github.luckymcdev.groovyengine.construct.core.selection.Selection;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.renderer.LevelRenderer;
@@ -32,7 +33,8 @@ import net.neoforged.bus.api.SubscribeEvent;
 import net.neoforged.neoforge.client.event.RenderLevelStageEvent;
 
 /**
- * Responsible for rendering the selection box in the Construct Editor.
+ * Responsible for rendering the selection box in the Construct Editor, and the block under the crosshair
+ * while the editor is open.
  *
  * @author LuckYMojarto
  */
@@ -53,7 +55,10 @@ public class SelectionRenderer {
     private static final float SELECTION_GREEN = 1.0f;
     private static final float SELECTION_BLUE = 0.3f;
     private static final float SELECTION_ALPHA = 0.4f;
+    private static final float HOVER_ALPHA = 0.6f;
+    private final VoxelRaycast raycast = new VoxelRaycast();
     private Selection selection;
+    private boolean hoverPreview;
 
     /**
      * Constructs a new SelectionRenderer instance.
@@ -73,6 +78,15 @@ public class SelectionRenderer {
         this.selection = selection;
     }
 
+    /**
+     * Sets whether the block the camera looks at is outlined, up to the render distance.
+     *
+     * @param hoverPreview Whether to outline the hovered block.
+     */
+    public void setHoverPreview(boolean hoverPreview) {
+        this.hoverPreview = hoverPreview;
+    }
+
     /**
      * Renders the selection box on the Render Level Stage event.
      *
@@ -130,6 +144,11 @@ public class SelectionRenderer {
                     SELECTION_RED, SELECTION_GREEN, SELECTION_BLUE, SELECTION_ALPHA);
         }
 
+        // Shows which block Set Pos1 and Set Pos2 would pick
+        if (hoverPreview && raycast.castFromCamera(mc)) {
+            renderBlockOutline(poseStack, builder, raycast.getHitPos(), 1.0f, 1.0f, 1.0f, HOVER_ALPHA);
+        }
+
         bufferSource.endBatch(RenderType.lines());
         poseStack.popPose();
     }
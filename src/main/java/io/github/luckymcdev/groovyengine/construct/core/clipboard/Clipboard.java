@@ -0,0 +1,349 @@
+/*
+ * Copyright 2025 LuckyMcDev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.luckymcdev.groovyengine.construct.core.clipboard;
+
+import io.github.luckymcdev.groovyengine.GE;
+import io.github.luckymcdev.groovyengine.construct.core.placement.LoadedSections;
+import io.github.luckymcdev.groovyengine.construct.core.region.CuboidRegion;
+import io.github.luckymcdev.groovyengine.construct.core.region.RegionCursor;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMaps;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import net.minecraft.Util;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.core.Vec3i;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.BitStorage;
+import net.minecraft.util.Mth;
+import net.minecraft.util.SimpleBitStorage;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.Mirror;
+import net.minecraft.world.level.block.Rotation;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A copied box of blocks: a palette of states, one bit-packed palette index per block and the data of
+ * the block entities in it.
+ * <p>
+ * Blocks are indexed by {@code (y * sizeZ + z) * sizeX + x} in the box as it was copied. Rotating or
+ * flipping a clipboard only changes its {@link ClipboardTransform}; the returned clipboard shares the
+ * block data, and pasting maps every target position back to its source index on the fly.
+ * <p>
+ * Clipboards are immutable and can be read from any thread.
+ */
+public final class Clipboard {
+    private static final int MIN_BITS = 4;
+
+    private final int sizeX;
+    private final int sizeY;
+    private final int sizeZ;
+    private final BlockPos origin;
+    private final List<BlockState> palette;
+    private final BitStorage blocks;
+    private final Int2ObjectMap<CompoundTag> blockEntities;
+    private final ClipboardTransform transform;
+
+    /**
+     * @param sizeX         The width of the copied box
+     * @param sizeY         The height of the copied box
+     * @param sizeZ         The depth of the copied box
+     * @param origin        The position pasting is relative to, as an offset from the box's minimum corner
+     * @param palette       The states the blocks refer to
+     * @param blocks        The palette index of every block
+     * @param blockEntities The data of the block entities, by block index
+     * @param transform     The rotation and mirror applied when pasting
+     */
+    Clipboard(int sizeX, int sizeY, int sizeZ, BlockPos origin, List<BlockState> palette, BitStorage blocks,
+              Int2ObjectMap<CompoundTag> blockEntities, ClipboardTransform transform) {
+        if (blocks.getSize() != (long) sizeX * sizeY * sizeZ) {
+            throw new IllegalArgumentException("Expected " + (long) sizeX * sizeY * sizeZ + " blocks, got " + blocks.getSize());
+        }
+        this.sizeX = sizeX;
+        this.sizeY = sizeY;
+        this.sizeZ = sizeZ;
+        this.origin = origin;
+        this.palette = palette;
+        this.blocks = blocks;
+        this.blockEntities = blockEntities;
+        this.transform = transform;
+    }
+
+    /**
+     * Copies the blocks between two corners. The blocks are read on a background thread straight from
+     * the chunk sections; blocks of chunks that are not loaded are copied as air. The block entities are
+     * saved on the server thread afterwards.
+     *
+     * @param level  The level to copy from
+     * @param pos1   The first corner
+     * @param pos2   The second corner
+     * @param origin The position the copy will be pasted relative to
+     * @return A future completed on the server thread with the clipboard
+     */
+    public static CompletableFuture<Clipboard> copy(ServerLevel level, BlockPos pos1, BlockPos pos2, BlockPos origin) {
+        CuboidRegion region = CuboidRegion.of(pos1, pos2);
+        if (region.size() > Integer.MAX_VALUE) throw new IllegalArgumentException("Too many blocks to copy: " + region.size());
+
+        BlockPos min = region.getMinPos();
+        Builder builder = new Builder(region.getWidth(), region.getHeight(), region.getDepth(), origin.subtract(min));
+        return CompletableFuture.supplyAsync(() -> scan(level, region, builder), Util.backgroundExecutor())
+                .thenApplyAsync(blockEntities -> {
+                    BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+                    for (int i = 0; i < blockEntities.size(); i++) {
+                        int index = blockEntities.getInt(i);
+                        builder.getPosition(index, pos).move(min);
+                        BlockEntity blockEntity = level.getBlockEntity(pos);
+                        if (blockEntity != null) {
+                            builder.setBlockEntity(index, blockEntity.saveWithoutMetadata(level.registryAccess()));
+                        }
+                    }
+                    return builder.build();
+                }, level.getServer());
+    }
+
+    /**
+     * Reads the blocks of a region into a builder.
+     *
+     * @return The indices of the blocks that have block entities
+     */
+    private static IntArrayList scan(ServerLevel level, CuboidRegion region, Builder builder) {
+        LoadedSections sections = new LoadedSections(level);
+        IntArrayList blockEntities = new IntArrayList();
+        BlockPos min = region.getMinPos();
+        RegionCursor cursor = region.cursor();
+        long sectionKey = Long.MIN_VALUE;
+        LevelChunkSection section = null;
+        long missing = 0;
+
+        while (cursor.advance()) {
+            int x = cursor.x(), y = cursor.y(), z = cursor.z();
+            long key = SectionPos.asLong(x >> 4, y >> 4, z >> 4);
+            if (key != sectionKey) {
+                sectionKey = key;
+                section = sections.get(x >> 4, y >> 4, z >> 4);
+            }
+
+            int index = builder.index(x - min.getX(), y - min.getY(), z - min.getZ());
+            if (section == null) {
+                // Air is palette index 0, which every block starts with
+                if (!level.isOutsideBuildHeight(y)) missing++;
+                continue;
+            }
+
+            BlockState state = section.getBlockState(x & 15, y & 15, z & 15);
+            builder.set(index, state);
+            if (state.hasBlockEntity()) blockEntities.add(index);
+        }
+
+        if (missing > 0) GE.CONSTRUCT_LOG.warn("Copied {} blocks of unloaded chunks as air", missing);
+        return blockEntities;
+    }
+
+    /**
+     * Gets the size of the clipboard as it will be pasted, with X and Z swapped by quarter turns.
+     */
+    public Vec3i getSize() {
+        return transform.swapsAxes() ? new Vec3i(sizeZ, sizeY, sizeX) : new Vec3i(sizeX, sizeY, sizeZ);
+    }
+
+    /**
+     * Gets the size of the copied box, before the transform.
+     */
+    public Vec3i getSourceSize() {
+        return new Vec3i(sizeX, sizeY, sizeZ);
+    }
+
+    /**
+     * Gets the number of blocks in the clipboard, air included.
+     */
+    public int getVolume() {
+        return blocks.getSize();
+    }
+
+    /**
+     * Gets the position pasting is relative to, as an offset from the minimum corner of the copied box.
+     */
+    public BlockPos getOrigin() {
+        return origin;
+    }
+
+    public List<BlockState> getPalette() {
+        return palette;
+    }
+
+    /**
+     * Gets the bit-packed palette indices, see {@link Clipboard} for their order.
+     */
+    public BitStorage getBlocks() {
+        return blocks;
+    }
+
+    /**
+     * Gets the data of the block entities by block index.
+     */
+    public Int2ObjectMap<CompoundTag> getBlockEntities() {
+        return blockEntities;
+    }
+
+    public ClipboardTransform getTransform() {
+        return transform;
+    }
+
+    /**
+     * Gets a clipboard with the same blocks and the given transform.
+     */
+    public Clipboard withTransform(ClipboardTransform transform) {
+        if (!transform.isValid()) throw new IllegalArgumentException("Invalid transform " + transform);
+        return new Clipboard(sizeX, sizeY, sizeZ, origin, palette, blocks, blockEntities, transform);
+    }
+
+    /**
+     * Gets a clipboard that is rotated around its origin on top of the current transform.
+     */
+    public Clipboard rotate(Rotation rotation) {
+        return withTransform(transform.then(ClipboardTransform.of(rotation)));
+    }
+
+    /**
+     * Gets a clipboard that is mirrored through its origin on top of the current transform.
+     */
+    public Clipboard flip(Mirror mirror) {
+        return withTransform(transform.then(ClipboardTransform.of(mirror)));
+    }
+
+    /**
+     * Gets the palette with the transform applied to every state, so it is done once per state and not per block.
+     */
+    public BlockState[] getTransformedPalette() {
+        BlockState[] states = new BlockState[palette.size()];
+        for (int i = 0; i < states.length; i++) {
+            states[i] = transform.apply(palette.get(i));
+        }
+        return states;
+    }
+
+    /**
+     * Gets the box the clipboard covers when pasted with its origin at a position.
+     */
+    public CuboidRegion getPasteRegion(BlockPos at) {
+        int minX = -origin.getX(), minZ = -origin.getZ();
+        int maxX = sizeX - 1 - origin.getX(), maxZ = sizeZ - 1 - origin.getZ();
+        return CuboidRegion.of(
+                at.offset(transform.transformX(minX, minZ), -origin.getY(), transform.transformZ(minX, minZ)),
+                at.offset(transform.transformX(maxX, maxZ), sizeY - 1 - origin.getY(), transform.transformZ(maxX, maxZ)));
+    }
+
+    /**
+     * Gets the block that ends up at a target position when pasting at a position.
+     *
+     * @param at The position the origin is pasted at
+     * @return The block index, or -1 if the target is outside the pasted box
+     */
+    public int getSourceIndex(BlockPos at, int x, int y, int z) {
+        int dx = x - at.getX(), dz = z - at.getZ();
+        int sourceX = origin.getX() + transform.inverseX(dx, dz);
+        int sourceY = origin.getY() + y - at.getY();
+        int sourceZ = origin.getZ() + transform.inverseZ(dx, dz);
+        if (sourceX < 0 || sourceY < 0 || sourceZ < 0 || sourceX >= sizeX || sourceY >= sizeY || sourceZ >= sizeZ) return -1;
+        return (sourceY * sizeZ + sourceZ) * sizeX + sourceX;
+    }
+
+    /**
+     * Builds a clipboard block by block. Every block starts as air, and the bit width grows with the palette.
+     * A builder must only be used by one thread at a time.
+     */
+    public static final class Builder {
+        private final int sizeX;
+        private final int sizeY;
+        private final int sizeZ;
+        private final BlockPos origin;
+        private final List<BlockState> palette = new ArrayList<>();
+        private final Reference2IntOpenHashMap<BlockState> ids = new Reference2IntOpenHashMap<>();
+        private final Int2ObjectMap<CompoundTag> blockEntities = new Int2ObjectOpenHashMap<>();
+        private SimpleBitStorage blocks;
+
+        /**
+         * @param origin The position pasting is relative to, as an offset from the box's minimum corner
+         */
+        public Builder(int sizeX, int sizeY, int sizeZ, BlockPos origin) {
+            long volume = (long) sizeX * sizeY * sizeZ;
+            if (sizeX < 0 || sizeY < 0 || sizeZ < 0 || volume > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Invalid clipboard size " + sizeX + "x" + sizeY + "x" + sizeZ);
+            }
+            this.sizeX = sizeX;
+            this.sizeY = sizeY;
+            this.sizeZ = sizeZ;
+            this.origin = origin;
+            this.blocks = new SimpleBitStorage(MIN_BITS, (int) volume);
+            ids.defaultReturnValue(-1);
+            getId(Blocks.AIR.defaultBlockState());
+        }
+
+        public int index(int x, int y, int z) {
+            return (y * sizeZ + z) * sizeX + x;
+        }
+
+        /**
+         * Sets a position to the coordinates of a block index, relative to the minimum corner.
+         */
+        public BlockPos.MutableBlockPos getPosition(int index, BlockPos.MutableBlockPos pos) {
+            return pos.set(index % sizeX, index / sizeX / sizeZ, index / sizeX % sizeZ);
+        }
+
+        public void set(int index, BlockState state) {
+            blocks.set(index, getId(state));
+        }
+
+        public void setBlockEntity(int index, CompoundTag tag) {
+            blockEntities.put(index, tag);
+        }
+
+        private int getId(BlockState state) {
+            int id = ids.getInt(state);
+            if (id >= 0) return id;
+
+            id = palette.size();
+            palette.add(state);
+            ids.put(state, id);
+            if (id >= 1 << blocks.getBits()) resize(Mth.ceillog2(id + 1));
+            return id;
+        }
+
+        private void resize(int bits) {
+            SimpleBitStorage resized = new SimpleBitStorage(bits, blocks.getSize());
+            for (int i = 0; i < blocks.getSize(); i++) {
+                resized.set(i, blocks.get(i));
+            }
+            blocks = resized;
+        }
+
+        public Clipboard build() {
+            return new Clipboard(sizeX, sizeY, sizeZ, origin, Collections.unmodifiableList(palette), blocks,
+                    Int2ObjectMaps.unmodifiable(blockEntities), ClipboardTransform.IDENTITY);
+        }
+    }
+}
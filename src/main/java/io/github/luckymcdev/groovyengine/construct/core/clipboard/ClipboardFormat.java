@@ -0,0 +1,299 @@
+/*
+ * Copyright 2025 LuckyMcDev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.luckymcdev.groovyengine.construct.core.clipboard;
+
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import io.github.luckymcdev.groovyengine.GE;
+import io.github.luckymcdev.groovyengine.core.systems.structure.FileConstants;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import net.minecraft.commands.arguments.blocks.BlockStateParser;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.NbtAccounter;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.util.SimpleBitStorage;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reads and writes {@link Clipboard clipboards} as compact binary files.
+ * <p>
+ * A file holds a header with the size, origin and transform, the palette as serialized block states,
+ * the bit-packed block indices exactly as they are kept in memory and finally the block entities as
+ * uncompressed NBT. Files are streamed through a direct buffer, so saving and loading run at disk speed
+ * and need no memory beyond the clipboard itself. Files are written to a temporary file first and
+ * moved into place, so a failed save never leaves a broken file behind.
+ */
+public final class ClipboardFormat {
+    public static final String EXTENSION = ".gecb";
+    /**
+     * The folder clipboards are saved to. It is shared by all worlds, so builds can move between them.
+     */
+    public static final Path SCHEMATICS_DIR = FileConstants.MOD_ROOT.resolve("construct").resolve("schematics");
+
+    private static final int FILE_MAGIC = 0x47454342;
+    private static final int VERSION = 1;
+    private static final int BUFFER_BYTES = 1 << 20;
+    // Palette strings and block entity tags are far below this in practice
+    private static final int MAX_ENTRY_BYTES = BUFFER_BYTES;
+
+    private ClipboardFormat() {
+    }
+
+    /**
+     * Gets the file a clipboard with the given name is saved to.
+     */
+    public static Path resolve(String name) {
+        return SCHEMATICS_DIR.resolve(sanitizeName(name) + EXTENSION);
+    }
+
+    /**
+     * Turns a player-supplied name into a file name that stays inside the {@link #SCHEMATICS_DIR schematics folder}.
+     *
+     * @throws IllegalArgumentException If nothing usable is left of the name
+     */
+    public static String sanitizeName(String name) {
+        String sanitized = name.strip().replaceAll("[^a-zA-Z0-9._-]", "_");
+        if (sanitized.isEmpty() || sanitized.startsWith(".")) throw new IllegalArgumentException("Invalid file name: " + name);
+        return sanitized;
+    }
+
+    /**
+     * Writes a clipboard to a file, replacing it if it exists.
+     */
+    public static void write(Clipboard clipboard, Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            Writer writer = new Writer(channel);
+            ClipboardTransform transform = clipboard.getTransform();
+            BlockPos origin = clipboard.getOrigin();
+            writer.ensure(64)
+                    .putInt(FILE_MAGIC).putInt(VERSION)
+                    .putInt(clipboard.getSourceSize().getX()).putInt(clipboard.getSourceSize().getY()).putInt(clipboard.getSourceSize().getZ())
+                    .putInt(origin.getX()).putInt(origin.getY()).putInt(origin.getZ())
+                    .putInt(transform.xx()).putInt(transform.xz()).putInt(transform.zx()).putInt(transform.zz());
+
+            List<BlockState> palette = clipboard.getPalette();
+            writer.ensure(4).putInt(palette.size());
+            for (BlockState state : palette) {
+                writer.putBytes(BlockStateParser.serialize(state).getBytes(StandardCharsets.UTF_8));
+            }
+
+            long[] data = clipboard.getBlocks().getRaw();
+            writer.ensure(8).putInt(clipboard.getBlocks().getBits()).putInt(data.length);
+            writer.putLongs(data);
+
+            Int2ObjectMap<CompoundTag> blockEntities = clipboard.getBlockEntities();
+            writer.ensure(4).putInt(blockEntities.size());
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            for (Int2ObjectMap.Entry<CompoundTag> entry : blockEntities.int2ObjectEntrySet()) {
+                bytes.reset();
+                NbtIo.write(entry.getValue(), new DataOutputStream(bytes));
+                writer.ensure(4).putInt(entry.getIntKey());
+                writer.putBytes(bytes.toByteArray());
+            }
+            writer.flush();
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a clipboard from a file. States of blocks that no longer exist are read as air.
+     */
+    public static Clipboard read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Reader reader = new Reader(channel, file);
+            ByteBuffer header = reader.require(48);
+            if (header.getInt() != FILE_MAGIC || header.getInt() != VERSION) throw new IOException("Not a clipboard file: " + file);
+
+            int sizeX = header.getInt(), sizeY = header.getInt(), sizeZ = header.getInt();
+            BlockPos origin = new BlockPos(header.getInt(), header.getInt(), header.getInt());
+            ClipboardTransform transform = new ClipboardTransform(header.getInt(), header.getInt(), header.getInt(), header.getInt());
+            long volume = (long) sizeX * sizeY * sizeZ;
+            if (sizeX < 0 || sizeY < 0 || sizeZ < 0 || volume > Integer.MAX_VALUE || !transform.isValid()) {
+                throw new IOException("Corrupt clipboard header in " + file);
+            }
+
+            int paletteSize = reader.require(4).getInt();
+            if (paletteSize < 0 || paletteSize > Math.max(1, volume)) throw new IOException("Corrupt clipboard palette in " + file);
+            List<BlockState> palette = new ArrayList<>(paletteSize);
+            for (int i = 0; i < paletteSize; i++) {
+                String serialized = new String(reader.getBytes(), StandardCharsets.UTF_8);
+                try {
+                    palette.add(BlockStateParser.parseForBlock(BuiltInRegistries.BLOCK.asLookup(), serialized, false).blockState());
+                } catch (CommandSyntaxException e) {
+                    GE.CONSTRUCT_LOG.warn("Reading unknown block state {} in {} as air", serialized, file.getFileName());
+                    palette.add(Blocks.AIR.defaultBlockState());
+                }
+            }
+
+            ByteBuffer storage = reader.require(8);
+            int bits = storage.getInt();
+            int longCount = storage.getInt();
+            int valuesPerLong = bits < 1 || bits > 32 ? 0 : 64 / bits;
+            if (valuesPerLong == 0 || longCount != (volume + valuesPerLong - 1) / valuesPerLong) {
+                throw new IOException("Corrupt clipboard blocks in " + file);
+            }
+            long[] data = new long[longCount];
+            reader.getLongs(data);
+            SimpleBitStorage blocks;
+            try {
+                blocks = new SimpleBitStorage(bits, (int) volume, data);
+            } catch (RuntimeException e) {
+                throw new IOException("Corrupt clipboard blocks in " + file, e);
+            }
+            // Indices only need checking when the bit width allows values past the palette
+            if (paletteSize < 1L << bits) {
+                for (int i = 0; i < blocks.getSize(); i++) {
+                    if (blocks.get(i) >= paletteSize) throw new IOException("Corrupt clipboard blocks in " + file);
+                }
+            }
+
+            int blockEntityCount = reader.require(4).getInt();
+            Int2ObjectMap<CompoundTag> blockEntities = new Int2ObjectOpenHashMap<>(Math.max(0, blockEntityCount));
+            for (int i = 0; i < blockEntityCount; i++) {
+                int index = reader.require(4).getInt();
+                byte[] bytes = reader.getBytes();
+                if (index < 0 || index >= volume) throw new IOException("Corrupt clipboard block entity in " + file);
+                blockEntities.put(index, NbtIo.read(new DataInputStream(new ByteArrayInputStream(bytes)), NbtAccounter.unlimitedHeap()));
+            }
+
+            return new Clipboard(sizeX, sizeY, sizeZ, origin, Collections.unmodifiableList(palette), blocks,
+                    blockEntities, transform);
+        }
+    }
+
+    /**
+     * Lists the names of the saved clipboards.
+     */
+    public static List<String> list() throws IOException {
+        if (!Files.isDirectory(SCHEMATICS_DIR)) return List.of();
+        try (var files = Files.list(SCHEMATICS_DIR)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(EXTENSION))
+                    .map(name -> name.substring(0, name.length() - EXTENSION.length()))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    /**
+     * Writes through one direct buffer, which is flushed to the channel whenever it runs full.
+     */
+    private static final class Writer {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+
+        private Writer(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        private ByteBuffer ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) flush();
+            return buffer;
+        }
+
+        private void putBytes(byte[] bytes) throws IOException {
+            if (bytes.length > MAX_ENTRY_BYTES - 4) throw new IOException("Entry of " + bytes.length + " bytes is too large");
+            ensure(4 + bytes.length).putInt(bytes.length).put(bytes);
+        }
+
+        private void putLongs(long[] data) throws IOException {
+            for (int offset = 0; offset < data.length; ) {
+                if (buffer.remaining() < Long.BYTES) flush();
+                int count = Math.min(data.length - offset, buffer.remaining() / Long.BYTES);
+                buffer.asLongBuffer().put(data, offset, count);
+                buffer.position(buffer.position() + count * Long.BYTES);
+                offset += count;
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Reads through one direct buffer, which is refilled from the channel whenever a read needs more.
+     */
+    private static final class Reader {
+        private final FileChannel channel;
+        private final Path file;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).limit(0);
+
+        private Reader(FileChannel channel, Path file) {
+            this.channel = channel;
+            this.file = file;
+        }
+
+        /**
+         * Makes sure the buffer holds at least the given number of bytes.
+         */
+        private ByteBuffer require(int bytes) throws IOException {
+            if (buffer.remaining() >= bytes) return buffer;
+
+            buffer.compact();
+            while (buffer.position() < bytes) {
+                if (channel.read(buffer) < 0) throw new IOException("Unexpected end of " + file);
+            }
+            return buffer.flip();
+        }
+
+        private byte[] getBytes() throws IOException {
+            int length = require(4).getInt();
+            if (length < 0 || length > MAX_ENTRY_BYTES - 4) throw new IOException("Corrupt entry in " + file);
+            byte[] bytes = new byte[length];
+            require(length).get(bytes);
+            return bytes;
+        }
+
+        private void getLongs(long[] data) throws IOException {
+            for (int offset = 0; offset < data.length; ) {
+                require(Long.BYTES);
+                int count = Math.min(data.length - offset, buffer.remaining() / Long.BYTES);
+                buffer.asLongBuffer().get(data, offset, count);
+                buffer.position(buffer.position() + count * Long.BYTES);
+                offset += count;
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2025 LuckyMcDev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.luckymcdev.groovyengine.construct.core.clipboard;
+
+import net.minecraft.world.level.block.Mirror;
+import net.minecraft.world.level.block.Rotation;
+import net.minecraft.world.level.block.state.BlockState;
+
+/**
+ * A rotation about the Y axis, optionally combined with a mirror, as the 2x2 matrix it applies to the
+ * X and Z offsets of a block: {@code x' = xx * x + xz * z} and {@code z' = zx * x + zz * z}.
+ * <p>
+ * Transforms compose by multiplying their matrices, so any sequence of rotations and flips stays a single
+ * transform. The matrices are orthogonal, which makes the inverse the transpose: pasting maps every target
+ * position back to its source with a few multiplications instead of building a map of positions.
+ *
+ * @param xx The X factor of the new X offset
+ * @param xz The Z factor of the new X offset
+ * @param zx The X factor of the new Z offset
+ * @param zz The Z factor of the new Z offset
+ */
+public record ClipboardTransform(int xx, int xz, int zx, int zz) {
+    public static final ClipboardTransform IDENTITY = new ClipboardTransform(1, 0, 0, 1);
+    // Negates X, which is what Mirror.FRONT_BACK does to positions
+    private static final ClipboardTransform FRONT_BACK = new ClipboardTransform(-1, 0, 0, 1);
+
+    /**
+     * Gets the transform for a rotation.
+     */
+    public static ClipboardTransform of(Rotation rotation) {
+        return switch (rotation) {
+            case NONE -> IDENTITY;
+            case CLOCKWISE_90 -> new ClipboardTransform(0, -1, 1, 0);
+            case CLOCKWISE_180 -> new ClipboardTransform(-1, 0, 0, -1);
+            case COUNTERCLOCKWISE_90 -> new ClipboardTransform(0, 1, -1, 0);
+        };
+    }
+
+    /**
+     * Gets the transform for a mirror.
+     */
+    public static ClipboardTransform of(Mirror mirror) {
+        return switch (mirror) {
+            case NONE -> IDENTITY;
+            case LEFT_RIGHT -> new ClipboardTransform(1, 0, 0, -1);
+            case FRONT_BACK -> FRONT_BACK;
+        };
+    }
+
+    /**
+     * Gets the transform that applies this transform and then the given one.
+     */
+    public ClipboardTransform then(ClipboardTransform next) {
+        return new ClipboardTransform(
+                next.xx * xx + next.xz * zx, next.xx * xz + next.xz * zz,
+                next.zx * xx + next.zz * zx, next.zx * xz + next.zz * zz);
+    }
+
+    public int transformX(int x, int z) {
+        return xx * x + xz * z;
+    }
+
+    public int transformZ(int x, int z) {
+        return zx * x + zz * z;
+    }
+
+    public int inverseX(int x, int z) {
+        return xx * x + zx * z;
+    }
+
+    public int inverseZ(int x, int z) {
+        return xz * x + zz * z;
+    }
+
+    /**
+     * Checks if the transform swaps the X and Z axes, which swaps the width and depth of a clipboard.
+     */
+    public boolean swapsAxes() {
+        return xx == 0;
+    }
+
+    /**
+     * Checks if the transform is a valid combination of rotations and mirrors.
+     */
+    public boolean isValid() {
+        boolean straight = xz == 0 && zx == 0 && Math.abs(xx) == 1 && Math.abs(zz) == 1;
+        boolean swapped = xx == 0 && zz == 0 && Math.abs(xz) == 1 && Math.abs(zx) == 1;
+        return straight || swapped;
+    }
+
+    /**
+     * Transforms a block state the same way, so stairs, logs and the like keep facing the right way.
+     */
+    public BlockState apply(BlockState state) {
+        boolean mirrored = xx * zz - xz * zx < 0;
+        // A mirrored transform is FRONT_BACK followed by a rotation
+        ClipboardTransform rotation = mirrored ? FRONT_BACK.then(this) : this;
+        BlockState result = mirrored ? state.mirror(Mirror.FRONT_BACK) : state;
+        return result.rotate(rotation.getRotation());
+    }
+
+    private Rotation getRotation() {
+        for (Rotation rotation : Rotation.values()) {
+            if (of(rotation).equals(this)) return rotation;
+        }
+        throw new IllegalStateException("Not a rotation: " + this);
+    }
+}
@@ -0,0 +1,305 @@
+/*
+ * Copyright 2025 LuckyMcDev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.luckymcdev.groovyengine.construct.core.edit;
+
+import io.github.luckymcdev.groovyengine.construct.core.mask.BlockMask;
+import io.github.luckymcdev.groovyengine.construct.core.pattern.BlockPattern;
+import io.github.luckymcdev.groovyengine.construct.core.placement.AsyncBlockPlacer;
+import io.github.luckymcdev.groovyengine.construct.core.placement.LoadedSections;
+import io.github.luckymcdev.groovyengine.construct.core.placement.PlacementPipeline;
+import io.github.luckymcdev.groovyengine.construct.core.placement.PlacementQueue;
+import io.github.luckymcdev.groovyengine.construct.core.region.Region;
+import io.github.luckymcdev.groovyengine.construct.core.region.RegionCursor;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrays;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.Mth;
+import net.minecraft.util.SimpleBitStorage;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Stages block changes in memory and writes them to the world in one pass, or drops them.
+ * <p>
+ * Changes are kept in a sparse overlay: one small palette and bit-packed index array per touched chunk
+ * section, where index 0 means the block is unchanged. Reads go through the overlay first, so every step of
+ * a chain sees the steps before it, and fall back to the level for untouched blocks. Layering several
+ * operations on the same blocks therefore costs one world write per block on {@link #commit}, instead of
+ * one per operation, and a chain that fails halfway leaves the world untouched once it is
+ * {@link #rollback() rolled back}.
+ * <p>
+ * The level is read through the chunk sections of loaded chunks, which works from any thread; blocks of
+ * unloaded chunks read as air. A session is not thread-safe: it must be used by one thread at a time,
+ * handing it over with a happens-before edge, such as a chain of futures.
+ */
+public class EditSession {
+    private static final int SECTION_BLOCKS = 4096;
+    private static final int BATCH_SIZE = 4096;
+
+    private final ServerLevel level;
+    private final LoadedSections sections;
+    private final Long2ObjectOpenHashMap<SectionOverlay> overlays = new Long2ObjectOpenHashMap<>();
+    private final Random random = new Random();
+    // Read by other threads for status reports
+    private volatile long changedBlocks;
+    private volatile boolean closed;
+
+    public EditSession(ServerLevel level) {
+        this.level = level;
+        this.sections = new LoadedSections(level);
+    }
+
+    public ServerLevel getLevel() {
+        return level;
+    }
+
+    /**
+     * Gets the number of blocks staged so far, counting each block once no matter how often it was set.
+     */
+    public long getChangedBlocks() {
+        return changedBlocks;
+    }
+
+    /**
+     * Checks if the session was committed or rolled back, after which it takes no more changes.
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Gets the state of a block as the session sees it: the staged state, or the level's state if the
+     * block is unchanged.
+     */
+    public BlockState getBlockState(int x, int y, int z) {
+        SectionOverlay overlay = overlays.get(SectionPos.asLong(x >> 4, y >> 4, z >> 4));
+        if (overlay != null) {
+            BlockState staged = overlay.get(index(x, y, z));
+            if (staged != null) return staged;
+        }
+
+        LevelChunkSection section = sections.get(x >> 4, y >> 4, z >> 4);
+        return section != null ? section.getBlockState(x & 15, y & 15, z & 15) : Blocks.AIR.defaultBlockState();
+    }
+
+    public BlockState getBlockState(BlockPos pos) {
+        return getBlockState(pos.getX(), pos.getY(), pos.getZ());
+    }
+
+    /**
+     * Stages a block change. Positions outside the level's build height are ignored.
+     */
+    public void setBlock(int x, int y, int z, BlockState state) {
+        checkOpen();
+        if (level.isOutsideBuildHeight(y)) return;
+
+        long key = SectionPos.asLong(x >> 4, y >> 4, z >> 4);
+        SectionOverlay overlay = overlays.get(key);
+        if (overlay == null) {
+            overlay = new SectionOverlay();
+            overlays.put(key, overlay);
+        }
+        if (overlay.set(index(x, y, z), state)) changedBlocks++;
+    }
+
+    public void setBlock(BlockPos pos, BlockState state) {
+        setBlock(pos.getX(), pos.getY(), pos.getZ(), state);
+    }
+
+    /**
+     * Stages every position of a region with blocks from a pattern, evaluated a section batch at a time.
+     *
+     * @param region  the positions to fill
+     * @param pattern the pattern to fill the region with
+     * @param origin  the position the pattern is evaluated relative to
+     */
+    public void fill(Region region, BlockPattern pattern, BlockPos origin) {
+        checkOpen();
+        long[] positions = new long[BATCH_SIZE];
+        BlockState[] states = new BlockState[BATCH_SIZE];
+        RegionCursor cursor = region.cursor();
+        boolean more = cursor.advance();
+
+        while (more) {
+            int count = 0;
+            int sectionX = cursor.x() >> 4, sectionY = cursor.y() >> 4, sectionZ = cursor.z() >> 4;
+            do {
+                positions[count++] = cursor.asLong();
+                more = cursor.advance();
+            } while (more && count < BATCH_SIZE && cursor.x() >> 4 == sectionX
+                    && cursor.y() >> 4 == sectionY && cursor.z() >> 4 == sectionZ);
+
+            pattern.fillBlockStates(positions, count, origin, random, states);
+            for (int i = 0; i < count; i++) {
+                long pos = positions[i];
+                setBlock(BlockPos.getX(pos), BlockPos.getY(pos), BlockPos.getZ(pos), states[i]);
+            }
+        }
+    }
+
+    /**
+     * Stages a replacement for every block in a region that matches a mask, as the session sees it.
+     * Sections that are neither staged nor able to match, judged by their palette, are skipped.
+     *
+     * @param region      the positions to scan
+     * @param mask        the blocks to replace
+     * @param replacement the state to replace them with
+     */
+    public void replace(Region region, BlockMask mask, BlockState replacement) {
+        checkOpen();
+        RegionCursor cursor = region.cursor((sectionX, sectionY, sectionZ) -> {
+            if (overlays.containsKey(SectionPos.asLong(sectionX, sectionY, sectionZ))) return true;
+            LevelChunkSection section = sections.get(sectionX, sectionY, sectionZ);
+            return section != null ? mask.mayMatch(section) : mask.matches(Blocks.AIR.defaultBlockState());
+        });
+
+        while (cursor.advance()) {
+            int x = cursor.x(), y = cursor.y(), z = cursor.z();
+            BlockState state = getBlockState(x, y, z);
+            if (state != replacement && mask.matches(state)) setBlock(x, y, z, replacement);
+        }
+    }
+
+    /**
+     * Offers every staged block to a placement task, section by section in chunk column order, and closes
+     * the session. Used on the pipeline thread of the task.
+     *
+     * @param sink        the sink of the task
+     * @param sendUpdates whether the placements send block updates
+     */
+    public void writeTo(PlacementPipeline.Sink sink, boolean sendUpdates) {
+        closed = true;
+        long[] keys = overlays.keySet().toLongArray();
+        // Columns first, so the placer finishes one chunk before moving on to the next
+        LongArrays.quickSort(keys, (a, b) -> {
+            int result = Integer.compare(SectionPos.x(a), SectionPos.x(b));
+            if (result == 0) result = Integer.compare(SectionPos.z(a), SectionPos.z(b));
+            return result != 0 ? result : Integer.compare(SectionPos.y(a), SectionPos.y(b));
+        });
+
+        sink.expect(changedBlocks);
+        long[] positions = new long[SECTION_BLOCKS];
+        int[] words = new int[SECTION_BLOCKS];
+        for (long key : keys) {
+            if (sink.isCancelled()) return;
+
+            SectionOverlay overlay = overlays.get(key);
+            int[] paletteWords = overlay.encode(sendUpdates);
+            int baseX = SectionPos.sectionToBlockCoord(SectionPos.x(key));
+            int baseY = SectionPos.sectionToBlockCoord(SectionPos.y(key));
+            int baseZ = SectionPos.sectionToBlockCoord(SectionPos.z(key));
+            int count = 0;
+            for (int index = 0; index < SECTION_BLOCKS; index++) {
+                int id = overlay.indices.get(index);
+                if (id == 0) continue;
+                positions[count] = BlockPos.asLong(baseX + (index & 15), baseY + (index >> 8), baseZ + ((index >> 4) & 15));
+                words[count++] = paletteWords[id];
+            }
+            sink.offerAll(positions, words, count);
+        }
+        overlays.clear();
+    }
+
+    /**
+     * Writes every staged block to the world through the placer as one operation, on the open job or a job
+     * of its own, and closes the session.
+     *
+     * @param placer the placer to write with
+     * @param name   the name of the operation, used for its job if no job is open
+     */
+    public void commit(AsyncBlockPlacer placer, String name) {
+        checkOpen();
+        closed = true;
+        placer.submit(level, name, sink -> writeTo(sink, true));
+    }
+
+    /**
+     * Drops every staged change and closes the session. The world is left as it was.
+     */
+    public void rollback() {
+        closed = true;
+        overlays.clear();
+        changedBlocks = 0;
+    }
+
+    private void checkOpen() {
+        if (closed) throw new IllegalStateException("The edit session was already committed or rolled back");
+    }
+
+    private static int index(int x, int y, int z) {
+        return (y & 15) << 8 | (z & 15) << 4 | (x & 15);
+    }
+
+    /**
+     * The staged blocks of one chunk section, indexed by {@code y << 8 | z << 4 | x}.
+     */
+    private static final class SectionOverlay {
+        private static final int MIN_BITS = 2;
+
+        // Entry 0 marks unchanged blocks
+        private final List<BlockState> palette = new ArrayList<>();
+        private final Reference2IntOpenHashMap<BlockState> ids = new Reference2IntOpenHashMap<>();
+        private SimpleBitStorage indices = new SimpleBitStorage(MIN_BITS, SECTION_BLOCKS);
+
+        private SectionOverlay() {
+            palette.add(null);
+            ids.defaultReturnValue(0);
+        }
+
+        private BlockState get(int index) {
+            return palette.get(indices.get(index));
+        }
+
+        /**
+         * @return Whether the block was unchanged before
+         */
+        private boolean set(int index, BlockState state) {
+            int id = ids.getInt(state);
+            if (id == 0) {
+                id = palette.size();
+                palette.add(state);
+                ids.put(state, id);
+                if (id >= 1 << indices.getBits()) resize(Mth.ceillog2(id + 1));
+            }
+            return indices.getAndSet(index, id) == 0;
+        }
+
+        private void resize(int bits) {
+            SimpleBitStorage resized = new SimpleBitStorage(bits, SECTION_BLOCKS);
+            for (int i = 0; i < SECTION_BLOCKS; i++) {
+                resized.set(i, indices.get(i));
+            }
+            indices = resized;
+        }
+
+        private int[] encode(boolean sendUpdates) {
+            int[] words = new int[palette.size()];
+            for (int id = 1; id < words.length; id++) {
+                words[id] = PlacementQueue.encode(palette.get(id), sendUpdates);
+            }
+            return words;
+        }
+    }
+}
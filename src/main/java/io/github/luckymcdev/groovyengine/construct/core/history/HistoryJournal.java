@@ -0,0 +1,272 @@
+/*
+ * Copyright 2025 LuckyMcDev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.luckymcdev.groovyengine.construct.core.history;
+
+import io.github.luckymcdev.groovyengine.GE;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A stack of {@link HistorySnapshot history steps} stored in a file.
+ * <p>
+ * The file starts with a header holding the offsets of the oldest live step and the end of the newest
+ * one; steps are laid out back to back between them. Popping a step only moves the end offset and
+ * evicting the oldest step only moves the base offset, so neither rewrites step data. The end offset
+ * is written after a step is complete, which makes a step that was interrupted by a crash invisible
+ * the next time the journal is opened.
+ * <p>
+ * Steps may be appended and popped from different threads (the server thread records them, pipeline
+ * threads remove them once they are restored), so the index is guarded by the journal's monitor.
+ */
+public class HistoryJournal implements Closeable {
+    private static final int FILE_MAGIC = 0x47454A4E;
+    private static final int VERSION = 1;
+    private static final int FILE_HEADER_BYTES = 24;
+    private static final long COMPACT_THRESHOLD = 64L << 20;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final List<HistorySnapshot> steps = new ArrayList<>();
+    private long baseOffset = FILE_HEADER_BYTES;
+    private long endOffset = FILE_HEADER_BYTES;
+    private boolean appending;
+
+    private HistoryJournal(Path file, FileChannel channel) {
+        this.file = file;
+        this.channel = channel;
+    }
+
+    /**
+     * Opens a journal, creating it if needed, and indexes the steps it contains.
+     *
+     * @param file The journal file
+     * @return The opened journal
+     */
+    public static HistoryJournal open(Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        HistoryJournal journal = new HistoryJournal(file, channel);
+        try {
+            journal.load();
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return journal;
+    }
+
+    FileChannel getChannel() {
+        return channel;
+    }
+
+    /**
+     * Gets the number of steps in this journal.
+     */
+    public synchronized int size() {
+        return steps.size();
+    }
+
+    public synchronized boolean isEmpty() {
+        return steps.isEmpty();
+    }
+
+    /**
+     * Gets the number of bytes used by the steps in this journal.
+     */
+    public synchronized long getStoredBytes() {
+        return endOffset - baseOffset;
+    }
+
+    /**
+     * Gets the newest step without removing it.
+     */
+    public synchronized HistorySnapshot peek() {
+        return steps.isEmpty() ? null : steps.get(steps.size() - 1);
+    }
+
+    /**
+     * Starts appending a new step. Only one step can be appended at a time.
+     *
+     * @return A builder that writes the step into this journal
+     */
+    public synchronized HistorySnapshot.Builder append() {
+        if (appending) throw new IllegalStateException("A step is already being appended to " + file);
+
+        appending = true;
+        return new HistorySnapshot.Builder(this, endOffset);
+    }
+
+    synchronized void commit(HistorySnapshot snapshot) throws IOException {
+        appending = false;
+        steps.add(snapshot);
+        endOffset = snapshot.getEndOffset();
+        writeHeader();
+    }
+
+    synchronized void abort() {
+        appending = false;
+    }
+
+    /**
+     * Removes the newest step.
+     */
+    public synchronized void pop() throws IOException {
+        if (steps.isEmpty()) return;
+
+        endOffset = steps.remove(steps.size() - 1).getOffset();
+        writeHeader();
+    }
+
+    /**
+     * Removes the oldest step, compacting the file once most of it is unused.
+     */
+    public synchronized void evictOldest() throws IOException {
+        if (steps.isEmpty()) return;
+
+        steps.remove(0);
+        baseOffset = steps.isEmpty() ? endOffset : steps.get(0).getOffset();
+        writeHeader();
+
+        if (baseOffset > COMPACT_THRESHOLD && baseOffset - FILE_HEADER_BYTES > getStoredBytes()) {
+            compact();
+        }
+    }
+
+    /**
+     * Removes all steps.
+     */
+    public synchronized void clear() throws IOException {
+        steps.clear();
+        baseOffset = FILE_HEADER_BYTES;
+        endOffset = FILE_HEADER_BYTES;
+        writeHeader();
+        truncate();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        truncate();
+        channel.close();
+    }
+
+    /**
+     * Moves the live steps to the start of the file.
+     */
+    private void compact() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+        long shift = baseOffset - FILE_HEADER_BYTES;
+
+        // The destination is always below the source, so copying forwards never overwrites unread data
+        for (long position = baseOffset; position < endOffset; ) {
+            buffer.clear().limit((int) Math.min(buffer.capacity(), endOffset - position));
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) throw new IOException("Unexpected end of " + file);
+            }
+            buffer.flip();
+            writeFully(channel, buffer, position - shift);
+            position += buffer.limit();
+        }
+
+        baseOffset = FILE_HEADER_BYTES;
+        endOffset -= shift;
+        writeHeader();
+        truncate();
+        indexSteps();
+        GE.CONSTRUCT_LOG.info("Compacted history journal {} by {} bytes", file.getFileName(), shift);
+    }
+
+    private void load() throws IOException {
+        if (channel.size() < FILE_HEADER_BYTES) {
+            writeHeader();
+            return;
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES);
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0) break;
+        }
+        header.flip();
+
+        if (header.getInt() != FILE_MAGIC || header.getInt() != VERSION) {
+            GE.CONSTRUCT_LOG.warn("Discarding unreadable history journal {}", file);
+            clear();
+            return;
+        }
+
+        baseOffset = header.getLong();
+        endOffset = header.getLong();
+        if (baseOffset < FILE_HEADER_BYTES || endOffset < baseOffset || endOffset > channel.size()) {
+            GE.CONSTRUCT_LOG.warn("Discarding corrupt history journal {}", file);
+            clear();
+            return;
+        }
+
+        indexSteps();
+    }
+
+    private void indexSteps() throws IOException {
+        steps.clear();
+        long position = baseOffset;
+        while (position < endOffset) {
+            HistorySnapshot step = HistorySnapshot.read(this, position);
+            if (step == null || step.getEndOffset() > endOffset) {
+                GE.CONSTRUCT_LOG.warn("History journal {} is damaged, keeping {} readable steps", file, steps.size());
+                endOffset = position;
+                writeHeader();
+                break;
+            }
+            steps.add(step);
+            position = step.getEndOffset();
+        }
+    }
+
+    private void writeHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES)
+                .putInt(FILE_MAGIC)
+                .putInt(VERSION)
+                .putLong(baseOffset)
+                .putLong(endOffset)
+                .flip();
+        writeFully(channel, header, 0);
+    }
+
+    /**
+     * Shrinks the file to its end offset. Some platforms refuse to truncate a file that is still
+     * mapped, in which case the unused tail is simply reused by the next append.
+     */
+    private void truncate() {
+        try {
+            if (channel.size() > endOffset) channel.truncate(endOffset);
+        } catch (IOException e) {
+            GE.CONSTRUCT_LOG.debug("Could not truncate history journal {}", file, e);
+        }
+    }
+
+    static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+}
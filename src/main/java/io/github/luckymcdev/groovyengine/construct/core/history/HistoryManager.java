@@ -18,158 +18,316 @@ package io.github.luckymcdev.groovyengine.construct.core.history;
 
 import io.github.luckymcdev.groovyengine.GE;
 import io.github.luckymcdev.groovyengine.construct.core.placement.AsyncBlockPlacer;
-import io.github.luckymcdev.groovyengine.construct.core.selection.Selection;
-import net.minecraft.client.Minecraft;
-import net.minecraft.core.BlockPos;
+import io.github.luckymcdev.groovyengine.construct.core.placement.ChangeRecorder;
+import io.github.luckymcdev.groovyengine.construct.core.placement.PlacementJob;
+import io.github.luckymcdev.groovyengine.core.config.Config;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.state.BlockState;
-import net.neoforged.api.distmarker.Dist;
-import net.neoforged.api.distmarker.OnlyIn;
+import net.minecraft.world.level.storage.LevelResource;
 
-import java.util.*;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * Manages undo/redo history for block operations.
- * Stores snapshots of block states before operations to enable rollback.
+ * Manages the undo/redo history of one player's block operations.
+ * <p>
+ * History steps are recorded by the {@link AsyncBlockPlacer} as it writes: only blocks that actually
+ * change are stored, together with the state they had before, so a step costs as much as the change
+ * rather than the selection it was made in. Steps are spilled to a pair of {@link HistoryJournal journals}
+ * per dimension in the player's history folder of the world save, so undo works for edits of any size
+ * with flat heap usage and survives restarts. The journals of each dimension are bounded by the disk
+ * budget in {@link Config#CONSTRUCT_HISTORY_DISK_MB}, so the budget applies per player and per dimension.
+ * <p>
+ * History lives on the server and is only used on the server thread.
  */
-@OnlyIn(Dist.CLIENT)
-public class HistoryManager {
-    private static final int MAX_HISTORY_SIZE = 50;
-    private static final int MAX_SNAPSHOT_SIZE = 1_000_000; // Maximum blocks per snapshot
+public class HistoryManager implements Closeable {
+    private final Path historyDir;
+    private final UUID owner;
+    private final AtomicInteger pendingSteps = new AtomicInteger();
+    private ResourceKey<Level> journalDimension;
+    private HistoryJournal undoJournal;
+    private HistoryJournal redoJournal;
 
-    private final Deque<HistorySnapshot> undoStack = new ArrayDeque<>();
-    private final Deque<HistorySnapshot> redoStack = new ArrayDeque<>();
+    /**
+     * @param server The server whose world save holds the history
+     * @param owner  The player the history belongs to
+     */
+    public HistoryManager(MinecraftServer server, UUID owner) {
+        this.historyDir = server.getWorldPath(LevelResource.ROOT).resolve(GE.MODID).resolve("construct")
+                .resolve("history").resolve(owner.toString());
+        this.owner = owner;
+    }
 
     /**
-     * Saves the current state of blocks in a selection before an operation.
+     * Starts recording a new undo step as a recorded {@link PlacementJob}. Every block changed by
+     * operations queued until {@link #endStep(AsyncBlockPlacer)} becomes part of the step. If the
+     * history of the level cannot be opened, because steps of another dimension are still being
+     * recorded or its journals fail to open, no job is started and the operation must not run, as it
+     * could not be undone.
      *
-     * @param selection The selection area to save
+     * @param blockPlacer The block placer the operation is queued on
+     * @param level       The level the operation places blocks in
+     * @param name        The name of the operation, shown for its job
+     * @return Whether the step was started
      */
-    public void saveState(Selection selection) {
-        if (!selection.hasValidSelection()) return;
-
-        Level level = Minecraft.getInstance().level;
-        if (level == null) return;
-
-        Set<BlockPos> positions = selection.getSelectedBlocks();
-
-        // Limit snapshot size to prevent memory issues
-        if (positions.size() > MAX_SNAPSHOT_SIZE) {
-            GE.CONSTRUCT_LOG.info("Warning: Selection too large for undo (" + positions.size() + " blocks). Undo disabled for this operation.");
-            return;
-        }
-
-        Map<BlockPos, BlockState> blockStates = new HashMap<>();
-        for (BlockPos pos : positions) {
-            blockStates.put(pos.immutable(), level.getBlockState(pos));
-        }
-
-        HistorySnapshot snapshot = new HistorySnapshot(blockStates);
-        undoStack.push(snapshot);
-
-        // Clear redo stack when new action is performed
-        redoStack.clear();
-
-        // Limit history size
-        if (undoStack.size() > MAX_HISTORY_SIZE) {
-            undoStack.removeLast();
-        }
+    public boolean beginStep(AsyncBlockPlacer blockPlacer, ServerLevel level, String name) {
+        if (!openJournals(level)) return false;
+        blockPlacer.beginJob(name, level, PlacementJob.Priority.NORMAL, new JournalRecorder(undoJournal, true, null), owner);
+        return true;
+    }
 
-        GE.CONSTRUCT_LOG.info("Saved state: " + blockStates.size() + " blocks");
+    /**
+     * Ends the undo step started by {@link #beginStep(AsyncBlockPlacer, ServerLevel, String)}. The step
+     * becomes available for undo once its job completes.
+     *
+     * @param blockPlacer The block placer the operation was queued on
+     */
+    public void endStep(AsyncBlockPlacer blockPlacer) {
+        blockPlacer.endJob();
     }
 
     /**
-     * Undoes the last operation.
+     * Undoes the last operation in a level.
      *
      * @param blockPlacer The block placer to use for restoration
+     * @param level       The level to undo the operation in
      */
-    public void undo(AsyncBlockPlacer blockPlacer) {
-        if (!canUndo()) return;
+    public void undo(AsyncBlockPlacer blockPlacer, ServerLevel level) {
+        if (!canUndo(level)) return;
 
-        HistorySnapshot snapshot = undoStack.pop();
+        // Changes made while restoring become the redo step
+        long restored = transfer("Undo", undoJournal, redoJournal, blockPlacer, level);
+        GE.CONSTRUCT_LOG.info("Undo: Restoring " + restored + " blocks");
+    }
 
-        // Save current state for redo
-        Map<BlockPos, BlockState> currentState = captureCurrentState(snapshot.getBlockStates().keySet());
-        redoStack.push(new HistorySnapshot(currentState));
+    /**
+     * Redoes the last undone operation in a level.
+     *
+     * @param blockPlacer The block placer to use for restoration
+     * @param level       The level to redo the operation in
+     */
+    public void redo(AsyncBlockPlacer blockPlacer, ServerLevel level) {
+        if (!canRedo(level)) return;
 
-        // Restore previous state
-        restoreSnapshot(snapshot, blockPlacer);
+        // Changes made while restoring become the undo step
+        long restored = transfer("Redo", redoJournal, undoJournal, blockPlacer, level);
+        GE.CONSTRUCT_LOG.info("Redo: Restoring " + restored + " blocks");
+    }
 
-        GE.CONSTRUCT_LOG.info("Undo: Restored " + snapshot.getBlockStates().size() + " blocks");
+    /**
+     * Streams the newest step of one journal back into the placer, recording the blocks it
+     * changes as a new step of the other journal. The step is read on the placer's pipeline and
+     * only removed once all of it has been written; if the job is cancelled, it stays in its journal
+     * and the blocks restored so far become the new step.
+     *
+     * @return The number of blocks that will be restored
+     */
+    private long transfer(String name, HistoryJournal from, HistoryJournal to, AsyncBlockPlacer blockPlacer, ServerLevel level) {
+        HistorySnapshot snapshot = from.peek();
+        PlacementJob job = blockPlacer.beginJob(name, level, PlacementJob.Priority.NORMAL, new JournalRecorder(to, false, from), owner);
+        blockPlacer.getPipeline().submit(job, sink -> {
+            try {
+                snapshot.forEach((pos, state) -> sink.offer(pos, state, false));
+            } catch (IOException e) {
+                GE.CONSTRUCT_LOG.error("Failed to restore history step", e);
+                // Keeps the step in its journal
+                job.cancel();
+            }
+        });
+        blockPlacer.endJob();
+        return snapshot.size();
     }
 
     /**
-     * Redoes the last undone operation.
+     * Evicts steps until the history of a dimension fits in its disk budget: the oldest undo steps
+     * first, then the redo steps from the oldest, and the newest undo step last. The step that was just
+     * written is always kept.
      *
-     * @param blockPlacer The block placer to use for restoration
+     * @param written The journal the newest step was written to
      */
-    public void redo(AsyncBlockPlacer blockPlacer) {
-        if (!canRedo()) return;
+    private static void enforceBudget(HistoryJournal undo, HistoryJournal redo, HistoryJournal written) throws IOException {
+        long maxBytes = Config.CONSTRUCT_HISTORY_DISK_MB.get() * 1024L * 1024L;
+        while (isOverBudget(undo, redo, maxBytes) && undo.size() > 1) {
+            undo.evictOldest();
+        }
+        while (isOverBudget(undo, redo, maxBytes) && redo.size() > (written == redo ? 1 : 0)) {
+            redo.evictOldest();
+        }
+        if (isOverBudget(undo, redo, maxBytes) && written == redo) {
+            undo.evictOldest();
+        }
+    }
 
-        HistorySnapshot snapshot = redoStack.pop();
+    private static boolean isOverBudget(HistoryJournal undo, HistoryJournal redo, long maxBytes) {
+        return undo.getStoredBytes() + redo.getStoredBytes() > maxBytes;
+    }
 
-        // Save current state for undo
-        Map<BlockPos, BlockState> currentState = captureCurrentState(snapshot.getBlockStates().keySet());
-        undoStack.push(new HistorySnapshot(currentState));
+    /**
+     * Makes sure the journals of the given level's dimension are open, switching journals when the
+     * player changes dimension.
+     *
+     * @return Whether the journals are available
+     */
+    private boolean openJournals(ServerLevel level) {
+        if (level.dimension() == journalDimension) return undoJournal != null;
+        // Steps still being written keep their journals open until they finish
+        if (isBusy()) return false;
+
+        closeJournals();
+        journalDimension = level.dimension();
+
+        Path directory = historyDir.resolve(sanitize(journalDimension.location().toString()));
+        try {
+            undoJournal = HistoryJournal.open(directory.resolve("undo.journal"));
+            redoJournal = HistoryJournal.open(directory.resolve("redo.journal"));
+            return true;
+        } catch (IOException e) {
+            GE.CONSTRUCT_LOG.error("Failed to open history journals in {}", directory, e);
+            closeJournals();
+            return false;
+        }
+    }
 
-        // Restore redo state
-        restoreSnapshot(snapshot, blockPlacer);
+    private void closeJournals() {
+        try {
+            if (undoJournal != null) undoJournal.close();
+            if (redoJournal != null) redoJournal.close();
+        } catch (IOException e) {
+            GE.CONSTRUCT_LOG.warn("Failed to close history journals", e);
+        }
+        undoJournal = null;
+        redoJournal = null;
+    }
 
-        GE.CONSTRUCT_LOG.info("Redo: Restored " + snapshot.getBlockStates().size() + " blocks");
+    private static String sanitize(String name) {
+        return name.replaceAll("[^a-zA-Z0-9._-]", "_");
     }
 
     /**
-     * Captures the current state of blocks at given positions.
+     * Checks if steps are still being recorded. Undo, redo and clearing wait until they are written.
      */
-    private Map<BlockPos, BlockState> captureCurrentState(Set<BlockPos> positions) {
-        Level level = Minecraft.getInstance().level;
-        if (level == null) return new HashMap<>();
+    public boolean isBusy() {
+        return pendingSteps.get() > 0;
+    }
 
-        Map<BlockPos, BlockState> currentState = new HashMap<>();
-        for (BlockPos pos : positions) {
-            currentState.put(pos.immutable(), level.getBlockState(pos));
-        }
-        return currentState;
+    /**
+     * Checks if undo is available in a level.
+     */
+    public boolean canUndo(ServerLevel level) {
+        return !isBusy() && openJournals(level) && !undoJournal.isEmpty();
     }
 
     /**
-     * Restores blocks from a snapshot.
+     * Checks if redo is available in a level.
      */
-    private void restoreSnapshot(HistorySnapshot snapshot, AsyncBlockPlacer blockPlacer) {
-        for (Map.Entry<BlockPos, BlockState> entry : snapshot.getBlockStates().entrySet()) {
-            blockPlacer.setBlock(entry.getKey(), entry.getValue(), false);
-        }
+    public boolean canRedo(ServerLevel level) {
+        return !isBusy() && openJournals(level) && !redoJournal.isEmpty();
     }
 
     /**
-     * Checks if undo is available.
+     * Gets the number of operations that can be undone in a level.
      */
-    public boolean canUndo() {
-        return !undoStack.isEmpty();
+    public int getHistorySize(ServerLevel level) {
+        return openJournals(level) ? undoJournal.size() : 0;
     }
 
     /**
-     * Checks if redo is available.
+     * Gets the disk space used by all undo and redo steps of a level, in bytes.
      */
-    public boolean canRedo() {
-        return !redoStack.isEmpty();
+    public long getHistoryBytes(ServerLevel level) {
+        return openJournals(level) ? undoJournal.getStoredBytes() + redoJournal.getStoredBytes() : 0;
     }
 
     /**
-     * Gets the number of operations that can be undone.
+     * Clears all history of a level.
      */
-    public int getHistorySize() {
-        return undoStack.size();
+    public void clearHistory(ServerLevel level) {
+        if (isBusy() || !openJournals(level)) return;
+
+        try {
+            undoJournal.clear();
+            redoJournal.clear();
+            GE.CONSTRUCT_LOG.info("History cleared");
+        } catch (IOException e) {
+            GE.CONSTRUCT_LOG.error("Failed to clear history", e);
+        }
     }
 
     /**
-     * Clears all history.
+     * Closes the journals. Steps that are still being recorded are dropped; the journals are left as
+     * they were before those steps started.
      */
-    public void clearHistory() {
-        undoStack.clear();
-        redoStack.clear();
-        GE.CONSTRUCT_LOG.info("History cleared");
+    @Override
+    public void close() {
+        closeJournals();
+        journalDimension = null;
     }
 
+    /**
+     * Writes the changes recorded by the placer into a journal as one step.
+     */
+    private final class JournalRecorder implements ChangeRecorder {
+        private final HistoryJournal journal;
+        private final HistoryJournal undo;
+        private final HistoryJournal redo;
+        private final boolean newAction;
+        private final HistoryJournal restoredFrom;
+        private HistorySnapshot.Builder builder;
+
+        /**
+         * @param journal      The journal to append the step to
+         * @param newAction    Whether the step is a new action, which invalidates the redo steps
+         * @param restoredFrom The journal whose newest step the job restores, popped once the job completes, or null
+         */
+        private JournalRecorder(HistoryJournal journal, boolean newAction, HistoryJournal restoredFrom) {
+            this.journal = journal;
+            this.undo = undoJournal;
+            this.redo = redoJournal;
+            this.newAction = newAction;
+            this.restoredFrom = restoredFrom;
+            pendingSteps.incrementAndGet();
+        }
 
-}
\ No newline at end of file
+        @Override
+        public void begin() {
+            builder = journal.append();
+        }
+
+        @Override
+        public void record(long pos, BlockState previous) {
+            builder.add(pos, previous);
+        }
+
+        @Override
+        public void finish(boolean cancelled) {
+            try {
+                HistorySnapshot snapshot = null;
+                if (builder != null && builder.size() > 0) {
+                    snapshot = builder.build();
+                } else if (builder != null) {
+                    builder.abort();
+                }
+                // A restored step is only used up once all of it has been written
+                if (restoredFrom != null && !cancelled) restoredFrom.pop();
+                if (snapshot == null) return;
+
+                // Clear redo stack when new action is performed
+                if (newAction) redo.clear();
+                enforceBudget(undo, redo, journal);
+
+                GE.CONSTRUCT_LOG.info("Saved state: " + snapshot.size() + " blocks, " + snapshot.getPaletteSize()
+                        + " states, " + snapshot.getStoredBytes() + " bytes");
+            } catch (IOException e) {
+                GE.CONSTRUCT_LOG.error("Failed to save history step", e);
+            } finally {
+                pendingSteps.decrementAndGet();
+            }
+        }
+    }
+}
@@ -16,37 +16,112 @@
 
 package io.github.luckymcdev.groovyengine.construct.core.history;
 
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import io.github.luckymcdev.groovyengine.GE;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import net.minecraft.commands.arguments.blocks.BlockStateParser;
 import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.world.level.block.state.BlockState;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
- * Represents a snapshot of block states at a point in time.
- *
+ * Represents a snapshot of block states at a point in time, stored as one step of a {@link HistoryJournal}.
+ * <p>
+ * Only the step's location in the journal is kept in memory. On disk a step is a header, a list of
+ * runs of one block state along the X axis, and the palette of states the runs refer to. Blocks are
+ * written in the order they were captured, which for regions is chunk by chunk, so restores stream
+ * back into the placer one chunk at a time.
  */
 public class HistorySnapshot {
-    private final Map<BlockPos, BlockState> blockStates;
+    static final int STEP_MAGIC = 0x47455354;
+    static final int HEADER_BYTES = 40;
+    static final int RECORD_BYTES = 16;
+    private static final int MAX_RUN = 0xFFFF;
+    private static final long MAP_WINDOW = RECORD_BYTES * (4L << 20);
+
+    private final HistoryJournal journal;
+    private final long offset;
+    private final int paletteSize;
+    private final long blockCount;
+    private final long recordBytes;
+    private final long paletteBytes;
     private final long timestamp;
 
+    HistorySnapshot(HistoryJournal journal, long offset, int paletteSize, long blockCount,
+                    long recordBytes, long paletteBytes, long timestamp) {
+        this.journal = journal;
+        this.offset = offset;
+        this.paletteSize = paletteSize;
+        this.blockCount = blockCount;
+        this.recordBytes = recordBytes;
+        this.paletteBytes = paletteBytes;
+        this.timestamp = timestamp;
+    }
+
     /**
-     * Creates a new snapshot of block states at the current time
+     * Reads a step header at the given offset of a journal.
      *
-     * @param blockStates The block states to include in the snapshot
+     * @return The step, or null if no complete step header is found there
+     */
+    static HistorySnapshot read(HistoryJournal journal, long offset) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        while (header.hasRemaining()) {
+            if (journal.getChannel().read(header, offset + header.position()) < 0) return null;
+        }
+        header.flip();
+
+        if (header.getInt() != STEP_MAGIC) return null;
+        return new HistorySnapshot(journal, offset, header.getInt(), header.getLong(),
+                header.getLong(), header.getLong(), header.getLong());
+    }
+
+    /**
+     * Gets the offset of this step in its journal
      */
-    public HistorySnapshot(Map<BlockPos, BlockState> blockStates) {
-        this.blockStates = new HashMap<>(blockStates);
-        this.timestamp = System.currentTimeMillis();
+    long getOffset() {
+        return offset;
     }
 
     /**
-     * Gets the block states stored in this snapshot
+     * Gets the offset just past the end of this step in its journal
+     */
+    long getEndOffset() {
+        return offset + HEADER_BYTES + recordBytes + paletteBytes;
+    }
+
+    /**
+     * Gets the number of blocks in this snapshot
      *
-     * @return A map of block positions to their respective block states
+     * @return The number of blocks in this snapshot
      */
-    public Map<BlockPos, BlockState> getBlockStates() {
-        return blockStates;
+    public long size() {
+        return blockCount;
+    }
+
+    /**
+     * Gets the number of distinct block states in this snapshot
+     *
+     * @return The size of the snapshot's palette
+     */
+    public int getPaletteSize() {
+        return paletteSize;
+    }
+
+    /**
+     * Gets the number of bytes this snapshot occupies in its journal
+     *
+     * @return The stored size in bytes
+     */
+    public long getStoredBytes() {
+        return getEndOffset() - offset;
     }
 
     /**
@@ -57,4 +132,195 @@ public class HistorySnapshot {
     public long getTimestamp() {
         return timestamp;
     }
+
+    /**
+     * Streams every packed position and its stored state to the consumer, in capture order.
+     * The journal is mapped a window at a time, so heap usage does not depend on the snapshot's size.
+     * Blocks whose state no longer exists in the game are skipped.
+     *
+     * @param consumer The consumer to call
+     */
+    public void forEach(BlockConsumer consumer) throws IOException {
+        FileChannel channel = journal.getChannel();
+        BlockState[] palette = readPalette(channel);
+        long start = offset + HEADER_BYTES;
+
+        for (long done = 0; done < recordBytes; done += MAP_WINDOW) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start + done,
+                    Math.min(MAP_WINDOW, recordBytes - done));
+            while (buffer.hasRemaining()) {
+                long pos = buffer.getLong();
+                BlockState state = palette[buffer.getInt()];
+                int length = buffer.getInt();
+                if (state == null) continue;
+
+                for (int i = 0; i < length; i++) {
+                    consumer.accept(BlockPos.offset(pos, i, 0, 0), state);
+                }
+            }
+        }
+    }
+
+    private BlockState[] readPalette(FileChannel channel) throws IOException {
+        ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset + HEADER_BYTES + recordBytes, paletteBytes);
+        BlockState[] palette = new BlockState[paletteSize];
+        for (int i = 0; i < paletteSize; i++) {
+            byte[] bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            String serialized = new String(bytes, StandardCharsets.UTF_8);
+            try {
+                palette[i] = BlockStateParser.parseForBlock(BuiltInRegistries.BLOCK.asLookup(), serialized, false).blockState();
+            } catch (CommandSyntaxException e) {
+                GE.CONSTRUCT_LOG.warn("Skipping unknown block state in history: {}", serialized);
+            }
+        }
+        return palette;
+    }
+
+    /**
+     * Receives the blocks of a snapshot.
+     */
+    @FunctionalInterface
+    public interface BlockConsumer {
+        void accept(long pos, BlockState state);
+    }
+
+    /**
+     * Appends a new step to the end of a journal. Blocks are buffered into runs and written as they
+     * arrive; the step only becomes part of the journal once {@link #build()} succeeds.
+     */
+    public static class Builder {
+        private final HistoryJournal journal;
+        private final long offset;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+        private final Reference2IntOpenHashMap<BlockState> paletteIndex = new Reference2IntOpenHashMap<>();
+        private final List<BlockState> palette = new ArrayList<>();
+        private long writePosition;
+        private long blockCount;
+        private long runStart;
+        private int runIndex = -1;
+        private int runLength;
+        private IOException failure;
+
+        Builder(HistoryJournal journal, long offset) {
+            this.journal = journal;
+            this.offset = offset;
+            this.writePosition = offset + HEADER_BYTES;
+            this.paletteIndex.defaultReturnValue(-1);
+        }
+
+        /**
+         * Appends the state of a block.
+         *
+         * @param pos   The packed position of the block
+         * @param state The state to store
+         */
+        public void add(long pos, BlockState state) {
+            int index = paletteIndex.getInt(state);
+            if (index < 0) {
+                index = palette.size();
+                palette.add(state);
+                paletteIndex.put(state, index);
+            }
+
+            blockCount++;
+            if (index == runIndex && runLength < MAX_RUN && pos == BlockPos.offset(runStart, runLength, 0, 0)) {
+                runLength++;
+                return;
+            }
+
+            writeRun();
+            runStart = pos;
+            runIndex = index;
+            runLength = 1;
+        }
+
+        /**
+         * Gets the number of blocks appended so far.
+         */
+        public long size() {
+            return blockCount;
+        }
+
+        /**
+         * Writes the palette and header and commits the step to the journal.
+         *
+         * @throws IOException If any part of the step could not be written
+         */
+        public HistorySnapshot build() throws IOException {
+            writeRun();
+            flush();
+            if (failure != null) {
+                journal.abort();
+                throw failure;
+            }
+            long recordBytes = writePosition - offset - HEADER_BYTES;
+
+            for (BlockState state : palette) {
+                byte[] bytes = BlockStateParser.serialize(state).getBytes(StandardCharsets.UTF_8);
+                ensureCapacity(4 + bytes.length);
+                buffer.putInt(bytes.length);
+                buffer.put(bytes);
+            }
+            flush();
+            if (failure != null) {
+                journal.abort();
+                throw failure;
+            }
+            long paletteBytes = writePosition - offset - HEADER_BYTES - recordBytes;
+
+            HistorySnapshot snapshot = new HistorySnapshot(journal, offset, palette.size(), blockCount,
+                    recordBytes, paletteBytes, System.currentTimeMillis());
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+                    .putInt(STEP_MAGIC)
+                    .putInt(snapshot.paletteSize)
+                    .putLong(snapshot.blockCount)
+                    .putLong(snapshot.recordBytes)
+                    .putLong(snapshot.paletteBytes)
+                    .putLong(snapshot.timestamp)
+                    .flip();
+            try {
+                HistoryJournal.writeFully(journal.getChannel(), header, offset);
+            } catch (IOException e) {
+                journal.abort();
+                throw e;
+            }
+
+            journal.commit(snapshot);
+            return snapshot;
+        }
+
+        /**
+         * Discards the step. Nothing written so far becomes part of the journal.
+         */
+        public void abort() {
+            journal.abort();
+        }
+
+        private void writeRun() {
+            if (runIndex < 0) return;
+
+            ensureCapacity(RECORD_BYTES);
+            buffer.putLong(runStart).putInt(runIndex).putInt(runLength);
+            runIndex = -1;
+        }
+
+        private void ensureCapacity(int bytes) {
+            if (buffer.remaining() < bytes) flush();
+        }
+
+        private void flush() {
+            buffer.flip();
+            if (failure == null && buffer.hasRemaining()) {
+                int length = buffer.remaining();
+                try {
+                    HistoryJournal.writeFully(journal.getChannel(), buffer, writePosition);
+                } catch (IOException e) {
+                    failure = e;
+                }
+                writePosition += length;
+            }
+            buffer.clear();
+        }
+    }
 }
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2025 LuckyMcDev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.luckymcdev.groovyengine.construct.core.mask;
+
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Matches block states, for example the targets of a replace operation.
+ * <p>
+ * Masks can match sets of blocks, exact states, block tags or arbitrary predicates, and can be combined
+ * with {@link #or(BlockMask)}. Because a mask is a pure function of the state, it can be checked against
+ * a chunk section's palette first, so sections that cannot contain a match are skipped without reading
+ * any of their blocks.
+ */
+@FunctionalInterface
+public interface BlockMask {
+
+    /**
+     * Checks if a block state matches this mask.
+     */
+    boolean matches(BlockState state);
+
+    /**
+     * Checks if a chunk section may contain a matching state, using only its palette.
+     *
+     * @param section The section to check
+     * @return false if no block of the section can match
+     */
+    default boolean mayMatch(LevelChunkSection section) {
+        if (section.hasOnlyAir()) return matches(Blocks.AIR.defaultBlockState());
+        return section.maybeHas(this::matches);
+    }
+
+    /**
+     * Creates a mask that matches states matched by this mask or the other one.
+     */
+    default BlockMask or(BlockMask other) {
+        return state -> matches(state) || other.matches(state);
+    }
+
+    /**
+     * Creates a mask that matches any state of the given blocks.
+     */
+    static BlockMask of(Block... blocks) {
+        if (blocks.length == 1) {
+            Block block = blocks[0];
+            return state -> state.getBlock() == block;
+        }
+
+        Set<Block> set = new ReferenceOpenHashSet<>(Arrays.asList(blocks));
+        return state -> set.contains(state.getBlock());
+    }
+
+    /**
+     * Creates a mask that matches exactly the given states.
+     */
+    static BlockMask ofStates(BlockState... states) {
+        Set<BlockState> set = new ReferenceOpenHashSet<>(Arrays.asList(states));
+        return set::contains;
+    }
+
+    /**
+     * Creates a mask that matches any block in a tag.
+     */
+    static BlockMask ofTag(TagKey<Block> tag) {
+        return state -> state.is(tag);
+    }
+
+    /**
+     * Creates a tag mask from a tag id such as {@code minecraft:logs}.
+     */
+    static BlockMask ofTag(ResourceLocation tag) {
+        return ofTag(TagKey.create(Registries.BLOCK, tag));
+    }
+
+    /**
+     * Creates a mask from an arbitrary state predicate.
+     */
+    static BlockMask where(Predicate<BlockState> predicate) {
+        return predicate::test;
+    }
+
+    /**
+     * Creates a mask that matches states matched by any of the given masks.
+     */
+    static BlockMask anyOf(BlockMask... masks) {
+        BlockMask[] copy = masks.clone();
+        return state -> {
+            for (BlockMask mask : copy) {
+                if (mask.matches(state)) return true;
+            }
+            return false;
+        };
+    }
+}
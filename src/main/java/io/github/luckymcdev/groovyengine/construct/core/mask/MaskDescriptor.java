@@ -0,0 +1,114 @@
+/*
+ * Copyright 2025 LuckyMcDev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.luckymcdev.groovyengine.construct.core.mask;
+
+import io.netty.buffer.ByteBuf;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.network.codec.ByteBufCodecs;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.block.Block;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A serializable description of a {@link BlockMask} that matches a list of blocks and block tags.
+ * Operations send masks in this form; the receiving side resolves the ids against its own registries
+ * with {@link #create()}.
+ *
+ * @param blocks The ids of the matched blocks
+ * @param tags   The ids of the matched block tags
+ */
+public record MaskDescriptor(List<ResourceLocation> blocks, List<ResourceLocation> tags) {
+    private static final int MAX_ENTRIES = 256;
+
+    public static final StreamCodec<ByteBuf, MaskDescriptor> STREAM_CODEC = StreamCodec.composite(
+            ResourceLocation.STREAM_CODEC.apply(ByteBufCodecs.list(MAX_ENTRIES)), MaskDescriptor::blocks,
+            ResourceLocation.STREAM_CODEC.apply(ByteBufCodecs.list(MAX_ENTRIES)), MaskDescriptor::tags,
+            MaskDescriptor::new
+    );
+
+    public MaskDescriptor {
+        blocks = List.copyOf(blocks);
+        tags = List.copyOf(tags);
+    }
+
+    /**
+     * Creates a descriptor matching the given blocks.
+     */
+    public static MaskDescriptor of(Block... blocks) {
+        List<ResourceLocation> ids = new ArrayList<>(blocks.length);
+        for (Block block : blocks) {
+            ids.add(BuiltInRegistries.BLOCK.getKey(block));
+        }
+        return new MaskDescriptor(ids, List.of());
+    }
+
+    /**
+     * Parses a comma-separated list of block ids and {@code #tag} ids.
+     *
+     * @param input The list to parse
+     * @return The descriptor, or null if the list is empty or has an invalid or unknown entry
+     */
+    public static MaskDescriptor parse(String input) {
+        List<ResourceLocation> blocks = new ArrayList<>();
+        List<ResourceLocation> tags = new ArrayList<>();
+
+        for (String part : input.split(",")) {
+            String entry = part.trim();
+            if (entry.isEmpty()) continue;
+
+            boolean tag = entry.startsWith("#");
+            ResourceLocation id = ResourceLocation.tryParse(tag ? entry.substring(1) : entry);
+            if (id == null) return null;
+            if (tag) {
+                tags.add(id);
+            } else {
+                if (!BuiltInRegistries.BLOCK.containsKey(id)) return null;
+                blocks.add(id);
+            }
+        }
+
+        return blocks.isEmpty() && tags.isEmpty() ? null : new MaskDescriptor(blocks, tags);
+    }
+
+    /**
+     * Builds the mask this descriptor describes.
+     *
+     * @return A new mask
+     * @throws IllegalArgumentException If a block id is unknown or the descriptor is empty
+     */
+    public BlockMask create() {
+        List<BlockMask> masks = new ArrayList<>();
+        if (!blocks.isEmpty()) {
+            Block[] resolved = new Block[blocks.size()];
+            for (int i = 0; i < resolved.length; i++) {
+                ResourceLocation id = blocks.get(i);
+                resolved[i] = BuiltInRegistries.BLOCK.getOptional(id)
+                        .orElseThrow(() -> new IllegalArgumentException("Unknown block " + id));
+            }
+            masks.add(BlockMask.of(resolved));
+        }
+        for (ResourceLocation tag : tags) {
+            masks.add(BlockMask.ofTag(tag));
+        }
+
+        if (masks.isEmpty()) throw new IllegalArgumentException("Empty mask");
+        return masks.size() == 1 ? masks.get(0) : BlockMask.anyOf(masks.toArray(new BlockMask[0]));
+    }
+}
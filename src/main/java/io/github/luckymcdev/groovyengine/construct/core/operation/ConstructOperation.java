@@ -0,0 +1,259 @@
+/*
+ * Copyright 2025 LuckyMcDev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.luckymcdev.groovyengine.construct.core.operation;
+
+import io.github.luckymcdev.groovyengine.construct.core.mask.MaskDescriptor;
+import io.github.luckymcdev.groovyengine.construct.core.pattern.PatternDescriptor;
+import io.github.luckymcdev.groovyengine.construct.core.region.CuboidRegion;
+import io.github.luckymcdev.groovyengine.construct.core.region.FloodFill;
+import io.github.luckymcdev.groovyengine.construct.core.region.Region;
+import io.github.luckymcdev.groovyengine.construct.core.shape.Shape;
+import io.netty.buffer.ByteBuf;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.codec.ByteBufCodecs;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.util.ByIdMap;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.dimension.DimensionType;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.IntFunction;
+
+/**
+ * A construct operation as the client sends it to the server: the shape, its bounds and parameters, the
+ * pattern to fill it with and, for replacements and flood fills, the mask of blocks they act on.
+ * <p>
+ * An operation is a few dozen bytes no matter how many blocks it covers. The server expands it with
+ * {@link #toRegion()} and runs it on its own placement engine, so the blocks themselves never cross
+ * the network. Operations come from clients, so they are checked with {@link #validate(long)}, which
+ * expands them once and hands back the region it checked.
+ *
+ * @param type      The kind of operation
+ * @param pos1      The first corner, the center of spheres, the base of pyramids or the seed of flood fills
+ * @param pos2      The second corner; unused by spheres, pyramids and flood fills
+ * @param size      The radius of spheres and cylinders, the half-width of pyramids or the connectivity of flood fills
+ * @param thickness The shell thickness of hollow shapes
+ * @param height    The number of layers of pyramids
+ * @param pattern   The pattern to place; a single block for replacements
+ * @param mask      The blocks to replace, or the blocks a flood fill spreads through
+ */
+public record ConstructOperation(Type type, BlockPos pos1, BlockPos pos2, int size, int thickness, int height,
+                                 PatternDescriptor pattern, Optional<MaskDescriptor> mask) {
+    // Caps shape parameters so that expanding a shape stays cheap, whatever its block count
+    public static final int MAX_SHAPE_SIZE = 1024;
+
+    private static final StreamCodec<ByteBuf, Optional<MaskDescriptor>> MASK_CODEC = ByteBufCodecs.optional(MaskDescriptor.STREAM_CODEC);
+    public static final StreamCodec<ByteBuf, ConstructOperation> STREAM_CODEC = StreamCodec.ofMember(ConstructOperation::write, ConstructOperation::read);
+
+    /**
+     * Creates an operation on a cuboid.
+     *
+     * @param type      One of {@link Type#FILL}, {@link Type#HOLLOW}, {@link Type#WALLS} or {@link Type#OUTLINE}
+     * @param pos1      The first corner
+     * @param pos2      The second corner
+     * @param thickness The shell thickness of {@link Type#HOLLOW}
+     * @param pattern   The pattern to fill with
+     */
+    public static ConstructOperation cuboid(Type type, BlockPos pos1, BlockPos pos2, int thickness, PatternDescriptor pattern) {
+        return new ConstructOperation(type, pos1, pos2, 0, thickness, 0, pattern, Optional.empty());
+    }
+
+    /**
+     * Creates a sphere, which is hollow if {@code thickness} is positive.
+     */
+    public static ConstructOperation sphere(BlockPos center, int radius, int thickness, PatternDescriptor pattern) {
+        Type type = thickness > 0 ? Type.HOLLOW_SPHERE : Type.SPHERE;
+        return new ConstructOperation(type, center, center, radius, thickness, 0, pattern, Optional.empty());
+    }
+
+    /**
+     * Creates a vertical cylinder between two points, which is hollow if {@code thickness} is positive.
+     */
+    public static ConstructOperation cylinder(BlockPos pos1, BlockPos pos2, int radius, int thickness, PatternDescriptor pattern) {
+        Type type = thickness > 0 ? Type.HOLLOW_CYLINDER : Type.CYLINDER;
+        return new ConstructOperation(type, pos1, pos2, radius, thickness, 0, pattern, Optional.empty());
+    }
+
+    /**
+     * Creates a square pyramid.
+     */
+    public static ConstructOperation pyramid(BlockPos base, int baseSize, int height, PatternDescriptor pattern) {
+        return new ConstructOperation(Type.PYRAMID, base, base, baseSize, 0, height, pattern, Optional.empty());
+    }
+
+    /**
+     * Creates a replacement of every block matching a mask in a cuboid.
+     */
+    public static ConstructOperation replace(BlockPos pos1, BlockPos pos2, MaskDescriptor mask, BlockState replacement) {
+        PatternDescriptor pattern = new PatternDescriptor(PatternDescriptor.Type.SINGLE, List.of(replacement), List.of(), 0);
+        return new ConstructOperation(Type.REPLACE, pos1, pos2, 0, 0, 0, pattern, Optional.of(mask));
+    }
+
+    /**
+     * Creates a flood fill of the blocks matching a mask that are connected to a seed.
+     */
+    public static ConstructOperation floodFill(BlockPos seed, MaskDescriptor through, FloodFill.Connectivity connectivity, PatternDescriptor pattern) {
+        return new ConstructOperation(Type.FLOOD_FILL, seed, seed, connectivity.getNeighbours(), 0, 0, pattern, Optional.of(through));
+    }
+
+    /**
+     * Checks that the operation is well-formed and small enough to run. Flood fills are only checked for
+     * their size once the blocks they reach are known.
+     *
+     * @param maxBlocks The largest number of blocks the operation may cover
+     * @return The region of the operation, see {@link #toRegion()}, built once for the size check
+     * @throws IllegalArgumentException If the operation is malformed or too large
+     */
+    public Region validate(long maxBlocks) {
+        checkPosition(pos1);
+        checkPosition(pos2);
+        checkParameter("size", size);
+        checkParameter("thickness", thickness);
+        checkParameter("height", height);
+        if (type == Type.REPLACE && (mask.isEmpty() || pattern.type() != PatternDescriptor.Type.SINGLE)) {
+            throw new IllegalArgumentException("Replacement without a mask or a single replacement block");
+        }
+        if (type == Type.FLOOD_FILL) {
+            if (mask.isEmpty()) throw new IllegalArgumentException("Flood fill without a mask");
+            FloodFill.Connectivity.of(size);
+        }
+
+        if (type.isCuboid()) validateCuboid(pos1, pos2, maxBlocks);
+        Region region = toRegion();
+        if (region.size() > maxBlocks) throw new IllegalArgumentException("Operation covers more than " + maxBlocks + " blocks");
+        return region;
+    }
+
+    /**
+     * Checks that a cuboid sent by a client lies within the world limits and covers at most the given number of blocks.
+     *
+     * @throws IllegalArgumentException If the cuboid is out of bounds or too large
+     */
+    public static void validateCuboid(BlockPos pos1, BlockPos pos2, long maxBlocks) {
+        checkPosition(pos1);
+        checkPosition(pos2);
+        // Measured before expanding, since the block count of huge cuboids overflows
+        double volume = (Math.abs((double) pos2.getX() - pos1.getX()) + 1)
+                * (Math.abs((double) pos2.getY() - pos1.getY()) + 1)
+                * (Math.abs((double) pos2.getZ() - pos1.getZ()) + 1);
+        if (volume > maxBlocks) throw new IllegalArgumentException("Operation covers more than " + maxBlocks + " blocks");
+    }
+
+    private static void checkPosition(BlockPos pos) {
+        if (Math.abs(pos.getX()) > Level.MAX_LEVEL_SIZE || Math.abs(pos.getZ()) > Level.MAX_LEVEL_SIZE
+                || pos.getY() < DimensionType.MIN_Y || pos.getY() > DimensionType.MAX_Y) {
+            throw new IllegalArgumentException("Position out of bounds: " + pos.toShortString());
+        }
+    }
+
+    private static void checkParameter(String name, int value) {
+        if (value < 0 || value > MAX_SHAPE_SIZE) throw new IllegalArgumentException("Invalid " + name + " " + value);
+    }
+
+    /**
+     * Expands the operation into the positions it places blocks at. Replacements cover their whole
+     * cuboid; which of its blocks are replaced is decided by the mask. Flood fills only cover their seed,
+     * the blocks they reach are found with {@link FloodFill} in the level they run in.
+     */
+    public Region toRegion() {
+        return switch (type) {
+            case FILL, REPLACE -> CuboidRegion.of(pos1, pos2);
+            case FLOOD_FILL -> CuboidRegion.of(pos1, pos1);
+            case HOLLOW -> CuboidRegion.of(pos1, pos2).shell(thickness);
+            case WALLS -> CuboidRegion.of(pos1, pos2).walls();
+            case OUTLINE -> CuboidRegion.of(pos1, pos2).edges();
+            case SPHERE -> Shape.sphere(pos1, size);
+            case HOLLOW_SPHERE -> Shape.hollowSphere(pos1, size, thickness);
+            case CYLINDER -> Shape.cylinder(pos1, pos2, size);
+            case HOLLOW_CYLINDER -> Shape.hollowCylinder(pos1, pos2, size, thickness);
+            case PYRAMID -> Shape.pyramid(pos1, size, height);
+        };
+    }
+
+    /**
+     * Gets the position patterns are evaluated relative to.
+     */
+    public BlockPos origin() {
+        return pos1;
+    }
+
+    private void write(ByteBuf buffer) {
+        Type.STREAM_CODEC.encode(buffer, type);
+        BlockPos.STREAM_CODEC.encode(buffer, pos1);
+        BlockPos.STREAM_CODEC.encode(buffer, pos2);
+        ByteBufCodecs.VAR_INT.encode(buffer, size);
+        ByteBufCodecs.VAR_INT.encode(buffer, thickness);
+        ByteBufCodecs.VAR_INT.encode(buffer, height);
+        PatternDescriptor.STREAM_CODEC.encode(buffer, pattern);
+        MASK_CODEC.encode(buffer, mask);
+    }
+
+    private static ConstructOperation read(ByteBuf buffer) {
+        return new ConstructOperation(
+                Type.STREAM_CODEC.decode(buffer),
+                BlockPos.STREAM_CODEC.decode(buffer),
+                BlockPos.STREAM_CODEC.decode(buffer),
+                ByteBufCodecs.VAR_INT.decode(buffer),
+                ByteBufCodecs.VAR_INT.decode(buffer),
+                ByteBufCodecs.VAR_INT.decode(buffer),
+                PatternDescriptor.STREAM_CODEC.decode(buffer),
+                MASK_CODEC.decode(buffer)
+        );
+    }
+
+    /**
+     * The kinds of operations.
+     */
+    public enum Type {
+        FILL("Fill"),
+        HOLLOW("Hollow"),
+        WALLS("Walls"),
+        OUTLINE("Outline"),
+        SPHERE("Sphere"),
+        HOLLOW_SPHERE("Hollow Sphere"),
+        CYLINDER("Cylinder"),
+        HOLLOW_CYLINDER("Hollow Cylinder"),
+        PYRAMID("Pyramid"),
+        REPLACE("Replace"),
+        FLOOD_FILL("Flood Fill");
+
+        private static final IntFunction<Type> BY_ID = ByIdMap.continuous(Type::ordinal, values(), ByIdMap.OutOfBoundsStrategy.ZERO);
+        public static final StreamCodec<ByteBuf, Type> STREAM_CODEC = ByteBufCodecs.idMapper(BY_ID, Type::ordinal);
+
+        private final String displayName;
+
+        Type(String displayName) {
+            this.displayName = displayName;
+        }
+
+        /**
+         * Gets the name shown for jobs and history steps of this kind.
+         */
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        /**
+         * Checks if operations of this kind cover a cuboid between their two corners.
+         */
+        public boolean isCuboid() {
+            return this == FILL || this == HOLLOW || this == WALLS || this == OUTLINE || this == REPLACE;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2025 LuckyMcDev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.luckymcdev.groovyengine.construct.core.pattern;
+
+/**
+ * Samples an index from a discrete weighted distribution in constant time using Walker's alias method.
+ * <p>
+ * The table is built once in {@code O(n)} with Vose's algorithm. Every column holds a threshold and an
+ * alias: a sample picks a column uniformly, then keeps the column or takes its alias depending on the
+ * threshold. Both choices are made from the bits of a single 64-bit random value.
+ */
+public final class AliasTable {
+    private static final long ONE = 1L << 32;
+
+    private final long[] thresholds;
+    private final int[] aliases;
+
+    /**
+     * Builds a table for the given weights. Weights must not be negative; if they sum to zero,
+     * every index is equally likely.
+     *
+     * @param weights The weight of each index
+     */
+    public AliasTable(float[] weights) {
+        int n = weights.length;
+        if (n == 0) throw new IllegalArgumentException("At least one weight is required");
+
+        this.thresholds = new long[n];
+        this.aliases = new int[n];
+
+        double total = 0;
+        for (float weight : weights) total += weight;
+
+        // Scale weights so that the average column is exactly full
+        double[] scaled = new double[n];
+        for (int i = 0; i < n; i++) {
+            scaled[i] = total > 0 ? weights[i] * n / total : 1.0;
+        }
+
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0, largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            if (scaled[i] < 1.0) small[smallCount++] = i;
+            else large[largeCount++] = i;
+        }
+
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+
+            thresholds[less] = (long) (scaled[less] * ONE);
+            aliases[less] = more;
+
+            scaled[more] = (scaled[more] + scaled[less]) - 1.0;
+            if (scaled[more] < 1.0) small[smallCount++] = more;
+            else large[largeCount++] = more;
+        }
+
+        // Whatever is left over is full up to rounding error
+        while (largeCount > 0) {
+            int index = large[--largeCount];
+            thresholds[index] = ONE;
+            aliases[index] = index;
+        }
+        while (smallCount > 0) {
+            int index = small[--smallCount];
+            thresholds[index] = ONE;
+            aliases[index] = index;
+        }
+    }
+
+    /**
+     * Builds a table in which every index is equally likely.
+     *
+     * @param size The number of indices
+     */
+    public static AliasTable uniform(int size) {
+        return new AliasTable(new float[size]);
+    }
+
+    /**
+     * Gets the number of indices in this table.
+     */
+    public int size() {
+        return thresholds.length;
+    }
+
+    /**
+     * Samples an index.
+     *
+     * @param bits 64 uniformly random bits, for example from {@link PositionalRandom#hash}
+     * @return An index distributed according to the table's weights
+     */
+    public int sample(long bits) {
+        // The high half picks the column, the low half flips the biased coin
+        int column = (int) (((bits >>> 32) * thresholds.length) >>> 32);
+        return (bits & 0xFFFFFFFFL) < thresholds[column] ? column : aliases[column];
+    }
+}
@@ -18,13 +18,17 @@ package io.github.luckymcdev.groovyengine.construct.core.pattern;
 
 import io.github.luckymcdev.groovyengine.GE;
 import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.util.Mth;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.state.BlockState;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Defines a pattern for block placement within a selection.
@@ -41,6 +45,47 @@ public interface BlockPattern {
      */
     BlockState getBlockState(BlockPos pos, BlockPos origin, Random random);
 
+    /**
+     * Gets the block states for a batch of positions, typically up to one chunk section at a time.
+     * <p>
+     * Positions are in the order they will be placed, which for regions means rows along X inside each
+     * section. The default implementation calls {@link #getBlockState} for every position in order, so
+     * custom patterns only need to override this when they can do better.
+     *
+     * @param positions The {@link BlockPos#asLong packed} target positions
+     * @param count     The number of positions to evaluate
+     * @param origin    The origin point of the pattern
+     * @param random    Random instance for probabilistic patterns
+     * @param out       Receives the block state of each position, at the same index
+     */
+    default void fillBlockStates(long[] positions, int count, BlockPos origin, Random random, BlockState[] out) {
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        for (int i = 0; i < count; i++) {
+            out[i] = getBlockState(pos.set(positions[i]), origin, random);
+        }
+    }
+
+    /**
+     * Checks if batches of this pattern may be evaluated on several threads at once. Patterns that keep
+     * state between calls or draw from the given {@link Random} must return false, which is the default;
+     * they are still evaluated off the game threads, one batch at a time.
+     *
+     * @return Whether {@link #fillBlockStates} can run concurrently
+     */
+    default boolean isThreadSafe() {
+        return false;
+    }
+
+    /**
+     * Describes this pattern so it can be sent to the server, which rebuilds it with {@link PatternDescriptor#create()}.
+     * Custom patterns cannot be described and return null, which is the default.
+     *
+     * @return The descriptor of this pattern, or null
+     */
+    default PatternDescriptor describe() {
+        return null;
+    }
+
     /**
      * Pattern that places a single block type everywhere.
      */
@@ -59,22 +104,37 @@ public interface BlockPattern {
         public BlockState getBlockState(BlockPos pos, BlockPos origin, Random random) {
             return blockState;
         }
+
+        @Override
+        public void fillBlockStates(long[] positions, int count, BlockPos origin, Random random, BlockState[] out) {
+            Arrays.fill(out, 0, count, blockState);
+        }
+
+        @Override
+        public boolean isThreadSafe() {
+            return true;
+        }
+
+        @Override
+        public PatternDescriptor describe() {
+            return new PatternDescriptor(PatternDescriptor.Type.SINGLE, List.of(blockState), List.of(), 0);
+        }
     }
 
     /**
      * Pattern that randomly selects from multiple block types with equal probability.
+     * <p>
+     * The choice is a hash of the pattern's seed and the block position rather than a draw from the
+     * shared {@link Random}, so a seeded pattern is reproducible and can be evaluated on any thread.
      */
     class RandomPattern implements BlockPattern {
         private final BlockState[] blockStates;
-        private final float[] weights;
+        private final AliasTable table;
+        private long seed = ThreadLocalRandom.current().nextLong();
 
         public RandomPattern(BlockState... blockStates) {
             this.blockStates = blockStates;
-            this.weights = new float[blockStates.length];
-            float weight = 1.0f / blockStates.length;
-            for (int i = 0; i < weights.length; i++) {
-                weights[i] = weight;
-            }
+            this.table = AliasTable.uniform(blockStates.length);
         }
 
         public RandomPattern(Block... blocks) {
@@ -82,38 +142,55 @@ public interface BlockPattern {
             for (int i = 0; i < blocks.length; i++) {
                 this.blockStates[i] = blocks[i].defaultBlockState();
             }
-            this.weights = new float[blocks.length];
-            float weight = 1.0f / blocks.length;
-            for (int i = 0; i < weights.length; i++) {
-                weights[i] = weight;
-            }
+            this.table = AliasTable.uniform(blocks.length);
+        }
+
+        /**
+         * Sets the seed that positions are hashed with. Patterns with the same seed place the same blocks.
+         *
+         * @param seed The seed
+         * @return This pattern
+         */
+        public RandomPattern withSeed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public long getSeed() {
+            return seed;
         }
 
         /**
          * Gets the block state for a specific position within the pattern.
          * <p>
-         * This pattern works by generating a random float between 0 and 1, and then
-         * iterating through the block states and their corresponding weights. When the
-         * cumulative weight exceeds the random float, the corresponding block state is
-         * returned. If the random float exceeds the total weight, the last
-         * block state is returned.
+         * This pattern works by hashing the position with the pattern's seed and using
+         * the hash to pick one of the block states uniformly.
          *
          * @param pos    The target position
          * @param origin The origin point of the pattern
-         * @param random Random instance for probabilistic patterns
+         * @param random Unused; the choice only depends on the seed and position
          * @return The block state to place at the given position
          */
         @Override
         public BlockState getBlockState(BlockPos pos, BlockPos origin, Random random) {
-            float rand = random.nextFloat();
-            float cumulative = 0;
-            for (int i = 0; i < blockStates.length; i++) {
-                cumulative += weights[i];
-                if (rand <= cumulative) {
-                    return blockStates[i];
-                }
+            return blockStates[table.sample(PositionalRandom.hash(seed, pos.asLong()))];
+        }
+
+        @Override
+        public void fillBlockStates(long[] positions, int count, BlockPos origin, Random random, BlockState[] out) {
+            for (int i = 0; i < count; i++) {
+                out[i] = blockStates[table.sample(PositionalRandom.hash(seed, positions[i]))];
             }
-            return blockStates[blockStates.length - 1];
+        }
+
+        @Override
+        public boolean isThreadSafe() {
+            return true;
+        }
+
+        @Override
+        public PatternDescriptor describe() {
+            return new PatternDescriptor(PatternDescriptor.Type.RANDOM, List.of(blockStates), List.of(), seed);
         }
     }
 
@@ -151,6 +228,39 @@ public interface BlockPattern {
 
             return (x + y + z) % 2 == 0 ? primary : secondary;
         }
+
+        /**
+         * Evaluates a batch of positions. The Y and Z cells are only recomputed when a new row starts.
+         */
+        @Override
+        public void fillBlockStates(long[] positions, int count, BlockPos origin, Random random, BlockState[] out) {
+            int originX = origin.getX(), originY = origin.getY(), originZ = origin.getZ();
+            int lastY = Integer.MIN_VALUE, lastZ = Integer.MIN_VALUE;
+            int rowCell = 0;
+
+            for (int i = 0; i < count; i++) {
+                long pos = positions[i];
+                int y = BlockPos.getY(pos), z = BlockPos.getZ(pos);
+                if (y != lastY || z != lastZ) {
+                    rowCell = (y - originY) / scale + (z - originZ) / scale;
+                    lastY = y;
+                    lastZ = z;
+                }
+
+                int x = (BlockPos.getX(pos) - originX) / scale;
+                out[i] = (x + rowCell) % 2 == 0 ? primary : secondary;
+            }
+        }
+
+        @Override
+        public boolean isThreadSafe() {
+            return true;
+        }
+
+        @Override
+        public PatternDescriptor describe() {
+            return new PatternDescriptor(PatternDescriptor.Type.CHECKERBOARD, List.of(primary, secondary), List.of((double) scale), 0);
+        }
     }
 
     /**
@@ -187,6 +297,35 @@ public interface BlockPattern {
             int layer = relativeY / layerThickness;
             return layer % 2 == 0 ? primary : secondary;
         }
+
+        /**
+         * Evaluates a batch of positions. The state only depends on Y, so it is recomputed once per layer.
+         */
+        @Override
+        public void fillBlockStates(long[] positions, int count, BlockPos origin, Random random, BlockState[] out) {
+            int originY = origin.getY();
+            int lastY = Integer.MIN_VALUE;
+            BlockState state = primary;
+
+            for (int i = 0; i < count; i++) {
+                int y = BlockPos.getY(positions[i]);
+                if (y != lastY) {
+                    state = ((y - originY) / layerThickness) % 2 == 0 ? primary : secondary;
+                    lastY = y;
+                }
+                out[i] = state;
+            }
+        }
+
+        @Override
+        public boolean isThreadSafe() {
+            return true;
+        }
+
+        @Override
+        public PatternDescriptor describe() {
+            return new PatternDescriptor(PatternDescriptor.Type.LAYERED, List.of(primary, secondary), List.of((double) layerThickness), 0);
+        }
     }
 
     /**
@@ -239,6 +378,35 @@ public interface BlockPattern {
             return random.nextFloat() < normalizedY ? topBlock : bottomBlock;
         }
 
+        /**
+         * Evaluates a batch of positions. The bounds are read once and the threshold is recomputed once per layer.
+         */
+        @Override
+        public void fillBlockStates(long[] positions, int count, BlockPos origin, Random random, BlockState[] out) {
+            if (minPos == null) {
+                minPos = origin;
+                maxPos = origin;
+            }
+
+            int minY = minPos.getY();
+            int range = maxPos.getY() - minY;
+            if (range == 0) {
+                Arrays.fill(out, 0, count, bottomBlock);
+                return;
+            }
+
+            int lastY = Integer.MIN_VALUE;
+            float normalizedY = 0;
+            for (int i = 0; i < count; i++) {
+                int y = BlockPos.getY(positions[i]);
+                if (y != lastY) {
+                    normalizedY = (float) (y - minY) / range;
+                    lastY = y;
+                }
+                out[i] = random.nextFloat() < normalizedY ? topBlock : bottomBlock;
+            }
+        }
+
         /**
          * Sets the bounds for the gradient calculation.
          */
@@ -246,14 +414,28 @@ public interface BlockPattern {
             this.minPos = min;
             this.maxPos = max;
         }
+
+        @Override
+        public PatternDescriptor describe() {
+            List<Double> bounds = minPos == null ? List.of() : List.of((double) minPos.getX(), (double) minPos.getY(),
+                    (double) minPos.getZ(), (double) maxPos.getX(), (double) maxPos.getY(), (double) maxPos.getZ());
+            return new PatternDescriptor(PatternDescriptor.Type.GRADIENT, List.of(bottomBlock, topBlock), bounds, 0);
+        }
     }
 
     /**
      * Pattern that randomly selects blocks based on weighted probabilities.
+     * <p>
+     * Blocks are sampled in constant time from an {@link AliasTable} built once per pattern, using
+     * a hash of the pattern's seed and the block position, so a seeded pattern is reproducible and
+     * can be evaluated on any thread.
      */
     class WeightedPattern implements BlockPattern {
         private final List<WeightedBlock> weightedBlocks;
         private final float totalWeight;
+        private BlockState[] states;
+        private AliasTable table;
+        private long seed = ThreadLocalRandom.current().nextLong();
 
         private void checkWeightTotalTo100() {
             if (Math.abs(this.totalWeight - 100.0f) > 0.001f) {
@@ -290,6 +472,7 @@ public interface BlockPattern {
             this.totalWeight = sum;
 
             checkWeightTotalTo100();
+            buildTable();
         }
 
         public WeightedPattern(Map<BlockState, Float> blockWeights) {
@@ -307,6 +490,34 @@ public interface BlockPattern {
             this.totalWeight = sum;
 
             checkWeightTotalTo100();
+            buildTable();
+        }
+
+        private void buildTable() {
+            if (weightedBlocks.isEmpty()) return;
+
+            states = new BlockState[weightedBlocks.size()];
+            float[] weights = new float[weightedBlocks.size()];
+            for (int i = 0; i < states.length; i++) {
+                states[i] = weightedBlocks.get(i).blockState;
+                weights[i] = weightedBlocks.get(i).weight;
+            }
+            table = new AliasTable(weights);
+        }
+
+        /**
+         * Sets the seed that positions are hashed with. Patterns with the same seed place the same blocks.
+         *
+         * @param seed The seed
+         * @return This pattern
+         */
+        public WeightedPattern withSeed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public long getSeed() {
+            return seed;
         }
 
         /**
@@ -337,37 +548,52 @@ public interface BlockPattern {
 
         /**
          * Gets the block state for a specific position within the pattern.
-         * This pattern works by generating a random float between 0 and 1, and then
-         * iterating through the block states and their corresponding weights. When the
-         * cumulative weight exceeds the random float, the corresponding block state is
-         * returned. If the random float exceeds the total weight, the last
-         * block state is returned.
+         * This pattern works by hashing the position with the pattern's seed and
+         * sampling the alias table with the hash, which picks each block state with
+         * a probability proportional to its weight.
          * <p>
          * If no blocks are defined in the weighted pattern, an IllegalStateException is thrown.
          *
          * @param pos    The target position
          * @param origin The origin point of the pattern
-         * @param random Random instance for probabilistic patterns
+         * @param random Unused; the choice only depends on the seed and position
          * @return The block state to place at the given position
          * @throws IllegalStateException If no blocks are defined in the weighted pattern
          */
         @Override
         public BlockState getBlockState(BlockPos pos, BlockPos origin, Random random) {
-            if (weightedBlocks.isEmpty()) {
+            if (table == null) {
                 throw new IllegalStateException("No blocks defined in weighted pattern");
             }
 
-            float randomValue = random.nextFloat() * totalWeight;
-            float cumulative = 0;
+            return states[table.sample(PositionalRandom.hash(seed, pos.asLong()))];
+        }
 
-            for (WeightedBlock weightedBlock : weightedBlocks) {
-                cumulative += weightedBlock.weight;
-                if (randomValue <= cumulative) {
-                    return weightedBlock.blockState;
-                }
+        @Override
+        public void fillBlockStates(long[] positions, int count, BlockPos origin, Random random, BlockState[] out) {
+            if (table == null) {
+                throw new IllegalStateException("No blocks defined in weighted pattern");
             }
 
-            return weightedBlocks.get(weightedBlocks.size() - 1).blockState;
+            for (int i = 0; i < count; i++) {
+                out[i] = states[table.sample(PositionalRandom.hash(seed, positions[i]))];
+            }
+        }
+
+        @Override
+        public boolean isThreadSafe() {
+            return true;
+        }
+
+        @Override
+        public PatternDescriptor describe() {
+            List<BlockState> blockStates = new ArrayList<>(weightedBlocks.size());
+            List<Double> weights = new ArrayList<>(weightedBlocks.size());
+            for (WeightedBlock weightedBlock : weightedBlocks) {
+                blockStates.add(weightedBlock.blockState);
+                weights.add((double) weightedBlock.weight);
+            }
+            return new PatternDescriptor(PatternDescriptor.Type.WEIGHTED, blockStates, weights, seed);
         }
 
         /**
@@ -414,8 +640,16 @@ public interface BlockPattern {
 
     /**
      * Pattern that creates noise-based terrain using Perlin-like noise.
+     * <p>
+     * When {@code 0 < scale < 1} the noise is value noise: the hash below is only evaluated on the integer
+     * lattice of the scaled coordinates and smoothly interpolated in between. Bulk evaluation computes
+     * each lattice point once per chunk section and interpolates whole rows at a time. For
+     * other scales lattice points are at most a block apart, so every block is hashed directly.
      */
     class NoisePattern implements BlockPattern {
+        // Rows never cross a chunk section, so they are at most 16 blocks long
+        private static final int ROW_LANES = 16;
+
         private final BlockState primary;
         private final BlockState secondary;
         private final double scale;
@@ -444,7 +678,7 @@ public interface BlockPattern {
          */
         @Override
         public BlockState getBlockState(BlockPos pos, BlockPos origin, Random random) {
-            double noise = generateNoise(
+            double noise = sample(
                     (pos.getX() - origin.getX()) * scale,
                     (pos.getY() - origin.getY()) * scale,
                     (pos.getZ() - origin.getZ()) * scale
@@ -452,6 +686,120 @@ public interface BlockPattern {
             return noise > threshold ? primary : secondary;
         }
 
+        /**
+         * Evaluates a batch of positions row by row. Lattice points are cached for the chunk section
+         * being evaluated, and every row is interpolated by {@link #evaluateRow}.
+         */
+        @Override
+        public void fillBlockStates(long[] positions, int count, BlockPos origin, Random random, BlockState[] out) {
+            int originX = origin.getX(), originY = origin.getY(), originZ = origin.getZ();
+            if (!isInterpolated()) {
+                for (int i = 0; i < count; i++) {
+                    long pos = positions[i];
+                    double noise = generateNoise((BlockPos.getX(pos) - originX) * scale,
+                            (BlockPos.getY(pos) - originY) * scale, (BlockPos.getZ(pos) - originZ) * scale);
+                    out[i] = noise > threshold ? primary : secondary;
+                }
+                return;
+            }
+
+            Lattice lattice = new Lattice();
+            double[] edges = new double[ROW_LANES + 2];
+            double[] values = new double[ROW_LANES];
+            int i = 0;
+            while (i < count) {
+                long pos = positions[i];
+                int x = BlockPos.getX(pos), y = BlockPos.getY(pos), z = BlockPos.getZ(pos);
+
+                // Extend the row while positions continue along X inside the same section
+                int end = i + 1;
+                while (end < count && end - i < ROW_LANES && ((x + end - i) & 15) != 0
+                        && positions[end] == BlockPos.offset(pos, end - i, 0, 0)) {
+                    end++;
+                }
+
+                lattice.cover(x, y, z, originX, originY, originZ);
+                evaluateRow(lattice, x - originX, y - originY, z - originZ, end - i, edges, values);
+                for (int k = 0; k < end - i; k++) {
+                    out[i + k] = values[k] > threshold ? primary : secondary;
+                }
+                i = end;
+            }
+        }
+
+        @Override
+        public boolean isThreadSafe() {
+            return true;
+        }
+
+        @Override
+        public PatternDescriptor describe() {
+            return new PatternDescriptor(PatternDescriptor.Type.NOISE, List.of(primary, secondary), List.of(scale, threshold), 0);
+        }
+
+        /**
+         * Evaluates {@code length} consecutive blocks along X, starting at the given coordinates relative
+         * to the origin. The lattice is first collapsed along Y and Z into one edge value per lattice
+         * column the row crosses; each block is then a single interpolation between the two edges
+         * around it. The loop is plain scalar code: the saving comes from hashing each lattice point
+         * once per section and collapsing Y and Z once per row, not from unrolling or vectorization.
+         */
+        private void evaluateRow(Lattice lattice, int x, int y, int z, int length, double[] edges, double[] values) {
+            double scaledY = y * scale, scaledZ = z * scale;
+            int y0 = Mth.floor(scaledY), z0 = Mth.floor(scaledZ);
+            double fy = fade(scaledY - y0), fz = fade(scaledZ - z0);
+
+            int x0 = Mth.floor(x * scale);
+            int x1 = Mth.floor((x + length - 1) * scale) + 1;
+            for (int lx = x0; lx <= x1; lx++) {
+                edges[lx - x0] = edge(lattice.get(lx, y0, z0), lattice.get(lx, y0 + 1, z0),
+                        lattice.get(lx, y0, z0 + 1), lattice.get(lx, y0 + 1, z0 + 1), fy, fz);
+            }
+
+            for (int k = 0; k < length; k++) {
+                double t = (x + k) * scale;
+                int cell = Mth.floor(t);
+                values[k] = lerp(fade(t - cell), edges[cell - x0], edges[cell - x0 + 1]);
+            }
+        }
+
+        /**
+         * Samples the noise at a single scaled position.
+         */
+        private double sample(double x, double y, double z) {
+            if (!isInterpolated()) return generateNoise(x, y, z);
+
+            int x0 = Mth.floor(x), y0 = Mth.floor(y), z0 = Mth.floor(z);
+            double fy = fade(y - y0), fz = fade(z - z0);
+            double left = edge(generateNoise(x0, y0, z0), generateNoise(x0, y0 + 1, z0),
+                    generateNoise(x0, y0, z0 + 1), generateNoise(x0, y0 + 1, z0 + 1), fy, fz);
+            double right = edge(generateNoise(x0 + 1, y0, z0), generateNoise(x0 + 1, y0 + 1, z0),
+                    generateNoise(x0 + 1, y0, z0 + 1), generateNoise(x0 + 1, y0 + 1, z0 + 1), fy, fz);
+            return lerp(fade(x - x0), left, right);
+        }
+
+        /**
+         * Checks if lattice points are more than a block apart, so that the noise is interpolated.
+         */
+        private boolean isInterpolated() {
+            return scale > 0 && scale < 1;
+        }
+
+        /**
+         * Interpolates the four lattice values of a lattice column in Y and Z.
+         */
+        private static double edge(double c00, double c10, double c01, double c11, double fy, double fz) {
+            return lerp(fz, lerp(fy, c00, c10), lerp(fy, c01, c11));
+        }
+
+        private static double lerp(double t, double a, double b) {
+            return a + t * (b - a);
+        }
+
+        private static double fade(double t) {
+            return t * t * (3 - 2 * t);
+        }
+
         /**
          * Generates a simple 3D noise value based on the given coordinates.
          * This noise function is a simplified version of Perlin noise.
@@ -463,11 +811,53 @@ public interface BlockPattern {
          * @param z The z-coordinate of the position
          * @return The generated noise value
          */
-        private double generateNoise(double x, double y, double z) {
+        private static double generateNoise(double x, double y, double z) {
             // Simple 3D noise function (simplified Perlin-like noise)
             double n = Math.sin(x * 12.9898 + y * 78.233 + z * 37.719) * 43758.5453;
             return (n - Math.floor(n)) * 2.0 - 1.0;
         }
+
+        /**
+         * The noise lattice points of one chunk section, evaluated once each.
+         */
+        private final class Lattice {
+            private long sectionKey = Long.MIN_VALUE;
+            private int minX, minY, minZ;
+            private int sizeX, sizeY, sizeZ;
+            private double[] values = new double[0];
+
+            /**
+             * Makes sure the lattice covers the section of the given block.
+             */
+            private void cover(int x, int y, int z, int originX, int originY, int originZ) {
+                long key = SectionPos.asLong(x >> 4, y >> 4, z >> 4);
+                if (key == sectionKey) return;
+                sectionKey = key;
+
+                int blockX = (x & ~15) - originX, blockY = (y & ~15) - originY, blockZ = (z & ~15) - originZ;
+                minX = Mth.floor(blockX * scale);
+                minY = Mth.floor(blockY * scale);
+                minZ = Mth.floor(blockZ * scale);
+                sizeX = Mth.floor((blockX + 15) * scale) + 2 - minX;
+                sizeY = Mth.floor((blockY + 15) * scale) + 2 - minY;
+                sizeZ = Mth.floor((blockZ + 15) * scale) + 2 - minZ;
+
+                int size = sizeX * sizeY * sizeZ;
+                if (values.length < size) values = new double[size];
+                for (int ly = 0; ly < sizeY; ly++) {
+                    for (int lz = 0; lz < sizeZ; lz++) {
+                        int row = (ly * sizeZ + lz) * sizeX;
+                        for (int lx = 0; lx < sizeX; lx++) {
+                            values[row + lx] = generateNoise(minX + lx, minY + ly, minZ + lz);
+                        }
+                    }
+                }
+            }
+
+            private double get(int x, int y, int z) {
+                return values[((y - minY) * sizeZ + (z - minZ)) * sizeX + (x - minX)];
+            }
+        }
     }
 
     /**
@@ -515,6 +905,44 @@ public interface BlockPattern {
             return (coord / stripeWidth) % 2 == 0 ? primary : secondary;
         }
 
+        /**
+         * Evaluates a batch of positions with the axis resolved once for the whole batch.
+         * Stripes along Y or Z are constant along a row, so they are only recomputed when a new row starts.
+         */
+        @Override
+        public void fillBlockStates(long[] positions, int count, BlockPos origin, Random random, BlockState[] out) {
+            if (axis == Axis.X) {
+                int originX = origin.getX();
+                for (int i = 0; i < count; i++) {
+                    out[i] = ((BlockPos.getX(positions[i]) - originX) / stripeWidth) % 2 == 0 ? primary : secondary;
+                }
+                return;
+            }
+
+            boolean alongY = axis == Axis.Y;
+            int originCoord = alongY ? origin.getY() : origin.getZ();
+            int lastCoord = Integer.MIN_VALUE;
+            BlockState state = primary;
+            for (int i = 0; i < count; i++) {
+                int coord = alongY ? BlockPos.getY(positions[i]) : BlockPos.getZ(positions[i]);
+                if (coord != lastCoord) {
+                    state = ((coord - originCoord) / stripeWidth) % 2 == 0 ? primary : secondary;
+                    lastCoord = coord;
+                }
+                out[i] = state;
+            }
+        }
+
+        @Override
+        public boolean isThreadSafe() {
+            return true;
+        }
+
+        @Override
+        public PatternDescriptor describe() {
+            return new PatternDescriptor(PatternDescriptor.Type.STRIPE, List.of(primary, secondary), List.of((double) stripeWidth, (double) axis.ordinal()), 0);
+        }
+
         public enum Axis {X, Y, Z}
     }
 }
\ No newline at end of file
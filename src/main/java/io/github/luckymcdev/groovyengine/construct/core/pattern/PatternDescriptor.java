@@ -0,0 +1,166 @@
+/*
+ * Copyright 2025 LuckyMcDev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.luckymcdev.groovyengine.construct.core.pattern;
+
+import io.netty.buffer.ByteBuf;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.codec.ByteBufCodecs;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.util.ByIdMap;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * A serializable description of one of the built-in {@link BlockPattern}s: its type, the block states
+ * it places, its numeric parameters and its seed. Descriptors are what operations send over the network,
+ * so a pattern costs a few bytes no matter how many blocks it fills; the receiving side rebuilds the
+ * pattern with {@link #create()}.
+ *
+ * @param type   The pattern type
+ * @param states The block states, in the order the type's constructor takes them
+ * @param params The numeric parameters, see {@link Type}
+ * @param seed   The seed of seeded patterns, otherwise 0
+ */
+public record PatternDescriptor(Type type, List<BlockState> states, List<Double> params, long seed) {
+    private static final int MAX_STATES = 256;
+    private static final int MAX_PARAMS = 256;
+    // Largest size parameter accepted, which keeps integer parameters clear of overflow
+    private static final int MAX_SIZE = 1 << 16;
+
+    public static final StreamCodec<ByteBuf, PatternDescriptor> STREAM_CODEC = StreamCodec.composite(
+            Type.STREAM_CODEC, PatternDescriptor::type,
+            ByteBufCodecs.idMapper(Block.BLOCK_STATE_REGISTRY).apply(ByteBufCodecs.list(MAX_STATES)), PatternDescriptor::states,
+            ByteBufCodecs.DOUBLE.apply(ByteBufCodecs.list(MAX_PARAMS)), PatternDescriptor::params,
+            ByteBufCodecs.VAR_LONG, PatternDescriptor::seed,
+            PatternDescriptor::new
+    );
+
+    public PatternDescriptor {
+        states = List.copyOf(states);
+        params = List.copyOf(params);
+    }
+
+    /**
+     * Builds the pattern this descriptor describes.
+     *
+     * @return A new pattern
+     * @throws IllegalArgumentException If the descriptor has too few states or parameters for its type, or invalid values
+     */
+    public BlockPattern create() {
+        return switch (type) {
+            case SINGLE -> new BlockPattern.SingleBlockPattern(state(0));
+            case RANDOM -> {
+                if (states.isEmpty()) throw new IllegalArgumentException("Random pattern without blocks");
+                yield new BlockPattern.RandomPattern(states.toArray(new BlockState[0])).withSeed(seed);
+            }
+            case CHECKERBOARD -> new BlockPattern.CheckerboardPattern(state(0), state(1), size(0));
+            case LAYERED -> new BlockPattern.LayeredPattern(state(0), state(1), size(0));
+            case GRADIENT -> {
+                BlockPattern.GradientPattern gradient = new BlockPattern.GradientPattern(state(0), state(1));
+                if (params.size() >= 6) {
+                    gradient.setBounds(new BlockPos(coordinate(0), coordinate(1), coordinate(2)),
+                            new BlockPos(coordinate(3), coordinate(4), coordinate(5)));
+                }
+                yield gradient;
+            }
+            case WEIGHTED -> {
+                if (states.isEmpty() || params.size() < states.size()) throw new IllegalArgumentException("Weighted pattern without weights");
+                Object[] blocks = new Object[states.size() * 2];
+                for (int i = 0; i < states.size(); i++) {
+                    blocks[i * 2] = states.get(i);
+                    blocks[i * 2 + 1] = (float) param(i);
+                }
+                yield new BlockPattern.WeightedPattern(blocks).withSeed(seed);
+            }
+            case NOISE -> new BlockPattern.NoisePattern(state(0), state(1), param(0), param(1));
+            case STRIPE -> {
+                BlockPattern.StripePattern.Axis[] axes = BlockPattern.StripePattern.Axis.values();
+                int axis = (int) param(1);
+                if (axis < 0 || axis >= axes.length) throw new IllegalArgumentException("Invalid stripe axis " + axis);
+                yield new BlockPattern.StripePattern(state(0), state(1), size(0), axes[axis]);
+            }
+        };
+    }
+
+    private BlockState state(int index) {
+        if (index >= states.size()) throw new IllegalArgumentException(type + " pattern needs " + (index + 1) + " block states");
+        return states.get(index);
+    }
+
+    private double param(int index) {
+        if (index >= params.size()) throw new IllegalArgumentException(type + " pattern needs " + (index + 1) + " parameters");
+        double value = params.get(index);
+        if (!Double.isFinite(value)) throw new IllegalArgumentException("Invalid " + type + " pattern parameter " + value);
+        return value;
+    }
+
+    private int size(int index) {
+        double value = param(index);
+        if (value < 1 || value > MAX_SIZE) throw new IllegalArgumentException("Invalid " + type + " pattern size " + value);
+        return (int) value;
+    }
+
+    private int coordinate(int index) {
+        double value = param(index);
+        if (Math.abs(value) > Integer.MAX_VALUE / 2) throw new IllegalArgumentException("Invalid coordinate " + value);
+        return (int) value;
+    }
+
+    /**
+     * The built-in pattern types and the parameters they take.
+     */
+    public enum Type {
+        /**
+         * One state, no parameters.
+         */
+        SINGLE,
+        /**
+         * Any number of states and the seed.
+         */
+        RANDOM,
+        /**
+         * Two states and the scale.
+         */
+        CHECKERBOARD,
+        /**
+         * Two states and the layer thickness.
+         */
+        LAYERED,
+        /**
+         * Two states, optionally followed by the six coordinates of the bounds.
+         */
+        GRADIENT,
+        /**
+         * Any number of states, one weight per state, and the seed.
+         */
+        WEIGHTED,
+        /**
+         * Two states, the scale and the threshold.
+         */
+        NOISE,
+        /**
+         * Two states, the stripe width and the axis ordinal.
+         */
+        STRIPE;
+
+        private static final IntFunction<Type> BY_ID = ByIdMap.continuous(Type::ordinal, values(), ByIdMap.OutOfBoundsStrategy.ZERO);
+        public static final StreamCodec<ByteBuf, Type> STREAM_CODEC = ByteBufCodecs.idMapper(BY_ID, Type::ordinal);
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2025 LuckyMcDev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.luckymcdev.groovyengine.construct.core.pattern;
+
+import net.minecraft.core.BlockPos;
+
+/**
+ * Deterministic per-position random numbers.
+ * <p>
+ * Each value is a SplitMix64 hash of a seed and a {@link BlockPos#asLong packed} position, so the
+ * result does not depend on evaluation order or on any shared generator state. The same seed always
+ * produces the same pattern, and positions can be evaluated on any thread.
+ */
+public final class PositionalRandom {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private PositionalRandom() {}
+
+    /**
+     * Hashes a seed and a packed position into 64 well-mixed random bits.
+     *
+     * @param seed The pattern seed
+     * @param pos  The packed position
+     * @return The random bits
+     */
+    public static long hash(long seed, long pos) {
+        return mix(seed ^ mix(pos + GOLDEN_GAMMA));
+    }
+
+    /**
+     * Hashes a seed and a packed position into a float in {@code [0, 1)}.
+     */
+    public static float nextFloat(long seed, long pos) {
+        return (hash(seed, pos) >>> 40) * 0x1.0p-24f;
+    }
+
+    /**
+     * The SplitMix64 finalizer.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -16,48 +16,74 @@
 
 package io.github.luckymcdev.groovyengine.construct.core.placement;
 
+import io.github.luckymcdev.groovyengine.construct.core.clipboard.Clipboard;
 import io.github.luckymcdev.groovyengine.construct.core.flags.BlockPlacementFlags;
+import io.github.luckymcdev.groovyengine.construct.core.mask.BlockMask;
 import io.github.luckymcdev.groovyengine.construct.core.pattern.BlockPattern;
-import io.github.luckymcdev.groovyengine.construct.core.selection.Selection;
-import net.minecraft.client.Minecraft;
+import io.github.luckymcdev.groovyengine.construct.core.region.CuboidRegion;
+import io.github.luckymcdev.groovyengine.construct.core.region.Region;
+import io.github.luckymcdev.groovyengine.construct.core.region.RegionCursor;
+import io.github.luckymcdev.groovyengine.construct.core.region.RegionMask;
+import io.github.luckymcdev.groovyengine.core.config.Config;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
 import net.minecraft.core.BlockPos;
-import net.minecraft.world.entity.player.Player;
+import net.minecraft.core.SectionPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.BitStorage;
 import net.minecraft.world.level.Level;
-import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
-import net.neoforged.api.distmarker.Dist;
-import net.neoforged.api.distmarker.OnlyIn;
+import net.minecraft.world.level.chunk.LevelChunkSection;
 import net.neoforged.bus.api.SubscribeEvent;
 import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.server.ServerStoppingEvent;
 import net.neoforged.neoforge.event.tick.ServerTickEvent;
 
+import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.Queue;
-import java.util.Random;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Asynchronous block placement thingiemajig
- *
- *
+ * <p>
+ * Every operation becomes a {@link PlacementJob} that is prepared on the {@link PlacementPipeline} and
+ * written on the server thread in its own dimension. Operations queued between {@link #beginJob} and
+ * {@link #endJob()} share one job. Each tick the runnable jobs take turns writing, each turn as many poll
+ * batches as the job's priority weight, until the tick budget is spent.
+ * <p>
+ * The placer runs on the logical server, on dedicated and integrated servers alike. Operations are queued
+ * on the server thread; players reach it through the operations they send, see
+ * {@link io.github.luckymcdev.groovyengine.construct.network.ConstructNetwork}.
  *
  * TODO: Create a new second class, which handles the static event context, so that no singleton ABP is needed.
  */
-@EventBusSubscriber(value = Dist.CLIENT)
-@OnlyIn(Dist.CLIENT)
+@EventBusSubscriber
 public class AsyncBlockPlacer {
     private static final AsyncBlockPlacer INSTANCE = new AsyncBlockPlacer();
-    private final Queue<PlacementTask> immediatePlacementQueue = new ConcurrentLinkedQueue<>();
-    private final Queue<PlacementTask> delayedUpdateQueue = new ConcurrentLinkedQueue<>();
-    private final Random random = new Random();
-    private static final int MAX_BLOCKS_PER_TICK = 100000;
-    private static final int FPS_THRESHOLD = 45;
-    private static final int ADJUSTMENT_INTERVAL = 5;
-    private static final int BLOCKS_PER_TICK_INCREMENT = 250;
-    private int blocksPerTick = 1000;
-    private int updatesPerTick = blocksPerTick / 2;
-    private int tickCounter = 0;
+    // Small enough that the tick budget is checked every few dozen blocks
+    private static final int POLL_BATCH_SIZE = 64;
+    private final PlacementPipeline pipeline = new PlacementPipeline();
+    // Jobs in creation order; added by operations and dropped on the server thread once finished
+    private final List<PlacementJob> jobs = new ArrayList<>();
+    private final AtomicInteger nextJobId = new AtomicInteger(1);
+    private final Map<ResourceKey<Level>, DeferredLighting> deferredLighting = new ConcurrentHashMap<>();
+    private final Reference2ObjectOpenHashMap<ResourceKey<Level>, PlacementJob> directJobs = new Reference2ObjectOpenHashMap<>();
+    private final long[] polledPositions = new long[POLL_BATCH_SIZE];
+    private final int[] polledWords = new int[POLL_BATCH_SIZE];
+    private final BlockPos.MutableBlockPos scratchPos = new BlockPos.MutableBlockPos();
+    private final TickBudget tickBudget = new TickBudget();
+    private int blocksLastTick = 0;
+    private PlacementJob openJob;
 
     private AsyncBlockPlacer() {
     }
@@ -77,371 +103,510 @@ public class AsyncBlockPlacer {
      */
     @SubscribeEvent
     public static void onServerTick(ServerTickEvent.Pre event) {
-        Player player = Minecraft.getInstance().player;
-        if (player == null) return;
-
-        Level playerLevel = player.level();
-        Level level = event.getServer().getLevel(playerLevel.dimension());
-        if (level == null) return;
-
-        if (INSTANCE.immediatePlacementQueue.isEmpty() && INSTANCE.delayedUpdateQueue.isEmpty()) return;
+        INSTANCE.tick(event.getServer());
+    }
 
-        INSTANCE.tickCounter++;
-        if (INSTANCE.immediatePlacementQueue.size() > 10000 && INSTANCE.tickCounter % ADJUSTMENT_INTERVAL == 0) {
-            INSTANCE.adjustPerformanceParameters();
+    /**
+     * Cancels all jobs when the server stops, so none of them carries over into the next world.
+     * @param event the stopping event.
+     */
+    @SubscribeEvent
+    public static void onServerStopping(ServerStoppingEvent event) {
+        INSTANCE.clearQueues();
+        // The levels are saved after this event, so the light of everything written so far is saved with them
+        for (DeferredLighting lighting : INSTANCE.deferredLighting.values()) {
+            lighting.relight();
         }
-
-        INSTANCE.processQueues(level);
+        INSTANCE.deferredLighting.clear();
     }
 
     /**
-     * Retrieves the current number of blocks that are processed per tick.
-     * This value can be modified by calling {@link #setBlocksPerTick(int)}.
-     * The value is adjusted automatically to maintain a target frame rate
-     * if the number of blocks per tick is greater than 10000.
+     * Retrieves the number of blocks that were processed during the last server tick, over all jobs.
+     * The amount is not fixed; placement runs until the tick budget is spent.
      *
-     * @return the current number of blocks per tick
+     * @return the number of blocks processed during the last tick
      */
     public int getBlocksPerTick() {
-        return blocksPerTick;
+        return blocksLastTick;
     }
 
     /**
-     * Sets the number of blocks to process per tick.
-     * The value is clamped to a minimum of 1 to prevent division by zero.
+     * Retrieves the number of light checks collected for running placement jobs, over all dimensions.
      *
-     * @param blocksPerTick the number of blocks to process per tick
+     * @return the number of blocks waiting for a light check
      */
-    public void setBlocksPerTick(int blocksPerTick) {
-        this.blocksPerTick = Math.max(1, blocksPerTick);
+    public long getPendingLightChecks() {
+        long pending = 0;
+        for (DeferredLighting lighting : deferredLighting.values()) {
+            pending += lighting.getPendingBlocks();
+        }
+        return pending;
     }
 
     /**
-     * Retrieves the current number of block updates that are processed per tick.
-     * This value can be modified by calling {@link #setUpdatesPerTick(int)}.
-     * The value is adjusted automatically to maintain a target frame rate
-     * if the number of blocks per tick is greater than 10000.
+     * Retrieves the tick budget that placement work is measured against.
+     * The configured budget is set with {@link Config#CONSTRUCT_TICK_BUDGET_MS}.
      *
-     * @return the current number of block updates per tick
+     * @return the tick budget
      */
-    public int getUpdatesPerTick() {
-        return updatesPerTick;
+    public TickBudget getTickBudget() {
+        return tickBudget;
     }
 
     /**
-     * Sets the number of block updates to process per tick.
-     * The value is clamped to a minimum of 1 to prevent division by zero.
+     * Retrieves the pipeline that prepares jobs in the background.
      *
-     * @param updatesPerTick the number of block updates to process per tick
+     * @return the placement pipeline of this placer
      */
-    public void setUpdatesPerTick(int updatesPerTick) {
-        this.updatesPerTick = Math.max(1, updatesPerTick);
+    public PlacementPipeline getPipeline() {
+        return pipeline;
     }
 
     /**
-     * Fills a selection with blocks from a specified pattern.
-     * @param selection the selection to fill
-     * @param pattern the pattern to fill the selection with.
+     * Retrieves the jobs that have not finished yet, in the order they were created.
+     *
+     * @return a snapshot of the current jobs
      */
-    public void fillSelection(Selection selection, BlockPattern pattern) {
-        if (!selection.hasValidSelection()) return;
-
-        Level level = Minecraft.getInstance().level;
-        if (level == null) return;
-
-        Set<BlockPos> positions = selection.getSelectedBlocks();
-        BlockPos origin = selection.getPos1();
-
-        queueBlockPlacements(positions, pattern, origin);
+    public List<PlacementJob> getJobs() {
+        synchronized (jobs) {
+            return List.copyOf(jobs);
+        }
     }
 
     /**
-     * Fills only the hollow shell of a selection.
+     * Retrieves an unfinished job by its id.
+     *
+     * @param id the id of the job
+     * @return the job, or null if there is no unfinished job with that id
      */
-    public void fillHollow(Selection selection, BlockPattern pattern, int thickness) {
-        if (!selection.hasValidSelection()) return;
-
-        Level level = Minecraft.getInstance().level;
-        if (level == null) return;
-
-        Set<BlockPos> positions = selection.getHollowBlocks(thickness);
-        BlockPos origin = selection.getPos1();
-
-        queueBlockPlacements(positions, pattern, origin);
+    public PlacementJob getJob(int id) {
+        synchronized (jobs) {
+            for (PlacementJob job : jobs) {
+                if (job.getId() == id) return job;
+            }
+        }
+        return null;
     }
 
     /**
-     * Fills only the walls (vertical faces) of a selection.
+     * Starts a job with normal priority. Operations queued until {@link #endJob()} become part of it.
+     *
+     * @param name  The name shown for the job
+     * @param level The level the job places blocks in
+     * @return the new job
      */
-    public void fillWalls(Selection selection, BlockPattern pattern) {
-        if (!selection.hasValidSelection()) return;
-
-        Level level = Minecraft.getInstance().level;
-        if (level == null) return;
-
-        Set<BlockPos> positions = selection.getWallBlocks();
-        BlockPos origin = selection.getPos1();
-
-        queueBlockPlacements(positions, pattern, origin);
+    public PlacementJob beginJob(String name, ServerLevel level) {
+        return beginJob(name, level, PlacementJob.Priority.NORMAL, null, null);
     }
 
     /**
-     * Fills only the outline (edges) of a selection.
+     * Starts a job in the given level. Operations queued until {@link #endJob()} become part of it and must
+     * target the same level. A job that is still open is ended first.
+     *
+     * @param name     The name shown for the job
+     * @param level    The level the job places blocks in
+     * @param priority The job's share of the tick budget
+     * @param recorder The recorder notified of every block the job changes, or null
+     * @param owner    The player the job is run for, or null
+     * @return the new job
      */
-    public void fillOutline(Selection selection, BlockPattern pattern) {
-        if (!selection.hasValidSelection()) return;
-
-        Level level = Minecraft.getInstance().level;
-        if (level == null) return;
-
-        Set<BlockPos> positions = selection.getEdgeBlocks();
-        BlockPos origin = selection.getPos1();
-
-        queueBlockPlacements(positions, pattern, origin);
+    public PlacementJob beginJob(String name, ServerLevel level, PlacementJob.Priority priority, ChangeRecorder recorder, UUID owner) {
+        endJob();
+        openJob = createJob(name, level.dimension(), priority, recorder, owner);
+        return openJob;
     }
 
     /**
-     * Creates a sphere at the specified center with the given radius.
+     * Ends the open job. It completes once everything queued for it has been written.
      */
-    public void createSphere(BlockPos center, int radius, BlockPattern pattern) {
-        Level level = Minecraft.getInstance().level;
-        if (level == null) return;
+    public void endJob() {
+        if (openJob == null) return;
 
-        Set<BlockPos> positions = new HashSet<>();
-        int radiusSquared = radius * radius;
+        openJob.seal();
+        openJob = null;
+    }
 
-        for (int x = -radius; x <= radius; x++) {
-            for (int y = -radius; y <= radius; y++) {
-                for (int z = -radius; z <= radius; z++) {
-                    if (x * x + y * y + z * z <= radiusSquared) {
-                        positions.add(center.offset(x, y, z));
-                    }
-                }
-            }
+    private PlacementJob createJob(String name, ResourceKey<Level> dimension, PlacementJob.Priority priority,
+                                   ChangeRecorder recorder, UUID owner) {
+        PlacementJob job = new PlacementJob(nextJobId.getAndIncrement(), name, dimension, priority, recorder, owner);
+        synchronized (jobs) {
+            jobs.add(job);
         }
-
-        queueBlockPlacements(positions, pattern, center);
+        return job;
     }
 
     /**
-     * Creates a hollow sphere at the specified center.
+     * Gets the job an operation is queued on: the open job, or a new job for just this operation.
+     * Call {@link #release(PlacementJob)} once the operation is submitted.
      */
-    public void createHollowSphere(BlockPos center, int radius, int thickness, BlockPattern pattern) {
-        Level level = Minecraft.getInstance().level;
-        if (level == null) return;
-
-        Set<BlockPos> positions = new HashSet<>();
-        int outerRadiusSquared = radius * radius;
-        int innerRadius = Math.max(0, radius - thickness);
-        int innerRadiusSquared = innerRadius * innerRadius;
+    private PlacementJob acquire(String name, ServerLevel level) {
+        if (openJob == null) return createJob(name, level.dimension(), PlacementJob.Priority.NORMAL, null, null);
 
-        for (int x = -radius; x <= radius; x++) {
-            for (int y = -radius; y <= radius; y++) {
-                for (int z = -radius; z <= radius; z++) {
-                    int distSquared = x * x + y * y + z * z;
-                    if (distSquared <= outerRadiusSquared && distSquared >= innerRadiusSquared) {
-                        positions.add(center.offset(x, y, z));
-                    }
-                }
-            }
+        if (openJob.getDimension() != level.dimension()) {
+            throw new IllegalArgumentException("Job " + openJob.getName() + " places blocks in " + openJob.getDimension().location());
         }
+        return openJob;
+    }
 
-        queueBlockPlacements(positions, pattern, center);
+    private void release(PlacementJob job) {
+        if (job != openJob) job.seal();
     }
 
     /**
-     * Creates a cylinder between two points.
+     * Fills every position of a region with blocks from a pattern.
+     * The region is walked and the pattern evaluated on the {@link PlacementPipeline}, so this returns
+     * immediately no matter how large the region is.
+     *
+     * @param level   the level to place the blocks in
+     * @param name    the name of the operation, used for its job if no job is open
+     * @param region  the positions to fill
+     * @param pattern the pattern to fill the region with
+     * @param origin  the position the pattern is evaluated relative to
      */
-    public void createCylinder(BlockPos pos1, BlockPos pos2, int radius, BlockPattern pattern) {
-        Level level = Minecraft.getInstance().level;
-        if (level == null) return;
-
-        Set<BlockPos> positions = new HashSet<>();
-        int minY = Math.min(pos1.getY(), pos2.getY());
-        int maxY = Math.max(pos1.getY(), pos2.getY());
-        int centerX = (pos1.getX() + pos2.getX()) / 2;
-        int centerZ = (pos1.getZ() + pos2.getZ()) / 2;
-        int radiusSquared = radius * radius;
-
-        for (int y = minY; y <= maxY; y++) {
-            for (int x = centerX - radius; x <= centerX + radius; x++) {
-                for (int z = centerZ - radius; z <= centerZ + radius; z++) {
-                    int dx = x - centerX;
-                    int dz = z - centerZ;
-                    if (dx * dx + dz * dz <= radiusSquared) {
-                        positions.add(new BlockPos(x, y, z));
-                    }
-                }
-            }
-        }
-
-        queueBlockPlacements(positions, pattern, pos1);
+    public void fill(ServerLevel level, String name, Region region, BlockPattern pattern, BlockPos origin) {
+        PlacementJob job = acquire(name, level);
+        pipeline.fill(job, region, pattern, origin, shouldSendUpdates());
+        release(job);
     }
 
     /**
-     * Creates a hollow cylinder between two points.
+     * Fills the positions of a region that are in a region mask with blocks from a pattern.
+     * Sections the mask has no positions in are skipped without walking the region through them.
+     *
+     * @param level      the level to place the blocks in
+     * @param name       the name of the operation, used for its job if no job is open
+     * @param region     the positions to fill
+     * @param regionMask the positions that may be changed
+     * @param pattern    the pattern to fill the region with
+     * @param origin     the position the pattern is evaluated relative to
      */
-    public void createHollowCylinder(BlockPos pos1, BlockPos pos2, int radius, int thickness, BlockPattern pattern) {
-        Level level = Minecraft.getInstance().level;
-        if (level == null) return;
+    public void fill(ServerLevel level, String name, Region region, RegionMask regionMask, BlockPattern pattern, BlockPos origin) {
+        fill(level, name, regionMask.clip(region), pattern, origin);
+    }
 
-        Set<BlockPos> positions = new HashSet<>();
-        int minY = Math.min(pos1.getY(), pos2.getY());
-        int maxY = Math.max(pos1.getY(), pos2.getY());
-        int centerX = (pos1.getX() + pos2.getX()) / 2;
-        int centerZ = (pos1.getZ() + pos2.getZ()) / 2;
-        int outerRadiusSquared = radius * radius;
-        int innerRadius = Math.max(0, radius - thickness);
-        int innerRadiusSquared = innerRadius * innerRadius;
+    /**
+     * Replaces every block matching a mask with another state in a region.
+     * <p>
+     * Each chunk section's palette is checked against the mask first, so sections that cannot contain
+     * a target (including air-only sections) are skipped without reading their blocks. The remaining
+     * sections are scanned once, reading states straight from the section storage.
+     * <p>
+     * The scan runs on the {@link PlacementPipeline} like every other operation. It only reads chunks
+     * that are already loaded; sections of unloaded chunks are skipped.
+     *
+     * @param level       the level to replace blocks in
+     * @param region      the positions to scan
+     * @param mask        the blocks to replace
+     * @param replacement the state to replace them with
+     */
+    public void replace(ServerLevel level, Region region, BlockMask mask, BlockState replacement) {
+        int word = PlacementQueue.encode(replacement, shouldSendUpdates());
+        PlacementJob job = acquire("Replace", level);
+        pipeline.submit(job, sink -> {
+            LoadedSections sections = new LoadedSections(level);
+            RegionCursor cursor = region.cursor((sectionX, sectionY, sectionZ) -> {
+                LevelChunkSection section = sections.get(sectionX, sectionY, sectionZ);
+                return section != null && mask.mayMatch(section);
+            });
+
+            long sectionKey = Long.MIN_VALUE;
+            LevelChunkSection section = null;
+            while (cursor.advance()) {
+                int x = cursor.x(), y = cursor.y(), z = cursor.z();
+                long key = SectionPos.asLong(x >> 4, y >> 4, z >> 4);
+                if (key != sectionKey) {
+                    if (sink.isCancelled()) return;
+                    sectionKey = key;
+                    section = sections.get(x >> 4, y >> 4, z >> 4);
+                }
 
-        for (int y = minY; y <= maxY; y++) {
-            for (int x = centerX - radius; x <= centerX + radius; x++) {
-                for (int z = centerZ - radius; z <= centerZ + radius; z++) {
-                    int dx = x - centerX;
-                    int dz = z - centerZ;
-                    int distSquared = dx * dx + dz * dz;
-                    if (distSquared <= outerRadiusSquared && distSquared >= innerRadiusSquared) {
-                        positions.add(new BlockPos(x, y, z));
-                    }
+                BlockState currentState = section.getBlockState(x & 15, y & 15, z & 15);
+                if (currentState != replacement && mask.matches(currentState)) {
+                    sink.offer(cursor.asLong(), word);
                 }
             }
-        }
+        });
+        release(job);
+    }
 
-        queueBlockPlacements(positions, pattern, pos1);
+    /**
+     * Replaces every block matching a mask with another state in the positions of a region that are in a
+     * region mask. Sections the region mask has no positions in are skipped before their palette is read.
+     *
+     * @param level       the level to replace blocks in
+     * @param region      the positions to scan
+     * @param regionMask  the positions that may be changed
+     * @param mask        the blocks to replace
+     * @param replacement the state to replace them with
+     */
+    public void replace(ServerLevel level, Region region, RegionMask regionMask, BlockMask mask, BlockState replacement) {
+        replace(level, regionMask.clip(region), mask, replacement);
     }
 
     /**
-     * Creates a pyramid at the specified base position.
+     * Pastes a clipboard with its origin at a position, applying the clipboard's transform.
+     * <p>
+     * The paste region is walked on the {@link PlacementPipeline} in chunk-section order; every target
+     * position is mapped back to its source block, so the clipboard is never expanded into positions.
+     * The transformed palette is computed once up front and placements are offered a section at a time.
+     * Block entities are loaded with the copied data once their block is written.
+     *
+     * @param level     the level to paste into
+     * @param clipboard the clipboard to paste
+     * @param at        the position the clipboard's origin is pasted at
+     * @param skipAir   whether air in the clipboard leaves the blocks at its position alone
      */
-    public void createPyramid(BlockPos base, int baseSize, int height, BlockPattern pattern) {
-        Level level = Minecraft.getInstance().level;
-        if (level == null) return;
+    public void paste(ServerLevel level, Clipboard clipboard, BlockPos at, boolean skipAir) {
+        BlockState[] states = clipboard.getTransformedPalette();
+        int[] words = new int[states.length];
+        boolean[] skipped = new boolean[states.length];
+        for (int i = 0; i < states.length; i++) {
+            words[i] = PlacementQueue.encode(states[i], shouldSendUpdates());
+            skipped[i] = skipAir && states[i].isAir();
+        }
 
-        Set<BlockPos> positions = new HashSet<>();
+        CuboidRegion region = clipboard.getPasteRegion(at);
+        BitStorage blocks = clipboard.getBlocks();
+        Int2ObjectMap<CompoundTag> blockEntities = clipboard.getBlockEntities();
+        PlacementJob job = acquire("Paste", level);
+        pipeline.submit(job, sink -> {
+            // Skipped air is dropped from the total again once preparation ends
+            sink.expect(region.size());
+            long[] positions = new long[4096];
+            int[] batch = new int[4096];
+            int count = 0;
+            RegionCursor cursor = region.cursor();
+            long sectionKey = Long.MIN_VALUE;
+
+            while (cursor.advance()) {
+                int x = cursor.x(), y = cursor.y(), z = cursor.z();
+                long key = SectionPos.asLong(x >> 4, y >> 4, z >> 4);
+                if (key != sectionKey || count == positions.length) {
+                    sink.offerAll(positions, batch, count);
+                    count = 0;
+                    if (sink.isCancelled()) return;
+                    sectionKey = key;
+                }
 
-        for (int y = 0; y < height; y++) {
-            float progress = (float) y / height;
-            int currentSize = (int) (baseSize * (1 - progress));
+                int index = clipboard.getSourceIndex(at, x, y, z);
+                int id = blocks.get(index);
+                if (skipped[id]) continue;
 
-            for (int x = -currentSize; x <= currentSize; x++) {
-                for (int z = -currentSize; z <= currentSize; z++) {
-                    positions.add(base.offset(x, y, z));
+                long pos = cursor.asLong();
+                if (!blockEntities.isEmpty() && states[id].hasBlockEntity()) {
+                    CompoundTag tag = blockEntities.get(index);
+                    if (tag != null) sink.putBlockEntityData(pos, tag);
                 }
+                positions[count] = pos;
+                batch[count++] = words[id];
             }
-        }
-
-        queueBlockPlacements(positions, pattern, base);
+            sink.offerAll(positions, batch, count);
+        });
+        release(job);
     }
 
     /**
-     * Replaces all blocks of one type with another in a selection.
+     * Runs a custom preparation task on the {@link PlacementPipeline}, on the open job or a job of its own.
+     *
+     * @param level the level the task places blocks in
+     * @param name  the name of the operation, used for its job if no job is open
+     * @param task  the task, which offers its placements to the sink it is given
      */
-    public void replaceBlocks(Selection selection, Block targetBlock, Block replacementBlock) {
-        if (!selection.hasValidSelection()) return;
-
-        Level level = Minecraft.getInstance().level;
-        if (level == null) return;
-
-        Set<BlockPos> positions = selection.getSelectedBlocks();
-        BlockState replacementState = replacementBlock.defaultBlockState();
-
-        for (BlockPos pos : positions) {
-            BlockState currentState = level.getBlockState(pos);
-            if (currentState.getBlock() == targetBlock) {
-                immediatePlacementQueue.offer(new PlacementTask(pos, replacementState, false));
-            }
-        }
+    public void submit(ServerLevel level, String name, PlacementPipeline.Task task) {
+        PlacementJob job = acquire(name, level);
+        pipeline.submit(job, task);
+        release(job);
+    }
 
-        if (shouldSendUpdates()) {
-            for (BlockPos pos : positions) {
-                BlockState currentState = level.getBlockState(pos);
-                if (currentState.getBlock() == targetBlock) {
-                    delayedUpdateQueue.offer(new PlacementTask(pos, null, true));
-                }
-            }
-        }
+    /**
+     * Queues a single block placement operation.
+     */
+    public void setBlock(ServerLevel level, BlockPos pos, BlockState state, boolean sendUpdates) {
+        setBlock(level, pos.asLong(), state, sendUpdates);
     }
 
     /**
-     * Helper method to queue block placements for a set of positions.
+     * Queues a single block placement operation at a packed {@link BlockPos#asLong} position.
+     * The placement goes to the open job, or to a shared job of the level for placements made outside
+     * of jobs, and stays in order with the job's operations still being prepared.
      */
-    private void queueBlockPlacements(Set<BlockPos> positions, BlockPattern pattern, BlockPos origin) {
-        for (BlockPos pos : positions) {
-            BlockState state = pattern.getBlockState(pos, origin, random);
-            immediatePlacementQueue.offer(new PlacementTask(pos, state, false));
+    public void setBlock(ServerLevel level, long pos, BlockState state, boolean sendUpdates) {
+        int word = PlacementQueue.encode(state, sendUpdates);
+        PlacementJob job = openJob != null ? acquire("Direct Placements", level) : getDirectJob(level.dimension());
+        while (!job.offerNow(pos, word) && !pipeline.submit(job, sink -> sink.offer(pos, word))) {
+            // The job finished in the meantime
+            job = getDirectJob(level.dimension());
         }
+    }
 
-        if (shouldSendUpdates()) {
-            for (BlockPos pos : positions) {
-                delayedUpdateQueue.offer(new PlacementTask(pos, null, true));
-            }
+    private PlacementJob getDirectJob(ResourceKey<Level> dimension) {
+        PlacementJob job = directJobs.get(dimension);
+        if (job == null || job.isFinished()) {
+            job = createJob("Direct Placements", dimension, PlacementJob.Priority.NORMAL, null, null);
+            job.seal();
+            directJobs.put(dimension, job);
         }
+        return job;
     }
 
     /**
-     * Queues a single block placement operation.
+     * Completes finished jobs and writes the runnable ones.
      */
-    public void setBlock(BlockPos pos, BlockState state, boolean sendUpdates) {
-        if (sendUpdates) {
-            immediatePlacementQueue.offer(new PlacementTask(pos, state, false));
-            delayedUpdateQueue.offer(new PlacementTask(pos, null, true));
+    private void tick(MinecraftServer server) {
+        List<PlacementJob> runnable = new ArrayList<>();
+        Set<ResourceKey<Level>> activeDimensions = new HashSet<>();
+        collectJobs(server, runnable, activeDimensions);
+
+        if (runnable.isEmpty()) {
+            blocksLastTick = 0;
         } else {
-            immediatePlacementQueue.offer(new PlacementTask(pos, state, false));
+            long configuredNanos = TimeUnit.MILLISECONDS.toNanos(Config.CONSTRUCT_TICK_BUDGET_MS.get());
+            tickBudget.begin(configuredNanos, server.getAverageTickTimeNanos());
+            processPlacements(server, runnable);
+            tickBudget.end();
+        }
+
+        // A dimension is relit once none of its jobs has work left, including lighting left over from cancelled jobs
+        for (Map.Entry<ResourceKey<Level>, DeferredLighting> entry : deferredLighting.entrySet()) {
+            if (!activeDimensions.contains(entry.getKey())) entry.getValue().relight();
         }
     }
 
     /**
-     * Adjusts performance parameters based on current FPS.
+     * Drops finished jobs and collects the ones that can write this tick.
+     * Recorded jobs wait for the recorded jobs of the same owner created before them, so the steps of one
+     * history do not interleave; jobs of different owners never wait on each other. Active jobs request the
+     * chunks they are about to write, see {@link ChunkPrefetcher}.
+     *
+     * @param runnable         Receives the jobs that have entries to write
+     * @param activeDimensions Receives the dimensions of jobs that are neither paused nor finished
      */
-    private void adjustPerformanceParameters() {
-        int currentFps = Minecraft.getInstance().getFps();
-        if (currentFps >= FPS_THRESHOLD) {
-            blocksPerTick = Math.min(blocksPerTick + BLOCKS_PER_TICK_INCREMENT, MAX_BLOCKS_PER_TICK);
-        } else {
-            blocksPerTick = Math.max(blocksPerTick - BLOCKS_PER_TICK_INCREMENT, 1000);
+    private void collectJobs(MinecraftServer server, List<PlacementJob> runnable, Set<ResourceKey<Level>> activeDimensions) {
+        // The history owners that already have a recorded job ahead in the order
+        Set<Object> recordingAhead = new HashSet<>();
+        for (PlacementJob job : getJobs()) {
+            if (job.tryComplete()) {
+                job.getPrefetcher().releaseAll(deferredLighting.get(job.getDimension()));
+                synchronized (jobs) {
+                    jobs.remove(job);
+                }
+                continue;
+            }
+
+            boolean blocked = job.getRecorder() != null && !recordingAhead.add(getHistoryOwner(job));
+            if (job.isPaused()) continue;
+
+            activeDimensions.add(job.getDimension());
+            ServerLevel level = server.getLevel(job.getDimension());
+            if (blocked || level == null) continue;
+
+            job.getPrefetcher().update(level, job.getQueue(), deferredLighting.get(job.getDimension()));
+            if (job.isRunnable()) runnable.add(job);
         }
-        updatesPerTick = Math.max(1, blocksPerTick / 2);
     }
 
     /**
-     * Processes both placement and update queues.
+     * Gets the key recorded jobs are ordered by: the job's owner, or its recorder if it has no owner.
      */
-    private void processQueues(Level level) {
-        processImmediatePlacements(level);
-        processDelayedUpdates(level);
+    private static Object getHistoryOwner(PlacementJob job) {
+        return job.getOwner() != null ? job.getOwner() : job.getRecorder();
     }
 
     /**
-     * Processes the immediate block placement queue.
+     * Processes the queues of the runnable jobs.
+     * Jobs take turns, each writing up to its priority weight in poll batches per turn, so every job
+     * gets a share of the tick budget proportional to its priority. Placements are written straight
+     * into their chunk sections and every touched section is lit, updated and synchronized once per
+     * level at the end of the tick. Placement stops as soon as the tick budget is spent.
+     * A job whose next chunk is still loading sits out the rest of the tick.
      */
-    private void processImmediatePlacements(Level level) {
-        if (level == null) return;
-
-        int processed = 0;
-        while (processed < blocksPerTick && !immediatePlacementQueue.isEmpty()) {
-            PlacementTask task = immediatePlacementQueue.poll();
-            if (task != null && isValidPosition(task.position(), level)) {
-                level.setBlock(task.position(), task.blockState(), BlockPlacementFlags.UPDATE_CLIENTS);
-                processed++;
+    private void processPlacements(MinecraftServer server, List<PlacementJob> runnable) {
+        Reference2ObjectOpenHashMap<ServerLevel, SectionBatchWriter> writers = new Reference2ObjectOpenHashMap<>();
+        boolean deferLighting = Config.CONSTRUCT_DEFER_LIGHTING.get();
+        int[] processed = new int[runnable.size()];
+        boolean[] drained = new boolean[runnable.size()];
+        int remaining = runnable.size();
+
+        while (remaining > 0 && !tickBudget.isExhausted()) {
+            for (int i = 0; i < runnable.size() && !tickBudget.isExhausted(); i++) {
+                if (drained[i]) continue;
+
+                PlacementJob job = runnable.get(i);
+                ServerLevel level = server.getLevel(job.getDimension());
+                SectionBatchWriter writer = writers.computeIfAbsent(level, key -> {
+                    SectionBatchWriter created = new SectionBatchWriter(level);
+                    created.setDeferredLighting(deferLighting
+                            ? deferredLighting.computeIfAbsent(level.dimension(), dimension -> new DeferredLighting())
+                            : null);
+                    return created;
+                });
+
+                processed[i] += processJob(job, level, writer, job.getPriority().getWeight() * POLL_BATCH_SIZE);
+                if (!job.isRunnable() || !job.getPrefetcher().isReady(job.getQueue().peekChunk())) {
+                    drained[i] = true;
+                    remaining--;
+                }
             }
         }
+
+        tickBudget.beginFlush();
+        for (SectionBatchWriter writer : writers.values()) {
+            writer.flush();
+        }
+
+        int total = 0;
+        for (int i = 0; i < runnable.size(); i++) {
+            runnable.get(i).onTick(processed[i]);
+            total += processed[i];
+        }
+        blocksLastTick = total;
     }
 
     /**
-     * Processes the delayed block update queue.
+     * Writes up to {@code quota} entries of one job, stopping early at a chunk that is not loaded yet.
+     *
+     * @return The number of entries processed
      */
-    private void processDelayedUpdates(Level level) {
-        if (level == null) return;
+    private int processJob(PlacementJob job, ServerLevel level, SectionBatchWriter writer, int quota) {
+        job.beginRecording();
+        writer.setChangeRecorder(job.getRecorder());
 
+        PlacementQueue queue = job.getQueue();
+        ChunkPrefetcher prefetcher = job.getPrefetcher();
         int processed = 0;
-        while (processed < updatesPerTick && !delayedUpdateQueue.isEmpty()) {
-            PlacementTask task = delayedUpdateQueue.poll();
-            if (task != null && isValidPosition(task.position(), level)) {
-                BlockState currentState = level.getBlockState(task.position());
-                level.sendBlockUpdated(task.position(), currentState, currentState, BlockPlacementFlags.UPDATE_ALL);
-                processed++;
+        while (processed < quota && !tickBudget.isExhausted()) {
+            // Each poll stays within one chunk column, so checking the next one is enough
+            if (!prefetcher.isReady(queue.peekChunk())) break;
+
+            int count = queue.poll(polledPositions, polledWords, Math.min(POLL_BATCH_SIZE, quota - processed));
+            if (count == 0) break;
+
+            for (int i = 0; i < count; i++) {
+                scratchPos.set(polledPositions[i]);
+                if (!isValidPosition(scratchPos, level)) continue;
+
+                int word = polledWords[i];
+                BlockState state = PlacementQueue.decodeState(word);
+                writer.setBlock(scratchPos.getX(), scratchPos.getY(), scratchPos.getZ(), state, PlacementQueue.hasUpdateFlag(word));
+                if (state.hasBlockEntity()) loadBlockEntity(job, level, scratchPos, state);
             }
+            processed += count;
         }
+        return processed;
+    }
+
+    /**
+     * Loads the block entity at a position that was just written with the data its job carries for it, if any.
+     */
+    private void loadBlockEntity(PlacementJob job, ServerLevel level, BlockPos pos, BlockState state) {
+        CompoundTag tag = job.takeBlockEntityData(pos.asLong());
+        if (tag == null) return;
+
+        BlockEntity blockEntity = level.getBlockEntity(pos);
+        if (blockEntity == null) return;
+        blockEntity.loadWithComponents(tag, level.registryAccess());
+        blockEntity.setChanged();
+        level.sendBlockUpdated(pos, state, state, BlockPlacementFlags.UPDATE_CLIENTS);
     }
 
     /**
@@ -459,31 +624,49 @@ public class AsyncBlockPlacer {
     }
 
     /**
-     * Retrieves the current number of block placement operations that are queued.
+     * Retrieves the current number of block placement operations that are queued, over all jobs.
      * This value does not include block updates that are queued.
      *
      * @return the current number of block placement operations that are queued
      */
     public int getQueuedPlacements() {
-        return immediatePlacementQueue.size();
+        long queued = 0;
+        for (PlacementJob job : getJobs()) {
+            queued += job.getQueue().size();
+        }
+        return (int) Math.min(Integer.MAX_VALUE, queued);
     }
 
     /**
-     * Retrieves the current number of block updates that are queued.
-     * This value does not include block placement operations that are queued.
+     * Retrieves the current number of queued block placements that will send block updates.
+     * Updates are sent together with their placement, so this is a subset of {@link #getQueuedPlacements()}.
      *
      * @return the current number of block updates that are queued
      */
     public int getQueuedUpdates() {
-        return delayedUpdateQueue.size();
+        long queued = 0;
+        for (PlacementJob job : getJobs()) {
+            queued += job.getQueue().getQueuedUpdates();
+        }
+        return (int) Math.min(Integer.MAX_VALUE, queued);
     }
 
     /**
-     * Clears both the immediate block placement queue and the delayed block update queue.
+     * Retrieves the number of operations that are still being prepared in the background.
+     *
+     * @return the number of pending pipeline tasks
+     */
+    public int getPreparingOperations() {
+        return pipeline.getPendingTasks();
+    }
+
+    /**
+     * Cancels every job, including the block updates of queued placements.
      * This method can be used to clear any queued block operations and updates.
      */
     public void clearQueues() {
-        immediatePlacementQueue.clear();
-        delayedUpdateQueue.clear();
+        for (PlacementJob job : getJobs()) {
+            job.cancel();
+        }
     }
-}
\ No newline at end of file
+}
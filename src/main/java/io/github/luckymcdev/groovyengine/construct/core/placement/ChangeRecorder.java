@@ -0,0 +1,50 @@
+/*
+ * Copyright 2025 LuckyMcDev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.luckymcdev.groovyengine.construct.core.placement;
+
+import net.minecraft.world.level.block.state.BlockState;
+
+/**
+ * Receives the previous state of every block a recorded {@link PlacementJob} changes.
+ * <p>
+ * A recording begins when its job first writes and finishes once the job has been completely prepared
+ * and written. Recorded jobs of the same owner run one at a time in the order they were created. All
+ * methods are called on the server thread.
+ */
+public interface ChangeRecorder {
+    /**
+     * Called before the first placement of the job is written.
+     */
+    void begin();
+
+    /**
+     * Called when a block is changed, before the new state is written.
+     * Positions that already hold the placed state are not recorded.
+     *
+     * @param pos      The packed position of the block
+     * @param previous The state the block had before the change
+     */
+    void record(long pos, BlockState previous);
+
+    /**
+     * Called after the last placement of the job has been written, or when the job is cancelled.
+     * {@link #begin()} may not have been called if the job never wrote anything.
+     *
+     * @param cancelled Whether the job was cancelled, leaving part of its placements unwritten
+     */
+    void finish(boolean cancelled);
+}
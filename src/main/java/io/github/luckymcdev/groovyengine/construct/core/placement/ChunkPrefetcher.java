@@ -0,0 +1,133 @@
+/*
+ * Copyright 2025 LuckyMcDev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.luckymcdev.groovyengine.construct.core.placement;
+
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.server.level.ServerChunkCache;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.TicketType;
+import net.minecraft.world.level.ChunkPos;
+
+import java.util.Comparator;
+
+/**
+ * Loads the chunks a {@link PlacementJob} is about to write before it gets there.
+ * <p>
+ * The job's queue is in chunk order, so the next few chunk columns it will write are known. Each tick
+ * the prefetcher puts a temporary ticket on them, which makes the chunk system load or generate them in
+ * the background, and removes the tickets of columns the job has left behind. The placer only writes a
+ * column once it and its neighbours are fully loaded, so placement never loads a chunk on the server
+ * thread; a job whose next column is still loading simply waits. The light checks deferred for a column
+ * are queued before its ticket is released, while its chunks are still loaded.
+ * <p>
+ * Only used on the server thread.
+ */
+final class ChunkPrefetcher {
+    private static final TicketType<ChunkPos> TICKET = TicketType.create("groovyengine:construct", Comparator.comparingLong(ChunkPos::toLong));
+    private static final int LOOKAHEAD_CHUNKS = 16;
+    // Also loads the neighbours, so block updates at the edge of a column never load chunks
+    private static final int TICKET_RADIUS = 1;
+
+    private final long[] window = new long[LOOKAHEAD_CHUNKS];
+    private final LongOpenHashSet tickets = new LongOpenHashSet();
+    private final LongOpenHashSet ready = new LongOpenHashSet();
+    private ServerLevel level;
+
+    /**
+     * Requests the next chunk columns of a queue and releases the tickets of columns that are no longer
+     * ahead of it.
+     *
+     * @param level    The level the job writes in
+     * @param queue    The job's queue
+     * @param lighting The light checks deferred in the level, or null
+     */
+    void update(ServerLevel level, PlacementQueue queue, DeferredLighting lighting) {
+        this.level = level;
+        int count = queue.peekChunks(window);
+
+        for (LongIterator iterator = tickets.iterator(); iterator.hasNext(); ) {
+            long chunk = iterator.nextLong();
+            if (!isInWindow(chunk, count)) {
+                release(chunk, lighting);
+                ready.remove(chunk);
+                iterator.remove();
+            }
+        }
+
+        for (int i = 0; i < count; i++) {
+            request(window[i]);
+        }
+    }
+
+    /**
+     * Checks if a chunk column and its neighbours are loaded, so its entries can be written.
+     * Requests the column if it is not yet.
+     *
+     * @param chunk The {@link ChunkPos#toLong} key, or {@link ChunkPos#INVALID_CHUNK_POS}
+     */
+    boolean isReady(long chunk) {
+        if (chunk == ChunkPos.INVALID_CHUNK_POS || level == null) return false;
+        if (ready.contains(chunk)) return true;
+
+        request(chunk);
+        ServerChunkCache chunkSource = level.getChunkSource();
+        int chunkX = ChunkPos.getX(chunk), chunkZ = ChunkPos.getZ(chunk);
+        for (int x = chunkX - TICKET_RADIUS; x <= chunkX + TICKET_RADIUS; x++) {
+            for (int z = chunkZ - TICKET_RADIUS; z <= chunkZ + TICKET_RADIUS; z++) {
+                if (chunkSource.getChunkNow(x, z) == null) return false;
+            }
+        }
+
+        // The ticket keeps the column loaded until it is released
+        ready.add(chunk);
+        return true;
+    }
+
+    /**
+     * Releases every ticket.
+     *
+     * @param lighting The light checks deferred in the level, or null
+     */
+    void releaseAll(DeferredLighting lighting) {
+        for (LongIterator iterator = tickets.iterator(); iterator.hasNext(); ) {
+            release(iterator.nextLong(), lighting);
+        }
+        tickets.clear();
+        ready.clear();
+    }
+
+    private boolean isInWindow(long chunk, int count) {
+        for (int i = 0; i < count; i++) {
+            if (window[i] == chunk) return true;
+        }
+        return false;
+    }
+
+    private void request(long chunk) {
+        if (tickets.add(chunk)) {
+            ChunkPos pos = new ChunkPos(chunk);
+            level.getChunkSource().addRegionTicket(TICKET, pos, TICKET_RADIUS, pos);
+        }
+    }
+
+    private void release(long chunk, DeferredLighting lighting) {
+        if (lighting != null) lighting.relightColumn(chunk);
+        ChunkPos pos = new ChunkPos(chunk);
+        level.getChunkSource().removeRegionTicket(TICKET, pos, TICKET_RADIUS, pos);
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2025 LuckyMcDev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.luckymcdev.groovyengine.construct.core.placement;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.shorts.ShortIterator;
+import it.unimi.dsi.fastutil.shorts.ShortSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.lighting.LevelLightEngine;
+
+/**
+ * Collects the light checks of a bulk edit and runs them once when the edit is done.
+ * <p>
+ * While a placement job runs, the {@link SectionBatchWriter} hands its changed positions here instead
+ * of queueing a light check per block every tick. Positions are kept in a 4096-bit set per section, so
+ * blocks that are written several times during a job are only checked once. {@link #relight()} then
+ * queues all checks section by section in one pass; the light engine processes them as one batch and
+ * the resulting light data reaches clients through the chunk holders' per-chunk light packets.
+ * <p>
+ * A column whose chunks may unload before the edit is done, because the job has moved past it, is relit
+ * on its own with {@link #relightColumn(long)} while it is still loaded, so no check is queued for a
+ * chunk that was already saved.
+ * <p>
+ * Must only be used on the server thread.
+ */
+public class DeferredLighting {
+    private final Long2ObjectLinkedOpenHashMap<long[]> sections = new Long2ObjectLinkedOpenHashMap<>();
+    // The keys of the collected sections of every chunk column
+    private final Long2ObjectOpenHashMap<LongArrayList> columns = new Long2ObjectOpenHashMap<>();
+    private ServerLevel level;
+    private long pendingBlocks;
+
+    /**
+     * Adds the changed positions of a section. Changes for a different level relight the previous level first.
+     *
+     * @param level      The level of the section
+     * @param sectionPos The section
+     * @param changed    The changed positions, as {@link SectionPos#sectionRelativePos} values
+     */
+    public void add(ServerLevel level, SectionPos sectionPos, ShortSet changed) {
+        if (this.level != level) {
+            relight();
+            this.level = level;
+        }
+
+        long[] bits = sections.get(sectionPos.asLong());
+        if (bits == null) {
+            bits = new long[64];
+            sections.put(sectionPos.asLong(), bits);
+            columns.computeIfAbsent(ChunkPos.asLong(sectionPos.x(), sectionPos.z()), key -> new LongArrayList()).add(sectionPos.asLong());
+        }
+        ShortIterator iterator = changed.iterator();
+        while (iterator.hasNext()) {
+            int index = iterator.nextShort() & 0xFFF;
+            long bit = 1L << index;
+            if ((bits[index >> 6] & bit) == 0) {
+                bits[index >> 6] |= bit;
+                pendingBlocks++;
+            }
+        }
+    }
+
+    /**
+     * Checks if there are light checks waiting.
+     */
+    public boolean isEmpty() {
+        return sections.isEmpty();
+    }
+
+    /**
+     * Gets the number of sections with light checks waiting.
+     */
+    public int getPendingSections() {
+        return sections.size();
+    }
+
+    /**
+     * Gets the number of blocks with light checks waiting.
+     */
+    public long getPendingBlocks() {
+        return pendingBlocks;
+    }
+
+    /**
+     * Queues a light check for every collected position, one section at a time.
+     */
+    public void relight() {
+        if (level == null || sections.isEmpty()) return;
+
+        LevelLightEngine lightEngine = level.getChunkSource().getLightEngine();
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        for (var entry : sections.long2ObjectEntrySet()) {
+            check(lightEngine, SectionPos.of(entry.getLongKey()), entry.getValue(), pos);
+        }
+
+        sections.clear();
+        columns.clear();
+        pendingBlocks = 0;
+    }
+
+    /**
+     * Queues the light checks collected in one chunk column. Must be called while the column is loaded.
+     *
+     * @param chunk The {@link ChunkPos#toLong} key of the column
+     */
+    public void relightColumn(long chunk) {
+        LongArrayList keys = columns.remove(chunk);
+        if (keys == null || level == null) return;
+
+        LevelLightEngine lightEngine = level.getChunkSource().getLightEngine();
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        for (int i = 0; i < keys.size(); i++) {
+            long[] bits = sections.remove(keys.getLong(i));
+            if (bits != null) check(lightEngine, SectionPos.of(keys.getLong(i)), bits, pos);
+        }
+    }
+
+    /**
+     * Queues a light check for every position of a section's set and takes them off the pending count.
+     */
+    private void check(LevelLightEngine lightEngine, SectionPos sectionPos, long[] bits, BlockPos.MutableBlockPos pos) {
+        for (int word = 0; word < bits.length; word++) {
+            long remaining = bits[word];
+            pendingBlocks -= Long.bitCount(remaining);
+            while (remaining != 0) {
+                int index = (word << 6) | Long.numberOfTrailingZeros(remaining);
+                remaining &= remaining - 1;
+                lightEngine.checkBlock(pos.set(
+                        sectionPos.relativeToBlockX((short) index),
+                        sectionPos.relativeToBlockY((short) index),
+                        sectionPos.relativeToBlockZ((short) index)));
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2025 LuckyMcDev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.luckymcdev.groovyengine.construct.core.placement;
+
+import net.minecraft.server.level.ChunkHolder;
+import net.minecraft.server.level.ChunkMap;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+
+/**
+ * Reads chunk sections of a level from any thread. Only chunks that are already fully loaded are read,
+ * and the last chunk is kept since cursors visit a column at a time.
+ * <p>
+ * Chunks are looked up in the chunk map's visible holders, which the server publishes as an immutable
+ * copy whenever it changes, and taken from a holder's full chunk future only if it has already completed.
+ * Unlike {@code ServerChunkCache.getChunk}, which hands lookups from other threads to the main thread and
+ * waits for them, a lookup never waits for the server thread, so a scan runs at the same speed however busy
+ * the server is and takes nothing from its tick. A chunk that is being unloaded may still be read once.
+ * <p>
+ * Sections are read while the server may write them, so a scan sees each block either before or after
+ * a concurrent change. One instance must only be used by one thread.
+ */
+public final class LoadedSections {
+    private final ServerLevel level;
+    private final ChunkMap chunkMap;
+    private long chunkKey = ChunkPos.INVALID_CHUNK_POS;
+    private LevelChunk chunk;
+
+    public LoadedSections(ServerLevel level) {
+        this.level = level;
+        this.chunkMap = level.getChunkSource().chunkMap;
+    }
+
+    /**
+     * Gets a section, or null if its chunk is not loaded or it is outside the build height.
+     */
+    public LevelChunkSection get(int sectionX, int sectionY, int sectionZ) {
+        int index = level.getSectionIndexFromSectionY(sectionY);
+        if (index < 0 || index >= level.getSectionsCount()) return null;
+
+        long key = ChunkPos.asLong(sectionX, sectionZ);
+        if (key != chunkKey) {
+            chunkKey = key;
+            chunk = getLoadedChunk(key);
+        }
+        return chunk != null ? chunk.getSection(index) : null;
+    }
+
+    private LevelChunk getLoadedChunk(long key) {
+        ChunkHolder holder = chunkMap.getVisibleChunkIfPresent(key);
+        if (holder == null) return null;
+        return holder.getFullChunkFuture().getNow(ChunkHolder.UNLOADED_LEVEL_CHUNK).orElse(null);
+    }
+}
@@ -0,0 +1,383 @@
+/*
+ * Copyright 2025 LuckyMcDev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.luckymcdev.groovyengine.construct.core.placement;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMaps;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.level.Level;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * A unit of placement work with its own queue, scheduled by the {@link AsyncBlockPlacer}.
+ * <p>
+ * A job is prepared by one or more {@link PlacementPipeline} tasks, which fill its queue, and is written
+ * on the server thread in the level of its dimension. Jobs share the tick budget in proportion to their
+ * {@link Priority}. A job with a {@link ChangeRecorder} is recorded from the moment it starts writing
+ * until it completes or is cancelled; recorded jobs run one at a time in the order they were created,
+ * so history steps are never interleaved.
+ * <p>
+ * Progress is counted in queue entries. The total keeps growing while the job is still being
+ * prepared, so the progress and ETA are estimates until then.
+ */
+public class PlacementJob {
+    // Weight of the latest tick in the placement rate average
+    private static final double RATE_SMOOTHING = 0.2;
+
+    private final int id;
+    private final String name;
+    private final ResourceKey<Level> dimension;
+    private final ChangeRecorder recorder;
+    private final UUID owner;
+    private final PlacementQueue queue = new PlacementQueue();
+    private final ChunkPrefetcher prefetcher = new ChunkPrefetcher();
+    // Filled by pipeline tasks, taken on the server thread as the blocks are written
+    private final Long2ObjectMap<CompoundTag> blockEntityData = Long2ObjectMaps.synchronize(new Long2ObjectOpenHashMap<>());
+    private final long createdAt = System.currentTimeMillis();
+    private volatile Priority priority;
+    private volatile boolean paused;
+    private volatile boolean cancelled;
+    private volatile long placed;
+    private volatile long expectedTotal;
+    private volatile double blocksPerTick;
+    // Guarded by this job's monitor
+    private int pendingTasks;
+    private boolean sealed;
+    private State state = State.PREPARING;
+    private CompletableFuture<?> lastTask = CompletableFuture.completedFuture(null);
+    // Only used on the server thread
+    private boolean recording;
+
+    PlacementJob(int id, String name, ResourceKey<Level> dimension, Priority priority, ChangeRecorder recorder, UUID owner) {
+        this.id = id;
+        this.name = name;
+        this.dimension = dimension;
+        this.priority = priority;
+        this.recorder = recorder;
+        this.owner = owner;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the dimension the job places blocks in.
+     */
+    public ResourceKey<Level> getDimension() {
+        return dimension;
+    }
+
+    /**
+     * Gets the player that started the job, or null if it was started by the server itself.
+     */
+    public UUID getOwner() {
+        return owner;
+    }
+
+    public Priority getPriority() {
+        return priority;
+    }
+
+    /**
+     * Changes the share of the tick budget the job gets from the next tick on.
+     */
+    public void setPriority(Priority priority) {
+        this.priority = priority;
+    }
+
+    /**
+     * Gets the time the job was created, in milliseconds since the epoch.
+     */
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Checks if the job completed or was cancelled.
+     */
+    public synchronized boolean isFinished() {
+        return state == State.DONE || state == State.CANCELLED;
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Gets the number of queue entries written so far.
+     */
+    public long getPlaced() {
+        return placed;
+    }
+
+    /**
+     * Gets the number of queue entries prepared so far, written or not. While the job is being prepared,
+     * entries its tasks announced with {@link PlacementPipeline.Sink#expect(long)} are counted as well.
+     */
+    public long getTotal() {
+        return Math.max(placed + queue.size(), expectedTotal);
+    }
+
+    /**
+     * Counts a number of entries that are about to be prepared in the total.
+     */
+    void expect(long count) {
+        expectedTotal = placed + queue.size() + count;
+    }
+
+    /**
+     * Gets the fraction of the prepared entries that have been written.
+     *
+     * @return The progress between 0 and 1
+     */
+    public float getProgress() {
+        long total = getTotal();
+        return total == 0 ? (isFinished() ? 1 : 0) : (float) ((double) placed / total);
+    }
+
+    /**
+     * Estimates the time until the entries counted in the total are written, from the recent placement rate.
+     *
+     * @return The estimate in milliseconds, or -1 if the job has not been running long enough to tell
+     */
+    public long getEtaMillis() {
+        double rate = blocksPerTick;
+        if (rate <= 0) return -1;
+        return (long) ((getTotal() - placed) / rate * (TickBudget.TICK_NANOS / 1_000_000.0));
+    }
+
+    /**
+     * Stops the job from being scheduled until {@link #resume()}. Preparation continues until the job's queue is full.
+     */
+    public synchronized void pause() {
+        if (isFinished()) return;
+        paused = true;
+        state = State.PAUSED;
+    }
+
+    /**
+     * Lets a paused job be scheduled again.
+     */
+    public synchronized void resume() {
+        if (!paused || isFinished()) return;
+        paused = false;
+        state = pendingTasks > 0 || !sealed ? State.PREPARING : State.RUNNING;
+    }
+
+    /**
+     * Cancels the job. Queued entries are dropped and preparation stops; blocks already written stay.
+     * A recorder is finished with what it recorded so far on the next server tick.
+     */
+    public void cancel() {
+        synchronized (this) {
+            if (isFinished()) return;
+            cancelled = true;
+            paused = false;
+            state = State.CANCELLED;
+        }
+        // Wakes up preparation waiting for room in the queue
+        queue.clear();
+        blockEntityData.clear();
+    }
+
+    PlacementQueue getQueue() {
+        return queue;
+    }
+
+    /**
+     * Gets the prefetcher that loads the chunks this job is about to write. Must be used on the server thread.
+     */
+    ChunkPrefetcher getPrefetcher() {
+        return prefetcher;
+    }
+
+    ChangeRecorder getRecorder() {
+        return recorder;
+    }
+
+    /**
+     * Sets the data the block entity at a position is loaded with once the job writes its block.
+     * Must be called before the block is offered.
+     *
+     * @param pos The packed position
+     * @param tag The block entity data, without position and id
+     */
+    public void putBlockEntityData(long pos, CompoundTag tag) {
+        blockEntityData.put(pos, tag);
+    }
+
+    /**
+     * Takes the block entity data set for a position.
+     *
+     * @return The data, or null if there is none
+     */
+    CompoundTag takeBlockEntityData(long pos) {
+        return blockEntityData.isEmpty() ? null : blockEntityData.remove(pos);
+    }
+
+    /**
+     * Schedules a preparation task to run after the job's previous tasks. The task must call
+     * {@link #release()} when it is done.
+     *
+     * @return false if the job already finished and cannot take more work
+     */
+    synchronized boolean enqueue(Runnable task, Executor executor) {
+        if (isFinished()) return false;
+        pendingTasks++;
+        lastTask = lastTask.handleAsync((result, failure) -> {
+            task.run();
+            return null;
+        }, executor);
+        return true;
+    }
+
+    /**
+     * Offers an entry straight to the queue if no preparation task is pending, which keeps it in order
+     * without a task of its own.
+     *
+     * @return false if the entry has to go through a task, or the job already finished
+     */
+    synchronized boolean offerNow(long pos, int word) {
+        if (isFinished() || pendingTasks > 0) return false;
+        queue.offer(pos, word);
+        return true;
+    }
+
+    /**
+     * Unregisters a preparation task once it has run.
+     */
+    synchronized void release() {
+        pendingTasks--;
+        // Entries announced but never offered, such as skipped air, no longer count once preparation ends
+        if (pendingTasks == 0) expectedTotal = 0;
+        updatePreparing();
+    }
+
+    /**
+     * Marks that no more tasks will be added, so the job completes once its queue drains.
+     */
+    synchronized void seal() {
+        sealed = true;
+        updatePreparing();
+    }
+
+    private void updatePreparing() {
+        if (state == State.PREPARING && pendingTasks == 0 && sealed) state = State.RUNNING;
+    }
+
+    /**
+     * Checks if the job has entries it could write now.
+     */
+    boolean isRunnable() {
+        return !paused && !cancelled && !queue.isEmpty();
+    }
+
+    /**
+     * Starts the recording when the job first writes. Must be called on the server thread.
+     */
+    void beginRecording() {
+        if (recorder != null && !recording) {
+            recording = true;
+            recorder.begin();
+        }
+    }
+
+    /**
+     * Accounts for one tick in which the job was scheduled. Must be called on the server thread.
+     */
+    void onTick(int processed) {
+        placed += processed;
+        double rate = blocksPerTick;
+        blocksPerTick = rate <= 0 ? processed : rate + (processed - rate) * RATE_SMOOTHING;
+    }
+
+    /**
+     * Completes the job if all of it has been prepared and written, finishing its recorder.
+     * Cancelled jobs are finished as well. Must be called on the server thread.
+     *
+     * @return Whether the job is finished and can be dropped
+     */
+    boolean tryComplete() {
+        boolean wasCancelled;
+        synchronized (this) {
+            wasCancelled = state == State.CANCELLED;
+            if (!wasCancelled) {
+                if (pendingTasks > 0 || !sealed || !queue.isEmpty()) return false;
+                state = State.DONE;
+            }
+        }
+        if (recorder != null) recorder.finish(wasCancelled);
+        return true;
+    }
+
+    /**
+     * The lifecycle of a job.
+     */
+    public enum State {
+        /**
+         * Tasks are still filling the job's queue. Prepared entries are already being written.
+         */
+        PREPARING,
+        /**
+         * The job is fully prepared and its queue is being written.
+         */
+        RUNNING,
+        PAUSED,
+        DONE,
+        CANCELLED
+    }
+
+    /**
+     * How large a share of the tick budget a job gets relative to the others.
+     */
+    public enum Priority {
+        LOW(1),
+        NORMAL(2),
+        HIGH(4);
+
+        private final int weight;
+
+        Priority(int weight) {
+            this.weight = weight;
+        }
+
+        /**
+         * Gets the number of poll batches the job may write for every one of a {@link #LOW} job.
+         */
+        public int getWeight() {
+            return weight;
+        }
+    }
+}
@@ -0,0 +1,316 @@
+/*
+ * Copyright 2025 LuckyMcDev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.luckymcdev.groovyengine.construct.core.placement;
+
+import io.github.luckymcdev.groovyengine.GE;
+import io.github.luckymcdev.groovyengine.construct.core.pattern.BlockPattern;
+import io.github.luckymcdev.groovyengine.construct.core.region.Region;
+import io.github.luckymcdev.groovyengine.construct.core.region.RegionCursor;
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Prepares placements off the game threads and hands them to the queues of {@link PlacementJob}s.
+ * <p>
+ * The tasks of one job run one after another, in the order they were submitted, so everything a job
+ * offers stays in order; tasks of different jobs run concurrently on virtual threads. Filling a region
+ * walks its cursor and cuts it into batches of one chunk section; patterns that are
+ * {@link BlockPattern#isThreadSafe() thread-safe} are evaluated on a small worker pool while the task
+ * keeps walking, and the batches are published in cursor order as they complete. Publishing waits while
+ * the job's queue is full, so preparation never runs more than a queue's worth ahead of the server,
+ * a paused job only holds up its own preparation, and the server thread never waits for it.
+ */
+public class PlacementPipeline {
+    // One chunk section worth of positions per batch
+    private static final int BATCH_SIZE = 4096;
+    // Enough batches in flight to keep every worker busy while the oldest one is published
+    private static final int BATCHES_PER_WORKER = 2;
+
+    private final int workerCount;
+    private final ExecutorService stage;
+    private final ExecutorService workers;
+    private final AtomicInteger pendingTasks = new AtomicInteger();
+
+    /**
+     * Creates a pipeline with one worker for every two processors, up to four.
+     */
+    public PlacementPipeline() {
+        this(Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2)));
+    }
+
+    /**
+     * @param workerCount The number of threads evaluating patterns
+     */
+    public PlacementPipeline(int workerCount) {
+        this.workerCount = Math.max(1, workerCount);
+        // Tasks mostly wait for room in their job's queue; the queue waits on a ReentrantLock condition, so a
+        // waiting virtual thread unmounts from its carrier instead of pinning it
+        this.stage = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("Construct Pipeline #", 0).factory());
+        AtomicInteger workerIds = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(this.workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "Construct Worker #" + workerIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Runs a task for a job after the job's previous tasks. The task stops offering once the job is cancelled.
+     *
+     * @param job  The job to prepare
+     * @param task The task to run
+     * @return false if the job already finished
+     */
+    public boolean submit(PlacementJob job, Task task) {
+        pendingTasks.incrementAndGet();
+        boolean queued = job.enqueue(() -> {
+            try {
+                if (!job.isCancelled()) task.run(new Sink(job.getQueue(), job));
+            } catch (RuntimeException e) {
+                GE.CONSTRUCT_LOG.error("Placement pipeline task of job #{} failed", job.getId(), e);
+            } finally {
+                job.release();
+                pendingTasks.decrementAndGet();
+            }
+        }, stage);
+        if (!queued) pendingTasks.decrementAndGet();
+        return queued;
+    }
+
+    /**
+     * Queues a placement for every position of a region, with states from a pattern.
+     *
+     * @param job         The job to prepare
+     * @param region      The region to fill
+     * @param pattern     The pattern to evaluate
+     * @param origin      The origin of the pattern
+     * @param sendUpdates Whether the placements send block updates
+     * @return false if the job already finished
+     */
+    public boolean fill(PlacementJob job, Region region, BlockPattern pattern, BlockPos origin, boolean sendUpdates) {
+        return submit(job, sink -> prepare(region, pattern, origin, sendUpdates, sink));
+    }
+
+    /**
+     * Gets the number of tasks that are waiting or running.
+     */
+    public int getPendingTasks() {
+        return pendingTasks.get();
+    }
+
+    /**
+     * Walks a region in section batches and publishes their states in order. Up to
+     * {@link #BATCHES_PER_WORKER} batches per worker are evaluated ahead of the one being published.
+     */
+    private void prepare(Region region, BlockPattern pattern, BlockPos origin, boolean sendUpdates, Sink sink) {
+        boolean parallel = workerCount > 1 && pattern.isThreadSafe();
+        int maxInFlight = parallel ? workerCount * BATCHES_PER_WORKER : 1;
+        ArrayDeque<Future<SectionBatch>> inFlight = new ArrayDeque<>();
+        ArrayDeque<SectionBatch> freeBatches = new ArrayDeque<>();
+        // Only used by this task, for patterns that are evaluated one batch at a time
+        Random random = new Random();
+
+        // The queue only holds a window of the region, so the job's total has to come from the region itself
+        sink.expect(region.size());
+        RegionCursor cursor = region.cursor();
+        boolean more = cursor.advance();
+        try {
+            while (more && !sink.isCancelled()) {
+                SectionBatch batch = freeBatches.isEmpty() ? new SectionBatch() : freeBatches.poll();
+                more = batch.collect(cursor);
+                if (parallel) {
+                    inFlight.add(workers.submit(() -> batch.evaluate(pattern, origin, ThreadLocalRandom.current())));
+                } else {
+                    inFlight.add(CompletableFuture.completedFuture(batch.evaluate(pattern, origin, random)));
+                }
+
+                while (inFlight.size() >= maxInFlight) {
+                    publish(inFlight.poll().get(), sendUpdates, sink, freeBatches);
+                }
+            }
+            while (!inFlight.isEmpty() && !sink.isCancelled()) {
+                publish(inFlight.poll().get(), sendUpdates, sink, freeBatches);
+            }
+        } catch (ExecutionException e) {
+            GE.CONSTRUCT_LOG.error("Failed to evaluate pattern", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // Batches still being evaluated are dropped rather than reused
+            for (Future<SectionBatch> future : inFlight) {
+                future.cancel(false);
+            }
+        }
+    }
+
+    private static void publish(SectionBatch batch, boolean sendUpdates, Sink sink, ArrayDeque<SectionBatch> freeBatches) {
+        sink.offerAll(batch.positions, batch.states, batch.count, sendUpdates);
+        Arrays.fill(batch.states, 0, batch.count, null);
+        freeBatches.add(batch);
+    }
+
+    /**
+     * Preparation work for a job, run on a pipeline thread.
+     */
+    @FunctionalInterface
+    public interface Task {
+        void run(Sink sink);
+    }
+
+    /**
+     * Offers the placements of one task to its job, waiting while the job's queue is full. Once the job
+     * is cancelled offers are dropped; {@link PlacementJob#cancel()} clears the queue under the lock the
+     * sink checks the job under, so nothing stale slips in after it.
+     */
+    public static final class Sink {
+        private final PlacementQueue queue;
+        private final PlacementJob job;
+
+        private Sink(PlacementQueue queue, PlacementJob job) {
+            this.queue = queue;
+            this.job = job;
+        }
+
+        /**
+         * Checks if the job was cancelled, in which case the task should stop early.
+         */
+        public boolean isCancelled() {
+            return job.isCancelled() || Thread.currentThread().isInterrupted();
+        }
+
+        /**
+         * Announces that the task is about to offer a number of placements, so the job's progress and ETA
+         * account for them before they are prepared.
+         */
+        public void expect(long count) {
+            job.expect(count);
+        }
+
+        /**
+         * Sets the data the block entity at a position is loaded with, see {@link PlacementJob#putBlockEntityData}.
+         * Must be called before the position is offered.
+         */
+        public void putBlockEntityData(long pos, CompoundTag tag) {
+            job.putBlockEntityData(pos, tag);
+        }
+
+        /**
+         * Offers an encoded placement, see {@link PlacementQueue#offer(long, int)}.
+         */
+        public void offer(long pos, int word) {
+            Lock lock = queue.getLock();
+            lock.lock();
+            try {
+                if (awaitCapacity(1)) queue.offer(pos, word);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Offers a placement, see {@link PlacementQueue#offer(long, BlockState, boolean)}.
+         */
+        public void offer(long pos, BlockState state, boolean sendUpdates) {
+            offer(pos, PlacementQueue.encode(state, sendUpdates));
+        }
+
+        /**
+         * Offers a batch of placements, see {@link PlacementQueue#offerAll(long[], BlockState[], int, boolean)}.
+         */
+        public void offerAll(long[] positions, BlockState[] states, int count, boolean sendUpdates) {
+            Lock lock = queue.getLock();
+            lock.lock();
+            try {
+                if (awaitCapacity(count)) queue.offerAll(positions, states, count, sendUpdates);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Offers a batch of encoded placements, see {@link PlacementQueue#offerAll(long[], int[], int)}.
+         */
+        public void offerAll(long[] positions, int[] words, int count) {
+            Lock lock = queue.getLock();
+            lock.lock();
+            try {
+                if (awaitCapacity(count)) queue.offerAll(positions, words, count);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Waits for room in the queue. Must be called holding the queue's lock.
+         *
+         * @return Whether the task may still offer
+         */
+        private boolean awaitCapacity(int count) {
+            if (isCancelled()) return false;
+            try {
+                queue.awaitCapacity(count);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            return !isCancelled();
+        }
+    }
+
+    /**
+     * Positions of one chunk section and the states evaluated for them.
+     */
+    private static final class SectionBatch {
+        private final long[] positions = new long[BATCH_SIZE];
+        private final BlockState[] states = new BlockState[BATCH_SIZE];
+        private int count;
+
+        /**
+         * Collects positions from the cursor's current one until the cursor leaves the section or the batch is full.
+         *
+         * @return Whether the cursor has more positions
+         */
+        private boolean collect(RegionCursor cursor) {
+            count = 0;
+            int sectionX = cursor.x() >> 4, sectionY = cursor.y() >> 4, sectionZ = cursor.z() >> 4;
+            do {
+                positions[count++] = cursor.asLong();
+                if (!cursor.advance()) return false;
+            } while (count < BATCH_SIZE && cursor.x() >> 4 == sectionX
+                    && cursor.y() >> 4 == sectionY && cursor.z() >> 4 == sectionZ);
+            return true;
+        }
+
+        private SectionBatch evaluate(BlockPattern pattern, BlockPos origin, Random random) {
+            pattern.fillBlockStates(positions, count, origin, random, states);
+            return this;
+        }
+    }
+}
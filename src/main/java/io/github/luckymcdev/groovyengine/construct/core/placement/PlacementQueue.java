@@ -0,0 +1,412 @@
+/*
+ * Copyright 2025 LuckyMcDev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.luckymcdev.groovyengine.construct.core.placement;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A FIFO queue of block placements stored as primitives.
+ * <p>
+ * Each entry is a {@link BlockPos#asLong} packed position and an {@code int} word holding the
+ * block state id from {@link Block#BLOCK_STATE_REGISTRY}. The highest bit of the word is the
+ * {@link #UPDATE_FLAG}, which marks placements that should send block updates.
+ * Entries live in fixed-size chunks, so the queue costs 12 bytes per block and grows without copying.
+ * <p>
+ * The queue also keeps the runs of consecutive entries that fall into the same chunk column. A poll never
+ * crosses the end of a run, so the consumer can check that a run's chunk is loaded before taking its
+ * entries, and {@link #peekChunks} lets it look ahead at the chunks it is about to write.
+ * <p>
+ * The queue is safe to fill from one thread while another drains it. Producers that can wait, such as
+ * the {@link PlacementPipeline}, call {@link #awaitCapacity} first so the queue stays near its capacity
+ * instead of growing with the size of the edit; offers themselves never block. The queue is guarded by a
+ * {@link ReentrantLock} rather than its monitor, so a virtual thread waiting for capacity does not pin its
+ * carrier thread.
+ */
+public class PlacementQueue {
+    /**
+     * Marks an entry whose placement should send block updates.
+     */
+    public static final int UPDATE_FLAG = 1 << 31;
+    /**
+     * Mask that extracts the block state id from an entry word.
+     */
+    public static final int STATE_MASK = ~UPDATE_FLAG;
+
+    private static final int CHUNK_SIZE = 4096;
+    private static final int INITIAL_RUNS = 64;
+    // About 12 MB of entries, several seconds of placement at any sensible tick budget
+    private static final long DEFAULT_CAPACITY = 1L << 20;
+
+    private final long capacity;
+    private final ReentrantLock lock = new ReentrantLock();
+    // Signalled whenever entries are removed
+    private final Condition drained = lock.newCondition();
+    private Chunk head = new Chunk();
+    private Chunk tail = head;
+    private Chunk spare;
+    private long size;
+    private long updates;
+    // Ring of runs: the chunk column and the number of entries of each run, oldest first
+    private long[] runChunks = new long[INITIAL_RUNS];
+    private int[] runLengths = new int[INITIAL_RUNS];
+    private int runHead;
+    private int runCount;
+
+    public PlacementQueue() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity The number of entries above which {@link #awaitCapacity} waits
+     */
+    public PlacementQueue(long capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Encodes a block state and update intent into an entry word.
+     *
+     * @param state       The block state
+     * @param sendUpdates Whether the placement should send block updates
+     * @return The entry word
+     */
+    public static int encode(BlockState state, boolean sendUpdates) {
+        int id = Block.getId(state);
+        return sendUpdates ? id | UPDATE_FLAG : id;
+    }
+
+    /**
+     * Decodes the block state of an entry word.
+     */
+    public static BlockState decodeState(int word) {
+        return Block.stateById(word & STATE_MASK);
+    }
+
+    /**
+     * Checks if an entry word has the update flag set.
+     */
+    public static boolean hasUpdateFlag(int word) {
+        return (word & UPDATE_FLAG) != 0;
+    }
+
+    /**
+     * Adds a placement to the end of the queue.
+     *
+     * @param pos         The packed position
+     * @param state       The block state to place
+     * @param sendUpdates Whether to send block updates after placement
+     */
+    public void offer(long pos, BlockState state, boolean sendUpdates) {
+        offer(pos, encode(state, sendUpdates));
+    }
+
+    /**
+     * Adds an encoded placement to the end of the queue.
+     *
+     * @param pos  The packed position
+     * @param word The entry word, see {@link #encode(BlockState, boolean)}
+     */
+    public void offer(long pos, int word) {
+        lock.lock();
+        try {
+            append(pos, word);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Appends an entry. Must be called holding the lock.
+     */
+    private void append(long pos, int word) {
+        if (tail.end == CHUNK_SIZE) {
+            Chunk chunk = spare != null ? spare : new Chunk();
+            spare = null;
+            chunk.start = 0;
+            chunk.end = 0;
+            chunk.next = null;
+            tail.next = chunk;
+            tail = chunk;
+        }
+
+        tail.positions[tail.end] = pos;
+        tail.words[tail.end] = word;
+        tail.end++;
+        size++;
+        if (hasUpdateFlag(word)) updates++;
+        extendRun(ChunkPos.asLong(SectionPos.blockToSectionCoord(BlockPos.getX(pos)), SectionPos.blockToSectionCoord(BlockPos.getZ(pos))));
+    }
+
+    /**
+     * Adds an entry in the given chunk column to the last run, or starts a new run.
+     */
+    private void extendRun(long chunk) {
+        if (runCount > 0) {
+            int last = (runHead + runCount - 1) & (runChunks.length - 1);
+            if (runChunks[last] == chunk) {
+                runLengths[last]++;
+                return;
+            }
+        }
+
+        if (runCount == runChunks.length) growRuns();
+        int index = (runHead + runCount) & (runChunks.length - 1);
+        runChunks[index] = chunk;
+        runLengths[index] = 1;
+        runCount++;
+    }
+
+    private void growRuns() {
+        long[] chunks = new long[runChunks.length * 2];
+        int[] lengths = new int[runLengths.length * 2];
+        for (int i = 0; i < runCount; i++) {
+            int index = (runHead + i) & (runChunks.length - 1);
+            chunks[i] = runChunks[index];
+            lengths[i] = runLengths[index];
+        }
+        runChunks = chunks;
+        runLengths = lengths;
+        runHead = 0;
+    }
+
+    /**
+     * Adds a batch of placements to the end of the queue.
+     *
+     * @param positions   The packed positions
+     * @param states      The block states to place, at the same index
+     * @param count       The number of placements to add
+     * @param sendUpdates Whether to send block updates after placement
+     */
+    public void offerAll(long[] positions, BlockState[] states, int count, boolean sendUpdates) {
+        lock.lock();
+        try {
+            for (int i = 0; i < count; i++) {
+                append(positions[i], encode(states[i], sendUpdates));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds a batch of encoded placements to the end of the queue.
+     *
+     * @param positions The packed positions
+     * @param words     The entry words, at the same index
+     * @param count     The number of placements to add
+     */
+    public void offerAll(long[] positions, int[] words, int count) {
+        lock.lock();
+        try {
+            for (int i = 0; i < count; i++) {
+                append(positions[i], words[i]);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until the queue has room for the given number of entries. An empty queue always has room,
+     * so batches larger than the capacity still make progress.
+     *
+     * @param count The number of entries about to be offered
+     * @throws InterruptedException If the thread is interrupted while waiting
+     */
+    public void awaitCapacity(int count) throws InterruptedException {
+        lock.lock();
+        try {
+            while (size > 0 && size + count > capacity) {
+                drained.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the lock guarding the queue. Producers hold it to check a condition and offer atomically; it is
+     * reentrant, and {@link #awaitCapacity} releases it while waiting.
+     */
+    Lock getLock() {
+        return lock;
+    }
+
+    /**
+     * Removes up to {@code max} placements from the front of the queue. The placements removed are all in
+     * the chunk column of {@link #peekChunk()}; a poll stops at the end of the run.
+     *
+     * @param positions Receives the packed positions
+     * @param words     Receives the entry words
+     * @param max       The maximum number of entries to remove, at most the length of both arrays
+     * @return The number of entries removed
+     */
+    public int poll(long[] positions, int[] words, int max) {
+        lock.lock();
+        try {
+            return pollLocked(positions, words, max);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int pollLocked(long[] positions, int[] words, int max) {
+        int count = 0;
+        int runRemaining = runCount > 0 ? runLengths[runHead] : 0;
+        max = Math.min(max, runRemaining);
+        while (count < max && size > 0) {
+            if (head.start == head.end) {
+                Chunk next = head.next;
+                if (next == null) break;
+                spare = head;
+                head = next;
+                continue;
+            }
+
+            int length = Math.min(max - count, head.end - head.start);
+            System.arraycopy(head.positions, head.start, positions, count, length);
+            System.arraycopy(head.words, head.start, words, count, length);
+            for (int i = count; i < count + length; i++) {
+                if (hasUpdateFlag(words[i])) updates--;
+            }
+            head.start += length;
+            count += length;
+            size -= length;
+        }
+
+        if (count > 0) {
+            if (count == runRemaining) {
+                runHead = (runHead + 1) & (runChunks.length - 1);
+                runCount--;
+            } else {
+                runLengths[runHead] -= count;
+            }
+            drained.signalAll();
+        }
+        return count;
+    }
+
+    /**
+     * Gets the chunk column of the next placement, as a {@link ChunkPos#toLong} key.
+     *
+     * @return The chunk key, or {@link ChunkPos#INVALID_CHUNK_POS} if the queue is empty
+     */
+    public long peekChunk() {
+        lock.lock();
+        try {
+            return runCount > 0 ? runChunks[runHead] : ChunkPos.INVALID_CHUNK_POS;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the chunk columns of the next runs, in the order they will be polled. A column appears
+     * more than once if the queue returns to it after visiting others.
+     *
+     * @param chunks Receives the {@link ChunkPos#toLong} keys, at most its length
+     * @return The number of keys written
+     */
+    public int peekChunks(long[] chunks) {
+        lock.lock();
+        try {
+            int count = Math.min(chunks.length, runCount);
+            for (int i = 0; i < count; i++) {
+                chunks[i] = runChunks[(runHead + i) & (runChunks.length - 1)];
+            }
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of queued placements.
+     */
+    public long size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of queued placements that will send block updates.
+     */
+    public long getQueuedUpdates() {
+        lock.lock();
+        try {
+            return updates;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Checks if the queue has no placements.
+     */
+    public boolean isEmpty() {
+        lock.lock();
+        try {
+            return size == 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes all placements and releases their storage.
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            head = new Chunk();
+            tail = head;
+            spare = null;
+            size = 0;
+            updates = 0;
+            runChunks = new long[INITIAL_RUNS];
+            runLengths = new int[INITIAL_RUNS];
+            runHead = 0;
+            runCount = 0;
+            drained.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * A fixed-size block of queue entries.
+     */
+    private static final class Chunk {
+        private final long[] positions = new long[CHUNK_SIZE];
+        private final int[] words = new int[CHUNK_SIZE];
+        private int start;
+        private int end;
+        private Chunk next;
+    }
+}
@@ -1,30 +0,0 @@
-/*
- * Copyright 2025 LuckyMcDev
- *
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- *
- *     http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-
-package io.github.luckymcdev.groovyengine.construct.core.placement;
-
-import net.minecraft.core.BlockPos;
-import net.minecraft.world.level.block.state.BlockState;
-
-/**
- * Represents a single block placement operation.
- *
- * @param position    The target block position
- * @param blockState  The block state to place
- * @param sendUpdates Whether to send block updates after placement
- */
-public record PlacementTask(BlockPos position, BlockState blockState, boolean sendUpdates) {
-}
\ No newline at end of file
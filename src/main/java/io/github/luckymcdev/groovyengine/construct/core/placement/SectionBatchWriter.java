@@ -0,0 +1,303 @@
+/*
+ * Copyright 2025 LuckyMcDev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.luckymcdev.groovyengine.construct.core.placement;
+
+import io.github.luckymcdev.groovyengine.construct.core.flags.BlockPlacementFlags;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.shorts.ShortIterator;
+import it.unimi.dsi.fastutil.shorts.ShortOpenHashSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.SectionPos;
+import net.minecraft.network.protocol.Packet;
+import net.minecraft.network.protocol.game.ClientGamePacketListener;
+import net.minecraft.network.protocol.game.ClientboundBlockUpdatePacket;
+import net.minecraft.network.protocol.game.ClientboundSectionBlocksUpdatePacket;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.levelgen.Heightmap;
+import net.minecraft.world.level.lighting.LevelLightEngine;
+
+import java.util.Map;
+
+/**
+ * Writes block states directly into chunk section palettes, grouped per {@link LevelChunkSection}.
+ * <p>
+ * Unlike {@code Level#setBlock}, a write only touches the section storage and the chunk's heightmaps.
+ * Lighting, saving, client synchronization and block updates are deferred to {@link #flush()}, which
+ * handles every touched section once: one light update pass and one section update packet per section.
+ * With {@link DeferredLighting} set, light checks are collected for the whole job instead.
+ * <p>
+ * Changed blocks that requested updates are tracked in a 4096-bit dirty set per section. Updates between
+ * two dirty blocks are coalesced away, so on flush only the neighbors outside the edited volume are
+ * notified and the work scales with the surface of an edit rather than its volume.
+ * <p>
+ * States with block entities (on either side of the change) fall back to {@code Level#setBlock}
+ * so that block entities are created and removed correctly.
+ * <p>
+ * A writer must only be used on the server thread of its level.
+ */
+public class SectionBatchWriter {
+    private final ServerLevel level;
+    private final Long2ObjectLinkedOpenHashMap<SectionEdit> edits = new Long2ObjectLinkedOpenHashMap<>();
+    private final BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+    private SectionEdit lastEdit;
+    private long lastKey;
+    private int changedBlocks;
+    private ChangeRecorder recorder;
+    private DeferredLighting deferredLighting;
+
+    public SectionBatchWriter(ServerLevel level) {
+        this.level = level;
+    }
+
+    /**
+     * Gets the level this writer places blocks in.
+     */
+    public ServerLevel getLevel() {
+        return level;
+    }
+
+    /**
+     * Sets the recorder that receives the previous state of every changed block, or null for none.
+     */
+    public void setChangeRecorder(ChangeRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    /**
+     * Sets where light checks are collected while a bulk edit runs, or null to check light on every flush.
+     */
+    public void setDeferredLighting(DeferredLighting deferredLighting) {
+        this.deferredLighting = deferredLighting;
+    }
+
+    /**
+     * Writes a block state into its chunk section.
+     *
+     * @param x           The block X coordinate
+     * @param y           The block Y coordinate
+     * @param z           The block Z coordinate
+     * @param state       The state to place
+     * @param sendUpdates Whether to notify the position's neighbors when flushing
+     * @return true if the block changed
+     */
+    public boolean setBlock(int x, int y, int z, BlockState state, boolean sendUpdates) {
+        if (level.isOutsideBuildHeight(y)) return false;
+
+        SectionEdit edit = getEdit(x, y, z);
+        int localX = x & 15, localY = y & 15, localZ = z & 15;
+
+        cursor.set(x, y, z);
+
+        BlockState previous = edit.section.getBlockState(localX, localY, localZ);
+        if (previous == state) return false;
+        if (recorder != null) recorder.record(BlockPos.asLong(x, y, z), previous);
+        if (sendUpdates) edit.markDirty(localX, localY, localZ);
+
+        if (previous.hasBlockEntity() || state.hasBlockEntity()) {
+            // Block entities need the full vanilla path; it also sends its own client update
+            level.setBlock(cursor, state, BlockPlacementFlags.UPDATE_CLIENTS);
+            changedBlocks++;
+            return true;
+        }
+
+        edit.section.setBlockState(localX, localY, localZ, state);
+        for (Map.Entry<Heightmap.Types, Heightmap> heightmap : edit.chunk.getHeightmaps()) {
+            heightmap.getValue().update(localX, y, localZ, state);
+        }
+        edit.chunk.getSkyLightSources().update(edit.chunk, localX, y, localZ);
+        level.onBlockStateChange(cursor, previous, state);
+
+        edit.changed.add(SectionPos.sectionRelativePos(cursor));
+        changedBlocks++;
+        return true;
+    }
+
+    /**
+     * Gets the number of blocks changed since this writer was created.
+     */
+    public int getChangedBlocks() {
+        return changedBlocks;
+    }
+
+    /**
+     * Gets the number of sections touched since the last flush.
+     */
+    public int getPendingSections() {
+        return edits.size();
+    }
+
+    /**
+     * Finishes every touched section: updates lighting, marks chunks for saving,
+     * sends one update packet per section to the players tracking it and finally
+     * notifies the neighbors on the boundary of the dirty blocks.
+     */
+    public void flush() {
+        LevelLightEngine lightEngine = level.getChunkSource().getLightEngine();
+
+        for (SectionEdit edit : edits.values()) {
+            if (edit.changed.isEmpty()) continue;
+
+            boolean onlyAir = edit.section.hasOnlyAir();
+            if (onlyAir != edit.wasOnlyAir) {
+                lightEngine.updateSectionStatus(edit.sectionPos, onlyAir);
+            }
+
+            if (deferredLighting != null) {
+                deferredLighting.add(level, edit.sectionPos, edit.changed);
+            } else {
+                ShortIterator iterator = edit.changed.iterator();
+                while (iterator.hasNext()) {
+                    lightEngine.checkBlock(edit.sectionPos.relativeToBlockPos(iterator.nextShort()));
+                }
+            }
+
+            edit.chunk.setUnsaved(true);
+            broadcast(edit);
+        }
+
+        // All states are final now, so neighbors see the finished edit
+        for (SectionEdit edit : edits.values()) {
+            if (edit.dirtyCount > 0) notifyBoundary(edit);
+        }
+
+        edits.clear();
+        lastEdit = null;
+    }
+
+    /**
+     * Notifies every neighbor of a dirty block that is not dirty itself, in one pass over the section's dirty set.
+     * Neighbors get a shape update and a neighbor change, like {@code Level#setBlock} with {@link BlockPlacementFlags#UPDATE_ALL}.
+     */
+    private void notifyBoundary(SectionEdit edit) {
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        BlockPos.MutableBlockPos neighbor = new BlockPos.MutableBlockPos();
+        int baseX = edit.sectionPos.minBlockX(), baseY = edit.sectionPos.minBlockY(), baseZ = edit.sectionPos.minBlockZ();
+
+        for (int word = 0; word < edit.dirty.length; word++) {
+            long bits = edit.dirty[word];
+            while (bits != 0) {
+                int index = (word << 6) | Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+
+                pos.set(baseX + (index & 15), baseY + (index >> 8), baseZ + ((index >> 4) & 15));
+                BlockState state = null;
+                for (Direction direction : Direction.values()) {
+                    neighbor.setWithOffset(pos, direction);
+                    if (isDirty(edit, neighbor)) continue;
+
+                    if (state == null) state = edit.section.getBlockState(index & 15, index >> 8, (index >> 4) & 15);
+                    BlockState neighborState = level.getBlockState(neighbor);
+                    BlockState updated = neighborState.updateShape(direction.getOpposite(), state, level, neighbor, pos);
+                    Block.updateOrDestroy(neighborState, updated, level, neighbor, BlockPlacementFlags.UPDATE_ALL);
+                    level.neighborChanged(neighbor, state.getBlock(), pos);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks if a position is dirty in this writer, looking up other sections when it lies outside the given one.
+     */
+    private boolean isDirty(SectionEdit edit, BlockPos pos) {
+        int x = pos.getX(), y = pos.getY(), z = pos.getZ();
+        if (SectionPos.blockToSectionCoord(x) != edit.sectionPos.x()
+                || SectionPos.blockToSectionCoord(y) != edit.sectionPos.y()
+                || SectionPos.blockToSectionCoord(z) != edit.sectionPos.z()) {
+            edit = edits.get(SectionPos.asLong(SectionPos.blockToSectionCoord(x), SectionPos.blockToSectionCoord(y), SectionPos.blockToSectionCoord(z)));
+            if (edit == null) return false;
+        }
+        return edit.isDirty(x & 15, y & 15, z & 15);
+    }
+
+    /**
+     * Sends the changes of a section to every player tracking its chunk.
+     */
+    private void broadcast(SectionEdit edit) {
+        Packet<ClientGamePacketListener> packet;
+        if (edit.changed.size() == 1) {
+            BlockPos pos = edit.sectionPos.relativeToBlockPos(edit.changed.iterator().nextShort());
+            packet = new ClientboundBlockUpdatePacket(pos, edit.section.getBlockState(pos.getX() & 15, pos.getY() & 15, pos.getZ() & 15));
+        } else {
+            packet = new ClientboundSectionBlocksUpdatePacket(edit.sectionPos, edit.changed, edit.section);
+        }
+
+        for (ServerPlayer player : level.getChunkSource().chunkMap.getPlayers(edit.chunk.getPos(), false)) {
+            player.connection.send(packet);
+        }
+    }
+
+    /**
+     * Gets or starts the edit of the section containing a position.
+     */
+    private SectionEdit getEdit(int x, int y, int z) {
+        long key = SectionPos.asLong(SectionPos.blockToSectionCoord(x), SectionPos.blockToSectionCoord(y), SectionPos.blockToSectionCoord(z));
+        if (lastEdit != null && lastKey == key) return lastEdit;
+
+        SectionEdit edit = edits.get(key);
+        if (edit == null) {
+            LevelChunk chunk = level.getChunk(SectionPos.blockToSectionCoord(x), SectionPos.blockToSectionCoord(z));
+            LevelChunkSection section = chunk.getSection(level.getSectionIndex(y));
+            edit = new SectionEdit(SectionPos.of(key), chunk, section);
+            edits.put(key, edit);
+        }
+
+        lastKey = key;
+        lastEdit = edit;
+        return edit;
+    }
+
+    /**
+     * Pending changes to a single chunk section.
+     */
+    private static final class SectionEdit {
+        private final SectionPos sectionPos;
+        private final LevelChunk chunk;
+        private final LevelChunkSection section;
+        private final boolean wasOnlyAir;
+        private final ShortOpenHashSet changed = new ShortOpenHashSet();
+        // One bit per block, indexed by y << 8 | z << 4 | x
+        private final long[] dirty = new long[64];
+        private int dirtyCount;
+
+        private SectionEdit(SectionPos sectionPos, LevelChunk chunk, LevelChunkSection section) {
+            this.sectionPos = sectionPos;
+            this.chunk = chunk;
+            this.section = section;
+            this.wasOnlyAir = section.hasOnlyAir();
+        }
+
+        private void markDirty(int x, int y, int z) {
+            int index = (y << 8) | (z << 4) | x;
+            long bit = 1L << index;
+            if ((dirty[index >> 6] & bit) == 0) {
+                dirty[index >> 6] |= bit;
+                dirtyCount++;
+            }
+        }
+
+        private boolean isDirty(int x, int y, int z) {
+            int index = (y << 8) | (z << 4) | x;
+            return (dirty[index >> 6] & (1L << index)) != 0;
+        }
+    }
+}
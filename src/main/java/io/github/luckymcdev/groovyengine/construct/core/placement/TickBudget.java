@@ -0,0 +1,99 @@
+/*
+ * Copyright 2025 LuckyMcDev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.luckymcdev.groovyengine.construct.core.placement;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how much of a server tick placement work may use.
+ * <p>
+ * The budget is the configured amount, shrunk when the rest of the tick already leaves less
+ * headroom than that in a 50 ms tick. Work checks {@link #isExhausted()} and yields the moment
+ * the budget is spent. Time spent flushing after the deadline is remembered and reserved
+ * from the next tick's placement window.
+ */
+public class TickBudget {
+    /**
+     * Duration of a server tick at 20 TPS.
+     */
+    public static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long MIN_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private long start;
+    private long budgetNanos;
+    private long deadline;
+    private long flushStart;
+    private long flushReserveNanos;
+    private long spentNanos;
+
+    /**
+     * Starts measuring a tick.
+     *
+     * @param configuredNanos  The configured per-tick budget
+     * @param averageTickNanos The server's current average tick duration (MSPT)
+     */
+    public void begin(long configuredNanos, long averageTickNanos) {
+        // The average includes our own share from previous ticks; the rest is other work
+        long otherWork = Math.max(0, averageTickNanos - spentNanos);
+        long headroom = TICK_NANOS - otherWork;
+
+        budgetNanos = Math.max(MIN_BUDGET_NANOS, Math.min(configuredNanos, headroom));
+        start = System.nanoTime();
+        deadline = start + Math.max(MIN_BUDGET_NANOS / 2, budgetNanos - flushReserveNanos);
+        flushStart = 0;
+    }
+
+    /**
+     * Checks if placement work has used up this tick's budget.
+     */
+    public boolean isExhausted() {
+        return System.nanoTime() - deadline >= 0;
+    }
+
+    /**
+     * Marks the start of the end-of-tick flush, whose duration is reserved from future ticks.
+     */
+    public void beginFlush() {
+        flushStart = System.nanoTime();
+    }
+
+    /**
+     * Stops measuring the current tick.
+     */
+    public void end() {
+        long now = System.nanoTime();
+        spentNanos = now - start;
+        if (flushStart != 0) {
+            // Smooth the reserve so a single slow flush does not starve the next tick
+            flushReserveNanos = (flushReserveNanos * 3 + (now - flushStart)) / 4;
+        }
+    }
+
+    /**
+     * Gets the budget of the current or last tick in nanoseconds.
+     */
+    public long getBudgetNanos() {
+        return budgetNanos;
+    }
+
+    /**
+     * Gets the time spent during the last tick in nanoseconds.
+     */
+    public long getSpentNanos() {
+        return spentNanos;
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright 2025 LuckyMcDev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.luckymcdev.groovyengine.construct.core.region;
+
+import net.minecraft.core.BlockPos;
+
+/**
+ * An axis-aligned box of blocks between two inclusive corners.
+ * <p>
+ * Besides the full volume, a cuboid exposes streaming views of its shell, edges and walls,
+ * none of which allocate per block.
+ */
+public class CuboidRegion extends SpanRegion {
+    /**
+     * A region without any positions.
+     */
+    public static final CuboidRegion EMPTY = new CuboidRegion(0, 0, 0, -1, -1, -1);
+
+    protected CuboidRegion(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        super(minX, minY, minZ, maxX, maxY, maxZ);
+    }
+
+    /**
+     * Creates a cuboid spanning two corners in any order.
+     *
+     * @param pos1 The first corner
+     * @param pos2 The second corner
+     * @return The cuboid containing both corners
+     */
+    public static CuboidRegion of(BlockPos pos1, BlockPos pos2) {
+        return new CuboidRegion(
+                Math.min(pos1.getX(), pos2.getX()),
+                Math.min(pos1.getY(), pos2.getY()),
+                Math.min(pos1.getZ(), pos2.getZ()),
+                Math.max(pos1.getX(), pos2.getX()),
+                Math.max(pos1.getY(), pos2.getY()),
+                Math.max(pos1.getZ(), pos2.getZ())
+        );
+    }
+
+    public int getWidth() {
+        return Math.max(0, maxX - minX + 1);
+    }
+
+    public int getHeight() {
+        return Math.max(0, maxY - minY + 1);
+    }
+
+    public int getDepth() {
+        return Math.max(0, maxZ - minZ + 1);
+    }
+
+    @Override
+    protected long computeSize() {
+        return (long) getWidth() * getHeight() * getDepth();
+    }
+
+    @Override
+    public boolean contains(int x, int y, int z) {
+        return inBounds(x, y, z);
+    }
+
+    @Override
+    protected int rowSpans(int y, int z, int[] spans) {
+        spans[0] = minX;
+        spans[1] = maxX;
+        return 1;
+    }
+
+    /**
+     * Gets a view of the blocks on the six faces of this cuboid.
+     */
+    public Region surface() {
+        return shell(1);
+    }
+
+    /**
+     * Gets a view of the blocks within {@code thickness} blocks of any face of this cuboid.
+     *
+     * @param thickness The shell thickness, at least 1
+     */
+    public Region shell(int thickness) {
+        return new ShellRegion(this, Math.max(1, thickness));
+    }
+
+    /**
+     * Gets a view of the blocks on the four vertical faces of this cuboid.
+     */
+    public Region walls() {
+        return new WallRegion(this);
+    }
+
+    /**
+     * Gets a view of the blocks on the twelve edges of this cuboid.
+     */
+    public Region edges() {
+        return new EdgeRegion(this);
+    }
+
+    /**
+     * Writes the spans of a row that only covers the blocks within {@code thickness} of the X faces.
+     */
+    private static int endSpans(int minX, int maxX, int thickness, int[] spans) {
+        int innerStart = minX + thickness;
+        int innerEnd = maxX - thickness;
+        if (innerStart > innerEnd) {
+            spans[0] = minX;
+            spans[1] = maxX;
+            return 1;
+        }
+        spans[0] = minX;
+        spans[1] = innerStart - 1;
+        spans[2] = innerEnd + 1;
+        spans[3] = maxX;
+        return 2;
+    }
+
+    /**
+     * The blocks within a fixed distance of any face of a cuboid.
+     */
+    private static final class ShellRegion extends SpanRegion {
+        private final int thickness;
+
+        private ShellRegion(CuboidRegion bounds, int thickness) {
+            super(bounds.minX, bounds.minY, bounds.minZ, bounds.maxX, bounds.maxY, bounds.maxZ);
+            this.thickness = thickness;
+        }
+
+        private boolean nearFace(int value, int min, int max) {
+            return value - min < thickness || max - value < thickness;
+        }
+
+        @Override
+        protected long computeSize() {
+            if (isBoundsEmpty()) return 0;
+
+            long width = maxX - minX + 1;
+            long height = maxY - minY + 1;
+            long depth = maxZ - minZ + 1;
+            long inner = Math.max(0, width - 2L * thickness)
+                    * Math.max(0, height - 2L * thickness)
+                    * Math.max(0, depth - 2L * thickness);
+            return width * height * depth - inner;
+        }
+
+        @Override
+        public boolean contains(int x, int y, int z) {
+            return inBounds(x, y, z)
+                    && (nearFace(x, minX, maxX) || nearFace(y, minY, maxY) || nearFace(z, minZ, maxZ));
+        }
+
+        @Override
+        public boolean intersectsSection(int sectionX, int sectionY, int sectionZ) {
+            int x0 = sectionX << 4, y0 = sectionY << 4, z0 = sectionZ << 4;
+            // A section is skipped when it lies strictly inside the hollow core
+            return !(x0 >= minX + thickness && x0 + 15 <= maxX - thickness
+                    && y0 >= minY + thickness && y0 + 15 <= maxY - thickness
+                    && z0 >= minZ + thickness && z0 + 15 <= maxZ - thickness);
+        }
+
+        @Override
+        protected int rowSpans(int y, int z, int[] spans) {
+            if (nearFace(y, minY, maxY) || nearFace(z, minZ, maxZ)) {
+                spans[0] = minX;
+                spans[1] = maxX;
+                return 1;
+            }
+            return endSpans(minX, maxX, thickness, spans);
+        }
+    }
+
+    /**
+     * The blocks on the four vertical faces of a cuboid.
+     */
+    private static final class WallRegion extends SpanRegion {
+        private WallRegion(CuboidRegion bounds) {
+            super(bounds.minX, bounds.minY, bounds.minZ, bounds.maxX, bounds.maxY, bounds.maxZ);
+        }
+
+        @Override
+        protected long computeSize() {
+            if (isBoundsEmpty()) return 0;
+
+            long width = maxX - minX + 1;
+            long height = maxY - minY + 1;
+            long depth = maxZ - minZ + 1;
+            return height * (width * depth - Math.max(0, width - 2) * Math.max(0, depth - 2));
+        }
+
+        @Override
+        public boolean contains(int x, int y, int z) {
+            return inBounds(x, y, z) && (x == minX || x == maxX || z == minZ || z == maxZ);
+        }
+
+        @Override
+        protected int rowSpans(int y, int z, int[] spans) {
+            if (z == minZ || z == maxZ) {
+                spans[0] = minX;
+                spans[1] = maxX;
+                return 1;
+            }
+            return endSpans(minX, maxX, 1, spans);
+        }
+    }
+
+    /**
+     * The blocks on the twelve edges of a cuboid.
+     */
+    private static final class EdgeRegion extends SpanRegion {
+        private EdgeRegion(CuboidRegion bounds) {
+            super(bounds.minX, bounds.minY, bounds.minZ, bounds.maxX, bounds.maxY, bounds.maxZ);
+        }
+
+        private static int onFace(int value, int min, int max) {
+            return value == min || value == max ? 1 : 0;
+        }
+
+        @Override
+        public boolean contains(int x, int y, int z) {
+            return inBounds(x, y, z)
+                    && onFace(x, minX, maxX) + onFace(y, minY, maxY) + onFace(z, minZ, maxZ) >= 2;
+        }
+
+        @Override
+        public boolean intersectsSection(int sectionX, int sectionY, int sectionZ) {
+            int x0 = sectionX << 4, y0 = sectionY << 4, z0 = sectionZ << 4;
+            int faces = (x0 <= minX && minX <= x0 + 15 || x0 <= maxX && maxX <= x0 + 15 ? 1 : 0)
+                    + (y0 <= minY && minY <= y0 + 15 || y0 <= maxY && maxY <= y0 + 15 ? 1 : 0)
+                    + (z0 <= minZ && minZ <= z0 + 15 || z0 <= maxZ && maxZ <= z0 + 15 ? 1 : 0);
+            return faces >= 2;
+        }
+
+        @Override
+        protected int rowSpans(int y, int z, int[] spans) {
+            int faces = onFace(y, minY, maxY) + onFace(z, minZ, maxZ);
+            if (faces == 2) {
+                spans[0] = minX;
+                spans[1] = maxX;
+                return 1;
+            }
+            if (faces == 1) {
+                return endSpans(minX, maxX, 1, spans);
+            }
+            return 0;
+        }
+    }
+}
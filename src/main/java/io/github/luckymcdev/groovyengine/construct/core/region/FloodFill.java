@@ -0,0 +1,198 @@
+/*
+ * Copyright 2025 LuckyMcDev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.luckymcdev.groovyengine.construct.core.region;
+
+import io.github.luckymcdev.groovyengine.construct.core.mask.BlockMask;
+import io.github.luckymcdev.groovyengine.construct.core.placement.LoadedSections;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+
+import java.util.Arrays;
+
+/**
+ * Finds the connected body of blocks matching a mask around a seed, such as a lake or a cave, as a
+ * {@link RegionMask}.
+ * <p>
+ * The fill works on X spans: each step extends a span as far as it reaches in both directions and seeds
+ * one position per run in the neighbouring rows, so the work stack holds packed positions of runs rather
+ * than of blocks. Which blocks match is decided once per chunk section, the first time the fill reaches
+ * it, and kept as a 4096-bit set; the fill then only reads bits, and a section the server changes while
+ * the fill runs is seen as it was when first reached. Sections of unloaded chunks never match.
+ * <p>
+ * Safe to run on a background thread.
+ */
+public final class FloodFill {
+    private static final long[] NONE = new long[64];
+    private static final long[] ALL = new long[64];
+
+    static {
+        Arrays.fill(ALL, -1L);
+    }
+
+    private FloodFill() {}
+
+    /**
+     * Finds the blocks matching a mask that are connected to a seed.
+     *
+     * @param level        The level to read blocks from
+     * @param seed         The position to start from
+     * @param mask         The blocks the fill spreads through
+     * @param connectivity Which neighbours of a block are connected to it
+     * @param maxBlocks    The largest number of blocks the fill may find
+     * @return The connected blocks, or an empty mask if the seed does not match
+     * @throws IllegalArgumentException If more than {@code maxBlocks} blocks are connected
+     */
+    public static RegionMask fill(ServerLevel level, BlockPos seed, BlockMask mask, Connectivity connectivity, long maxBlocks) {
+        Snapshot snapshot = new Snapshot(new LoadedSections(level), mask);
+        RegionMask.Builder filled = new RegionMask.Builder();
+        LongArrayList stack = new LongArrayList();
+        stack.add(seed.asLong());
+
+        while (!stack.isEmpty()) {
+            long pos = stack.popLong();
+            int x = BlockPos.getX(pos), y = BlockPos.getY(pos), z = BlockPos.getZ(pos);
+            if (filled.contains(x, y, z) || !snapshot.matches(x, y, z)) continue;
+
+            int left = x, right = x;
+            while (snapshot.matches(left - 1, y, z) && !filled.contains(left - 1, y, z)) left--;
+            while (snapshot.matches(right + 1, y, z) && !filled.contains(right + 1, y, z)) right++;
+            for (int i = left; i <= right; i++) {
+                filled.add(i, y, z);
+            }
+            if (filled.size() > maxBlocks) throw new IllegalArgumentException("Flood fill reaches more than " + maxBlocks + " blocks");
+
+            int[] rows = connectivity.rows;
+            for (int i = 0; i < rows.length; i += 3) {
+                int spread = rows[i + 2];
+                seedRow(snapshot, filled, stack, left - spread, right + spread, y + rows[i], z + rows[i + 1]);
+            }
+        }
+        return filled.build();
+    }
+
+    /**
+     * Pushes the first position of every run of unfilled matching blocks in part of a row.
+     */
+    private static void seedRow(Snapshot snapshot, RegionMask.Builder filled, LongArrayList stack, int from, int to, int y, int z) {
+        boolean inRun = false;
+        for (int x = from; x <= to; x++) {
+            if (snapshot.matches(x, y, z) && !filled.contains(x, y, z)) {
+                if (!inRun) stack.add(BlockPos.asLong(x, y, z));
+                inRun = true;
+            } else {
+                inRun = false;
+            }
+        }
+    }
+
+    /**
+     * Which neighbours of a block are connected to it.
+     */
+    public enum Connectivity {
+        /**
+         * The 6 blocks sharing a face.
+         */
+        FACES(6, new int[]{1, 0, 0, -1, 0, 0, 0, 1, 0, 0, -1, 0}),
+        /**
+         * The 18 blocks sharing a face or an edge.
+         */
+        EDGES(18, new int[]{1, 0, 1, -1, 0, 1, 0, 1, 1, 0, -1, 1, 1, 1, 0, 1, -1, 0, -1, 1, 0, -1, -1, 0}),
+        /**
+         * The 26 blocks sharing a face, an edge or a corner.
+         */
+        CORNERS(26, new int[]{1, 0, 1, -1, 0, 1, 0, 1, 1, 0, -1, 1, 1, 1, 1, 1, -1, 1, -1, 1, 1, -1, -1, 1});
+
+        private final int neighbours;
+        // The neighbouring rows of a span as (dy, dz, spread): the row is scanned one block wider than the span at each end if spread is 1
+        private final int[] rows;
+
+        Connectivity(int neighbours, int[] rows) {
+            this.neighbours = neighbours;
+            this.rows = rows;
+        }
+
+        /**
+         * Gets the number of neighbours a block is connected to.
+         */
+        public int getNeighbours() {
+            return neighbours;
+        }
+
+        /**
+         * Gets the connectivity with the given number of neighbours.
+         *
+         * @throws IllegalArgumentException If it is not 6, 18 or 26
+         */
+        public static Connectivity of(int neighbours) {
+            for (Connectivity connectivity : values()) {
+                if (connectivity.neighbours == neighbours) return connectivity;
+            }
+            throw new IllegalArgumentException("Invalid connectivity " + neighbours);
+        }
+    }
+
+    /**
+     * The matching blocks of every section the fill reached, as they were when it first reached them.
+     */
+    private static final class Snapshot {
+        private final LoadedSections sections;
+        private final BlockMask mask;
+        private final Long2ObjectOpenHashMap<long[]> bits = new Long2ObjectOpenHashMap<>();
+        private long lastKey = Long.MIN_VALUE;
+        private long[] lastBits;
+
+        private Snapshot(LoadedSections sections, BlockMask mask) {
+            this.sections = sections;
+            this.mask = mask;
+        }
+
+        private boolean matches(int x, int y, int z) {
+            long key = SectionPos.asLong(x >> 4, y >> 4, z >> 4);
+            if (key != lastKey) {
+                lastKey = key;
+                lastBits = bits.get(key);
+                if (lastBits == null) {
+                    lastBits = capture(x >> 4, y >> 4, z >> 4);
+                    bits.put(key, lastBits);
+                }
+            }
+
+            int index = (y & 15) << 8 | (z & 15) << 4 | (x & 15);
+            return (lastBits[index >> 6] & 1L << index) != 0;
+        }
+
+        private long[] capture(int sectionX, int sectionY, int sectionZ) {
+            LevelChunkSection section = sections.get(sectionX, sectionY, sectionZ);
+            if (section == null) return NONE;
+            if (section.hasOnlyAir()) return mask.matches(Blocks.AIR.defaultBlockState()) ? ALL : NONE;
+            if (!mask.mayMatch(section)) return NONE;
+
+            long[] words = new long[64];
+            for (int index = 0; index < 4096; index++) {
+                if (mask.matches(section.getBlockState(index & 15, index >> 8, index >> 4 & 15))) {
+                    words[index >> 6] |= 1L << index;
+                }
+            }
+            return words;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2025 LuckyMcDev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.luckymcdev.groovyengine.construct.core.region;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.LongConsumer;
+
+/**
+ * An implicit set of block positions.
+ * <p>
+ * Regions never materialize their positions. Size and membership are answered directly from the
+ * region's definition, and iteration is lazy and walks positions chunk section by chunk section so
+ * that consumers can batch their work per {@code LevelChunkSection}.
+ */
+public interface Region extends Iterable<BlockPos> {
+
+    /**
+     * Gets the minimum corner of the region's bounding box.
+     */
+    BlockPos getMinPos();
+
+    /**
+     * Gets the maximum corner of the region's bounding box.
+     */
+    BlockPos getMaxPos();
+
+    /**
+     * Gets the exact number of positions in this region.
+     */
+    long size();
+
+    /**
+     * Checks if a position is part of this region.
+     */
+    boolean contains(int x, int y, int z);
+
+    /**
+     * Checks if a position is part of this region.
+     */
+    default boolean contains(BlockPos pos) {
+        return contains(pos.getX(), pos.getY(), pos.getZ());
+    }
+
+    /**
+     * Checks if this region has no positions.
+     */
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Checks whether the given chunk section may contain positions of this region.
+     * Cursors use this to skip whole sections in one step, so implementations should
+     * only return {@code true} when it is cheap to do so or the answer is unknown.
+     *
+     * @param sectionX The section X coordinate
+     * @param sectionY The section Y coordinate
+     * @param sectionZ The section Z coordinate
+     * @return false if the section certainly contains no positions of this region
+     */
+    default boolean intersectsSection(int sectionX, int sectionY, int sectionZ) {
+        return true;
+    }
+
+    /**
+     * Creates a new cursor over all positions of this region in chunk section order.
+     */
+    RegionCursor cursor();
+
+    /**
+     * Creates a new cursor over the positions of this region in chunk section order, skipping the
+     * positions of every section the filter rejects.
+     * <p>
+     * The default implementation visits every position and discards rejected ones; regions that walk
+     * whole sections should override it to skip them in one step.
+     *
+     * @param filter Decides which sections are visited
+     */
+    default RegionCursor cursor(SectionFilter filter) {
+        RegionCursor cursor = cursor();
+        return new RegionCursor() {
+            private long sectionKey = Long.MIN_VALUE;
+            private boolean accepted;
+
+            @Override
+            public boolean advance() {
+                while (cursor.advance()) {
+                    long key = SectionPos.asLong(cursor.x() >> 4, cursor.y() >> 4, cursor.z() >> 4);
+                    if (key != sectionKey) {
+                        sectionKey = key;
+                        accepted = filter.test(cursor.x() >> 4, cursor.y() >> 4, cursor.z() >> 4);
+                    }
+                    if (accepted) return true;
+                }
+                return false;
+            }
+
+            @Override
+            public int x() {
+                return cursor.x();
+            }
+
+            @Override
+            public int y() {
+                return cursor.y();
+            }
+
+            @Override
+            public int z() {
+                return cursor.z();
+            }
+        };
+    }
+
+    /**
+     * Calls the consumer with the packed {@link BlockPos#asLong} value of every position, in cursor order.
+     *
+     * @param consumer The consumer to call
+     */
+    default void forEachPacked(LongConsumer consumer) {
+        RegionCursor cursor = cursor();
+        while (cursor.advance()) {
+            consumer.accept(cursor.asLong());
+        }
+    }
+
+    /**
+     * Iterates all positions of this region in cursor order.
+     * <p>
+     * The returned positions are a single reused {@link BlockPos.MutableBlockPos};
+     * call {@link BlockPos#immutable()} to keep a position beyond the current step.
+     */
+    @Override
+    default Iterator<BlockPos> iterator() {
+        RegionCursor cursor = cursor();
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+
+        return new Iterator<>() {
+            private boolean ready;
+            private boolean hasNext;
+
+            @Override
+            public boolean hasNext() {
+                if (!ready) {
+                    hasNext = cursor.advance();
+                    ready = true;
+                }
+                return hasNext;
+            }
+
+            @Override
+            public BlockPos next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                ready = false;
+                return pos.set(cursor.x(), cursor.y(), cursor.z());
+            }
+        };
+    }
+}
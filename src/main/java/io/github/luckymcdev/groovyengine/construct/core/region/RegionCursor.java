@@ -0,0 +1,57 @@
+/*
+ * Copyright 2025 LuckyMcDev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.luckymcdev.groovyengine.construct.core.region;
+
+import net.minecraft.core.BlockPos;
+
+/**
+ * Allocation-free, forward-only cursor over the positions of a {@link Region}.
+ * <p>
+ * Positions are visited chunk by chunk, bottom to top section by section, and inside a
+ * section in Y, Z, X order (the same order as the section's block state storage).
+ */
+public interface RegionCursor {
+
+    /**
+     * Moves to the next position.
+     *
+     * @return false if the cursor is exhausted
+     */
+    boolean advance();
+
+    /**
+     * Gets the X coordinate of the current position.
+     */
+    int x();
+
+    /**
+     * Gets the Y coordinate of the current position.
+     */
+    int y();
+
+    /**
+     * Gets the Z coordinate of the current position.
+     */
+    int z();
+
+    /**
+     * Gets the current position packed with {@link BlockPos#asLong(int, int, int)}.
+     */
+    default long asLong() {
+        return BlockPos.asLong(x(), y(), z());
+    }
+}
@@ -0,0 +1,515 @@
+/*
+ * Copyright 2025 LuckyMcDev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.luckymcdev.groovyengine.construct.core.region;
+
+import io.github.luckymcdev.groovyengine.construct.core.mask.BlockMask;
+import io.github.luckymcdev.groovyengine.construct.core.placement.LoadedSections;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrays;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+
+/**
+ * An arbitrary set of positions, stored as one 4096-bit set per chunk section it touches.
+ * <p>
+ * Masks are built from any {@link Region}, such as the views of a selection, and narrowed to the blocks
+ * matching a {@link BlockMask} with {@link #matching}. They combine word by word with {@link #and},
+ * {@link #or} and {@link #andNot}, so "the walls, but not where there is glass" is
+ * {@code walls.andNot(RegionMask.matching(level, walls, glass))}. Sections without positions are not
+ * stored, and cursors skip them in one step.
+ * <p>
+ * Masks are immutable and may be shared between threads. Bit {@code y << 8 | z << 4 | x} of a section
+ * stands for the block at those section-local coordinates, so walking the bits in order visits the
+ * section in cursor order.
+ */
+public final class RegionMask implements Region {
+    private static final int WORDS = 64;
+
+    /**
+     * A mask without any positions.
+     */
+    public static final RegionMask EMPTY = new RegionMask(new Long2ObjectOpenHashMap<>());
+
+    private final Long2ObjectOpenHashMap<long[]> sections;
+    // Section keys in cursor order: X, then Z, then Y
+    private final long[] order;
+    private final long size;
+    private final int minX, minY, minZ, maxX, maxY, maxZ;
+
+    private RegionMask(Long2ObjectOpenHashMap<long[]> sections) {
+        this.sections = sections;
+        this.order = sections.keySet().toLongArray();
+        LongArrays.quickSort(order, (a, b) -> {
+            int result = Integer.compare(SectionPos.x(a), SectionPos.x(b));
+            if (result == 0) result = Integer.compare(SectionPos.z(a), SectionPos.z(b));
+            return result != 0 ? result : Integer.compare(SectionPos.y(a), SectionPos.y(b));
+        });
+
+        long count = 0;
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+        for (Long2ObjectMap.Entry<long[]> entry : sections.long2ObjectEntrySet()) {
+            long key = entry.getLongKey();
+            int baseX = SectionPos.sectionToBlockCoord(SectionPos.x(key));
+            int baseY = SectionPos.sectionToBlockCoord(SectionPos.y(key));
+            int baseZ = SectionPos.sectionToBlockCoord(SectionPos.z(key));
+            long[] words = entry.getValue();
+            // Each word covers four X rows of one Y layer
+            long columns = 0;
+            for (int i = 0; i < WORDS; i++) {
+                long word = words[i];
+                if (word == 0) continue;
+                count += Long.bitCount(word);
+                int y = baseY + (i >> 2);
+                int firstZ = baseZ + ((i & 3) << 2) + (Long.numberOfTrailingZeros(word) >> 4);
+                int lastZ = baseZ + ((i & 3) << 2) + ((63 - Long.numberOfLeadingZeros(word)) >> 4);
+                minY = Math.min(minY, y);
+                maxY = Math.max(maxY, y);
+                minZ = Math.min(minZ, firstZ);
+                maxZ = Math.max(maxZ, lastZ);
+                columns |= word | word >>> 16 | word >>> 32 | word >>> 48;
+            }
+            int rowBits = (int) (columns & 0xFFFF);
+            minX = Math.min(minX, baseX + Integer.numberOfTrailingZeros(rowBits));
+            maxX = Math.max(maxX, baseX + 31 - Integer.numberOfLeadingZeros(rowBits));
+        }
+
+        this.size = count;
+        if (count == 0) {
+            this.minX = this.minY = this.minZ = 0;
+            this.maxX = this.maxY = this.maxZ = -1;
+        } else {
+            this.minX = minX;
+            this.minY = minY;
+            this.minZ = minZ;
+            this.maxX = maxX;
+            this.maxY = maxY;
+            this.maxZ = maxZ;
+        }
+    }
+
+    /**
+     * Creates a mask of every position of a region.
+     *
+     * @param region The region, for example a view of a selection
+     * @return The mask
+     */
+    public static RegionMask of(Region region) {
+        if (region instanceof RegionMask mask) return mask;
+        Builder builder = new Builder();
+        builder.addAll(region);
+        return builder.build();
+    }
+
+    /**
+     * Creates a mask of the positions of a region whose block matches a block mask. Sections whose palette
+     * cannot match are skipped without reading their blocks; sections of unloaded chunks are left out.
+     * Safe to call from a background thread.
+     *
+     * @param level  The level to read blocks from
+     * @param region The positions to test
+     * @param mask   The blocks to keep
+     * @return The mask of matching positions
+     */
+    public static RegionMask matching(ServerLevel level, Region region, BlockMask mask) {
+        LoadedSections loaded = new LoadedSections(level);
+        RegionCursor cursor = region.cursor((sectionX, sectionY, sectionZ) -> {
+            LevelChunkSection section = loaded.get(sectionX, sectionY, sectionZ);
+            return section != null && mask.mayMatch(section);
+        });
+
+        Builder builder = new Builder();
+        long sectionKey = Long.MIN_VALUE;
+        LevelChunkSection section = null;
+        while (cursor.advance()) {
+            int x = cursor.x(), y = cursor.y(), z = cursor.z();
+            long key = SectionPos.asLong(x >> 4, y >> 4, z >> 4);
+            if (key != sectionKey) {
+                sectionKey = key;
+                section = loaded.get(x >> 4, y >> 4, z >> 4);
+            }
+
+            BlockState state = section.getBlockState(x & 15, y & 15, z & 15);
+            if (mask.matches(state)) builder.add(x, y, z);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Creates a mask of the positions in this mask and the other one.
+     */
+    public RegionMask and(RegionMask other) {
+        RegionMask small = sections.size() <= other.sections.size() ? this : other;
+        RegionMask large = small == this ? other : this;
+
+        Long2ObjectOpenHashMap<long[]> result = new Long2ObjectOpenHashMap<>();
+        for (Long2ObjectMap.Entry<long[]> entry : small.sections.long2ObjectEntrySet()) {
+            long[] otherWords = large.sections.get(entry.getLongKey());
+            if (otherWords == null) continue;
+
+            long[] words = entry.getValue();
+            long[] combined = new long[WORDS];
+            long any = 0;
+            for (int i = 0; i < WORDS; i++) {
+                combined[i] = words[i] & otherWords[i];
+                any |= combined[i];
+            }
+            if (any != 0) result.put(entry.getLongKey(), combined);
+        }
+        return new RegionMask(result);
+    }
+
+    /**
+     * Creates a mask of the positions in this mask, the other one or both.
+     */
+    public RegionMask or(RegionMask other) {
+        Long2ObjectOpenHashMap<long[]> result = new Long2ObjectOpenHashMap<>(sections.size() + other.sections.size());
+        for (Long2ObjectMap.Entry<long[]> entry : sections.long2ObjectEntrySet()) {
+            result.put(entry.getLongKey(), entry.getValue().clone());
+        }
+        for (Long2ObjectMap.Entry<long[]> entry : other.sections.long2ObjectEntrySet()) {
+            long[] words = result.get(entry.getLongKey());
+            if (words == null) {
+                result.put(entry.getLongKey(), entry.getValue().clone());
+                continue;
+            }
+
+            long[] otherWords = entry.getValue();
+            for (int i = 0; i < WORDS; i++) {
+                words[i] |= otherWords[i];
+            }
+        }
+        return new RegionMask(result);
+    }
+
+    /**
+     * Creates a mask of the positions in this mask that are not in the other one.
+     */
+    public RegionMask andNot(RegionMask other) {
+        Long2ObjectOpenHashMap<long[]> result = new Long2ObjectOpenHashMap<>(sections.size());
+        for (Long2ObjectMap.Entry<long[]> entry : sections.long2ObjectEntrySet()) {
+            long[] otherWords = other.sections.get(entry.getLongKey());
+            if (otherWords == null) {
+                result.put(entry.getLongKey(), entry.getValue().clone());
+                continue;
+            }
+
+            long[] words = entry.getValue();
+            long[] combined = new long[WORDS];
+            long any = 0;
+            for (int i = 0; i < WORDS; i++) {
+                combined[i] = words[i] & ~otherWords[i];
+                any |= combined[i];
+            }
+            if (any != 0) result.put(entry.getLongKey(), combined);
+        }
+        return new RegionMask(result);
+    }
+
+    /**
+     * Gets a view of the positions of a region that are in this mask. The view is not materialized; its
+     * cursors walk the region and skip every section this mask has no positions in.
+     *
+     * @param region The region to clip
+     * @return The positions of the region in this mask
+     */
+    public Region clip(Region region) {
+        return new ClippedRegion(region, this);
+    }
+
+    /**
+     * Gets the number of chunk sections this mask has positions in.
+     */
+    public int getSectionCount() {
+        return sections.size();
+    }
+
+    @Override
+    public BlockPos getMinPos() {
+        return new BlockPos(minX, minY, minZ);
+    }
+
+    @Override
+    public BlockPos getMaxPos() {
+        return new BlockPos(maxX, maxY, maxZ);
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public boolean contains(int x, int y, int z) {
+        long[] words = sections.get(SectionPos.asLong(x >> 4, y >> 4, z >> 4));
+        if (words == null) return false;
+
+        int index = index(x, y, z);
+        return (words[index >> 6] & 1L << index) != 0;
+    }
+
+    @Override
+    public boolean intersectsSection(int sectionX, int sectionY, int sectionZ) {
+        return sections.containsKey(SectionPos.asLong(sectionX, sectionY, sectionZ));
+    }
+
+    @Override
+    public RegionCursor cursor() {
+        return new MaskCursor(null);
+    }
+
+    /**
+     * Creates a cursor that skips rejected sections without visiting their bits.
+     */
+    @Override
+    public RegionCursor cursor(SectionFilter filter) {
+        return new MaskCursor(filter);
+    }
+
+    private static int index(int x, int y, int z) {
+        return (y & 15) << 8 | (z & 15) << 4 | (x & 15);
+    }
+
+    /**
+     * Cursor that walks the set bits of every section in order, a word at a time.
+     */
+    private final class MaskCursor implements RegionCursor {
+        private final SectionFilter filter;
+        private int sectionIndex = -1;
+        private long[] words;
+        private int wordIndex;
+        private long word;
+        private int baseX, baseY, baseZ;
+        private int x, y, z;
+
+        private MaskCursor(SectionFilter filter) {
+            this.filter = filter;
+        }
+
+        @Override
+        public boolean advance() {
+            while (word == 0) {
+                if (words != null && ++wordIndex < WORDS) {
+                    word = words[wordIndex];
+                } else if (!nextSection()) {
+                    return false;
+                }
+            }
+
+            int index = wordIndex << 6 | Long.numberOfTrailingZeros(word);
+            word &= word - 1;
+            x = baseX + (index & 15);
+            y = baseY + (index >> 8);
+            z = baseZ + (index >> 4 & 15);
+            return true;
+        }
+
+        private boolean nextSection() {
+            while (++sectionIndex < order.length) {
+                long key = order[sectionIndex];
+                int sectionX = SectionPos.x(key), sectionY = SectionPos.y(key), sectionZ = SectionPos.z(key);
+                if (filter != null && !filter.test(sectionX, sectionY, sectionZ)) continue;
+
+                words = sections.get(key);
+                wordIndex = 0;
+                word = words[0];
+                baseX = SectionPos.sectionToBlockCoord(sectionX);
+                baseY = SectionPos.sectionToBlockCoord(sectionY);
+                baseZ = SectionPos.sectionToBlockCoord(sectionZ);
+                return true;
+            }
+            words = null;
+            return false;
+        }
+
+        @Override
+        public int x() {
+            return x;
+        }
+
+        @Override
+        public int y() {
+            return y;
+        }
+
+        @Override
+        public int z() {
+            return z;
+        }
+    }
+
+    /**
+     * The positions of a region that are in a mask.
+     */
+    private static final class ClippedRegion implements Region {
+        private final Region region;
+        private final RegionMask mask;
+        private long cachedSize = -1;
+
+        private ClippedRegion(Region region, RegionMask mask) {
+            this.region = region;
+            this.mask = mask;
+        }
+
+        @Override
+        public BlockPos getMinPos() {
+            BlockPos min = region.getMinPos(), maskMin = mask.getMinPos();
+            return new BlockPos(Math.max(min.getX(), maskMin.getX()), Math.max(min.getY(), maskMin.getY()),
+                    Math.max(min.getZ(), maskMin.getZ()));
+        }
+
+        @Override
+        public BlockPos getMaxPos() {
+            BlockPos max = region.getMaxPos(), maskMax = mask.getMaxPos();
+            return new BlockPos(Math.min(max.getX(), maskMax.getX()), Math.min(max.getY(), maskMax.getY()),
+                    Math.min(max.getZ(), maskMax.getZ()));
+        }
+
+        @Override
+        public long size() {
+            if (cachedSize < 0) {
+                long count = 0;
+                RegionCursor cursor = cursor();
+                while (cursor.advance()) count++;
+                cachedSize = count;
+            }
+            return cachedSize;
+        }
+
+        @Override
+        public boolean contains(int x, int y, int z) {
+            return mask.contains(x, y, z) && region.contains(x, y, z);
+        }
+
+        @Override
+        public boolean intersectsSection(int sectionX, int sectionY, int sectionZ) {
+            return mask.intersectsSection(sectionX, sectionY, sectionZ) && region.intersectsSection(sectionX, sectionY, sectionZ);
+        }
+
+        @Override
+        public RegionCursor cursor() {
+            return cursor(null);
+        }
+
+        @Override
+        public RegionCursor cursor(SectionFilter filter) {
+            RegionCursor cursor = region.cursor((sectionX, sectionY, sectionZ) -> mask.intersectsSection(sectionX, sectionY, sectionZ)
+                    && (filter == null || filter.test(sectionX, sectionY, sectionZ)));
+            return new RegionCursor() {
+                @Override
+                public boolean advance() {
+                    while (cursor.advance()) {
+                        if (mask.contains(cursor.x(), cursor.y(), cursor.z())) return true;
+                    }
+                    return false;
+                }
+
+                @Override
+                public int x() {
+                    return cursor.x();
+                }
+
+                @Override
+                public int y() {
+                    return cursor.y();
+                }
+
+                @Override
+                public int z() {
+                    return cursor.z();
+                }
+            };
+        }
+    }
+
+    /**
+     * Collects positions into a new mask.
+     */
+    public static class Builder {
+        private final Long2ObjectOpenHashMap<long[]> sections = new Long2ObjectOpenHashMap<>();
+        private long lastKey = Long.MIN_VALUE;
+        private long[] lastWords;
+        private long size;
+
+        /**
+         * Adds a position.
+         */
+        public Builder add(int x, int y, int z) {
+            long key = SectionPos.asLong(x >> 4, y >> 4, z >> 4);
+            if (key != lastKey) {
+                lastKey = key;
+                lastWords = sections.computeIfAbsent(key, k -> new long[WORDS]);
+            }
+
+            int index = index(x, y, z);
+            long bit = 1L << index;
+            if ((lastWords[index >> 6] & bit) == 0) {
+                lastWords[index >> 6] |= bit;
+                size++;
+            }
+            return this;
+        }
+
+        /**
+         * Checks if a position was added.
+         */
+        public boolean contains(int x, int y, int z) {
+            long key = SectionPos.asLong(x >> 4, y >> 4, z >> 4);
+            long[] words = key == lastKey ? lastWords : sections.get(key);
+            if (words == null) return false;
+
+            int index = index(x, y, z);
+            return (words[index >> 6] & 1L << index) != 0;
+        }
+
+        /**
+         * Gets the number of distinct positions added so far.
+         */
+        public long size() {
+            return size;
+        }
+
+        /**
+         * Adds a position.
+         */
+        public Builder add(BlockPos pos) {
+            return add(pos.getX(), pos.getY(), pos.getZ());
+        }
+
+        /**
+         * Adds every position of a region.
+         */
+        public Builder addAll(Region region) {
+            RegionCursor cursor = region.cursor();
+            while (cursor.advance()) {
+                add(cursor.x(), cursor.y(), cursor.z());
+            }
+            return this;
+        }
+
+        /**
+         * Builds the mask. The builder must not be used afterwards.
+         */
+        public RegionMask build() {
+            return sections.isEmpty() ? EMPTY : new RegionMask(sections);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2025 LuckyMcDev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.luckymcdev.groovyengine.construct.core.region;
+
+/**
+ * Decides whether the positions of a whole chunk section should be visited by a {@link RegionCursor}.
+ */
+@FunctionalInterface
+public interface SectionFilter {
+    /**
+     * Checks if a section should be visited. Sections are tested in cursor order, and only once each.
+     *
+     * @param sectionX The section X coordinate
+     * @param sectionY The section Y coordinate
+     * @param sectionZ The section Z coordinate
+     * @return false to skip every position of the section
+     */
+    boolean test(int sectionX, int sectionY, int sectionZ);
+}
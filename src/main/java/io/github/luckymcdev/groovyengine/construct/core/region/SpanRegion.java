@@ -0,0 +1,282 @@
+/*
+ * Copyright 2025 LuckyMcDev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.luckymcdev.groovyengine.construct.core.region;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+
+/**
+ * Base class for regions that can describe each X row of their bounding box as a
+ * small number of inclusive spans.
+ * <p>
+ * Subclasses only implement {@link #rowSpans(int, int, int[])}; iteration, clipping to
+ * chunk sections and size computation are handled here.
+ */
+public abstract class SpanRegion implements Region {
+    /**
+     * Maximum number of spans a single row may produce.
+     */
+    public static final int MAX_SPANS = 4;
+
+    protected final int minX;
+    protected final int minY;
+    protected final int minZ;
+    protected final int maxX;
+    protected final int maxY;
+    protected final int maxZ;
+
+    private long cachedSize = -1;
+
+    protected SpanRegion(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.maxZ = maxZ;
+    }
+
+    /**
+     * Writes the X spans of the row at the given Y and Z into {@code spans}.
+     * Span {@code i} covers {@code spans[2i]} to {@code spans[2i + 1]} inclusive. Spans must be
+     * sorted, must not overlap, and must lie within the bounding box.
+     *
+     * @param y     The row's Y coordinate, within the bounding box
+     * @param z     The row's Z coordinate, within the bounding box
+     * @param spans The output buffer, at least {@code 2 * MAX_SPANS} long
+     * @return The number of spans written
+     */
+    protected abstract int rowSpans(int y, int z, int[] spans);
+
+    @Override
+    public BlockPos getMinPos() {
+        return new BlockPos(minX, minY, minZ);
+    }
+
+    @Override
+    public BlockPos getMaxPos() {
+        return new BlockPos(maxX, maxY, maxZ);
+    }
+
+    /**
+     * Checks if a position lies within the bounding box.
+     */
+    protected boolean inBounds(int x, int y, int z) {
+        return x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ;
+    }
+
+    /**
+     * Checks if the bounding box is inverted and therefore empty.
+     */
+    protected boolean isBoundsEmpty() {
+        return minX > maxX || minY > maxY || minZ > maxZ;
+    }
+
+    /**
+     * Gets the size of the region by summing the spans of every row.
+     * Subclasses with a closed form should override {@link #computeSize()}.
+     */
+    @Override
+    public long size() {
+        if (cachedSize < 0) {
+            cachedSize = computeSize();
+        }
+        return cachedSize;
+    }
+
+    /**
+     * Computes the number of positions in this region. Called at most once.
+     */
+    protected long computeSize() {
+        if (isBoundsEmpty()) return 0;
+
+        int[] spans = new int[MAX_SPANS * 2];
+        long total = 0;
+        for (int y = minY; y <= maxY; y++) {
+            for (int z = minZ; z <= maxZ; z++) {
+                int count = rowSpans(y, z, spans);
+                for (int i = 0; i < count; i++) {
+                    total += spans[i * 2 + 1] - spans[i * 2] + 1;
+                }
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public boolean contains(int x, int y, int z) {
+        if (!inBounds(x, y, z)) return false;
+
+        int[] spans = new int[MAX_SPANS * 2];
+        int count = rowSpans(y, z, spans);
+        for (int i = 0; i < count; i++) {
+            if (x >= spans[i * 2] && x <= spans[i * 2 + 1]) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public RegionCursor cursor() {
+        return new SpanCursor(this, null);
+    }
+
+    /**
+     * Creates a cursor that skips rejected sections without visiting their rows.
+     */
+    @Override
+    public RegionCursor cursor(SectionFilter filter) {
+        return new SpanCursor(this, filter);
+    }
+
+    /**
+     * Cursor that walks a {@link SpanRegion} section by section and row by row,
+     * clipping each row's spans to the current section.
+     */
+    private static final class SpanCursor implements RegionCursor {
+        private final SpanRegion region;
+        private final SectionFilter filter;
+        private final int[] spans = new int[MAX_SPANS * 2];
+
+        private final int minSectionX;
+        private final int minSectionY;
+        private final int minSectionZ;
+        private final int maxSectionX;
+        private final int maxSectionY;
+        private final int maxSectionZ;
+
+        private int sectionX;
+        private int sectionY;
+        private int sectionZ;
+
+        private int clipMinX;
+        private int clipMaxX;
+        private int clipMinY;
+        private int clipMaxY;
+        private int clipMinZ;
+        private int clipMaxZ;
+
+        private int x;
+        private int y;
+        private int z;
+        private int rowEnd = -1;
+        private int spanIndex;
+        private int spanCount;
+        private boolean done;
+
+        private SpanCursor(SpanRegion region, SectionFilter filter) {
+            this.region = region;
+            this.filter = filter;
+            this.minSectionX = SectionPos.blockToSectionCoord(region.minX);
+            this.minSectionY = SectionPos.blockToSectionCoord(region.minY);
+            this.minSectionZ = SectionPos.blockToSectionCoord(region.minZ);
+            this.maxSectionX = SectionPos.blockToSectionCoord(region.maxX);
+            this.maxSectionY = SectionPos.blockToSectionCoord(region.maxY);
+            this.maxSectionZ = SectionPos.blockToSectionCoord(region.maxZ);
+
+            this.sectionX = minSectionX;
+            this.sectionZ = minSectionZ;
+            this.sectionY = minSectionY - 1;
+            this.done = region.isBoundsEmpty();
+        }
+
+        @Override
+        public boolean advance() {
+            if (x < rowEnd) {
+                x++;
+                return true;
+            }
+            if (done) return false;
+
+            while (true) {
+                if (nextSpan()) return true;
+                if (!nextRow() && !nextSection()) {
+                    done = true;
+                    return false;
+                }
+            }
+        }
+
+        private boolean nextSpan() {
+            while (spanIndex < spanCount) {
+                int start = Math.max(spans[spanIndex * 2], clipMinX);
+                int end = Math.min(spans[spanIndex * 2 + 1], clipMaxX);
+                spanIndex++;
+                if (start <= end) {
+                    x = start;
+                    rowEnd = end;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean nextRow() {
+            if (sectionY < minSectionY) return false;
+
+            if (++z > clipMaxZ) {
+                z = clipMinZ;
+                if (++y > clipMaxY) return false;
+            }
+            spanCount = region.rowSpans(y, z, spans);
+            spanIndex = 0;
+            return true;
+        }
+
+        private boolean nextSection() {
+            while (true) {
+                if (++sectionY > maxSectionY) {
+                    sectionY = minSectionY;
+                    if (++sectionZ > maxSectionZ) {
+                        sectionZ = minSectionZ;
+                        if (++sectionX > maxSectionX) return false;
+                    }
+                }
+
+                if (region.intersectsSection(sectionX, sectionY, sectionZ)
+                        && (filter == null || filter.test(sectionX, sectionY, sectionZ))) break;
+            }
+
+            clipMinX = Math.max(region.minX, SectionPos.sectionToBlockCoord(sectionX));
+            clipMaxX = Math.min(region.maxX, SectionPos.sectionToBlockCoord(sectionX, 15));
+            clipMinY = Math.max(region.minY, SectionPos.sectionToBlockCoord(sectionY));
+            clipMaxY = Math.min(region.maxY, SectionPos.sectionToBlockCoord(sectionY, 15));
+            clipMinZ = Math.max(region.minZ, SectionPos.sectionToBlockCoord(sectionZ));
+            clipMaxZ = Math.min(region.maxZ, SectionPos.sectionToBlockCoord(sectionZ, 15));
+
+            y = clipMinY;
+            z = clipMinZ - 1;
+            spanCount = 0;
+            spanIndex = 0;
+            return true;
+        }
+
+        @Override
+        public int x() {
+            return x;
+        }
+
+        @Override
+        public int y() {
+            return y;
+        }
+
+        @Override
+        public int z() {
+            return z;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2025 LuckyMcDev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.luckymcdev.groovyengine.construct.core.schematic;
+
+import net.minecraft.nbt.NbtAccounter;
+import net.minecraft.nbt.Tag;
+import net.minecraft.nbt.TagTypes;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads an NBT file front to back without building its tree.
+ * <p>
+ * The caller walks compounds entry by entry and decides for each one whether to read it, descend into it or
+ * skip it. Skipped tags are read past without being created, and large arrays can be consumed a value at a
+ * time, so reading a file needs memory for the parts that are kept rather than for the whole file.
+ * Compressed and uncompressed files are both accepted.
+ */
+final class NbtStreamReader implements Closeable {
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final DataInputStream input;
+    private final NbtAccounter accounter = NbtAccounter.unlimitedHeap();
+    private boolean stopped;
+
+    private NbtStreamReader(InputStream input) {
+        this.input = new DataInputStream(input);
+    }
+
+    /**
+     * Opens a file and reads past the header of its root tag, which must be a compound.
+     */
+    static NbtStreamReader open(Path file) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(Files.newInputStream(file), BUFFER_BYTES);
+        NbtStreamReader reader;
+        try {
+            buffered.mark(2);
+            boolean compressed = buffered.read() == 0x1F && buffered.read() == 0x8B;
+            buffered.reset();
+            reader = new NbtStreamReader(compressed
+                    ? new BufferedInputStream(new GZIPInputStream(buffered, BUFFER_BYTES), BUFFER_BYTES)
+                    : buffered);
+        } catch (IOException e) {
+            buffered.close();
+            throw e;
+        }
+
+        try {
+            if (reader.input.readByte() != Tag.TAG_COMPOUND) throw new IOException("The root tag of " + file + " is not a compound");
+            reader.input.readUTF();
+        } catch (IOException e) {
+            reader.close();
+            throw e;
+        }
+        return reader;
+    }
+
+    /**
+     * Walks the entries of the compound the reader is in. Entries the handler does not consume are skipped.
+     * Walking ends early once the reader is {@link #stop() stopped}.
+     */
+    void readCompound(EntryHandler handler) throws IOException {
+        byte type;
+        while (!stopped && (type = input.readByte()) != Tag.TAG_END) {
+            String name = input.readUTF();
+            if (!handler.entry(name, type)) skip(type);
+        }
+    }
+
+    /**
+     * Stops reading. The rest of the file is left unread, so the reader can only be closed afterwards.
+     */
+    void stop() {
+        stopped = true;
+    }
+
+    boolean isStopped() {
+        return stopped;
+    }
+
+    /**
+     * Reads a whole tag. Only meant for small tags such as a palette entry or a block entity.
+     */
+    Tag read(byte type) throws IOException {
+        return TagTypes.getType(type).load(input, accounter);
+    }
+
+    void skip(byte type) throws IOException {
+        TagTypes.getType(type).skip(input, accounter);
+    }
+
+    /**
+     * Reads the header of a list.
+     *
+     * @param elementType The type the elements must have
+     * @return The number of elements, which follow
+     */
+    int beginList(byte elementType) throws IOException {
+        byte type = input.readByte();
+        int length = input.readInt();
+        if (length < 0 || length > 0 && type != elementType) throw new IOException("Expected a list of type " + elementType + ", got " + type);
+        return length;
+    }
+
+    /**
+     * Reads the length of a byte, int or long array, whose values follow.
+     */
+    int beginArray() throws IOException {
+        int length = input.readInt();
+        if (length < 0) throw new IOException("Negative array length");
+        return length;
+    }
+
+    byte readByte() throws IOException {
+        return input.readByte();
+    }
+
+    int readInt() throws IOException {
+        return input.readInt();
+    }
+
+    /**
+     * Reads a number of any numeric type as an int.
+     */
+    int readNumber(byte type) throws IOException {
+        return switch (type) {
+            case Tag.TAG_BYTE -> input.readByte();
+            case Tag.TAG_SHORT -> input.readShort();
+            case Tag.TAG_INT -> input.readInt();
+            case Tag.TAG_LONG -> (int) input.readLong();
+            default -> throw new IOException("Expected a number, got type " + type);
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+
+    /**
+     * Handles one entry of a compound.
+     */
+    @FunctionalInterface
+    interface EntryHandler {
+        /**
+         * @param name The name of the entry
+         * @param type The type of its tag, whose payload follows
+         * @return Whether the handler consumed the payload
+         */
+        boolean entry(String name, byte type) throws IOException;
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2025 LuckyMcDev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.luckymcdev.groovyengine.construct.core.schematic;
+
+import io.github.luckymcdev.groovyengine.GE;
+import io.github.luckymcdev.groovyengine.construct.core.clipboard.ClipboardFormat;
+import io.github.luckymcdev.groovyengine.construct.core.operation.ConstructOperation;
+import io.github.luckymcdev.groovyengine.construct.core.placement.PlacementPipeline;
+import io.github.luckymcdev.groovyengine.construct.core.placement.PlacementQueue;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Vec3i;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Imports schematics written by other tools straight into the placer.
+ * <p>
+ * Vanilla structure files ({@code .nbt}) and Sponge schematics ({@code .schem}) are supported. A schematic is
+ * never loaded as a whole: its file is read twice, first for the header and palette and then for the blocks,
+ * which are converted to placement batches as they are decoded. Together with the backpressure of the
+ * {@link PlacementPipeline}, importing needs about as much memory as the palette and block entities of a
+ * schematic, no matter how many blocks it has. The job's progress counts the schematic's blocks from the start.
+ */
+public final class SchematicImporter {
+    private static final int BATCH_SIZE = 4096;
+
+    private SchematicImporter() {
+    }
+
+    /**
+     * Gets a schematic file in the {@link ClipboardFormat#SCHEMATICS_DIR schematics folder}.
+     *
+     * @param name The file name, with its extension
+     * @throws IllegalArgumentException If the name is invalid or the format is not supported
+     */
+    public static Path resolve(String name) {
+        String sanitized = ClipboardFormat.sanitizeName(name);
+        if (!isSupported(sanitized)) throw new IllegalArgumentException("Not a supported schematic: " + name);
+        return ClipboardFormat.SCHEMATICS_DIR.resolve(sanitized);
+    }
+
+    private static boolean isSupported(String name) {
+        String lowerCase = name.toLowerCase(Locale.ROOT);
+        return lowerCase.endsWith(".nbt") || lowerCase.endsWith(".schem");
+    }
+
+    /**
+     * Creates the pipeline task that imports a schematic with its minimum corner at a position.
+     * The size of the schematic is only known once the task reads it, so the task checks it against the limit.
+     *
+     * @param file      The schematic file
+     * @param at        The position the schematic's minimum corner is placed at
+     * @param skipAir   Whether air in the schematic leaves the blocks at its position alone
+     * @param maxBlocks The largest schematic to import, in blocks
+     * @param onFailure Receives the reason if the schematic cannot be read or is too large, on the pipeline thread
+     * @return The task to submit to the placer
+     */
+    public static PlacementPipeline.Task createTask(Path file, BlockPos at, boolean skipAir, long maxBlocks, Consumer<String> onFailure) {
+        return sink -> {
+            SchematicReader schematic = file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".nbt")
+                    ? new StructureReader()
+                    : new SpongeSchematicReader();
+            try {
+                if (!Files.isRegularFile(file)) throw new IOException("No schematic named " + file.getFileName());
+                try (NbtStreamReader reader = NbtStreamReader.open(file)) {
+                    schematic.readHeader(reader);
+                }
+
+                Vec3i size = schematic.getSize();
+                if (size.getX() == 0 || size.getY() == 0 || size.getZ() == 0) return;
+                ConstructOperation.validateCuboid(at, at.offset(size.offset(-1, -1, -1)), maxBlocks);
+
+                BlockState[] palette = schematic.getPalette();
+                int[] words = new int[palette.length];
+                boolean[] skipped = new boolean[palette.length];
+                for (int i = 0; i < palette.length; i++) {
+                    words[i] = PlacementQueue.encode(palette[i], true);
+                    skipped[i] = skipAir && palette[i].isAir();
+                }
+
+                // Skipped blocks are only known while reading, so the estimate shrinks with every batch
+                long blockCount = schematic.getBlockCount();
+                sink.expect(blockCount);
+                long[] positions = new long[BATCH_SIZE];
+                int[] batch = new int[BATCH_SIZE];
+                int[] count = {0};
+                long[] visited = {0};
+                boolean completed;
+                try (NbtStreamReader reader = NbtStreamReader.open(file)) {
+                    completed = schematic.readBlocks(reader, (x, y, z, id, blockEntity) -> {
+                        visited[0]++;
+                        if (skipped[id]) return true;
+
+                        long pos = BlockPos.asLong(at.getX() + x, at.getY() + y, at.getZ() + z);
+                        if (blockEntity != null && palette[id].hasBlockEntity()) sink.putBlockEntityData(pos, blockEntity);
+                        positions[count[0]] = pos;
+                        batch[count[0]++] = words[id];
+                        if (count[0] < BATCH_SIZE) return true;
+
+                        sink.offerAll(positions, batch, count[0]);
+                        sink.expect(blockCount - visited[0]);
+                        count[0] = 0;
+                        return !sink.isCancelled();
+                    });
+                }
+                sink.offerAll(positions, batch, count[0]);
+                sink.expect(0);
+
+                if (completed) {
+                    GE.CONSTRUCT_LOG.info("Imported {} ({}x{}x{}, {} states) at {}", file.getFileName(),
+                            size.getX(), size.getY(), size.getZ(), palette.length, at.toShortString());
+                }
+            } catch (IOException | IllegalArgumentException e) {
+                GE.CONSTRUCT_LOG.error("Failed to import schematic {}", file.getFileName(), e);
+                onFailure.accept(file.getFileName() + ": " + e.getMessage());
+            }
+        };
+    }
+}
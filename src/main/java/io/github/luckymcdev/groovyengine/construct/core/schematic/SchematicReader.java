@@ -0,0 +1,101 @@
+/*
+ * Copyright 2025 LuckyMcDev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.luckymcdev.groovyengine.construct.core.schematic;
+
+import com.mojang.datafixers.DSL;
+import com.mojang.serialization.Dynamic;
+import io.github.luckymcdev.groovyengine.GE;
+import net.minecraft.SharedConstants;
+import net.minecraft.core.Vec3i;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.NbtOps;
+import net.minecraft.util.datafix.DataFixers;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.io.IOException;
+
+/**
+ * Reads one schematic format in two passes over the file.
+ * <p>
+ * The first pass reads the header and the palette and skips the block data, so it is cheap even for huge
+ * files. The second pass streams the blocks to a consumer as they are read. Splitting the passes makes the
+ * importer independent of the order the entries were written in, which NBT does not guarantee.
+ */
+abstract class SchematicReader {
+    protected Vec3i size = Vec3i.ZERO;
+    protected int dataVersion = -1;
+
+    /**
+     * Reads the header and palette of the schematic.
+     */
+    abstract void readHeader(NbtStreamReader reader) throws IOException;
+
+    /**
+     * Streams the blocks of the schematic. Must be called on a fresh reader after {@link #readHeader}.
+     *
+     * @return false if the consumer stopped reading
+     */
+    abstract boolean readBlocks(NbtStreamReader reader, BlockConsumer consumer) throws IOException;
+
+    /**
+     * Gets the states the blocks refer to, known after {@link #readHeader}.
+     */
+    abstract BlockState[] getPalette();
+
+    /**
+     * Gets the size of the schematic's bounding box.
+     */
+    Vec3i getSize() {
+        return size;
+    }
+
+    /**
+     * Gets the number of blocks {@link #readBlocks} will report, known after {@link #readHeader}.
+     */
+    abstract long getBlockCount();
+
+    /**
+     * Upgrades data written by an older version of the game, if the schematic says which version that was.
+     */
+    protected CompoundTag update(DSL.TypeReference type, CompoundTag tag) {
+        int currentVersion = SharedConstants.getCurrentVersion().getDataVersion().getVersion();
+        if (dataVersion < 0 || dataVersion >= currentVersion) return tag;
+        try {
+            return (CompoundTag) DataFixers.getDataFixer()
+                    .update(type, new Dynamic<>(NbtOps.INSTANCE, tag), dataVersion, currentVersion).getValue();
+        } catch (RuntimeException e) {
+            GE.CONSTRUCT_LOG.warn("Failed to upgrade {} from data version {}", type.typeName(), dataVersion, e);
+            return tag;
+        }
+    }
+
+    /**
+     * Receives the blocks of a schematic.
+     */
+    @FunctionalInterface
+    interface BlockConsumer {
+        /**
+         * @param x           The X offset from the schematic's minimum corner
+         * @param y           The Y offset from the schematic's minimum corner
+         * @param z           The Z offset from the schematic's minimum corner
+         * @param paletteId   The index of the block's state in the palette
+         * @param blockEntity The block entity data, or null
+         * @return Whether to keep reading
+         */
+        boolean accept(int x, int y, int z, int paletteId, CompoundTag blockEntity);
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2025 LuckyMcDev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.luckymcdev.groovyengine.construct.core.schematic;
+
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import io.github.luckymcdev.groovyengine.GE;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.commands.arguments.blocks.BlockStateParser;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Vec3i;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.util.datafix.fixes.References;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Reads Sponge schematic files, versions 1 to 3, as written by WorldEdit and most other editors.
+ * <p>
+ * The block data is a byte array of variable-length palette indices in X, Z, Y order. It is decoded straight
+ * from the file stream without ever being held in memory; only the palette and the block entities are kept.
+ * Block states are read as they are named in the palette, without upgrading them from older versions.
+ */
+final class SpongeSchematicReader extends SchematicReader {
+    private final Object2IntMap<String> paletteNames = new Object2IntOpenHashMap<>();
+    // Keyed by the packed offset from the minimum corner
+    private final Long2ObjectOpenHashMap<CompoundTag> blockEntities = new Long2ObjectOpenHashMap<>();
+    private BlockState[] palette = new BlockState[0];
+    private int width;
+    private int height;
+    private int length;
+
+    @Override
+    void readHeader(NbtStreamReader reader) throws IOException {
+        reader.readCompound((name, type) -> readHeaderEntry(reader, name, type));
+        size = new Vec3i(width, height, length);
+
+        int maxId = paletteNames.values().intStream().max().orElse(-1);
+        palette = new BlockState[maxId + 1];
+        Arrays.fill(palette, Blocks.AIR.defaultBlockState());
+        for (Object2IntMap.Entry<String> entry : paletteNames.object2IntEntrySet()) {
+            if (entry.getIntValue() < 0) continue;
+            try {
+                palette[entry.getIntValue()] = BlockStateParser.parseForBlock(BuiltInRegistries.BLOCK.asLookup(), entry.getKey(), false).blockState();
+            } catch (CommandSyntaxException e) {
+                GE.CONSTRUCT_LOG.warn("Importing unknown block state {} as air", entry.getKey());
+            }
+        }
+        paletteNames.clear();
+    }
+
+    private boolean readHeaderEntry(NbtStreamReader reader, String name, byte type) throws IOException {
+        switch (name) {
+            // Version 3 wraps everything in a compound, and keeps the blocks in a compound of their own
+            case "Schematic", "Blocks" -> {
+                if (type != Tag.TAG_COMPOUND) return false;
+                reader.readCompound((entryName, entryType) -> readHeaderEntry(reader, entryName, entryType));
+            }
+            case "DataVersion" -> dataVersion = reader.readNumber(type);
+            case "Width" -> width = reader.readNumber(type) & 0xFFFF;
+            case "Height" -> height = reader.readNumber(type) & 0xFFFF;
+            case "Length" -> length = reader.readNumber(type) & 0xFFFF;
+            case "Palette" -> {
+                if (type != Tag.TAG_COMPOUND) return false;
+                reader.readCompound((state, idType) -> {
+                    paletteNames.put(state, reader.readNumber(idType));
+                    return true;
+                });
+            }
+            case "BlockEntities", "TileEntities" -> {
+                if (type != Tag.TAG_LIST) return false;
+                int count = reader.beginList(Tag.TAG_COMPOUND);
+                for (int i = 0; i < count; i++) {
+                    readBlockEntity((CompoundTag) reader.read(Tag.TAG_COMPOUND));
+                }
+            }
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void readBlockEntity(CompoundTag tag) {
+        int[] pos = tag.getIntArray("Pos");
+        if (pos.length != 3) return;
+
+        // Version 3 nests the data, older versions keep it next to the position and id
+        CompoundTag data = tag.contains("Data", Tag.TAG_COMPOUND) ? tag.getCompound("Data").copy() : tag.copy();
+        data.remove("Pos");
+        data.remove("Id");
+        data.putString("id", tag.getString("Id"));
+        blockEntities.put(BlockPos.asLong(pos[0], pos[1], pos[2]), update(References.BLOCK_ENTITY, data));
+    }
+
+    @Override
+    boolean readBlocks(NbtStreamReader reader, BlockConsumer consumer) throws IOException {
+        reader.readCompound((name, type) -> readBlocksEntry(reader, consumer, name, type));
+        return !reader.isStopped();
+    }
+
+    private boolean readBlocksEntry(NbtStreamReader reader, BlockConsumer consumer, String name, byte type) throws IOException {
+        switch (name) {
+            case "Schematic", "Blocks" -> {
+                if (type != Tag.TAG_COMPOUND) return false;
+                reader.readCompound((entryName, entryType) -> readBlocksEntry(reader, consumer, entryName, entryType));
+                return true;
+            }
+            case "BlockData", "Data" -> {
+                if (type != Tag.TAG_BYTE_ARRAY) return false;
+                readBlockData(reader, consumer);
+                return true;
+            }
+            default -> {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Decodes the block data array as it is read.
+     */
+    private void readBlockData(NbtStreamReader reader, BlockConsumer consumer) throws IOException {
+        int remaining = reader.beginArray();
+        int x = 0, y = 0, z = 0;
+        while (remaining > 0) {
+            int id = 0;
+            int shift = 0;
+            byte read;
+            do {
+                if (remaining-- == 0 || shift > 28) throw new IOException("Corrupt block data");
+                read = reader.readByte();
+                id |= (read & 0x7F) << shift;
+                shift += 7;
+            } while ((read & 0x80) != 0);
+
+            if (x < width && y < height && id >= 0 && id < palette.length) {
+                CompoundTag blockEntity = blockEntities.isEmpty() ? null : blockEntities.get(BlockPos.asLong(x, y, z));
+                if (!consumer.accept(x, y, z, id, blockEntity)) {
+                    reader.stop();
+                    return;
+                }
+            }
+
+            if (++x == width) {
+                x = 0;
+                if (++z == length) {
+                    z = 0;
+                    y++;
+                }
+            }
+        }
+    }
+
+    @Override
+    BlockState[] getPalette() {
+        return palette;
+    }
+
+    @Override
+    long getBlockCount() {
+        return (long) width * height * length;
+    }
+}
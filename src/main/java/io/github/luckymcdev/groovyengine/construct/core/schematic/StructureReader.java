@@ -0,0 +1,136 @@
+/*
+ * Copyright 2025 LuckyMcDev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.luckymcdev.groovyengine.construct.core.schematic;
+
+import net.minecraft.core.Vec3i;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.NbtUtils;
+import net.minecraft.nbt.Tag;
+import net.minecraft.util.datafix.fixes.References;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads vanilla structure files, as saved by structure blocks. Only the first palette of structures with
+ * several palettes is used, and entities are not imported.
+ */
+final class StructureReader extends SchematicReader {
+    private final List<CompoundTag> paletteTags = new ArrayList<>();
+    private BlockState[] palette = new BlockState[0];
+    private long blockCount;
+
+    @Override
+    void readHeader(NbtStreamReader reader) throws IOException {
+        reader.readCompound((name, type) -> switch (name) {
+            case "size" -> {
+                if (type != Tag.TAG_LIST || reader.beginList(Tag.TAG_INT) != 3) throw new IOException("Invalid structure size");
+                size = new Vec3i(reader.readInt(), reader.readInt(), reader.readInt());
+                yield true;
+            }
+            case "palette" -> {
+                if (type != Tag.TAG_LIST) yield false;
+                readPalette(reader);
+                yield true;
+            }
+            case "palettes" -> {
+                if (type != Tag.TAG_LIST) yield false;
+                int palettes = reader.beginList(Tag.TAG_LIST);
+                for (int i = 0; i < palettes; i++) {
+                    if (i == 0 && paletteTags.isEmpty()) {
+                        readPalette(reader);
+                    } else {
+                        reader.skip(Tag.TAG_LIST);
+                    }
+                }
+                yield true;
+            }
+            case "blocks" -> {
+                if (type != Tag.TAG_LIST) yield false;
+                int blocks = reader.beginList(Tag.TAG_COMPOUND);
+                for (int i = 0; i < blocks; i++) {
+                    reader.skip(Tag.TAG_COMPOUND);
+                }
+                blockCount = blocks;
+                yield true;
+            }
+            case "DataVersion" -> {
+                dataVersion = reader.readNumber(type);
+                yield true;
+            }
+            default -> false;
+        });
+
+        if (size.getX() < 0 || size.getY() < 0 || size.getZ() < 0) throw new IOException("Invalid structure size " + size);
+        // Versions are known only now, since entries come in any order
+        palette = new BlockState[paletteTags.size()];
+        for (int i = 0; i < palette.length; i++) {
+            palette[i] = NbtUtils.readBlockState(BuiltInRegistries.BLOCK.asLookup(), update(References.BLOCK_STATE, paletteTags.get(i)));
+        }
+        paletteTags.clear();
+    }
+
+    private void readPalette(NbtStreamReader reader) throws IOException {
+        int length = reader.beginList(Tag.TAG_COMPOUND);
+        for (int i = 0; i < length; i++) {
+            paletteTags.add((CompoundTag) reader.read(Tag.TAG_COMPOUND));
+        }
+    }
+
+    @Override
+    boolean readBlocks(NbtStreamReader reader, BlockConsumer consumer) throws IOException {
+        reader.readCompound((name, type) -> {
+            if (!name.equals("blocks") || type != Tag.TAG_LIST) return false;
+
+            int blocks = reader.beginList(Tag.TAG_COMPOUND);
+            for (int i = 0; i < blocks; i++) {
+                CompoundTag block = (CompoundTag) reader.read(Tag.TAG_COMPOUND);
+                ListTag pos = block.getList("pos", Tag.TAG_INT);
+                int state = block.getInt("state");
+                int x = pos.getInt(0), y = pos.getInt(1), z = pos.getInt(2);
+                if (pos.size() != 3 || state < 0 || state >= palette.length || x < 0 || y < 0 || z < 0
+                        || x >= size.getX() || y >= size.getY() || z >= size.getZ()) {
+                    continue;
+                }
+
+                CompoundTag blockEntity = block.contains("nbt", Tag.TAG_COMPOUND)
+                        ? update(References.BLOCK_ENTITY, block.getCompound("nbt"))
+                        : null;
+                if (!consumer.accept(x, y, z, state, blockEntity)) {
+                    reader.stop();
+                    break;
+                }
+            }
+            return true;
+        });
+        return !reader.isStopped();
+    }
+
+    @Override
+    BlockState[] getPalette() {
+        return palette;
+    }
+
+    @Override
+    long getBlockCount() {
+        return blockCount;
+    }
+}
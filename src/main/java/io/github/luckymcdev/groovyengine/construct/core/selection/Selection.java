@@ -17,20 +17,19 @@
 package io.github.luckymcdev.groovyengine.construct.core.selection;
 
 import io.github.luckymcdev.groovyengine.GE;
+import io.github.luckymcdev.groovyengine.construct.core.region.CuboidRegion;
+import io.github.luckymcdev.groovyengine.construct.core.region.Region;
 import net.minecraft.core.BlockPos;
 import net.neoforged.api.distmarker.Dist;
 import net.neoforged.api.distmarker.OnlyIn;
 
-import java.util.HashSet;
-import java.util.Set;
-
 /**
  * Represents a 3D block selection between two points in the world.
  * Enhanced with expansion, contraction, and dimension calculation features.
  */
 @OnlyIn(Dist.CLIENT)
 public class Selection {
-    private final Set<BlockPos> selectedBlocks = new HashSet<>();
+    private CuboidRegion region = CuboidRegion.EMPTY;
     private BlockPos pos1 = null;
     private BlockPos pos2 = null;
 
@@ -59,10 +58,17 @@ public class Selection {
     }
 
     /**
-     * Gets a copy of all selected block positions.
+     * Gets the selected region. The region is immutable and stays valid after the selection changes.
+     */
+    public CuboidRegion getRegion() {
+        return region;
+    }
+
+    /**
+     * Gets all selected block positions as a lazily iterated region.
      */
-    public Set<BlockPos> getSelectedBlocks() {
-        return new HashSet<>(selectedBlocks);
+    public Region getSelectedBlocks() {
+        return region;
     }
 
     /**
@@ -78,14 +84,14 @@ public class Selection {
     public void clearSelection() {
         pos1 = null;
         pos2 = null;
-        selectedBlocks.clear();
+        region = CuboidRegion.EMPTY;
     }
 
     /**
      * Gets the number of blocks in the current selection.
      */
-    public int getSelectionSize() {
-        return selectedBlocks.size();
+    public long getSelectionSize() {
+        return region.size();
     }
 
     /**
@@ -219,149 +225,41 @@ public class Selection {
      * Checks if a position is within the selection bounds.
      */
     public boolean contains(BlockPos pos) {
-        if (!hasValidSelection()) return false;
-
-        BlockPos min = getMinPos();
-        BlockPos max = getMaxPos();
-
-        return pos.getX() >= min.getX() && pos.getX() <= max.getX() &&
-                pos.getY() >= min.getY() && pos.getY() <= max.getY() &&
-                pos.getZ() >= min.getZ() && pos.getZ() <= max.getZ();
+        return region.contains(pos);
     }
 
     /**
-     * Gets only the surface blocks of the selection (faces).
+     * Gets a view of only the surface blocks of the selection (faces).
      */
-    public Set<BlockPos> getSurfaceBlocks() {
-        if (!hasValidSelection()) return new HashSet<>();
-
-        Set<BlockPos> surface = new HashSet<>();
-        BlockPos min = getMinPos();
-        BlockPos max = getMaxPos();
-
-        // Add all blocks on the six faces
-        for (int x = min.getX(); x <= max.getX(); x++) {
-            for (int y = min.getY(); y <= max.getY(); y++) {
-                for (int z = min.getZ(); z <= max.getZ(); z++) {
-                    if (x == min.getX() || x == max.getX() ||
-                            y == min.getY() || y == max.getY() ||
-                            z == min.getZ() || z == max.getZ()) {
-                        surface.add(new BlockPos(x, y, z));
-                    }
-                }
-            }
-        }
-
-        return surface;
+    public Region getSurfaceBlocks() {
+        return getRegion().surface();
     }
 
     /**
-     * Gets only the edge blocks of the selection (12 edges of the cuboid).
+     * Gets a view of only the edge blocks of the selection (12 edges of the cuboid).
      */
-    public Set<BlockPos> getEdgeBlocks() {
-        if (!hasValidSelection()) return new HashSet<>();
-
-        Set<BlockPos> edges = new HashSet<>();
-        BlockPos min = getMinPos();
-        BlockPos max = getMaxPos();
-
-        // X-aligned edges
-        for (int x = min.getX(); x <= max.getX(); x++) {
-            edges.add(new BlockPos(x, min.getY(), min.getZ()));
-            edges.add(new BlockPos(x, min.getY(), max.getZ()));
-            edges.add(new BlockPos(x, max.getY(), min.getZ()));
-            edges.add(new BlockPos(x, max.getY(), max.getZ()));
-        }
-
-        // Y-aligned edges
-        for (int y = min.getY(); y <= max.getY(); y++) {
-            edges.add(new BlockPos(min.getX(), y, min.getZ()));
-            edges.add(new BlockPos(min.getX(), y, max.getZ()));
-            edges.add(new BlockPos(max.getX(), y, min.getZ()));
-            edges.add(new BlockPos(max.getX(), y, max.getZ()));
-        }
-
-        // Z-aligned edges
-        for (int z = min.getZ(); z <= max.getZ(); z++) {
-            edges.add(new BlockPos(min.getX(), min.getY(), z));
-            edges.add(new BlockPos(min.getX(), max.getY(), z));
-            edges.add(new BlockPos(max.getX(), min.getY(), z));
-            edges.add(new BlockPos(max.getX(), max.getY(), z));
-        }
-
-        return edges;
+    public Region getEdgeBlocks() {
+        return getRegion().edges();
     }
 
     /**
-     * Gets the hollow version of the selection (surface minus interior).
+     * Gets a view of the hollow version of the selection (surface minus interior).
      */
-    public Set<BlockPos> getHollowBlocks(int thickness) {
-        if (!hasValidSelection()) return new HashSet<>();
-
-        Set<BlockPos> hollow = new HashSet<>();
-        BlockPos min = getMinPos();
-        BlockPos max = getMaxPos();
-
-        for (int x = min.getX(); x <= max.getX(); x++) {
-            for (int y = min.getY(); y <= max.getY(); y++) {
-                for (int z = min.getZ(); z <= max.getZ(); z++) {
-                    // Calculate distance to nearest edge
-                    int distX = Math.min(x - min.getX(), max.getX() - x);
-                    int distY = Math.min(y - min.getY(), max.getY() - y);
-                    int distZ = Math.min(z - min.getZ(), max.getZ() - z);
-                    int minDist = Math.min(Math.min(distX, distY), distZ);
-
-                    // Include if within thickness of edge
-                    if (minDist < thickness) {
-                        hollow.add(new BlockPos(x, y, z));
-                    }
-                }
-            }
-        }
-
-        return hollow;
+    public Region getHollowBlocks(int thickness) {
+        return getRegion().shell(thickness);
     }
 
     /**
-     * Gets only the wall blocks (vertical faces) of the selection.
+     * Gets a view of only the wall blocks (vertical faces) of the selection.
      */
-    public Set<BlockPos> getWallBlocks() {
-        if (!hasValidSelection()) return new HashSet<>();
-
-        Set<BlockPos> walls = new HashSet<>();
-        BlockPos min = getMinPos();
-        BlockPos max = getMaxPos();
-
-        for (int x = min.getX(); x <= max.getX(); x++) {
-            for (int y = min.getY(); y <= max.getY(); y++) {
-                for (int z = min.getZ(); z <= max.getZ(); z++) {
-                    if (x == min.getX() || x == max.getX() ||
-                            z == min.getZ() || z == max.getZ()) {
-                        walls.add(new BlockPos(x, y, z));
-                    }
-                }
-            }
-        }
-
-        return walls;
+    public Region getWallBlocks() {
+        return getRegion().walls();
     }
 
     /**
-     * Recalculates all block positions within the current selection bounds.
+     * Recalculates the region of the current selection bounds.
      */
     private void recalculateSelection() {
-        selectedBlocks.clear();
-        if (!hasValidSelection()) return;
-
-        BlockPos min = getMinPos();
-        BlockPos max = getMaxPos();
-
-        for (int x = min.getX(); x <= max.getX(); x++) {
-            for (int y = min.getY(); y <= max.getY(); y++) {
-                for (int z = min.getZ(); z <= max.getZ(); z++) {
-                    selectedBlocks.add(new BlockPos(x, y, z));
-                }
-            }
-        }
+        region = hasValidSelection() ? CuboidRegion.of(pos1, pos2) : CuboidRegion.EMPTY;
     }
 }
\ No newline at end of file
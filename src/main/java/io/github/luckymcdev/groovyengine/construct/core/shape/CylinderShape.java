@@ -0,0 +1,99 @@
+/*
+ * Copyright 2025 LuckyMcDev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.luckymcdev.groovyengine.construct.core.shape;
+
+import net.minecraft.core.BlockPos;
+
+/**
+ * A solid or hollow vertical cylinder of blocks.
+ * <p>
+ * The cylinder is centered between two corners on the X and Z axes and spans their Y range.
+ * Row widths only depend on {@code |dz|}, so they are computed once per layer.
+ */
+public class CylinderShape extends Shape {
+    private final int centerX;
+    private final int centerZ;
+    private final int radius;
+    private final int[] outerWidths;
+    private final int[] innerWidths;
+
+    /**
+     * Creates a cylinder.
+     *
+     * @param pos1      The first corner
+     * @param pos2      The second corner
+     * @param radius    The outer radius in blocks
+     * @param thickness The wall thickness, or 0 or less for a solid cylinder
+     */
+    public CylinderShape(BlockPos pos1, BlockPos pos2, int radius, int thickness) {
+        this(Math.max(0, radius), thickness, (pos1.getX() + pos2.getX()) / 2, (pos1.getZ() + pos2.getZ()) / 2,
+                Math.min(pos1.getY(), pos2.getY()), Math.max(pos1.getY(), pos2.getY()));
+    }
+
+    private CylinderShape(int radius, int thickness, int centerX, int centerZ, int minY, int maxY) {
+        super(centerX - radius, minY, centerZ - radius, centerX + radius, maxY, centerZ + radius);
+        this.centerX = centerX;
+        this.centerZ = centerZ;
+        this.radius = radius;
+
+        long outerSquared = (long) radius * radius;
+        int innerRadius = thickness > 0 ? Math.max(0, radius - thickness) : 0;
+        long innerSquared = (long) innerRadius * innerRadius;
+
+        this.outerWidths = new int[radius + 1];
+        this.innerWidths = innerSquared > 0 ? new int[radius + 1] : null;
+        for (int dz = 0; dz <= radius; dz++) {
+            long distance = (long) dz * dz;
+            outerWidths[dz] = halfWidth(outerSquared - distance);
+            if (innerWidths != null) innerWidths[dz] = exclusiveHalfWidth(innerSquared - distance);
+        }
+    }
+
+    public int getRadius() {
+        return radius;
+    }
+
+    @Override
+    protected long computeSize() {
+        if (isBoundsEmpty()) return 0;
+
+        int[] spans = new int[MAX_SPANS * 2];
+        long layer = 0;
+        for (int z = minZ; z <= maxZ; z++) {
+            int count = rowSpans(minY, z, spans);
+            for (int i = 0; i < count; i++) {
+                layer += spans[i * 2 + 1] - spans[i * 2] + 1;
+            }
+        }
+        return layer * (maxY - minY + 1);
+    }
+
+    @Override
+    protected int rowSpans(int y, int z, int[] spans) {
+        int dz = Math.abs(z - centerZ);
+        return ringSpans(centerX, outerWidths[dz], innerWidths != null ? innerWidths[dz] : -1, spans);
+    }
+
+    @Override
+    public boolean contains(int x, int y, int z) {
+        if (!inBounds(x, y, z)) return false;
+
+        int dz = Math.abs(z - centerZ);
+        int dx = Math.abs(x - centerX);
+        return dx <= outerWidths[dz] && (innerWidths == null || dx > innerWidths[dz]);
+    }
+}
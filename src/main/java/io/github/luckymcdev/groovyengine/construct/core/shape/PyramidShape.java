@@ -0,0 +1,94 @@
+/*
+ * Copyright 2025 LuckyMcDev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.luckymcdev.groovyengine.construct.core.shape;
+
+import net.minecraft.core.BlockPos;
+
+/**
+ * A solid square pyramid of blocks.
+ * <p>
+ * Layer {@code y} of the pyramid is a square with half-width
+ * {@code (int) (baseSize * (1 - y / height))}, centered on the base position. A negative base size is
+ * treated as zero, like the radius of the other shapes, so the pyramid is a single column.
+ */
+public class PyramidShape extends Shape {
+    private final int centerX;
+    private final int centerZ;
+    private final int[] layerSizes;
+
+    /**
+     * Creates a pyramid.
+     *
+     * @param base     The center of the bottom layer
+     * @param baseSize The half-width of the bottom layer
+     * @param height   The number of layers
+     */
+    public PyramidShape(BlockPos base, int baseSize, int height) {
+        super(base.getX() - Math.max(0, baseSize), base.getY(), base.getZ() - Math.max(0, baseSize),
+                base.getX() + Math.max(0, baseSize), base.getY() + height - 1, base.getZ() + Math.max(0, baseSize));
+        this.centerX = base.getX();
+        this.centerZ = base.getZ();
+
+        // Negative layer sizes would be counted by computeSize but yield no blocks
+        int bottomSize = Math.max(0, baseSize);
+        this.layerSizes = new int[Math.max(0, height)];
+        for (int y = 0; y < layerSizes.length; y++) {
+            float progress = (float) y / height;
+            layerSizes[y] = (int) (bottomSize * (1 - progress));
+        }
+    }
+
+    @Override
+    protected long computeSize() {
+        long total = 0;
+        for (int size : layerSizes) {
+            long width = 2L * size + 1;
+            total += width * width;
+        }
+        return total;
+    }
+
+    @Override
+    protected int rowSpans(int y, int z, int[] spans) {
+        int size = layerSizes[y - minY];
+        if (Math.abs(z - centerZ) > size) return 0;
+
+        spans[0] = centerX - size;
+        spans[1] = centerX + size;
+        return 1;
+    }
+
+    @Override
+    public boolean contains(int x, int y, int z) {
+        if (!inBounds(x, y, z)) return false;
+
+        int size = layerSizes[y - minY];
+        return Math.abs(x - centerX) <= size && Math.abs(z - centerZ) <= size;
+    }
+
+    @Override
+    public boolean intersectsSection(int sectionX, int sectionY, int sectionZ) {
+        int bottom = Math.max(minY, sectionY << 4);
+        if (bottom > maxY) return false;
+
+        // Layers shrink upwards, so the lowest layer in the section is the widest
+        int size = layerSizes[bottom - minY];
+        int x0 = sectionX << 4, z0 = sectionZ << 4;
+        return x0 <= centerX + size && x0 + 15 >= centerX - size
+                && z0 <= centerZ + size && z0 + 15 >= centerZ - size;
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2025 LuckyMcDev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.luckymcdev.groovyengine.construct.core.shape;
+
+import io.github.luckymcdev.groovyengine.construct.core.region.SpanRegion;
+import net.minecraft.core.BlockPos;
+
+/**
+ * A generated shape of blocks.
+ * <p>
+ * Shapes are regions: they know their exact block count and stream their positions
+ * through a chunk-ordered cursor. Each row of a shape is computed as spans, so hollow
+ * shapes only ever visit their shell instead of testing every cell of the bounding cube.
+ */
+public abstract class Shape extends SpanRegion {
+
+    protected Shape(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        super(minX, minY, minZ, maxX, maxY, maxZ);
+    }
+
+    /**
+     * Creates a solid sphere.
+     *
+     * @param center The center block
+     * @param radius The radius in blocks
+     */
+    public static Shape sphere(BlockPos center, int radius) {
+        return new SphereShape(center, radius, 0);
+    }
+
+    /**
+     * Creates a hollow sphere whose shell is {@code thickness} blocks deep.
+     *
+     * @param center    The center block
+     * @param radius    The outer radius in blocks
+     * @param thickness The shell thickness in blocks
+     */
+    public static Shape hollowSphere(BlockPos center, int radius, int thickness) {
+        return new SphereShape(center, radius, thickness);
+    }
+
+    /**
+     * Creates a solid vertical cylinder centered between two points.
+     *
+     * @param pos1   The first corner, which also bounds the cylinder vertically
+     * @param pos2   The second corner
+     * @param radius The radius in blocks
+     */
+    public static Shape cylinder(BlockPos pos1, BlockPos pos2, int radius) {
+        return new CylinderShape(pos1, pos2, radius, 0);
+    }
+
+    /**
+     * Creates a hollow vertical cylinder centered between two points.
+     *
+     * @param pos1      The first corner, which also bounds the cylinder vertically
+     * @param pos2      The second corner
+     * @param radius    The outer radius in blocks
+     * @param thickness The wall thickness in blocks
+     */
+    public static Shape hollowCylinder(BlockPos pos1, BlockPos pos2, int radius, int thickness) {
+        return new CylinderShape(pos1, pos2, radius, thickness);
+    }
+
+    /**
+     * Creates a solid square pyramid.
+     *
+     * @param base     The center of the bottom layer
+     * @param baseSize The half-width of the bottom layer
+     * @param height   The number of layers
+     */
+    public static Shape pyramid(BlockPos base, int baseSize, int height) {
+        return new PyramidShape(base, baseSize, height);
+    }
+
+    /**
+     * Computes the integer square root, {@code floor(sqrt(value))}, exactly.
+     *
+     * @param value A non-negative value
+     */
+    protected static int isqrt(long value) {
+        long root = (long) Math.sqrt((double) value);
+        while (root * root > value) root--;
+        while ((root + 1) * (root + 1) <= value) root++;
+        return (int) root;
+    }
+
+    /**
+     * Computes the half-width of the row {@code dx^2 <= limit}, or -1 if the row is empty.
+     */
+    protected static int halfWidth(long limit) {
+        return limit < 0 ? -1 : isqrt(limit);
+    }
+
+    /**
+     * Computes the half-width of the row {@code dx^2 < limit}, or -1 if the row is empty.
+     */
+    protected static int exclusiveHalfWidth(long limit) {
+        return limit <= 0 ? -1 : isqrt(limit - 1);
+    }
+
+    /**
+     * Writes the spans of a row centered on {@code center} that covers
+     * {@code |dx| <= outer} but not {@code |dx| <= inner}.
+     *
+     * @return The number of spans written
+     */
+    protected static int ringSpans(int center, int outer, int inner, int[] spans) {
+        if (outer < 0) return 0;
+        if (inner < 0) {
+            spans[0] = center - outer;
+            spans[1] = center + outer;
+            return 1;
+        }
+        if (inner >= outer) return 0;
+
+        spans[0] = center - outer;
+        spans[1] = center - inner - 1;
+        spans[2] = center + inner + 1;
+        spans[3] = center + outer;
+        return 2;
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2025 LuckyMcDev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.luckymcdev.groovyengine.construct.core.shape;
+
+import net.minecraft.core.BlockPos;
+
+/**
+ * A solid or hollow sphere of blocks.
+ * <p>
+ * A block belongs to the sphere when {@code dx^2 + dy^2 + dz^2 <= radius^2}, and for hollow spheres
+ * also {@code >= (radius - thickness)^2}. The half-width of every row only depends on {@code |dy|} and
+ * {@code |dz|} and is symmetric in both, so it is computed once per octant pair into a small table.
+ */
+public class SphereShape extends Shape {
+    private final int centerX;
+    private final int centerY;
+    private final int centerZ;
+    private final int radius;
+    private final long outerSquared;
+    private final long innerSquared;
+    private final boolean hollow;
+    private final int[] outerWidths;
+    private final int[] innerWidths;
+
+    /**
+     * Creates a sphere.
+     *
+     * @param center    The center block
+     * @param radius    The outer radius in blocks
+     * @param thickness The shell thickness, or 0 or less for a solid sphere
+     */
+    public SphereShape(BlockPos center, int radius, int thickness) {
+        super(center.getX() - Math.max(0, radius), center.getY() - Math.max(0, radius), center.getZ() - Math.max(0, radius),
+                center.getX() + Math.max(0, radius), center.getY() + Math.max(0, radius), center.getZ() + Math.max(0, radius));
+        this.centerX = center.getX();
+        this.centerY = center.getY();
+        this.centerZ = center.getZ();
+        this.radius = Math.max(0, radius);
+        this.outerSquared = (long) this.radius * this.radius;
+
+        int innerRadius = thickness > 0 ? Math.max(0, this.radius - thickness) : 0;
+        this.innerSquared = (long) innerRadius * innerRadius;
+        this.hollow = innerSquared > 0;
+
+        int size = this.radius + 1;
+        this.outerWidths = new int[size * size];
+        this.innerWidths = hollow ? new int[size * size] : null;
+        buildTables(size);
+    }
+
+    public BlockPos getCenter() {
+        return new BlockPos(centerX, centerY, centerZ);
+    }
+
+    public int getRadius() {
+        return radius;
+    }
+
+    /**
+     * Builds the half-width tables, filling only {@code |dy| <= |dz|} and mirroring the rest.
+     */
+    private void buildTables(int size) {
+        int[] outer = outerWidths;
+        int[] inner = innerWidths;
+
+        for (int dz = 0; dz <= radius; dz++) {
+            for (int dy = 0; dy <= dz; dy++) {
+                long distance = (long) dy * dy + (long) dz * dz;
+                int outerWidth = halfWidth(outerSquared - distance);
+                outer[dy * size + dz] = outerWidth;
+                outer[dz * size + dy] = outerWidth;
+
+                if (inner != null) {
+                    int innerWidth = exclusiveHalfWidth(innerSquared - distance);
+                    inner[dy * size + dz] = innerWidth;
+                    inner[dz * size + dy] = innerWidth;
+                }
+            }
+        }
+    }
+
+    @Override
+    protected int rowSpans(int y, int z, int[] spans) {
+        int index = Math.abs(y - centerY) * (radius + 1) + Math.abs(z - centerZ);
+        return ringSpans(centerX, outerWidths[index], hollow ? innerWidths[index] : -1, spans);
+    }
+
+    @Override
+    public boolean contains(int x, int y, int z) {
+        long dx = x - centerX, dy = y - centerY, dz = z - centerZ;
+        long distance = dx * dx + dy * dy + dz * dz;
+        return distance <= outerSquared && (!hollow || distance >= innerSquared);
+    }
+
+    @Override
+    public boolean intersectsSection(int sectionX, int sectionY, int sectionZ) {
+        long near = 0, far = 0;
+        int[] mins = {sectionX << 4, sectionY << 4, sectionZ << 4};
+        int[] centers = {centerX, centerY, centerZ};
+        for (int axis = 0; axis < 3; axis++) {
+            long low = mins[axis] - centers[axis];
+            long high = low + 15;
+            long closest = low > 0 ? low : (high < 0 ? high : 0);
+            long farthest = Math.max(Math.abs(low), Math.abs(high));
+            near += closest * closest;
+            far += farthest * farthest;
+        }
+
+        // Entirely outside the sphere, or entirely inside the hollow core
+        return near <= outerSquared && (!hollow || far >= innerSquared);
+    }
+}
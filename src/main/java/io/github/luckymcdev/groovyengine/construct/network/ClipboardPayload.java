@@ -0,0 +1,110 @@
+/*
+ * Copyright 2025 LuckyMcDev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.luckymcdev.groovyengine.construct.network;
+
+import io.github.luckymcdev.groovyengine.GE;
+import io.netty.buffer.ByteBuf;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.codec.ByteBufCodecs;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.util.ByIdMap;
+import net.minecraft.world.level.block.Mirror;
+import net.minecraft.world.level.block.Rotation;
+
+import java.util.function.IntFunction;
+
+/**
+ * Sent by the client to work with its clipboard on the server.
+ *
+ * @param action What to do with the clipboard
+ * @param pos1   The first corner to copy, or the position to paste at
+ * @param pos2   The second corner to copy
+ * @param value  The rotation or mirror ordinal, or 1 to skip air when pasting
+ * @param name   The name to save or load the clipboard as
+ */
+public record ClipboardPayload(Action action, BlockPos pos1, BlockPos pos2, int value, String name) implements CustomPacketPayload {
+    public static final int MAX_NAME_LENGTH = 64;
+    public static final Type<ClipboardPayload> TYPE = new Type<>(GE.id("construct_clipboard"));
+    public static final StreamCodec<ByteBuf, ClipboardPayload> STREAM_CODEC = StreamCodec.composite(
+            Action.STREAM_CODEC, ClipboardPayload::action,
+            BlockPos.STREAM_CODEC, ClipboardPayload::pos1,
+            BlockPos.STREAM_CODEC, ClipboardPayload::pos2,
+            ByteBufCodecs.VAR_INT, ClipboardPayload::value,
+            ByteBufCodecs.stringUtf8(MAX_NAME_LENGTH), ClipboardPayload::name,
+            ClipboardPayload::new
+    );
+
+    /**
+     * Copies the blocks between two corners, to be pasted relative to the first one.
+     */
+    public static ClipboardPayload copy(BlockPos pos1, BlockPos pos2) {
+        return new ClipboardPayload(Action.COPY, pos1, pos2, 0, "");
+    }
+
+    public static ClipboardPayload paste(BlockPos at, boolean skipAir) {
+        return new ClipboardPayload(Action.PASTE, at, at, skipAir ? 1 : 0, "");
+    }
+
+    public static ClipboardPayload rotate(Rotation rotation) {
+        return new ClipboardPayload(Action.ROTATE, BlockPos.ZERO, BlockPos.ZERO, rotation.ordinal(), "");
+    }
+
+    public static ClipboardPayload flip(Mirror mirror) {
+        return new ClipboardPayload(Action.FLIP, BlockPos.ZERO, BlockPos.ZERO, mirror.ordinal(), "");
+    }
+
+    public static ClipboardPayload of(Action action, String name) {
+        return new ClipboardPayload(action, BlockPos.ZERO, BlockPos.ZERO, 0, name);
+    }
+
+    /**
+     * Gets the rotation of a {@link Action#ROTATE} payload.
+     */
+    public Rotation rotation() {
+        return Rotation.values()[Math.floorMod(value, Rotation.values().length)];
+    }
+
+    /**
+     * Gets the mirror of a {@link Action#FLIP} payload.
+     */
+    public Mirror mirror() {
+        return Mirror.values()[Math.floorMod(value, Mirror.values().length)];
+    }
+
+    public boolean skipAir() {
+        return value == 1;
+    }
+
+    @Override
+    public Type<ClipboardPayload> type() {
+        return TYPE;
+    }
+
+    public enum Action {
+        COPY,
+        PASTE,
+        ROTATE,
+        FLIP,
+        SAVE,
+        LOAD,
+        CLEAR;
+
+        private static final IntFunction<Action> BY_ID = ByIdMap.continuous(Action::ordinal, values(), ByIdMap.OutOfBoundsStrategy.ZERO);
+        public static final StreamCodec<ByteBuf, Action> STREAM_CODEC = ByteBufCodecs.idMapper(BY_ID, Action::ordinal);
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2025 LuckyMcDev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.luckymcdev.groovyengine.construct.network;
+
+import io.github.luckymcdev.groovyengine.construct.client.ConstructClient;
+import io.github.luckymcdev.groovyengine.construct.server.ConstructServer;
+import net.neoforged.neoforge.network.event.RegisterPayloadHandlersEvent;
+import net.neoforged.neoforge.network.handling.IPayloadContext;
+import net.neoforged.neoforge.network.registration.PayloadRegistrar;
+
+/**
+ * Registers the payloads Construct uses to run operations on the server.
+ * <p>
+ * Clients only send what to do: {@link OperationPayload operation descriptors}, {@link JobControlPayload job controls},
+ * {@link HistoryRequestPayload history requests}, {@link ClipboardPayload clipboard actions},
+ * {@link ImportPayload schematic imports} and {@link StagingPayload staging requests}. The server expands and places
+ * the blocks itself and reports back with {@link StatusPayload status updates}, so no block ever crosses the network
+ * for an operation. Handlers run on the main thread of the receiving side.
+ */
+public class ConstructNetwork {
+    private static final String PROTOCOL_VERSION = "1";
+
+    private ConstructNetwork() {}
+
+    /**
+     * Registers the Construct payloads and their handlers.
+     *
+     * @param event the registration event
+     */
+    public static void register(RegisterPayloadHandlersEvent event) {
+        PayloadRegistrar registrar = event.registrar(PROTOCOL_VERSION);
+
+        registrar.playToServer(OperationPayload.TYPE, OperationPayload.STREAM_CODEC, ConstructServer::handleOperation);
+        registrar.playToServer(JobControlPayload.TYPE, JobControlPayload.STREAM_CODEC, ConstructServer::handleJobControl);
+        registrar.playToServer(HistoryRequestPayload.TYPE, HistoryRequestPayload.STREAM_CODEC, ConstructServer::handleHistoryRequest);
+        registrar.playToServer(ClipboardPayload.TYPE, ClipboardPayload.STREAM_CODEC, ConstructServer::handleClipboard);
+        registrar.playToServer(ImportPayload.TYPE, ImportPayload.STREAM_CODEC, ConstructServer::handleImport);
+        registrar.playToServer(StagingPayload.TYPE, StagingPayload.STREAM_CODEC, ConstructServer::handleStaging);
+        registrar.playToClient(StatusPayload.TYPE, StatusPayload.STREAM_CODEC, ConstructNetwork::handleStatus);
+    }
+
+    /**
+     * Only ever called on the client, so the client class is not loaded on dedicated servers.
+     */
+    private static void handleStatus(StatusPayload payload, IPayloadContext context) {
+        ConstructClient.onStatus(payload);
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2025 LuckyMcDev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.luckymcdev.groovyengine.construct.network;
+
+import io.github.luckymcdev.groovyengine.GE;
+import io.netty.buffer.ByteBuf;
+import net.minecraft.network.codec.ByteBufCodecs;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.util.ByIdMap;
+
+import java.util.function.IntFunction;
+
+/**
+ * Sent by the client to work with its history in the dimension it is in.
+ *
+ * @param action What to do with the history
+ */
+public record HistoryRequestPayload(Action action) implements CustomPacketPayload {
+    public static final Type<HistoryRequestPayload> TYPE = new Type<>(GE.id("construct_history"));
+    public static final StreamCodec<ByteBuf, HistoryRequestPayload> STREAM_CODEC =
+            Action.STREAM_CODEC.map(HistoryRequestPayload::new, HistoryRequestPayload::action);
+
+    @Override
+    public Type<HistoryRequestPayload> type() {
+        return TYPE;
+    }
+
+    public enum Action {
+        UNDO,
+        REDO,
+        CLEAR;
+
+        private static final IntFunction<Action> BY_ID = ByIdMap.continuous(Action::ordinal, values(), ByIdMap.OutOfBoundsStrategy.ZERO);
+        public static final StreamCodec<ByteBuf, Action> STREAM_CODEC = ByteBufCodecs.idMapper(BY_ID, Action::ordinal);
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2025 LuckyMcDev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.luckymcdev.groovyengine.construct.network;
+
+import io.github.luckymcdev.groovyengine.GE;
+import io.netty.buffer.ByteBuf;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.codec.ByteBufCodecs;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+
+/**
+ * Sent by the client to import a schematic from the server's schematics folder.
+ *
+ * @param name    The file name of the schematic, with its extension
+ * @param at      The position the schematic's minimum corner is placed at
+ * @param skipAir Whether air in the schematic leaves the blocks at its position alone
+ */
+public record ImportPayload(String name, BlockPos at, boolean skipAir) implements CustomPacketPayload {
+    public static final int MAX_NAME_LENGTH = 128;
+    public static final Type<ImportPayload> TYPE = new Type<>(GE.id("construct_import"));
+    public static final StreamCodec<ByteBuf, ImportPayload> STREAM_CODEC = StreamCodec.composite(
+            ByteBufCodecs.stringUtf8(MAX_NAME_LENGTH), ImportPayload::name,
+            BlockPos.STREAM_CODEC, ImportPayload::at,
+            ByteBufCodecs.BOOL, ImportPayload::skipAir,
+            ImportPayload::new
+    );
+
+    @Override
+    public Type<ImportPayload> type() {
+        return TYPE;
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2025 LuckyMcDev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.luckymcdev.groovyengine.construct.network;
+
+import io.github.luckymcdev.groovyengine.GE;
+import io.github.luckymcdev.groovyengine.construct.core.placement.PlacementJob;
+import io.netty.buffer.ByteBuf;
+import net.minecraft.network.codec.ByteBufCodecs;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.util.ByIdMap;
+
+import java.util.function.IntFunction;
+
+/**
+ * Sent by the client to control one of its placement jobs on the server.
+ *
+ * @param action   What to do with the job
+ * @param jobId    The id of the job; ignored by {@link Action#CANCEL_ALL}
+ * @param priority The new priority; only used by {@link Action#SET_PRIORITY}
+ */
+public record JobControlPayload(Action action, int jobId, PlacementJob.Priority priority) implements CustomPacketPayload {
+    public static final Type<JobControlPayload> TYPE = new Type<>(GE.id("construct_job_control"));
+    public static final StreamCodec<ByteBuf, PlacementJob.Priority> PRIORITY_CODEC = ByteBufCodecs.idMapper(
+            ByIdMap.continuous(PlacementJob.Priority::ordinal, PlacementJob.Priority.values(), ByIdMap.OutOfBoundsStrategy.ZERO),
+            PlacementJob.Priority::ordinal);
+    public static final StreamCodec<ByteBuf, JobControlPayload> STREAM_CODEC = StreamCodec.composite(
+            Action.STREAM_CODEC, JobControlPayload::action,
+            ByteBufCodecs.VAR_INT, JobControlPayload::jobId,
+            PRIORITY_CODEC, JobControlPayload::priority,
+            JobControlPayload::new
+    );
+
+    /**
+     * Creates a payload for an action that takes no priority.
+     */
+    public static JobControlPayload of(Action action, int jobId) {
+        return new JobControlPayload(action, jobId, PlacementJob.Priority.NORMAL);
+    }
+
+    @Override
+    public Type<JobControlPayload> type() {
+        return TYPE;
+    }
+
+    public enum Action {
+        PAUSE,
+        RESUME,
+        CANCEL,
+        CANCEL_ALL,
+        SET_PRIORITY;
+
+        private static final IntFunction<Action> BY_ID = ByIdMap.continuous(Action::ordinal, values(), ByIdMap.OutOfBoundsStrategy.ZERO);
+        public static final StreamCodec<ByteBuf, Action> STREAM_CODEC = ByteBufCodecs.idMapper(BY_ID, Action::ordinal);
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2025 LuckyMcDev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.luckymcdev.groovyengine.construct.network;
+
+import io.github.luckymcdev.groovyengine.GE;
+import io.github.luckymcdev.groovyengine.construct.core.operation.ConstructOperation;
+import io.netty.buffer.ByteBuf;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+
+/**
+ * Sent by the client to run a {@link ConstructOperation} on the server.
+ *
+ * @param operation The operation to run
+ */
+public record OperationPayload(ConstructOperation operation) implements CustomPacketPayload {
+    public static final Type<OperationPayload> TYPE = new Type<>(GE.id("construct_operation"));
+    public static final StreamCodec<ByteBuf, OperationPayload> STREAM_CODEC =
+            ConstructOperation.STREAM_CODEC.map(OperationPayload::new, OperationPayload::operation);
+
+    @Override
+    public Type<OperationPayload> type() {
+        return TYPE;
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2025 LuckyMcDev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.luckymcdev.groovyengine.construct.network;
+
+import io.github.luckymcdev.groovyengine.GE;
+import io.netty.buffer.ByteBuf;
+import net.minecraft.network.codec.ByteBufCodecs;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.util.ByIdMap;
+
+import java.util.function.IntFunction;
+
+/**
+ * Sent by the client to stage its operations in an edit session, and to commit or discard them.
+ *
+ * @param action What to do with the staged operations
+ */
+public record StagingPayload(Action action) implements CustomPacketPayload {
+    public static final Type<StagingPayload> TYPE = new Type<>(GE.id("construct_staging"));
+    public static final StreamCodec<ByteBuf, StagingPayload> STREAM_CODEC =
+            Action.STREAM_CODEC.map(StagingPayload::new, StagingPayload::action);
+
+    @Override
+    public Type<StagingPayload> type() {
+        return TYPE;
+    }
+
+    public enum Action {
+        /**
+         * Stages the following operations instead of running them.
+         */
+        BEGIN,
+        /**
+         * Writes the staged operations to the world in one pass.
+         */
+        COMMIT,
+        /**
+         * Discards the staged operations.
+         */
+        ROLLBACK;
+
+        private static final IntFunction<Action> BY_ID = ByIdMap.continuous(Action::ordinal, values(), ByIdMap.OutOfBoundsStrategy.ZERO);
+        public static final StreamCodec<ByteBuf, Action> STREAM_CODEC = ByteBufCodecs.idMapper(BY_ID, Action::ordinal);
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2025 LuckyMcDev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.luckymcdev.groovyengine.construct.network;
+
+import io.github.luckymcdev.groovyengine.GE;
+import io.github.luckymcdev.groovyengine.construct.core.placement.AsyncBlockPlacer;
+import io.github.luckymcdev.groovyengine.construct.core.placement.PlacementJob;
+import io.netty.buffer.ByteBuf;
+import net.minecraft.network.codec.ByteBufCodecs;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.util.ByIdMap;
+
+import java.util.List;
+
+/**
+ * Sent by the server to report the progress of a player's jobs, the state of their history and the
+ * load of the placement engine. Sent a few times per second, and only when something changed.
+ *
+ * @param jobs      The player's unfinished jobs, in the order they were created
+ * @param history   The player's history in the dimension they are in
+ * @param clipboard The player's clipboard
+ * @param staging   The player's staged operations
+ * @param engine    The load of the placement engine over all jobs
+ * @param error     Why the player's last rejected or failed action did not run, or empty
+ */
+public record StatusPayload(List<JobStatus> jobs, HistoryStatus history, ClipboardStatus clipboard,
+                            StagingStatus staging, EngineStats engine, String error) implements CustomPacketPayload {
+    public static final int MAX_JOBS = 64;
+    public static final int MAX_ERROR_LENGTH = 256;
+    public static final StatusPayload EMPTY = new StatusPayload(List.of(),
+            new HistoryStatus(0, 0, false, false, false), ClipboardStatus.EMPTY, StagingStatus.EMPTY, new EngineStats(0, 0, 0, 0, 0, 0, 0), "");
+
+    public static final Type<StatusPayload> TYPE = new Type<>(GE.id("construct_status"));
+    public static final StreamCodec<ByteBuf, StatusPayload> STREAM_CODEC = StreamCodec.composite(
+            JobStatus.STREAM_CODEC.apply(ByteBufCodecs.list(MAX_JOBS)), StatusPayload::jobs,
+            HistoryStatus.STREAM_CODEC, StatusPayload::history,
+            ClipboardStatus.STREAM_CODEC, StatusPayload::clipboard,
+            StagingStatus.STREAM_CODEC, StatusPayload::staging,
+            EngineStats.STREAM_CODEC, StatusPayload::engine,
+            ByteBufCodecs.stringUtf8(MAX_ERROR_LENGTH), StatusPayload::error,
+            StatusPayload::new
+    );
+
+    public StatusPayload {
+        jobs = List.copyOf(jobs);
+        if (error.length() > MAX_ERROR_LENGTH) error = error.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    @Override
+    public Type<StatusPayload> type() {
+        return TYPE;
+    }
+
+    /**
+     * The progress of one placement job.
+     *
+     * @param id        The id of the job
+     * @param name      The name of the job
+     * @param dimension The dimension the job places blocks in
+     * @param state     The state of the job
+     * @param priority  The priority of the job
+     * @param placed    The number of queue entries written so far
+     * @param total     The number of queue entries prepared so far
+     * @param etaMillis The estimated time until the job is done, or -1 if unknown
+     */
+    public record JobStatus(int id, String name, ResourceLocation dimension, PlacementJob.State state,
+                            PlacementJob.Priority priority, long placed, long total, long etaMillis) {
+        private static final int MAX_NAME_LENGTH = 256;
+        private static final StreamCodec<ByteBuf, PlacementJob.State> STATE_CODEC = ByteBufCodecs.idMapper(
+                ByIdMap.continuous(PlacementJob.State::ordinal, PlacementJob.State.values(), ByIdMap.OutOfBoundsStrategy.ZERO),
+                PlacementJob.State::ordinal);
+        public static final StreamCodec<ByteBuf, JobStatus> STREAM_CODEC = StreamCodec.ofMember(JobStatus::write, JobStatus::read);
+
+        /**
+         * Captures the current progress of a job.
+         */
+        public static JobStatus of(PlacementJob job) {
+            String name = job.getName().length() > MAX_NAME_LENGTH ? job.getName().substring(0, MAX_NAME_LENGTH) : job.getName();
+            return new JobStatus(job.getId(), name, job.getDimension().location(), job.getState(),
+                    job.getPriority(), job.getPlaced(), job.getTotal(), job.getEtaMillis());
+        }
+
+        public boolean isPaused() {
+            return state == PlacementJob.State.PAUSED;
+        }
+
+        /**
+         * Gets the fraction of the prepared entries that have been written.
+         *
+         * @return The progress between 0 and 1
+         */
+        public float getProgress() {
+            return total > 0 ? (float) placed / total : 0;
+        }
+
+        private void write(ByteBuf buffer) {
+            ByteBufCodecs.VAR_INT.encode(buffer, id);
+            ByteBufCodecs.stringUtf8(MAX_NAME_LENGTH).encode(buffer, name);
+            ResourceLocation.STREAM_CODEC.encode(buffer, dimension);
+            STATE_CODEC.encode(buffer, state);
+            JobControlPayload.PRIORITY_CODEC.encode(buffer, priority);
+            ByteBufCodecs.VAR_LONG.encode(buffer, placed);
+            ByteBufCodecs.VAR_LONG.encode(buffer, total);
+            ByteBufCodecs.VAR_LONG.encode(buffer, etaMillis);
+        }
+
+        private static JobStatus read(ByteBuf buffer) {
+            return new JobStatus(
+                    ByteBufCodecs.VAR_INT.decode(buffer),
+                    ByteBufCodecs.stringUtf8(MAX_NAME_LENGTH).decode(buffer),
+                    ResourceLocation.STREAM_CODEC.decode(buffer),
+                    STATE_CODEC.decode(buffer),
+                    JobControlPayload.PRIORITY_CODEC.decode(buffer),
+                    ByteBufCodecs.VAR_LONG.decode(buffer),
+                    ByteBufCodecs.VAR_LONG.decode(buffer),
+                    ByteBufCodecs.VAR_LONG.decode(buffer)
+            );
+        }
+    }
+
+    /**
+     * The state of a player's history in one dimension.
+     *
+     * @param size    The number of operations that can be undone
+     * @param bytes   The disk space used by the undo and redo steps
+     * @param canUndo Whether undo is available
+     * @param canRedo Whether redo is available
+     * @param busy    Whether steps are still being recorded
+     */
+    public record HistoryStatus(int size, long bytes, boolean canUndo, boolean canRedo, boolean busy) {
+        public static final StreamCodec<ByteBuf, HistoryStatus> STREAM_CODEC = StreamCodec.composite(
+                ByteBufCodecs.VAR_INT, HistoryStatus::size,
+                ByteBufCodecs.VAR_LONG, HistoryStatus::bytes,
+                ByteBufCodecs.BOOL, HistoryStatus::canUndo,
+                ByteBufCodecs.BOOL, HistoryStatus::canRedo,
+                ByteBufCodecs.BOOL, HistoryStatus::busy,
+                HistoryStatus::new
+        );
+    }
+
+    /**
+     * The state of a player's clipboard.
+     *
+     * @param present Whether the player has a clipboard
+     * @param sizeX   The width of the clipboard as it will be pasted
+     * @param sizeY   The height of the clipboard
+     * @param sizeZ   The depth of the clipboard as it will be pasted
+     * @param busy    Whether the clipboard is still being copied, saved or loaded
+     */
+    public record ClipboardStatus(boolean present, int sizeX, int sizeY, int sizeZ, boolean busy) {
+        public static final ClipboardStatus EMPTY = new ClipboardStatus(false, 0, 0, 0, false);
+        public static final StreamCodec<ByteBuf, ClipboardStatus> STREAM_CODEC = StreamCodec.composite(
+                ByteBufCodecs.BOOL, ClipboardStatus::present,
+                ByteBufCodecs.VAR_INT, ClipboardStatus::sizeX,
+                ByteBufCodecs.VAR_INT, ClipboardStatus::sizeY,
+                ByteBufCodecs.VAR_INT, ClipboardStatus::sizeZ,
+                ByteBufCodecs.BOOL, ClipboardStatus::busy,
+                ClipboardStatus::new
+        );
+    }
+
+    /**
+     * The state of a player's staged operations.
+     *
+     * @param active Whether operations are being staged
+     * @param blocks The number of blocks staged so far
+     * @param busy   Whether staged operations are still being applied to the edit session
+     */
+    public record StagingStatus(boolean active, long blocks, boolean busy) {
+        public static final StagingStatus EMPTY = new StagingStatus(false, 0, false);
+        public static final StreamCodec<ByteBuf, StagingStatus> STREAM_CODEC = StreamCodec.composite(
+                ByteBufCodecs.BOOL, StagingStatus::active,
+                ByteBufCodecs.VAR_LONG, StagingStatus::blocks,
+                ByteBufCodecs.BOOL, StagingStatus::busy,
+                StagingStatus::new
+        );
+    }
+
+    /**
+     * The load of the placement engine, as reported by the {@link AsyncBlockPlacer}.
+     *
+     * @param preparingOperations The number of operations still being prepared
+     * @param queuedPlacements    The number of queued placements
+     * @param queuedUpdates       The number of queued placements that send block updates
+     * @param blocksPerTick       The number of blocks written in the last tick
+     * @param pendingLightChecks  The number of blocks waiting for a light check
+     * @param budgetNanos         The tick budget of the last tick
+     * @param spentNanos          The part of the tick budget spent in the last tick
+     */
+    public record EngineStats(int preparingOperations, int queuedPlacements, int queuedUpdates, int blocksPerTick,
+                              long pendingLightChecks, long budgetNanos, long spentNanos) {
+        public static final StreamCodec<ByteBuf, EngineStats> STREAM_CODEC = StreamCodec.ofMember(EngineStats::write, EngineStats::read);
+
+        /**
+         * Captures the current load of a placer.
+         */
+        public static EngineStats of(AsyncBlockPlacer placer) {
+            return new EngineStats(placer.getPreparingOperations(), placer.getQueuedPlacements(), placer.getQueuedUpdates(),
+                    placer.getBlocksPerTick(), placer.getPendingLightChecks(),
+                    placer.getTickBudget().getBudgetNanos(), placer.getTickBudget().getSpentNanos());
+        }
+
+        private void write(ByteBuf buffer) {
+            ByteBufCodecs.VAR_INT.encode(buffer, preparingOperations);
+            ByteBufCodecs.VAR_INT.encode(buffer, queuedPlacements);
+            ByteBufCodecs.VAR_INT.encode(buffer, queuedUpdates);
+            ByteBufCodecs.VAR_INT.encode(buffer, blocksPerTick);
+            ByteBufCodecs.VAR_LONG.encode(buffer, pendingLightChecks);
+            ByteBufCodecs.VAR_LONG.encode(buffer, budgetNanos);
+            ByteBufCodecs.VAR_LONG.encode(buffer, spentNanos);
+        }
+
+        private static EngineStats read(ByteBuf buffer) {
+            return new EngineStats(
+                    ByteBufCodecs.VAR_INT.decode(buffer),
+                    ByteBufCodecs.VAR_INT.decode(buffer),
+                    ByteBufCodecs.VAR_INT.decode(buffer),
+                    ByteBufCodecs.VAR_INT.decode(buffer),
+                    ByteBufCodecs.VAR_LONG.decode(buffer),
+                    ByteBufCodecs.VAR_LONG.decode(buffer),
+                    ByteBufCodecs.VAR_LONG.decode(buffer)
+            );
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2025 LuckyMcDev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.luckymcdev.groovyengine.construct.server;
+
+import io.github.luckymcdev.groovyengine.GE;
+import io.github.luckymcdev.groovyengine.construct.network.ClipboardPayload;
+import io.github.luckymcdev.groovyengine.construct.network.HistoryRequestPayload;
+import io.github.luckymcdev.groovyengine.construct.network.ImportPayload;
+import io.github.luckymcdev.groovyengine.construct.network.JobControlPayload;
+import io.github.luckymcdev.groovyengine.construct.network.OperationPayload;
+import io.github.luckymcdev.groovyengine.construct.network.StagingPayload;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.entity.player.PlayerEvent;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
+import net.neoforged.neoforge.network.handling.IPayloadContext;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Runs the Construct operations players send and reports back to them.
+ * <p>
+ * Every player that uses Construct gets a {@link ConstructSession} holding their history and clipboard. Only
+ * operators and the owner of a singleplayer world may use Construct; payloads of other players are ignored. A
+ * session outlives its player's logout until the steps it is still recording are written.
+ */
+@EventBusSubscriber
+public class ConstructServer {
+    private static final int STATUS_INTERVAL_TICKS = 10;
+    private static final int PERMISSION_LEVEL = 2;
+    // Only used on the server thread
+    private static final Map<UUID, ConstructSession> SESSIONS = new HashMap<>();
+    private static final Map<UUID, ConstructSession> CLOSING_SESSIONS = new HashMap<>();
+
+    private ConstructServer() {}
+
+    /**
+     * Handles an operation sent by a player.
+     */
+    public static void handleOperation(OperationPayload payload, IPayloadContext context) {
+        ConstructSession session = getSession(context);
+        if (session != null) session.execute((ServerPlayer) context.player(), payload.operation());
+    }
+
+    /**
+     * Handles a job control sent by a player.
+     */
+    public static void handleJobControl(JobControlPayload payload, IPayloadContext context) {
+        ConstructSession session = getSession(context);
+        if (session != null) session.controlJob(payload);
+    }
+
+    /**
+     * Handles a history request sent by a player.
+     */
+    public static void handleHistoryRequest(HistoryRequestPayload payload, IPayloadContext context) {
+        ConstructSession session = getSession(context);
+        if (session != null) session.handleHistory((ServerPlayer) context.player(), payload.action());
+    }
+
+    /**
+     * Handles a clipboard action sent by a player.
+     */
+    public static void handleClipboard(ClipboardPayload payload, IPayloadContext context) {
+        ConstructSession session = getSession(context);
+        if (session != null) session.handleClipboard((ServerPlayer) context.player(), payload);
+    }
+
+    /**
+     * Handles a schematic import sent by a player.
+     */
+    public static void handleImport(ImportPayload payload, IPayloadContext context) {
+        ConstructSession session = getSession(context);
+        if (session != null) session.importSchematic((ServerPlayer) context.player(), payload);
+    }
+
+    /**
+     * Handles a staging request sent by a player.
+     */
+    public static void handleStaging(StagingPayload payload, IPayloadContext context) {
+        ConstructSession session = getSession(context);
+        if (session != null) session.handleStaging((ServerPlayer) context.player(), payload.action());
+    }
+
+    /**
+     * Checks if a player may use Construct.
+     */
+    public static boolean canUse(ServerPlayer player) {
+        MinecraftServer server = player.getServer();
+        return player.hasPermissions(PERMISSION_LEVEL) || (server != null && server.isSingleplayerOwner(player.getGameProfile()));
+    }
+
+    /**
+     * Gets the session of the player that sent a payload, or null if they may not use Construct.
+     */
+    private static ConstructSession getSession(IPayloadContext context) {
+        if (!(context.player() instanceof ServerPlayer player)) return null;
+
+        if (!canUse(player)) {
+            GE.CONSTRUCT_LOG.warn("Ignored Construct request of {}, who lacks permission", player.getGameProfile().getName());
+            return null;
+        }
+        // A player that comes back before their old session closed picks it up again, so its journals are never opened twice
+        return SESSIONS.computeIfAbsent(player.getUUID(), id -> {
+            ConstructSession closing = CLOSING_SESSIONS.remove(id);
+            return closing != null ? closing : new ConstructSession(player);
+        });
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(ServerTickEvent.Post event) {
+        MinecraftServer server = event.getServer();
+
+        // Sessions of players that left are closed once their last step is written
+        CLOSING_SESSIONS.values().removeIf(session -> {
+            if (session.isBusy()) return false;
+            session.close();
+            return true;
+        });
+
+        if (server.getTickCount() % STATUS_INTERVAL_TICKS != 0) return;
+
+        for (Iterator<Map.Entry<UUID, ConstructSession>> iterator = SESSIONS.entrySet().iterator(); iterator.hasNext(); ) {
+            Map.Entry<UUID, ConstructSession> entry = iterator.next();
+            ServerPlayer player = server.getPlayerList().getPlayer(entry.getKey());
+            if (player == null) {
+                CLOSING_SESSIONS.put(entry.getKey(), entry.getValue());
+                iterator.remove();
+            } else if (canUse(player)) {
+                entry.getValue().sendStatus(player);
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public static void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event) {
+        UUID playerId = event.getEntity().getUUID();
+        ConstructSession session = SESSIONS.remove(playerId);
+        if (session != null) CLOSING_SESSIONS.put(playerId, session);
+    }
+
+    /**
+     * Closes every session once the server has stopped. The placer cancelled all jobs when it stopped,
+     * so steps that were still being recorded are dropped.
+     */
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        for (ConstructSession session : SESSIONS.values()) {
+            session.close();
+        }
+        for (ConstructSession session : CLOSING_SESSIONS.values()) {
+            session.close();
+        }
+        SESSIONS.clear();
+        CLOSING_SESSIONS.clear();
+    }
+}
@@ -0,0 +1,494 @@
+/*
+ * Copyright 2025 LuckyMcDev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.luckymcdev.groovyengine.construct.server;
+
+import io.github.luckymcdev.groovyengine.GE;
+import io.github.luckymcdev.groovyengine.construct.core.clipboard.Clipboard;
+import io.github.luckymcdev.groovyengine.construct.core.clipboard.ClipboardFormat;
+import io.github.luckymcdev.groovyengine.construct.core.edit.EditSession;
+import io.github.luckymcdev.groovyengine.construct.core.history.HistoryManager;
+import io.github.luckymcdev.groovyengine.construct.core.mask.BlockMask;
+import io.github.luckymcdev.groovyengine.construct.core.mask.MaskDescriptor;
+import io.github.luckymcdev.groovyengine.construct.core.operation.ConstructOperation;
+import io.github.luckymcdev.groovyengine.construct.core.pattern.BlockPattern;
+import io.github.luckymcdev.groovyengine.construct.core.placement.AsyncBlockPlacer;
+import io.github.luckymcdev.groovyengine.construct.core.placement.PlacementJob;
+import io.github.luckymcdev.groovyengine.construct.core.region.CuboidRegion;
+import io.github.luckymcdev.groovyengine.construct.core.region.FloodFill;
+import io.github.luckymcdev.groovyengine.construct.core.region.Region;
+import io.github.luckymcdev.groovyengine.construct.core.schematic.SchematicImporter;
+import io.github.luckymcdev.groovyengine.construct.network.ClipboardPayload;
+import io.github.luckymcdev.groovyengine.construct.network.HistoryRequestPayload;
+import io.github.luckymcdev.groovyengine.construct.network.ImportPayload;
+import io.github.luckymcdev.groovyengine.construct.network.JobControlPayload;
+import io.github.luckymcdev.groovyengine.construct.network.StagingPayload;
+import io.github.luckymcdev.groovyengine.construct.network.StatusPayload;
+import io.github.luckymcdev.groovyengine.core.config.Config;
+import net.minecraft.ChatFormatting;
+import net.minecraft.Util;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Vec3i;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.neoforged.neoforge.network.PacketDistributor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+/**
+ * The Construct state of one player on the server: their history, their clipboard, the operations they are
+ * staging and the last status they were sent. Actions that are rejected or fail are reported to the player in
+ * chat and in their status, so the editor can show why nothing happened. Only used on the server thread.
+ */
+class ConstructSession {
+    private final UUID playerId;
+    private final HistoryManager history;
+    private Clipboard clipboard;
+    // Copies, saves and loads in flight; the clipboard only takes one at a time
+    private boolean clipboardBusy;
+    // Operations are applied to the staged edit one after another in the background
+    private EditSession staging;
+    private CompletableFuture<Void> stagingChain = CompletableFuture.completedFuture(null);
+    private StatusPayload lastStatus;
+    // Why the player's last rejected or failed action did not run, shown in the editor until the next action
+    private String lastError = "";
+
+    ConstructSession(ServerPlayer player) {
+        this.playerId = player.getUUID();
+        this.history = new HistoryManager(player.getServer(), playerId);
+    }
+
+    /**
+     * Validates an operation and runs it in the player's level as one undo step, or adds it to the staged
+     * edit if the player is staging.
+     */
+    void execute(ServerPlayer player, ConstructOperation operation) {
+        lastError = "";
+        Region region;
+        BlockPattern pattern;
+        BlockMask mask;
+        try {
+            region = operation.validate(Config.CONSTRUCT_MAX_OPERATION_BLOCKS.get());
+            pattern = operation.pattern().create();
+            mask = operation.mask().map(MaskDescriptor::create).orElse(null);
+        } catch (IllegalArgumentException e) {
+            GE.CONSTRUCT_LOG.warn("Rejected {} operation of {}: {}", operation.type().getDisplayName(),
+                    player.getGameProfile().getName(), e.getMessage());
+            report(player.getServer(), operation.type().getDisplayName() + " rejected: " + e.getMessage());
+            return;
+        }
+
+        if (operation.type() == ConstructOperation.Type.FLOOD_FILL) {
+            floodFill(player, operation, pattern, mask);
+            return;
+        }
+        if (staging != null) {
+            stage(player, operation, region, pattern, mask);
+            return;
+        }
+
+        ServerLevel level = player.serverLevel();
+        AsyncBlockPlacer blockPlacer = AsyncBlockPlacer.getInstance();
+        String name = operation.type().getDisplayName();
+        if (!beginStep(player, blockPlacer, level, name)) return;
+        try {
+            if (operation.type() == ConstructOperation.Type.REPLACE) {
+                blockPlacer.replace(level, region, mask, operation.pattern().states().get(0));
+            } else {
+                blockPlacer.fill(level, name, region, pattern, operation.origin());
+            }
+        } finally {
+            history.endStep(blockPlacer);
+        }
+
+        GE.CONSTRUCT_LOG.info("{} started {} on {} blocks", player.getGameProfile().getName(), name, region.size());
+    }
+
+    /**
+     * Applies an operation to the staged edit once the operations staged before it are applied.
+     */
+    private void stage(ServerPlayer player, ConstructOperation operation, Region region, BlockPattern pattern, BlockMask mask) {
+        EditSession edit = staging;
+        String name = operation.type().getDisplayName();
+        if (!canStage(player, name)) return;
+
+        stagingChain = stagingChain.thenRunAsync(() -> {
+            if (operation.type() == ConstructOperation.Type.REPLACE) {
+                edit.replace(region, mask, operation.pattern().states().get(0));
+            } else {
+                edit.fill(region, pattern, operation.origin());
+            }
+        }, Util.backgroundExecutor());
+
+        GE.CONSTRUCT_LOG.info("{} staged {} on {} blocks", player.getGameProfile().getName(), name, region.size());
+    }
+
+    private boolean canStage(ServerPlayer player, String name) {
+        if (player.serverLevel() == staging.getLevel()) return true;
+
+        GE.CONSTRUCT_LOG.warn("Rejected {} operation of {}: the staged edit is in {}", name,
+                player.getGameProfile().getName(), staging.getLevel().dimension().location());
+        report(player.getServer(), name + " rejected: the staged edit is in " + staging.getLevel().dimension().location());
+        return false;
+    }
+
+    /**
+     * Finds the blocks a flood fill reaches in the background, then fills them as one undo step, or stages
+     * the fill if the player is staging. Staged flood fills spread through the level as it is, not through
+     * the blocks staged before them.
+     */
+    private void floodFill(ServerPlayer player, ConstructOperation operation, BlockPattern pattern, BlockMask mask) {
+        ServerLevel level = player.serverLevel();
+        String playerName = player.getGameProfile().getName();
+        String name = operation.type().getDisplayName();
+        FloodFill.Connectivity connectivity = FloodFill.Connectivity.of(operation.size());
+        long maxBlocks = Config.CONSTRUCT_MAX_OPERATION_BLOCKS.get();
+
+        if (staging != null) {
+            if (!canStage(player, name)) return;
+            EditSession edit = staging;
+            stagingChain = stagingChain.thenRunAsync(() -> edit.fill(FloodFill.fill(level, operation.pos1(), mask, connectivity, maxBlocks),
+                    pattern, operation.origin()), Util.backgroundExecutor());
+            GE.CONSTRUCT_LOG.info("{} staged {} from {}", playerName, name, operation.pos1().toShortString());
+            return;
+        }
+
+        CompletableFuture.supplyAsync(() -> FloodFill.fill(level, operation.pos1(), mask, connectivity, maxBlocks), Util.backgroundExecutor())
+                .whenCompleteAsync((region, failure) -> {
+                    if (failure != null) {
+                        GE.CONSTRUCT_LOG.warn("Rejected {} operation of {}: {}", name, playerName, failure.getCause().getMessage());
+                        report(player.getServer(), name + " rejected: " + failure.getCause().getMessage());
+                        return;
+                    }
+                    if (region.isEmpty()) return;
+
+                    AsyncBlockPlacer blockPlacer = AsyncBlockPlacer.getInstance();
+                    if (!beginStep(player, blockPlacer, level, name)) return;
+                    try {
+                        blockPlacer.fill(level, name, region, pattern, operation.origin());
+                    } finally {
+                        history.endStep(blockPlacer);
+                    }
+                    GE.CONSTRUCT_LOG.info("{} started {} on {} blocks", playerName, name, region.size());
+                }, player.getServer());
+    }
+
+    /**
+     * Starts staging operations, or commits or discards the staged edit. A commit writes the staged blocks as
+     * one job and one undo step once every staged operation is applied; if one of them failed, nothing is written.
+     */
+    void handleStaging(ServerPlayer player, StagingPayload.Action action) {
+        switch (action) {
+            case BEGIN -> {
+                if (staging == null) staging = new EditSession(player.serverLevel());
+            }
+            case COMMIT -> {
+                if (staging == null) return;
+                lastError = "";
+                MinecraftServer server = player.getServer();
+                EditSession edit = staging;
+                CompletableFuture<Void> chain = stagingChain;
+                AsyncBlockPlacer blockPlacer = AsyncBlockPlacer.getInstance();
+                // Keeps staging so the edit can be committed once its history is available
+                if (!beginStep(player, blockPlacer, edit.getLevel(), "Staged Edit")) return;
+                endStaging();
+
+                try {
+                    blockPlacer.submit(edit.getLevel(), "Staged Edit", sink -> {
+                        try {
+                            chain.join();
+                        } catch (CompletionException e) {
+                            GE.CONSTRUCT_LOG.error("A staged operation failed, nothing was written", e.getCause());
+                            server.execute(() -> report(server, "Staged edit not written, an operation failed: " + e.getCause().getMessage()));
+                            edit.rollback();
+                            return;
+                        }
+                        edit.writeTo(sink, true);
+                    });
+                } finally {
+                    history.endStep(blockPlacer);
+                }
+
+                GE.CONSTRUCT_LOG.info("{} committed a staged edit", player.getGameProfile().getName());
+            }
+            case ROLLBACK -> rollbackStaging();
+        }
+    }
+
+    private void rollbackStaging() {
+        if (staging == null) return;
+        EditSession edit = staging;
+        // Staged operations still running would write into the discarded overlay
+        stagingChain.whenComplete((result, failure) -> edit.rollback());
+        endStaging();
+    }
+
+    private void endStaging() {
+        staging = null;
+        stagingChain = CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Controls one of the player's jobs. Jobs of other players are left alone.
+     */
+    void controlJob(JobControlPayload payload) {
+        AsyncBlockPlacer blockPlacer = AsyncBlockPlacer.getInstance();
+        if (payload.action() == JobControlPayload.Action.CANCEL_ALL) {
+            for (PlacementJob job : getJobs(blockPlacer)) {
+                job.cancel();
+            }
+            return;
+        }
+
+        PlacementJob job = blockPlacer.getJob(payload.jobId());
+        if (job == null || !playerId.equals(job.getOwner())) return;
+
+        switch (payload.action()) {
+            case PAUSE -> job.pause();
+            case RESUME -> job.resume();
+            case CANCEL -> job.cancel();
+            case SET_PRIORITY -> job.setPriority(payload.priority());
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * Works with the player's history in the level they are in.
+     */
+    void handleHistory(ServerPlayer player, HistoryRequestPayload.Action action) {
+        ServerLevel level = player.serverLevel();
+        switch (action) {
+            case UNDO -> history.undo(AsyncBlockPlacer.getInstance(), level);
+            case REDO -> history.redo(AsyncBlockPlacer.getInstance(), level);
+            case CLEAR -> history.clearHistory(level);
+        }
+    }
+
+    /**
+     * Works with the player's clipboard. Copying reads the level in the background and saving and loading
+     * run on the IO pool; the clipboard takes no other action until they finish.
+     */
+    void handleClipboard(ServerPlayer player, ClipboardPayload payload) {
+        String playerName = player.getGameProfile().getName();
+        if (clipboardBusy) {
+            GE.CONSTRUCT_LOG.warn("Ignored clipboard {} of {}, the clipboard is busy", payload.action(), playerName);
+            report(player.getServer(), "Clipboard is busy, try again once it is done");
+            return;
+        }
+        lastError = "";
+
+        long maxBlocks = Config.CONSTRUCT_MAX_OPERATION_BLOCKS.get();
+        try {
+            switch (payload.action()) {
+                case COPY -> {
+                    ConstructOperation.validateCuboid(payload.pos1(), payload.pos2(), maxBlocks);
+                    run(player.getServer(), Clipboard.copy(player.serverLevel(), payload.pos1(), payload.pos2(), payload.pos1()), "Copied");
+                }
+                case PASTE -> paste(player, payload.pos1(), payload.skipAir(), maxBlocks);
+                case ROTATE -> {
+                    if (clipboard != null) clipboard = clipboard.rotate(payload.rotation());
+                }
+                case FLIP -> {
+                    if (clipboard != null) clipboard = clipboard.flip(payload.mirror());
+                }
+                case SAVE -> {
+                    if (clipboard == null) return;
+                    Clipboard saved = clipboard;
+                    Path file = ClipboardFormat.resolve(payload.name());
+                    run(player.getServer(), CompletableFuture.supplyAsync(() -> {
+                        try {
+                            ClipboardFormat.write(saved, file);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        return saved;
+                    }, Util.ioPool()), "Saved " + file.getFileName() + ":");
+                }
+                case LOAD -> {
+                    Path file = ClipboardFormat.resolve(payload.name());
+                    run(player.getServer(), CompletableFuture.supplyAsync(() -> {
+                        try {
+                            return ClipboardFormat.read(file);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }, Util.ioPool()), "Loaded " + file.getFileName() + ":");
+                }
+                case CLEAR -> clipboard = null;
+            }
+        } catch (IllegalArgumentException e) {
+            GE.CONSTRUCT_LOG.warn("Rejected clipboard {} of {}: {}", payload.action(), playerName, e.getMessage());
+            report(player.getServer(), "Clipboard " + payload.action() + " rejected: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Marks the clipboard busy until a background task finishes, then makes its result the clipboard.
+     */
+    private void run(MinecraftServer server, CompletableFuture<Clipboard> task, String message) {
+        clipboardBusy = true;
+        task.whenCompleteAsync((result, failure) -> {
+            clipboardBusy = false;
+            if (failure != null) {
+                GE.CONSTRUCT_LOG.error("Clipboard task failed", failure);
+                Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+                report(server, "Clipboard task failed: " + cause.getMessage());
+                return;
+            }
+            clipboard = result;
+            Vec3i size = result.getSize();
+            GE.CONSTRUCT_LOG.info("{} {}x{}x{} blocks with {} states and {} block entities", message,
+                    size.getX(), size.getY(), size.getZ(), result.getPalette().size(), result.getBlockEntities().size());
+        }, server);
+    }
+
+    /**
+     * Pastes the clipboard with its origin at a position, as one undo step.
+     */
+    private void paste(ServerPlayer player, BlockPos at, boolean skipAir, long maxBlocks) {
+        if (clipboard == null) return;
+
+        CuboidRegion region = clipboard.getPasteRegion(at);
+        ConstructOperation.validateCuboid(region.getMinPos(), region.getMaxPos(), maxBlocks);
+
+        ServerLevel level = player.serverLevel();
+        AsyncBlockPlacer blockPlacer = AsyncBlockPlacer.getInstance();
+        if (!beginStep(player, blockPlacer, level, "Paste")) return;
+        try {
+            blockPlacer.paste(level, clipboard, at, skipAir);
+        } finally {
+            history.endStep(blockPlacer);
+        }
+
+        GE.CONSTRUCT_LOG.info("{} started Paste on {} blocks", player.getGameProfile().getName(), region.size());
+    }
+
+    /**
+     * Imports a schematic from the schematics folder into the player's level, as one undo step.
+     */
+    void importSchematic(ServerPlayer player, ImportPayload payload) {
+        lastError = "";
+        MinecraftServer server = player.getServer();
+        Path file;
+        try {
+            ConstructOperation.validateCuboid(payload.at(), payload.at(), 1);
+            file = SchematicImporter.resolve(payload.name());
+        } catch (IllegalArgumentException e) {
+            GE.CONSTRUCT_LOG.warn("Rejected import of {}: {}", player.getGameProfile().getName(), e.getMessage());
+            report(server, "Import rejected: " + e.getMessage());
+            return;
+        }
+
+        ServerLevel level = player.serverLevel();
+        AsyncBlockPlacer blockPlacer = AsyncBlockPlacer.getInstance();
+        String name = "Import " + file.getFileName();
+        if (!beginStep(player, blockPlacer, level, name)) return;
+        try {
+            Consumer<String> onFailure = message -> server.execute(() -> report(server, "Import failed: " + message));
+            blockPlacer.submit(level, name, SchematicImporter.createTask(file, payload.at(), payload.skipAir(),
+                    Config.CONSTRUCT_MAX_OPERATION_BLOCKS.get(), onFailure));
+        } finally {
+            history.endStep(blockPlacer);
+        }
+
+        GE.CONSTRUCT_LOG.info("{} started {}", player.getGameProfile().getName(), name);
+    }
+
+    /**
+     * Sends the player their status if it changed since the last one they were sent.
+     */
+    void sendStatus(ServerPlayer player) {
+        if (!player.connection.hasChannel(StatusPayload.TYPE)) return;
+
+        AsyncBlockPlacer blockPlacer = AsyncBlockPlacer.getInstance();
+        List<StatusPayload.JobStatus> jobs = new ArrayList<>();
+        for (PlacementJob job : getJobs(blockPlacer)) {
+            if (jobs.size() == StatusPayload.MAX_JOBS) break;
+            jobs.add(StatusPayload.JobStatus.of(job));
+        }
+
+        ServerLevel level = player.serverLevel();
+        StatusPayload.HistoryStatus historyStatus = new StatusPayload.HistoryStatus(history.getHistorySize(level),
+                history.getHistoryBytes(level), history.canUndo(level), history.canRedo(level), history.isBusy());
+        Vec3i size = clipboard != null ? clipboard.getSize() : Vec3i.ZERO;
+        StatusPayload.ClipboardStatus clipboardStatus = new StatusPayload.ClipboardStatus(clipboard != null,
+                size.getX(), size.getY(), size.getZ(), clipboardBusy);
+        StatusPayload.StagingStatus stagingStatus = staging != null
+                ? new StatusPayload.StagingStatus(true, staging.getChangedBlocks(), !stagingChain.isDone())
+                : StatusPayload.StagingStatus.EMPTY;
+        StatusPayload status = new StatusPayload(jobs, historyStatus, clipboardStatus, stagingStatus,
+                StatusPayload.EngineStats.of(blockPlacer), lastError);
+
+        if (status.equals(lastStatus)) return;
+        lastStatus = status;
+        PacketDistributor.sendToPlayer(player, status);
+    }
+
+    /**
+     * Starts an undo step for an operation, or rejects the operation if it could not be undone.
+     */
+    private boolean beginStep(ServerPlayer player, AsyncBlockPlacer blockPlacer, ServerLevel level, String name) {
+        if (history.beginStep(blockPlacer, level, name)) return true;
+
+        String reason = history.isBusy()
+                ? "the history is still saving steps from another dimension, try again once they are done"
+                : "the history of " + level.dimension().location() + " could not be opened";
+        GE.CONSTRUCT_LOG.warn("Rejected {} operation of {}: {}", name, player.getGameProfile().getName(), reason);
+        report(player.getServer(), name + " rejected: " + reason);
+        return false;
+    }
+
+    /**
+     * Tells the player why an action was rejected or failed, in chat and in their next status. The player
+     * may have left by the time a background task fails; the message is then only kept for their status.
+     */
+    private void report(MinecraftServer server, String message) {
+        lastError = message;
+        ServerPlayer player = server.getPlayerList().getPlayer(playerId);
+        if (player != null) player.sendSystemMessage(Component.literal("[Construct] " + message).withStyle(ChatFormatting.RED));
+    }
+
+    private List<PlacementJob> getJobs(AsyncBlockPlacer blockPlacer) {
+        List<PlacementJob> jobs = new ArrayList<>();
+        for (PlacementJob job : blockPlacer.getJobs()) {
+            if (playerId.equals(job.getOwner())) jobs.add(job);
+        }
+        return jobs;
+    }
+
+    /**
+     * Checks if the player's history still has steps being recorded.
+     */
+    boolean isBusy() {
+        return history.isBusy();
+    }
+
+    void close() {
+        rollbackStaging();
+        history.close();
+    }
+}
@@ -27,5 +27,22 @@ public class Config {
             BUILDER.comment("Enable developer mode for GroovyEngine. Disables ImGui dev editor when false.")
                     .define("general.inDev", true);
 
+    public static final ModConfigSpec.IntValue CONSTRUCT_TICK_BUDGET_MS =
+            BUILDER.comment("Milliseconds of each server tick that Construct may spend placing queued blocks.")
+                    .defineInRange("construct.tickBudgetMs", 10, 1, 45);
+
+    public static final ModConfigSpec.IntValue CONSTRUCT_HISTORY_DISK_MB =
+            BUILDER.comment("Megabytes of disk space the Construct undo and redo history of one player in one dimension may use.",
+                            "Every player has this budget in each dimension they edit, so a world can hold it once per player and dimension.")
+                    .defineInRange("construct.historyDiskMb", 512, 64, 1024 * 1024);
+
+    public static final ModConfigSpec.BooleanValue CONSTRUCT_DEFER_LIGHTING =
+            BUILDER.comment("Defer light updates of Construct placements until the queued job is done, instead of checking light every tick.")
+                    .define("construct.deferLighting", true);
+
+    public static final ModConfigSpec.LongValue CONSTRUCT_MAX_OPERATION_BLOCKS =
+            BUILDER.comment("Largest number of blocks a single Construct operation sent by a player may cover.")
+                    .defineInRange("construct.maxOperationBlocks", 100_000_000L, 1L, Long.MAX_VALUE);
+
     public static final ModConfigSpec SPEC = BUILDER.build();
 }